@@ -422,10 +422,25 @@ public class DSpaceCSV implements Serializable {
      * @throws Exception if something goes wrong with adding the Item
      */
     public final void addItem(Item i) throws Exception {
+        DSpaceCSVLine line = createLine(i);
+        if (line != null) {
+            lines.add(line);
+            counter++;
+        }
+    }
+
+    /**
+     * Create the CSV line of an item, and add its metadata keys to the headings.
+     *
+     * @param i the item
+     * @return the CSV line, or null if the item has no owning collection
+     * @throws Exception if error
+     */
+    protected final DSpaceCSVLine createLine(Item i) throws Exception {
         // If the item does not have an "owningCollection" the the below "getHandle()" call will fail
         // This should not happen but is here for safety.
         if (i.getOwningCollection() == null) {
-            return;
+            return null;
         }
 
         // Create the CSV line
@@ -477,8 +492,7 @@ public class DSpaceCSV implements Serializable {
                 }
             }
         }
-        lines.add(line);
-        counter++;
+        return line;
     }
 
     /**
@@ -606,12 +620,8 @@ public class DSpaceCSV implements Serializable {
     public final String[] getCSVLinesAsStringArray() {
         // Create the headings line
         String[] csvLines = new String[counter + 1];
-        csvLines[0] = "id" + fieldSeparator + "collection";
-        List<String> headingsCopy = new ArrayList<>(headings);
-        Collections.sort(headingsCopy);
-        for (String value : headingsCopy) {
-            csvLines[0] = csvLines[0] + fieldSeparator + value;
-        }
+        List<String> headingsCopy = getSortedHeadings();
+        csvLines[0] = getHeadingLine(headingsCopy);
 
         Iterator<DSpaceCSVLine> i = lines.iterator();
         int c = 1;
@@ -622,6 +632,27 @@ public class DSpaceCSV implements Serializable {
         return csvLines;
     }
 
+    /**
+     * @return a sorted copy of the headings, in the order of the CSV columns
+     */
+    protected final List<String> getSortedHeadings() {
+        List<String> headingsCopy = new ArrayList<>(headings);
+        Collections.sort(headingsCopy);
+        return headingsCopy;
+    }
+
+    /**
+     * @param sortedHeadings the headings, as returned by {@link #getSortedHeadings()}
+     * @return the first line of the CSV file
+     */
+    protected final String getHeadingLine(List<String> sortedHeadings) {
+        StringBuilder headingLine = new StringBuilder("id").append(fieldSeparator).append("collection");
+        for (String value : sortedHeadings) {
+            headingLine.append(fieldSeparator).append(value);
+        }
+        return headingLine.toString();
+    }
+
     /**
      * Creates and returns an InputStream from the CSV Lines in this DSpaceCSV
      * @return  The InputStream created from the CSVLines in this DSpaceCSV
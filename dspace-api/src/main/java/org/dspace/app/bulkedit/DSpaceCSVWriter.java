@@ -0,0 +1,168 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.bulkedit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import org.dspace.content.Item;
+
+/**
+ * Writes items as a CSV file in the format of {@link DSpaceCSV}, without keeping them in memory.
+ * <p>
+ * The columns of the CSV file are only known once all items have been seen, so the lines are first spooled to a
+ * temporary file while the headings are collected. {@link #write(OutputStream)} then writes the CSV file from the
+ * spool file. Only the headings are held in memory, whatever the number of items.
+ *
+ * @see DSpaceCSV
+ */
+public class DSpaceCSVWriter implements Closeable {
+
+    /**
+     * Holds the export settings and collects the headings, the lines aren't added to it
+     */
+    private final DSpaceCSV csv;
+
+    private final File spoolFile;
+
+    private DataOutputStream spool;
+
+    private int count = 0;
+
+    /**
+     * Create a new writer, with an empty spool file
+     *
+     * @param exportAll whether all metadata is exported or only the one not ignored on export
+     * @throws IOException if the spool file can't be created
+     */
+    public DSpaceCSVWriter(boolean exportAll) throws IOException {
+        csv = new DSpaceCSV(exportAll);
+        spoolFile = File.createTempFile("dspace-csv", ".spool");
+        spool = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spoolFile)));
+    }
+
+    /**
+     * Add the line of an item to the CSV file
+     *
+     * @param item the item
+     * @throws Exception if error
+     */
+    public void addItem(Item item) throws Exception {
+        DSpaceCSVLine line = csv.createLine(item);
+        if (line == null) {
+            return;
+        }
+        UUID id = line.getID();
+        spool.writeLong(id.getMostSignificantBits());
+        spool.writeLong(id.getLeastSignificantBits());
+        spool.writeInt(line.keys().size());
+        for (String key : line.keys()) {
+            List<String> values = line.get(key);
+            writeString(key);
+            spool.writeInt(values.size());
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+        count++;
+    }
+
+    /**
+     * @return the number of lines added, without the headings line
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Write the CSV file. No item can be added afterwards.
+     *
+     * @param output the stream to write to, which is flushed but left open
+     * @throws IOException if the CSV file can't be written
+     */
+    public void write(OutputStream output) throws IOException {
+        if (spool != null) {
+            spool.close();
+            spool = null;
+        }
+        List<String> headings = csv.getSortedHeadings();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(csv.getHeadingLine(headings));
+        writer.write("\n");
+        try (DataInputStream lines = new DataInputStream(new BufferedInputStream(new FileInputStream(spoolFile)))) {
+            for (int i = 0; i < count; i++) {
+                writer.write(readLine(lines).toCSV(headings, csv.fieldSeparator, csv.valueSeparator));
+                writer.write("\n");
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Remove the spool file
+     */
+    @Override
+    public void close() throws IOException {
+        if (spool != null) {
+            spool.close();
+            spool = null;
+        }
+        if (spoolFile.exists() && !spoolFile.delete()) {
+            throw new IOException("Unable to delete " + spoolFile.getAbsolutePath());
+        }
+    }
+
+    private DSpaceCSVLine readLine(DataInputStream lines) throws IOException {
+        DSpaceCSVLine line = new DSpaceCSVLine(new UUID(lines.readLong(), lines.readLong()));
+        int keys = lines.readInt();
+        for (int k = 0; k < keys; k++) {
+            String key = readString(lines);
+            // registers the key even if it has no value, as DSpaceCSV does
+            line.add(key, null);
+            int values = lines.readInt();
+            for (int v = 0; v < values; v++) {
+                line.add(key, readString(lines));
+            }
+        }
+        return line;
+    }
+
+    /**
+     * Strings are written as their length and UTF-8 bytes, as DataOutputStream.writeUTF is limited to 64 KB
+     */
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        spool.writeInt(bytes.length);
+        spool.write(bytes);
+    }
+
+    private String readString(DataInputStream lines) throws IOException {
+        int length = lines.readInt();
+        if (length < 0) {
+            throw new EOFException("Corrupted spool file " + spoolFile.getAbsolutePath());
+        }
+        byte[] bytes = new byte[length];
+        lines.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
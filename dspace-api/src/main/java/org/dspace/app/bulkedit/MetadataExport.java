@@ -7,6 +7,12 @@
  */
 package org.dspace.app.bulkedit;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.SQLException;
 
 import org.apache.commons.cli.ParseException;
@@ -56,10 +62,20 @@ public class MetadataExport extends DSpaceRunnable<MetadataExportScriptConfigura
         } catch (SQLException e) {
             handler.handleException(e);
         }
-        DSpaceCSV dSpaceCSV = metadataDSpaceCsvExportService
-            .handleExport(context, exportAllItems, exportAllMetadata, handle,
-                          handler);
-        handler.writeFilestream(context, filename, dSpaceCSV.getInputStream(), EXPORT_CSV);
+        // The CSV is written to a temporary file, as the items may not fit in memory
+        File csvFile = File.createTempFile("metadata-export", ".csv");
+        try {
+            try (OutputStream output = new BufferedOutputStream(new FileOutputStream(csvFile))) {
+                metadataDSpaceCsvExportService
+                    .handleExport(context, exportAllItems, exportAllMetadata, handle,
+                                  handler, output);
+            }
+            try (InputStream input = new FileInputStream(csvFile)) {
+                handler.writeFilestream(context, filename, input, EXPORT_CSV);
+            }
+        } finally {
+            csvFile.delete();
+        }
         context.restoreAuthSystemState();
         context.complete();
     }
@@ -134,6 +134,11 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
      */
     protected Integer rowCount = 1;
 
+    /**
+     * Number of rows whose target items are loaded at once when no commit batch size is configured
+     */
+    protected static final int DEFAULT_PREFETCH_SIZE = 100;
+
     private boolean useTemplate = false;
     private String filename = null;
     private boolean useWorkflow = false;
@@ -340,7 +345,9 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
      * @param useWorkflow    Whether the workflows should be used when creating new items
      * @param workflowNotify If the workflows should be used, whether to send notifications or not
      * @param useTemplate    Use collection template if create new item
-     * @return An array of BulkEditChange elements representing the items that have changed
+     * @return An array of BulkEditChange elements representing the items that have changed. When the changes are
+     *         committed in batches (bulkedit.commit-batch-size), the changes of each committed batch are displayed
+     *         before the commit and only the changes of the last batch are returned.
      * @throws MetadataImportException  if something goes wrong
      */
     public List<BulkEditChange> runImport(Context c, boolean change,
@@ -355,9 +362,19 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         Context.Mode originalMode = c.getCurrentMode();
         c.setMode(Context.Mode.BATCH_EDIT);
 
+        // Commit batches bound the memory used and the number of events dispatched by each commit
+        int commitBatchSize = change ? configurationService.getIntProperty("bulkedit.commit-batch-size", 0) : 0;
+        int prefetchSize = commitBatchSize > 0 ? commitBatchSize : DEFAULT_PREFETCH_SIZE;
+        long start = System.currentTimeMillis();
+
         // Process each change
         rowCount = 1;
         for (DSpaceCSVLine line : toImport) {
+            if ((rowCount - 1) % prefetchSize == 0) {
+                // Load the existing items of the next rows at once, rather than one query per row
+                prefetchItems(c, toImport.subList(rowCount - 1, Math.min(rowCount - 1 + prefetchSize,
+                                                                          toImport.size())));
+            }
             // Resolve target references to other items
             populateRefAndRowMap(line, line.getID());
             line = resolveEntityRefs(c, line);
@@ -606,6 +623,17 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
             populateRefAndRowMap(line, item == null ? null : item.getID());
             // keep track of current rows processed
             rowCount++;
+
+            int processed = rowCount - 1;
+            if (commitBatchSize > 0 && processed % commitBatchSize == 0) {
+                // The changes are displayed before the commit detaches the items they refer to
+                displayChanges(changes, true);
+                changes.clear();
+                c.commit();
+            }
+            if (processed % prefetchSize == 0 || processed == toImport.size()) {
+                logProgress(processed, start);
+            }
         }
 
         c.setMode(originalMode);
@@ -618,6 +646,35 @@ public class MetadataImport extends DSpaceRunnable<MetadataImportScriptConfigura
         return changes;
     }
 
+    /**
+     * Load the existing items of the given lines into the context, with their metadata, using a single query.
+     *
+     * @param c     The relevant DSpace context
+     * @param lines The CSV lines about to be processed
+     * @throws SQLException if database error
+     */
+    protected void prefetchItems(Context c, List<DSpaceCSVLine> lines) throws SQLException {
+        List<UUID> ids = new ArrayList<>(lines.size());
+        for (DSpaceCSVLine line : lines) {
+            if (line.getID() != null) {
+                ids.add(line.getID());
+            }
+        }
+        itemService.findByIds(c, ids);
+    }
+
+    /**
+     * Report the number of rows processed so far, and the throughput
+     *
+     * @param processed The number of rows processed
+     * @param start     The time the import started, in milliseconds
+     */
+    private void logProgress(int processed, long start) {
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        handler.logInfo(String.format("Processed %d of %d rows (%.1f rows/s)", processed, toImport.size(),
+                                      processed * 1000.0 / elapsed));
+    }
+
     /**
      * Compare an item metadata with a line from CSV, and optionally update the item.
      *
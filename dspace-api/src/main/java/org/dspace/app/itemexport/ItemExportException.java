@@ -12,6 +12,7 @@ package org.dspace.app.itemexport;
  */
 public class ItemExportException extends Exception {
     public static final int EXPORT_TOO_LARGE = 0;
+    public static final int EXPORT_QUEUE_FULL = 1;
 
     private int reason;
 
@@ -8,6 +8,7 @@
 package org.dspace.app.itemexport;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -15,7 +16,9 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -26,8 +29,17 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import javax.mail.MessagingException;
@@ -57,6 +69,7 @@ import org.dspace.eperson.EPerson;
 import org.dspace.eperson.service.EPersonService;
 import org.dspace.handle.service.HandleService;
 import org.dspace.services.ConfigurationService;
+import org.dspace.util.IncompressibleMimeTypes;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -102,6 +115,8 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     private final Logger log = org.apache.logging.log4j.LogManager.getLogger(ItemExportServiceImpl.class);
 
+    private ThreadPoolExecutor exportExecutor;
+
     protected ItemExportServiceImpl() {
 
     }
@@ -191,15 +206,34 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     protected void writeMetadata(Context c, Item i, File destDir, boolean migrate)
         throws Exception {
+        // Save each of the schemas into it's own metadata file
+        for (String schema : getMetadataSchemas(i)) {
+            writeMetadata(c, schema, i, destDir, migrate);
+        }
+    }
+
+    /**
+     * @param i DSpace Item
+     * @return the names of the schemas of the item's metadata
+     */
+    protected Set<String> getMetadataSchemas(Item i) {
         Set<String> schemas = new HashSet<String>();
         List<MetadataValue> dcValues = itemService.getMetadata(i, Item.ANY, Item.ANY, Item.ANY, Item.ANY);
         for (MetadataValue metadataValue : dcValues) {
             schemas.add(metadataValue.getMetadataField().getMetadataSchema().getName());
         }
+        return schemas;
+    }
 
-        // Save each of the schemas into it's own metadata file
-        for (String schema : schemas) {
-            writeMetadata(c, schema, i, destDir, migrate);
+    /**
+     * @param schema schema
+     * @return the name of the metadata file of the schema
+     */
+    protected String getMetadataFileName(String schema) {
+        if (schema.equals(MetadataSchemaEnum.DC.getName())) {
+            return "dublin_core.xml";
+        } else {
+            return "metadata_" + schema + ".xml";
         }
     }
 
@@ -215,101 +249,107 @@ public class ItemExportServiceImpl implements ItemExportService {
      */
     protected void writeMetadata(Context c, String schema, Item i,
                                  File destDir, boolean migrate) throws Exception {
-        String filename;
-        if (schema.equals(MetadataSchemaEnum.DC.getName())) {
-            filename = "dublin_core.xml";
-        } else {
-            filename = "metadata_" + schema + ".xml";
-        }
-
-        File outFile = new File(destDir, filename);
+        File outFile = new File(destDir, getMetadataFileName(schema));
 
         System.out.println("Attempting to create file " + outFile);
 
         if (outFile.createNewFile()) {
             BufferedOutputStream out = new BufferedOutputStream(
                 new FileOutputStream(outFile));
+            writeMetadata(c, schema, i, out, migrate);
+            out.close();
+        } else {
+            throw new Exception("Cannot create dublin_core.xml in " + destDir);
+        }
+    }
 
-            List<MetadataValue> dcorevalues = itemService.getMetadata(i, schema, Item.ANY, Item.ANY,
-                                                                      Item.ANY);
+    /**
+     * output the item's metadata of one schema as a dublin_core document
+     *
+     * @param c       DSpace context
+     * @param schema  schema
+     * @param i       DSpace Item
+     * @param out     the stream to write to, which is left open
+     * @param migrate Whether to use the migrate option or not
+     * @throws Exception if error
+     */
+    protected void writeMetadata(Context c, String schema, Item i,
+                                 OutputStream out, boolean migrate) throws Exception {
+        List<MetadataValue> dcorevalues = itemService.getMetadata(i, schema, Item.ANY, Item.ANY,
+                                                                  Item.ANY);
 
-            // XML preamble
-            byte[] utf8 = "<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n"
-                .getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+        // XML preamble
+        byte[] utf8 = "<?xml version=\"1.0\" encoding=\"utf-8\" standalone=\"no\"?>\n"
+            .getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
 
-            String dcTag = "<dublin_core schema=\"" + schema + "\">\n";
-            utf8 = dcTag.getBytes("UTF-8");
-            out.write(utf8, 0, utf8.length);
+        String dcTag = "<dublin_core schema=\"" + schema + "\">\n";
+        utf8 = dcTag.getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
 
-            String dateIssued = null;
-            String dateAccessioned = null;
+        String dateIssued = null;
+        String dateAccessioned = null;
 
-            for (MetadataValue dcv : dcorevalues) {
-                MetadataField metadataField = dcv.getMetadataField();
-                String qualifier = metadataField.getQualifier();
+        for (MetadataValue dcv : dcorevalues) {
+            MetadataField metadataField = dcv.getMetadataField();
+            String qualifier = metadataField.getQualifier();
 
-                if (qualifier == null) {
-                    qualifier = "none";
-                }
+            if (qualifier == null) {
+                qualifier = "none";
+            }
 
-                String language = dcv.getLanguage();
+            String language = dcv.getLanguage();
 
-                if (language != null) {
-                    language = " language=\"" + language + "\"";
-                } else {
-                    language = "";
-                }
+            if (language != null) {
+                language = " language=\"" + language + "\"";
+            } else {
+                language = "";
+            }
 
-                utf8 = ("  <dcvalue element=\"" + metadataField.getElement() + "\" "
-                    + "qualifier=\"" + qualifier + "\""
-                    + language + ">"
-                    + Utils.addEntities(dcv.getValue()) + "</dcvalue>\n")
-                    .getBytes("UTF-8");
-
-                if ((!migrate) ||
-                    (migrate && !(
-                        ("date".equals(metadataField.getElement()) && "issued".equals(qualifier)) ||
-                            ("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier)) ||
-                            ("date".equals(metadataField.getElement()) && "available".equals(qualifier)) ||
-                            ("identifier".equals(metadataField.getElement()) && "uri".equals(qualifier) &&
-                                (dcv.getValue() != null && dcv.getValue().startsWith(
-                                    handleService.getCanonicalPrefix() + handleService.getPrefix() + "/"))) ||
-                            ("description".equals(metadataField.getElement()) && "provenance".equals(qualifier)) ||
-                            ("format".equals(metadataField.getElement()) && "extent".equals(qualifier)) ||
-                            ("format".equals(metadataField.getElement()) && "mimetype".equals(qualifier))))) {
-                    out.write(utf8, 0, utf8.length);
-                }
+            utf8 = ("  <dcvalue element=\"" + metadataField.getElement() + "\" "
+                + "qualifier=\"" + qualifier + "\""
+                + language + ">"
+                + Utils.addEntities(dcv.getValue()) + "</dcvalue>\n")
+                .getBytes("UTF-8");
 
-                // Store the date issued and accession to see if they are different
-                // because we need to keep date.issued if they are, when migrating
-                if (("date".equals(metadataField.getElement()) && "issued".equals(qualifier))) {
-                    dateIssued = dcv.getValue();
-                }
-                if (("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier))) {
-                    dateAccessioned = dcv.getValue();
-                }
+            if ((!migrate) ||
+                (migrate && !(
+                    ("date".equals(metadataField.getElement()) && "issued".equals(qualifier)) ||
+                        ("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier)) ||
+                        ("date".equals(metadataField.getElement()) && "available".equals(qualifier)) ||
+                        ("identifier".equals(metadataField.getElement()) && "uri".equals(qualifier) &&
+                            (dcv.getValue() != null && dcv.getValue().startsWith(
+                                handleService.getCanonicalPrefix() + handleService.getPrefix() + "/"))) ||
+                        ("description".equals(metadataField.getElement()) && "provenance".equals(qualifier)) ||
+                        ("format".equals(metadataField.getElement()) && "extent".equals(qualifier)) ||
+                        ("format".equals(metadataField.getElement()) && "mimetype".equals(qualifier))))) {
+                out.write(utf8, 0, utf8.length);
             }
 
-            // When migrating, only keep date.issued if it is different to date.accessioned
-            if ((migrate) &&
-                (dateIssued != null) &&
-                (dateAccessioned != null) &&
-                (!dateIssued.equals(dateAccessioned))) {
-                utf8 = ("  <dcvalue element=\"date\" "
-                    + "qualifier=\"issued\">"
-                    + Utils.addEntities(dateIssued) + "</dcvalue>\n")
-                    .getBytes("UTF-8");
-                out.write(utf8, 0, utf8.length);
+            // Store the date issued and accession to see if they are different
+            // because we need to keep date.issued if they are, when migrating
+            if (("date".equals(metadataField.getElement()) && "issued".equals(qualifier))) {
+                dateIssued = dcv.getValue();
+            }
+            if (("date".equals(metadataField.getElement()) && "accessioned".equals(qualifier))) {
+                dateAccessioned = dcv.getValue();
             }
+        }
 
-            utf8 = "</dublin_core>\n".getBytes("UTF-8");
+        // When migrating, only keep date.issued if it is different to date.accessioned
+        if ((migrate) &&
+            (dateIssued != null) &&
+            (dateAccessioned != null) &&
+            (!dateIssued.equals(dateAccessioned))) {
+            utf8 = ("  <dcvalue element=\"date\" "
+                + "qualifier=\"issued\">"
+                + Utils.addEntities(dateIssued) + "</dcvalue>\n")
+                .getBytes("UTF-8");
             out.write(utf8, 0, utf8.length);
-
-            out.close();
-        } else {
-            throw new Exception("Cannot create dublin_core.xml in " + destDir);
         }
+
+        utf8 = "</dublin_core>\n".getBytes("UTF-8");
+        out.write(utf8, 0, utf8.length);
     }
 
     /**
@@ -374,18 +414,6 @@ public class ItemExportServiceImpl implements ItemExportService {
                     String myName = bitstream.getName();
                     String oldName = myName;
 
-                    String description = bitstream.getDescription();
-                    if (!StringUtils.isEmpty(description)) {
-                        description = "\tdescription:" + description;
-                    } else {
-                        description = "";
-                    }
-
-                    String primary = "";
-                    if (bitstream.equals(bundle.getPrimaryBitstream())) {
-                        primary = "\tprimary:true ";
-                    }
-
                     int myPrefix = 1; // only used with name conflict
 
                     boolean isDone = false; // done when bitstream is finally
@@ -424,16 +452,7 @@ public class ItemExportServiceImpl implements ItemExportService {
                     }
 
                     // write the manifest file entry
-                    if (bitstreamService.isRegisteredBitstream(bitstream)) {
-                        out.println("-r -s " + bitstream.getStoreNumber()
-                                        + " -f " + myName +
-                                        "\tbundle:" + bundleName +
-                                        primary + description);
-                    } else {
-                        out.println(myName + "\tbundle:" + bundleName +
-                                        primary + description);
-                    }
-
+                    out.println(getContentsLine(bundle, bitstream, myName));
                 }
             }
 
@@ -444,30 +463,177 @@ public class ItemExportServiceImpl implements ItemExportService {
         }
     }
 
+    /**
+     * @param bundle    the bundle of the bitstream
+     * @param bitstream the bitstream
+     * @param name      the name of the exported file of the bitstream
+     * @return the line of the bitstream in the contents file
+     */
+    protected String getContentsLine(Bundle bundle, Bitstream bitstream, String name) {
+        String description = bitstream.getDescription();
+        if (!StringUtils.isEmpty(description)) {
+            description = "\tdescription:" + description;
+        } else {
+            description = "";
+        }
+
+        String primary = "";
+        if (bitstream.equals(bundle.getPrimaryBitstream())) {
+            primary = "\tprimary:true ";
+        }
+
+        if (bitstreamService.isRegisteredBitstream(bitstream)) {
+            return "-r -s " + bitstream.getStoreNumber()
+                + " -f " + name +
+                "\tbundle:" + bundle.getName() +
+                primary + description;
+        } else {
+            return name + "\tbundle:" + bundle.getName() +
+                primary + description;
+        }
+    }
+
+    /**
+     * Export an item in the Simple Archive Format into a zip file: the
+     * metadata files, the bitstreams, read straight from the bitstore, the
+     * contents file and the handle file.
+     *
+     * @param c                 the DSpace context
+     * @param i                 the item being exported
+     * @param zip               the zip file to write to
+     * @param itemPath          the path of the item's directory in the zip file, ending with "/"
+     * @param migrate           Whether to use the migrate option or not
+     * @param excludeBitstreams whether to exclude bitstreams
+     * @throws Exception if error
+     */
+    protected void exportItem(Context c, Item i, ItemExportZipWriter zip, String itemPath,
+                              boolean migrate, boolean excludeBitstreams) throws Exception {
+        System.out.println("Exporting Item " + i.getID() +
+                               (i.getHandle() != null ? ", handle " + i.getHandle() : "") +
+                               " to " + itemPath);
+
+        Set<String> names = new HashSet<String>();
+        for (String schema : getMetadataSchemas(i)) {
+            ByteArrayOutputStream metadata = new ByteArrayOutputStream();
+            writeMetadata(c, schema, i, metadata, migrate);
+            names.add(getMetadataFileName(schema));
+            zip.putEntry(itemPath + getMetadataFileName(schema), metadata.toByteArray());
+        }
+        names.add("contents");
+        names.add("handle");
+
+        StringBuilder contents = new StringBuilder();
+        for (Bundle bundle : i.getBundles()) {
+            for (Bitstream bitstream : bundle.getBitstreams()) {
+                String myName = bitstream.getName();
+                if (!excludeBitstreams) {
+                    // keep appending numbers to the filename until unique
+                    int myPrefix = 1;
+                    while (names.contains(myName) || zip.hasEntry(itemPath + myName)) {
+                        myName = myPrefix + "_" + bitstream.getName();
+                        myPrefix++;
+                    }
+                    names.add(myName);
+                    try (InputStream is = bitstreamService.retrieve(c, bitstream)) {
+                        zip.putEntry(itemPath + myName, is, bitstream.getFormat(c).getMIMEType());
+                    }
+                }
+                contents.append(getContentsLine(bundle, bitstream, myName)).append(System.lineSeparator());
+            }
+        }
+        zip.putEntry(itemPath + "contents", contents.toString().getBytes(StandardCharsets.UTF_8));
+
+        if (!migrate && i.getHandle() != null) {
+            zip.putEntry(itemPath + "handle",
+                         (i.getHandle() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Export items in the Simple Archive Format into a zip file, one directory per item
+     *
+     * @param c                 the DSpace context
+     * @param i                 the items being exported
+     * @param zip               the zip file to write to
+     * @param path              the path of the item directories in the zip file, empty or ending with "/"
+     * @param seqStart          the directory name of the first item, incremented for the next ones
+     * @param migrate           Whether to use the migrate option or not
+     * @param excludeBitstreams whether to exclude bitstreams
+     * @throws Exception if error
+     */
+    protected void exportItems(Context c, Iterator<Item> i, ItemExportZipWriter zip, String path,
+                               int seqStart, boolean migrate, boolean excludeBitstreams) throws Exception {
+        int mySequenceNumber = seqStart;
+        while (i.hasNext()) {
+            Item item = i.next();
+            zip.startItem();
+            exportItem(c, item, zip, path + mySequenceNumber + "/", migrate, excludeBitstreams);
+            c.uncacheEntity(item);
+            mySequenceNumber++;
+        }
+    }
+
+    /**
+     * Create a zip writer with the configured compression and split size
+     *
+     * @param partFiles the file of each zip file, given its number starting from 1
+     * @return the zip writer
+     */
+    protected ItemExportZipWriter createZipWriter(IntFunction<File> partFiles) {
+        long splitSize = configurationService.getLongProperty("org.dspace.app.itemexport.zip.split.size", 0)
+            * 1048576;
+        IncompressibleMimeTypes incompressible = new IncompressibleMimeTypes(configurationService.getArrayProperty(
+            "org.dspace.app.itemexport.zip.store.mimetypes", IncompressibleMimeTypes.DEFAULT_TYPES));
+        return new ItemExportZipWriter(partFiles, splitSize, getCompressionLevel(), incompressible);
+    }
+
+    /**
+     * @return the configured compression level of the export zip files
+     */
+    protected int getCompressionLevel() {
+        return configurationService.getIntProperty("org.dspace.app.itemexport.zip.level",
+                                                   Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Get the name of a zip file of an export split in several files. The first
+     * file keeps the name, the next ones get "_part" and their number inserted
+     * before the given position.
+     *
+     * @param fileName the name of the export
+     * @param position where to insert the part number
+     * @param part     the number of the file, starting from 1
+     * @return the name of the file
+     */
+    protected String getPartFileName(String fileName, int position, int part) {
+        if (part == 1) {
+            return fileName;
+        }
+        return fileName.substring(0, position) + "_part" + part + fileName.substring(position);
+    }
+
     @Override
     public void exportAsZip(Context context, Iterator<Item> items,
                             String destDirName, String zipFileName,
                             int seqStart, boolean migrate,
                             boolean excludeBitstreams) throws Exception {
-        String workDir = getExportWorkDirectory() +
-            System.getProperty("file.separator") +
-            zipFileName;
-
-        File wkDir = new File(workDir);
-        if (!wkDir.exists() && !wkDir.mkdirs()) {
-            log.error("Unable to create working direcory");
-        }
-
         File dnDir = new File(destDirName);
         if (!dnDir.exists() && !dnDir.mkdirs()) {
             log.error("Unable to create destination directory");
         }
 
-        // export the items using normal export method
-        exportItem(context, items, workDir, seqStart, migrate, excludeBitstreams);
-
-        // now zip up the export directory created above
-        zip(workDir, destDirName + System.getProperty("file.separator") + zipFileName);
+        // export the items straight into the zip file
+        int extension = zipFileName.toLowerCase().endsWith(".zip") ? zipFileName.length() - 4 : zipFileName.length();
+        ItemExportZipWriter zip = createZipWriter(
+            part -> new File(dnDir, getPartFileName(zipFileName, extension, part)));
+        try {
+            System.out.println("Beginning export");
+            exportItems(context, items, zip, "", seqStart, migrate, excludeBitstreams);
+            zip.close();
+        } catch (Exception e) {
+            zip.abort();
+            throw e;
+        }
     }
 
     @Override
@@ -504,8 +670,8 @@ public class ItemExportServiceImpl implements ItemExportService {
 
     /**
      * Does the work creating a List with all the Items in the Community or
-     * Collection It then kicks off a new Thread to export the items, zip the
-     * export directory and send confirmation email
+     * Collection It then queues the export of the items to zip files and the
+     * confirmation email on the export executor
      *
      * @param dsObjects       - List of dspace objects to process
      * @param context         - the dspace context
@@ -624,88 +790,127 @@ public class ItemExportServiceImpl implements ItemExportService {
             }
         }
 
-        // if we have any items to process then kick off anonymous thread
+        // if we have any items to process then queue the export
         if (itemsMap.size() > 0) {
-            Thread go = new Thread() {
-                @Override
-                public void run() {
-                    Context context = null;
-                    Iterator<Item> iitems = null;
-                    try {
-                        // create a new dspace context
-                        context = new Context();
-                        // ignore auths
-                        context.turnOffAuthorisationSystem();
-
-                        String fileName = assembleFileName("item", eperson,
-                                                           new Date());
-                        String workParentDir = getExportWorkDirectory()
-                            + System.getProperty("file.separator")
-                            + fileName;
-                        String downloadDir = getExportDownloadDirectory(eperson);
-                        File dnDir = new File(downloadDir);
-                        if (!dnDir.exists() && !dnDir.mkdirs()) {
-                            log.error("Unable to create download directory");
-                        }
-
-                        Iterator<String> iter = itemsMap.keySet().iterator();
-                        while (iter.hasNext()) {
-                            String keyName = iter.next();
-                            List<UUID> uuids = itemsMap.get(keyName);
-                            List<Item> items = new ArrayList<Item>();
-                            for (UUID uuid : uuids) {
-                                items.add(itemService.find(context, uuid));
-                            }
-                            iitems = items.iterator();
-
-                            String workDir = workParentDir
-                                + System.getProperty("file.separator")
-                                + keyName;
+            try {
+                getExportExecutor().execute(() -> runDownloadableExport(itemsMap, eperson, migrate));
+            } catch (RejectedExecutionException e) {
+                throw new ItemExportException(ItemExportException.EXPORT_QUEUE_FULL,
+                                              "Too many exports are waiting to run.  Please try again later.");
+            }
+        } else {
+            Locale supportedLocale = I18nUtil.getEPersonLocale(eperson);
+            emailErrorMessage(eperson, I18nUtil.getMessage("org.dspace.app.itemexport.no-result", supportedLocale));
+        }
+    }
 
-                            File wkDir = new File(workDir);
-                            if (!wkDir.exists() && !wkDir.mkdirs()) {
-                                log.error("Unable to create working directory");
-                            }
+    /**
+     * Export the items to zip files in the download directory of the eperson and send
+     * the confirmation email. Runs on the export executor, in a context of its own.
+     *
+     * @param itemsMap the items to export, by the name of their directory in the zip files
+     * @param eperson  the eperson who requested the export
+     * @param migrate  Whether to use the migrate option or not
+     */
+    protected void runDownloadableExport(Map<String, List<UUID>> itemsMap, EPerson eperson, boolean migrate) {
+        Context context = null;
+        ItemExportZipWriter zip = null;
+        try {
+            // create a new dspace context
+            context = new Context();
+            // ignore auths
+            context.turnOffAuthorisationSystem();
+
+            String fileName = assembleFileName("item", eperson, new Date());
+            String downloadDir = getExportDownloadDirectory(eperson);
+            File dnDir = new File(downloadDir);
+            if (!dnDir.exists() && !dnDir.mkdirs()) {
+                log.error("Unable to create download directory");
+            }
 
+            // the part numbers go before the eperson id, which has to stay at the end of the name
+            zip = createZipWriter(part -> new File(dnDir,
+                getPartFileName(fileName, fileName.lastIndexOf('_'), part) + ".zip"));
+            for (Map.Entry<String, List<UUID>> entry : itemsMap.entrySet()) {
+                List<Item> items = new ArrayList<Item>();
+                for (UUID uuid : entry.getValue()) {
+                    items.add(itemService.find(context, uuid));
+                }
 
-                            // export the items using normal export method
-                            exportItem(context, iitems, workDir, 1, migrate, false);
-                        }
+                // export the items straight into the zip file
+                exportItems(context, items.iterator(), zip, entry.getKey() + "/", 1, migrate, false);
+            }
+            zip.close();
 
-                        // now zip up the export directory created above
-                        zip(workParentDir, downloadDir
-                            + System.getProperty("file.separator")
-                            + fileName + ".zip");
-                        // email message letting user know the file is ready for
-                        // download
-                        emailSuccessMessage(context, eperson, fileName + ".zip");
-                        // return to enforcing auths
-                        context.restoreAuthSystemState();
-                    } catch (Exception e1) {
-                        try {
-                            emailErrorMessage(eperson, e1.getMessage());
-                        } catch (Exception e) {
-                            // wont throw here
-                        }
-                        throw new IllegalStateException(e1);
-                    } finally {
-                        // Make sure the database connection gets closed in all conditions.
-                        try {
-                            context.complete();
-                        } catch (SQLException sqle) {
-                            context.abort();
-                        }
-                    }
+            // email message letting user know the files are ready for download
+            for (File file : zip.getFiles()) {
+                emailSuccessMessage(context, eperson, file.getName());
+            }
+            // return to enforcing auths
+            context.restoreAuthSystemState();
+        } catch (Exception e1) {
+            log.error("Unable to export items for " + eperson.getEmail(), e1);
+            if (zip != null) {
+                zip.abort();
+            }
+            try {
+                emailErrorMessage(eperson, e1.getMessage());
+            } catch (Exception e) {
+                // wont throw here
+            }
+        } finally {
+            // Make sure the database connection gets closed in all conditions.
+            if (context != null) {
+                try {
+                    context.complete();
+                } catch (SQLException sqle) {
+                    context.abort();
                 }
+            }
+        }
+    }
 
-            };
+    /**
+     * Get the executor running the downloadable exports. It has
+     * "org.dspace.app.itemexport.workers" threads, and at most
+     * "org.dspace.app.itemexport.queue.size" exports wait for one.
+     *
+     * @return the executor
+     */
+    protected synchronized ExecutorService getExportExecutor() {
+        if (exportExecutor == null) {
+            int workers = Math.max(1, configurationService.getIntProperty("org.dspace.app.itemexport.workers", 1));
+            int queueSize = Math.max(1, configurationService.getIntProperty("org.dspace.app.itemexport.queue.size",
+                                                                            10));
+            AtomicInteger threadCount = new AtomicInteger();
+            exportExecutor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                                                    new ArrayBlockingQueue<Runnable>(queueSize), runnable -> {
+                                                        Thread thread = new Thread(runnable,
+                                                            "item-export-" + threadCount.incrementAndGet());
+                                                        thread.setDaemon(true);
+                                                        return thread;
+                                                    });
+        }
+        return exportExecutor;
+    }
 
-            go.isDaemon();
-            go.start();
-        } else {
-            Locale supportedLocale = I18nUtil.getEPersonLocale(eperson);
-            emailErrorMessage(eperson, I18nUtil.getMessage("org.dspace.app.itemexport.no-result", supportedLocale));
+    /**
+     * Stop the export executor, giving the running exports 30 seconds to finish.
+     */
+    public synchronized void destroy() {
+        if (exportExecutor == null) {
+            return;
+        }
+        exportExecutor.shutdown();
+        try {
+            if (!exportExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                exportExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            exportExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
         }
+        exportExecutor = null;
     }
 
     @Override
@@ -973,7 +1178,7 @@ public class ItemExportServiceImpl implements ItemExportService {
 
             FileOutputStream fos = new FileOutputStream(tempFileName);
             cpZipOutputStream = new ZipOutputStream(fos);
-            cpZipOutputStream.setLevel(9);
+            cpZipOutputStream.setLevel(getCompressionLevel());
             zipFiles(cpFile, strSource, tempFileName, cpZipOutputStream);
             cpZipOutputStream.finish();
             cpZipOutputStream.close();
@@ -0,0 +1,195 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.itemexport;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.logging.log4j.Logger;
+import org.dspace.util.IncompressibleMimeTypes;
+
+/**
+ * Writes an export in the Simple Archive Format straight into zip files, so it
+ * does not have to be staged in a work directory and compressed afterwards.
+ * <P>
+ * Entries with an incompressible MIME type (images, media, PDF, other archives,
+ * ...) are written without compression, the other ones with the configured
+ * compression level. When a split size is given, a new zip file is started
+ * before the next item once the current file has reached that size, so an item
+ * is never split across files.
+ * <P>
+ * Each zip file is written to a temporary file next to it, and renamed when it
+ * is complete.
+ */
+public class ItemExportZipWriter implements Closeable {
+    private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(ItemExportZipWriter.class);
+
+    private final IntFunction<File> partFiles;
+    private final long splitSize;
+    private final int level;
+    private final IncompressibleMimeTypes incompressibleTypes;
+
+    private final List<File> files = new ArrayList<>();
+    private final Set<String> entryNames = new HashSet<>();
+    private File currentFile;
+    private File currentTempFile;
+    private CountingOutputStream currentCounter;
+    private ZipOutputStream currentZip;
+
+    /**
+     * @param partFiles           the file of each zip file, given its number starting from 1
+     * @param splitSize           the size in bytes after which a new zip file is started,
+     *                            0 or less to write a single zip file
+     * @param level               the compression level of the compressible entries
+     * @param incompressibleTypes the MIME types written without compression
+     */
+    public ItemExportZipWriter(IntFunction<File> partFiles, long splitSize, int level,
+                               IncompressibleMimeTypes incompressibleTypes) {
+        this.partFiles = partFiles;
+        this.splitSize = splitSize;
+        this.level = level;
+        this.incompressibleTypes = incompressibleTypes;
+    }
+
+    /**
+     * Mark the start of the entries of the next item, starting a new zip file if
+     * the current one has reached the split size.
+     *
+     * @throws IOException if the zip file cannot be written
+     */
+    public void startItem() throws IOException {
+        if (currentZip == null) {
+            openPart();
+        } else if (splitSize > 0 && currentCounter.getByteCount() >= splitSize) {
+            closePart();
+            openPart();
+        }
+    }
+
+    /**
+     * @param name the entry name
+     * @return whether the current zip file already has an entry of that name
+     */
+    public boolean hasEntry(String name) {
+        return entryNames.contains(name);
+    }
+
+    /**
+     * Add a compressible entry.
+     *
+     * @param name the entry name
+     * @param data the entry contents
+     * @throws IOException if the zip file cannot be written
+     */
+    public void putEntry(String name, byte[] data) throws IOException {
+        startEntry(name, level);
+        currentZip.write(data);
+        currentZip.closeEntry();
+    }
+
+    /**
+     * Add an entry, compressing it unless its MIME type is incompressible.
+     * The stream is read to its end but not closed.
+     *
+     * @param name     the entry name
+     * @param in       the entry contents
+     * @param mimeType the MIME type of the contents, may be null
+     * @throws IOException if the contents cannot be read or the zip file cannot be written
+     */
+    public void putEntry(String name, InputStream in, String mimeType) throws IOException {
+        startEntry(name, incompressibleTypes.contains(mimeType) ? Deflater.NO_COMPRESSION : level);
+        IOUtils.copyLarge(in, currentZip);
+        currentZip.closeEntry();
+    }
+
+    /**
+     * @return the zip files completed so far, in order
+     */
+    public List<File> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Complete the current zip file. A single empty zip file is written if no
+     * item was started.
+     *
+     * @throws IOException if the zip file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (currentZip == null && files.isEmpty()) {
+            openPart();
+        }
+        if (currentZip != null) {
+            closePart();
+        }
+    }
+
+    /**
+     * Give up the current zip file after a failure, removing its temporary file.
+     * The zip files already completed are kept.
+     */
+    public void abort() {
+        if (currentZip != null) {
+            try {
+                currentZip.close();
+            } catch (IOException e) {
+                log.warn("Unable to close export file " + currentTempFile, e);
+            }
+            currentZip = null;
+            if (!currentTempFile.delete()) {
+                log.warn("Unable to delete export file " + currentTempFile);
+            }
+        }
+    }
+
+    private void startEntry(String name, int entryLevel) throws IOException {
+        if (currentZip == null) {
+            openPart();
+        }
+        // The level applies to the entries started after it is set
+        currentZip.setLevel(entryLevel);
+        currentZip.putNextEntry(new ZipEntry(name));
+        entryNames.add(name);
+    }
+
+    private void openPart() throws IOException {
+        currentFile = partFiles.apply(files.size() + 1);
+        currentTempFile = new File(currentFile.getPath() + "_tmp");
+        if (!currentTempFile.createNewFile()) {
+            log.warn("Target file already exists: " + currentTempFile.getName());
+        }
+        currentCounter = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(currentTempFile)));
+        currentZip = new ZipOutputStream(currentCounter);
+        entryNames.clear();
+    }
+
+    private void closePart() throws IOException {
+        currentZip.close();
+        currentZip = null;
+        if (!currentTempFile.renameTo(currentFile)) {
+            throw new IOException("Unable to rename " + currentTempFile + " to " + currentFile);
+        }
+        files.add(currentFile);
+    }
+}
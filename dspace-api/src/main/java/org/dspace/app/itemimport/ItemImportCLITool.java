@@ -95,6 +95,9 @@ public class ItemImportCLITool {
             options.addOption("R", "resume", false,
                               "resume a failed import (add only)");
             options.addOption("q", "quiet", false, "don't display metadata");
+            options.addOption("T", "threads", true,
+                              "number of items added concurrently, each committed on its own and deleted again "
+                                  + "if the import fails (add only)");
 
             options.addOption("h", "help", false, "help");
 
@@ -195,6 +198,19 @@ public class ItemImportCLITool {
                 isQuiet = true;
             }
 
+            int workers = 0;
+            if (line.hasOption('T')) {
+                try {
+                    workers = Integer.parseInt(line.getOptionValue('T'));
+                } catch (NumberFormatException e) {
+                    workers = 0;
+                }
+                if (workers < 1) {
+                    System.out.println("Error - the number of threads must be a positive number");
+                    System.exit(1);
+                }
+            }
+
             boolean zip = false;
             String zipfilename = "";
             if (line.hasOption('z')) {
@@ -305,6 +321,9 @@ public class ItemImportCLITool {
             myloader.setUseWorkflow(useWorkflow);
             myloader.setUseWorkflowSendEmail(useWorkflowSendEmail);
             myloader.setQuiet(isQuiet);
+            if (workers > 0) {
+                myloader.setWorkers(workers);
+            }
 
             // create a context
             Context c = new Context(Context.Mode.BATCH_EDIT);
@@ -21,7 +21,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -37,6 +40,12 @@ import java.util.Map;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import javax.mail.MessagingException;
@@ -160,8 +169,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     @Autowired(required = true)
     protected ConfigurationService configurationService;
 
-    protected final String tempWorkDir
-            = configurationService.getProperty("org.dspace.app.batchitemimport.work.dir");
+    protected String tempWorkDir;
 
     protected boolean isTest = false;
     protected boolean isResume = false;
@@ -169,8 +177,27 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     protected boolean useWorkflowSendEmail = false;
     protected boolean isQuiet = false;
 
+    /**
+     * Number of items added concurrently, each by a worker thread with its own context. Only set by the command line
+     * import, the imports of the UI and REST API add the items in the context of the request.
+     */
+    protected int workers = 1;
+
+    /**
+     * Zip file whose bitstreams are read while importing, rather than extracted beforehand, see
+     * {@link #unzip(File, String, boolean)}
+     */
+    protected ZipFile zipFile;
+
+    /**
+     * The entries of the bitstreams left in {@link #zipFile}, keyed by the path they would have been extracted to
+     */
+    protected Map<String, ZipEntry> zipEntries = new HashMap<>();
+
     @Override
     public void afterPropertiesSet() throws Exception {
+        tempWorkDir = configurationService.getProperty("org.dspace.app.batchitemimport.work.dir");
+
         //Ensure tempWorkDir exists
         File tempWorkDirFile = new File(tempWorkDir);
         if (!tempWorkDirFile.exists()) {
@@ -354,23 +381,19 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
             Arrays.sort(dircontents, ComparatorUtils.naturalComparator());
 
+            if (workers > 1 && !isTest) {
+                addItemsConcurrently(c, mycollections, sourceDir, dircontents, skipItems, mapOut, template);
+                return;
+            }
+
             for (int i = 0; i < dircontents.length; i++) {
                 if (skipItems.containsKey(dircontents[i])) {
                     System.out.println("Skipping import of " + dircontents[i]);
                 } else {
                     List<Collection> clist;
                     if (directoryFileCollections) {
-                        String path = sourceDir + File.separatorChar + dircontents[i];
-                        try {
-                            List<Collection> cols = processCollectionFile(c, path, "collections");
-                            if (cols == null) {
-                                System.out
-                                    .println("No collections specified for item " + dircontents[i] + ". Skipping.");
-                                continue;
-                            }
-                            clist = cols;
-                        } catch (IllegalArgumentException e) {
-                            System.out.println(e.getMessage() + " Skipping.");
+                        clist = getItemCollections(c, sourceDir, dircontents[i]);
+                        if (clist == null) {
                             continue;
                         }
                     } else {
@@ -390,6 +413,252 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         }
     }
 
+    /**
+     * Add the items of the source directory with a pool of {@link #workers} threads. Each item is added by a worker
+     * with its own context, and committed on its own. Aborting the context of the caller doesn't remove them, so if
+     * an item can't be added, the items added so far by this import are deleted again, each in its own context, like
+     * a sequential import leaves nothing behind once its context is aborted.
+     * <p>
+     * The mapfile lines are written in the order of the item directories, as in a sequential import.
+     *
+     * @param c             current Context, whose user and authorization state are used by the workers
+     * @param mycollections the collections of the items, null if read from the collections file of each item
+     * @param sourceDir     the directory containing the item directories
+     * @param dircontents   the item directories, sorted
+     * @param skipItems     the item directories already imported
+     * @param mapOut        the mapfile, null in test mode
+     * @param template      whether to use collection template item as starting point
+     * @throws Exception if an item can't be added, once the items already being added are done
+     */
+    protected void addItemsConcurrently(Context c, List<Collection> mycollections, String sourceDir,
+                                        String[] dircontents, Map<String, String> skipItems, PrintWriter mapOut,
+                                        boolean template) throws Exception {
+        EPerson currentUser = c.getCurrentUser();
+        UUID epersonId = currentUser == null ? null : currentUser.getID();
+        boolean ignoreAuthorization = c.ignoreAuthorization();
+        List<UUID> collectionIds = null;
+        if (mycollections != null) {
+            collectionIds = new ArrayList<>();
+            for (Collection collection : mycollections) {
+                collectionIds.add(collection.getID());
+            }
+        }
+        List<UUID> itemCollectionIds = collectionIds;
+
+        // once an item failed, the items not started yet are skipped
+        AtomicBoolean failed = new AtomicBoolean();
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "item-import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<String>> results = new ArrayList<>(dircontents.length);
+            for (String itemname : dircontents) {
+                if (skipItems.containsKey(itemname)) {
+                    System.out.println("Skipping import of " + itemname);
+                    results.add(null);
+                    continue;
+                }
+                results.add(executor.submit(() -> {
+                    if (failed.get()) {
+                        return null;
+                    }
+                    try {
+                        return addItemInOwnContext(epersonId, ignoreAuthorization, itemCollectionIds, sourceDir,
+                                                   itemname, template);
+                    } catch (Exception | Error e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }));
+            }
+
+            // every item added is written to the mapfile, even after a failure, so none is left out of a rollback
+            Throwable failure = null;
+            List<String> added = new ArrayList<>();
+            for (int i = 0; i < dircontents.length; i++) {
+                if (results.get(i) == null) {
+                    continue;
+                }
+                try {
+                    String mapLine = results.get(i).get();
+                    if (mapLine != null) {
+                        if (mapOut != null) {
+                            mapOut.print(mapLine);
+                            mapOut.flush();
+                        }
+                        added.add(mapLine);
+                        System.out.println(i + " " + dircontents[i]);
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Unable to add item from directory " + dircontents[i], e.getCause());
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+            if (failure != null) {
+                deleteItemsConcurrently(executor, epersonId, ignoreAuthorization, added);
+            }
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            } else if (failure != null) {
+                throw (Error) failure;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Add an item in a new context, committed once the item is added. Called from the worker threads of
+     * {@link #addItemsConcurrently}.
+     *
+     * @param epersonId           the user adding the item, or null
+     * @param ignoreAuthorization whether the authorization system is turned off
+     * @param collectionIds       the collections of the item, null if read from its collections file
+     * @param sourceDir           the directory containing the item directories
+     * @param itemname            the item directory
+     * @param template            whether to use collection template item as starting point
+     * @return the mapfile line of the item, or null if it was skipped
+     * @throws Exception if error occurs
+     */
+    protected String addItemInOwnContext(UUID epersonId, boolean ignoreAuthorization, List<UUID> collectionIds,
+                                         String sourceDir, String itemname, boolean template) throws Exception {
+        Context context = new Context(Context.Mode.BATCH_EDIT);
+        try {
+            if (epersonId != null) {
+                context.setCurrentUser(ePersonService.find(context, epersonId));
+            }
+            if (ignoreAuthorization) {
+                context.turnOffAuthorisationSystem();
+            }
+
+            List<Collection> clist;
+            if (collectionIds == null) {
+                clist = getItemCollections(context, sourceDir, itemname);
+                if (clist == null) {
+                    return null;
+                }
+            } else {
+                clist = new ArrayList<>();
+                for (UUID collectionId : collectionIds) {
+                    clist.add(collectionService.find(context, collectionId));
+                }
+            }
+
+            StringWriter mapLine = new StringWriter();
+            PrintWriter mapOut = new PrintWriter(mapLine);
+            addItem(context, clist, sourceDir, itemname, mapOut, template);
+            mapOut.flush();
+            context.complete();
+            return mapLine.toString();
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    /**
+     * Delete the items added by a failed concurrent import, each in its own context on a worker thread, as the
+     * context of the calling thread is going to be aborted.
+     *
+     * @param executor            the worker threads
+     * @param epersonId           the user who added the items, or null
+     * @param ignoreAuthorization whether the authorization system is turned off
+     * @param mapLines            the mapfile lines of the items added
+     */
+    protected void deleteItemsConcurrently(ExecutorService executor, UUID epersonId, boolean ignoreAuthorization,
+                                           List<String> mapLines) {
+        List<Future<?>> deletions = new ArrayList<>(mapLines.size());
+        for (String mapLine : mapLines) {
+            // a line is the item directory and the handle or id of the item, see addItem
+            StringTokenizer st = new StringTokenizer(mapLine);
+            st.nextToken();
+            String itemID = st.nextToken();
+            deletions.add(executor.submit(() -> {
+                deleteItemInOwnContext(epersonId, ignoreAuthorization, itemID);
+                return null;
+            }));
+        }
+        for (int i = 0; i < deletions.size(); i++) {
+            try {
+                deletions.get(i).get();
+            } catch (ExecutionException e) {
+                log.error("Unable to delete the item added by the failed import: " + mapLines.get(i).trim(),
+                          e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while deleting the items added by the failed import");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Delete an item in a new context, committed once the item is deleted. Called from the worker threads of
+     * {@link #deleteItemsConcurrently}.
+     *
+     * @param epersonId           the user deleting the item, or null
+     * @param ignoreAuthorization whether the authorization system is turned off
+     * @param itemID              the handle or the id of the item, as written to the mapfile
+     * @throws Exception if error occurs
+     */
+    protected void deleteItemInOwnContext(UUID epersonId, boolean ignoreAuthorization, String itemID)
+        throws Exception {
+        Context context = new Context(Context.Mode.BATCH_EDIT);
+        try {
+            if (epersonId != null) {
+                context.setCurrentUser(ePersonService.find(context, epersonId));
+            }
+            if (ignoreAuthorization) {
+                context.turnOffAuthorisationSystem();
+            }
+            System.out.println("Deleting item " + itemID);
+            if (itemID.indexOf('/') != -1) {
+                deleteItem(context, itemID);
+            } else {
+                Item myitem = itemService.findByIdOrLegacyId(context, itemID);
+                if (myitem != null) {
+                    deleteItem(context, myitem);
+                }
+            }
+            context.complete();
+        } finally {
+            if (context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    /**
+     * Read the collections of an item from its collections file
+     *
+     * @param c         current Context
+     * @param sourceDir the directory containing the item directories
+     * @param itemname  the item directory
+     * @return the collections, or null if the item has to be skipped
+     * @throws IOException  if IO error
+     * @throws SQLException if database error
+     */
+    protected List<Collection> getItemCollections(Context c, String sourceDir, String itemname)
+        throws IOException, SQLException {
+        String path = sourceDir + File.separatorChar + itemname;
+        try {
+            List<Collection> cols = processCollectionFile(c, path, "collections");
+            if (cols == null) {
+                System.out.println("No collections specified for item " + itemname + ". Skipping.");
+            }
+            return cols;
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage() + " Skipping.");
+            return null;
+        }
+    }
+
     @Override
     public void replaceItems(Context c, List<Collection> mycollections,
                              String sourceDir, String mapFile, boolean template) throws Exception {
@@ -470,8 +739,13 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                 // it's an ID
                 Item myitem = itemService.findByIdOrLegacyId(c, itemID);
                 System.out.println("Deleting item " + itemID);
-                deleteItem(c, myitem);
-                c.uncacheEntity(myitem);
+                if (myitem == null) {
+                    // e.g. deleted again by a failed concurrent import
+                    System.out.println("Error - cannot locate item - already deleted?");
+                } else {
+                    deleteItem(c, myitem);
+                    c.uncacheEntity(myitem);
+                }
             }
         }
     }
@@ -1062,6 +1336,13 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                     throw new FileNotFoundException("No contents file found");
                 }
             }
+            // the bitstreams left in the zip file aren't in the directory
+            Path dirPath = dir.toPath().toAbsolutePath().normalize();
+            for (String entryPath : zipEntries.keySet()) {
+                if (dirPath.equals(Paths.get(entryPath).getParent())) {
+                    throw new FileNotFoundException("No contents file found");
+                }
+            }
 
             System.out.println("No contents file found - but only metadata files found. Assuming metadata only.");
         }
@@ -1088,8 +1369,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         String fullpath = path + File.separatorChar + fileName;
 
         // get an input stream
-        BufferedInputStream bis = new BufferedInputStream(new FileInputStream(
-            fullpath));
+        BufferedInputStream bis = new BufferedInputStream(openItemFile(fullpath));
 
         Bitstream bs = null;
         String newBundleName = bundleName;
@@ -1140,6 +1420,26 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
         bis.close();
     }
 
+    /**
+     * Open a file of an item directory, or its entry in the zip file if it wasn't extracted
+     *
+     * @param fullpath path to the file
+     * @return the content of the file
+     * @throws IOException if IO error
+     */
+    protected InputStream openItemFile(String fullpath) throws IOException {
+        ZipEntry entry = zipEntries.get(getZipEntryKey(new File(fullpath)));
+        if (entry != null) {
+            // ZipFile can be read by several threads at once
+            return zipFile.getInputStream(entry);
+        }
+        return new FileInputStream(fullpath);
+    }
+
+    private String getZipEntryKey(File file) {
+        return file.toPath().toAbsolutePath().normalize().toString();
+    }
+
     /**
      * Register the bitstream file into DSpace
      *
@@ -1471,6 +1771,22 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
     @Override
     public String unzip(File zipfile, String destDir) throws IOException {
+        return unzip(zipfile, destDir, true);
+    }
+
+    /**
+     * Unzip a file to a destination. When the bitstreams aren't extracted, only the files describing the items
+     * (contents, metadata, handle and collections files) are written to the destination, and the bitstreams are read
+     * from the zip file while the items are imported, which saves writing and reading them once more. The zip file
+     * then stays open until {@link #cleanupZipTemp()}.
+     *
+     * @param zipfile           file
+     * @param destDir           destination directory
+     * @param extractBitstreams whether the bitstreams are extracted too
+     * @return unzip location
+     * @throws IOException if error
+     */
+    protected String unzip(File zipfile, String destDir, boolean extractBitstreams) throws IOException {
         // 2
         // does the zip file exist and can we write to the temp directory
         if (!zipfile.canRead()) {
@@ -1499,7 +1815,12 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
 
         // 3
         String sourceDirForZip = sourcedir;
+        if (!extractBitstreams) {
+            // the bitstreams of a previous zip file aren't read anymore
+            closeZipFile();
+        }
         ZipFile zf = new ZipFile(zipfile);
+        boolean streamed = false;
         ZipEntry entry;
         Enumeration<? extends ZipEntry> entries = zf.entries();
         while (entries.hasMoreElements()) {
@@ -1517,8 +1838,11 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                                               + "' in file '" + zipfile.getAbsolutePath() + "'!"
                                               + " Cannot process this file.");
                 } else {
-                    System.out.println("Extracting file: " + entryName);
-                    log.info("Extracting file: " + entryName);
+                    boolean extract = extractBitstreams || !isBitstreamEntry(entryName);
+                    if (extract) {
+                        System.out.println("Extracting file: " + entryName);
+                        log.info("Extracting file: " + entryName);
+                    }
 
                     int index = entryName.lastIndexOf('/');
                     if (index == -1) {
@@ -1546,6 +1870,11 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
                             }
                         }
                     }
+                    if (!extract) {
+                        zipEntries.put(getZipEntryKey(outFile), entry);
+                        streamed = true;
+                        continue;
+                    }
                     byte[] buffer = new byte[1024];
                     int len;
                     InputStream in = zf.getInputStream(entry);
@@ -1560,8 +1889,13 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
             }
         }
 
-        //Close zip file
-        zf.close();
+        if (streamed) {
+            // kept open to read the bitstreams
+            zipFile = zf;
+        } else {
+            //Close zip file
+            zf.close();
+        }
 
         if (!StringUtils.equals(sourceDirForZip, sourcedir)) {
             sourcedir = sourceDirForZip;
@@ -1575,7 +1909,33 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     @Override
     public String unzip(String sourcedir, String zipfilename) throws IOException {
         File zipfile = new File(sourcedir + File.separator + zipfilename);
-        return unzip(zipfile);
+        return unzip(zipfile, null,
+                     !configurationService.getBooleanProperty("org.dspace.app.batchitemimport.zip.stream", true));
+    }
+
+    /**
+     * Whether a zip entry is a bitstream, rather than a file describing its item
+     *
+     * @param entryName the name of the entry
+     * @return true if the entry isn't a contents, metadata, handle or collections file
+     */
+    protected boolean isBitstreamEntry(String entryName) {
+        int index = Math.max(entryName.lastIndexOf('/'), entryName.lastIndexOf('\\'));
+        String fileName = entryName.substring(index + 1);
+        return !"contents".equals(fileName) && !"dublin_core.xml".equals(fileName) && !"handle".equals(fileName)
+            && !"collections".equals(fileName) && !metadataFileFilter.accept(null, fileName);
+    }
+
+    private void closeZipFile() {
+        zipEntries.clear();
+        if (zipFile != null) {
+            try {
+                zipFile.close();
+            } catch (IOException e) {
+                log.warn("Unable to close zip file " + zipFile.getName(), e);
+            }
+            zipFile = null;
+        }
     }
 
     /**
@@ -1901,6 +2261,7 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     public void cleanupZipTemp() {
         System.out.println("Deleting temporary zip directory: " + tempWorkDir);
         log.debug("Deleting temporary zip directory: " + tempWorkDir);
+        closeZipFile();
         deleteDirectory(new File(tempWorkDir));
     }
 
@@ -1928,4 +2289,9 @@ public class ItemImportServiceImpl implements ItemImportService, InitializingBea
     public void setQuiet(boolean isQuiet) {
         this.isQuiet = isQuiet;
     }
+
+    @Override
+    public void setWorkers(int workers) {
+        this.workers = Math.max(1, workers);
+    }
 }
@@ -80,7 +80,9 @@ public interface ItemImportService {
     public String unzip(File zipfile, String destDir) throws IOException;
 
     /**
-     * Unzip a file in a specific source directory
+     * Unzip a file in a specific source directory. Unless disabled with
+     * {@code org.dspace.app.batchitemimport.zip.stream}, only the files describing the items are extracted, the
+     * bitstreams are read from the zip file when the items are added, until {@link #cleanupZipTemp()} is called.
      *
      * @param sourcedir   source directory
      * @param zipfilename file name
@@ -250,4 +252,13 @@ public interface ItemImportService {
      * @param isQuiet true or false
      */
     public void setQuiet(boolean isQuiet);
+
+    /**
+     * Set the number of items added concurrently. With more than one, each item is added and committed in its own
+     * context by a worker thread, and the items are deleted again if the import fails. Only meant for the command
+     * line import, as the worker threads don't use the context passed by the caller.
+     *
+     * @param workers the number of worker threads
+     */
+    public void setWorkers(int workers);
 }
@@ -79,8 +79,12 @@ public class MediaFilterCLITool {
                           "force all bitstreams to be processed");
         options.addOption("i", "identifier", true,
                           "ONLY process bitstreams belonging to identifier");
+        options.addOption("c", "changed", false,
+                          "ONLY process the items installed or given new bitstreams since the previous runs");
         options.addOption("m", "maximum", true,
                           "process no more than maximum items");
+        options.addOption("t", "threads", true,
+                          "number of worker threads of each filter");
         options.addOption("h", "help", false, "help");
 
         //create a "plugin" option (to specify specific MediaFilter plugins to run)
@@ -114,6 +118,7 @@ public class MediaFilterCLITool {
         boolean isQuiet = false;
         boolean isForce = false; // default to not forced
         String identifier = null; // object scope limiter
+        boolean isChanged = false; // only the items queued by the mediafilter event consumer
         int max2Process = Integer.MAX_VALUE;
         Map<String, List<String>> filterFormats = new HashMap<>();
 
@@ -148,6 +153,10 @@ public class MediaFilterCLITool {
             identifier = line.getOptionValue('i');
         }
 
+        if (line.hasOption('c')) {
+            isChanged = true;
+        }
+
         if (line.hasOption('m')) {
             max2Process = Integer.parseInt(line.getOptionValue('m'));
             if (max2Process <= 1) {
@@ -157,6 +166,20 @@ public class MediaFilterCLITool {
             }
         }
 
+        int workers = 0;
+        if (line.hasOption('t')) {
+            try {
+                workers = Integer.parseInt(line.getOptionValue('t'));
+            } catch (NumberFormatException e) {
+                workers = 0;
+            }
+            if (workers < 1) {
+                System.out.println("Invalid number of threads '" +
+                                       line.getOptionValue('t') + "' - ignoring");
+                workers = 0;
+            }
+        }
+
         String filterNames[] = null;
         if (line.hasOption('p')) {
             //specified which media filter plugins we are using
@@ -180,6 +203,9 @@ public class MediaFilterCLITool {
         mediaFilterService.setQuiet(isQuiet);
         mediaFilterService.setVerbose(isVerbose);
         mediaFilterService.setMax2Process(max2Process);
+        if (workers > 0) {
+            mediaFilterService.setWorkers(workers);
+        }
 
         //initialize an array of our enabled filters
         List<FormatFilter> filterList = new ArrayList<>();
@@ -289,7 +315,13 @@ public class MediaFilterCLITool {
             c.turnOffAuthorisationSystem();
 
             // now apply the filters
-            if (identifier == null) {
+            if (identifier == null && isChanged) {
+                if (!isQuiet) {
+                    System.out.println(MediaFilterServiceFactory.getInstance().getMediaFilterStateService()
+                                           .countQueuedItems(c) + " items to process");
+                }
+                mediaFilterService.applyFiltersQueued(c);
+            } else if (identifier == null) {
                 mediaFilterService.applyFiltersAllItems(c);
             } else {
                 // restrict application scope to identifier
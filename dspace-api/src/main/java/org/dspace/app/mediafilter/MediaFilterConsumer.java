@@ -0,0 +1,110 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.app.mediafilter.factory.MediaFilterServiceFactory;
+import org.dspace.app.mediafilter.service.MediaFilterStateService;
+import org.dspace.content.Bundle;
+import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+
+/**
+ * Class for queuing the items whose bitstreams have to be filtered by the media filters: the items installed, and
+ * the items getting new bitstreams in their ORIGINAL bundle. Running the media filters with the queued items only
+ * then only looks at the items changed since the previous run.
+ *
+ * @see MediaFilterStateService
+ */
+public class MediaFilterConsumer implements Consumer {
+
+    protected MediaFilterStateService mediaFilterStateService =
+        MediaFilterServiceFactory.getInstance().getMediaFilterStateService();
+
+    protected ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+
+    /**
+     * The items to queue once all events are consumed
+     */
+    private final Set<UUID> itemIds = new LinkedHashSet<>();
+
+    /**
+     * Initialize - allocate any resources required to operate.
+     * Called at the start of ANY sequence of event consume() calls.
+     *
+     * @throws Exception if error
+     */
+    @Override
+    public void initialize() throws Exception {
+        // no-op
+    }
+
+    /**
+     * Consume an event
+     *
+     * @param ctx   the execution context object
+     * @param event the content event
+     * @throws Exception if error
+     */
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        if (event.getSubjectType() == Constants.ITEM && event.getEventType() == Event.INSTALL) {
+            itemIds.add(event.getSubjectID());
+        } else if (event.getSubjectType() == Constants.BUNDLE && event.getEventType() == Event.ADD
+            && event.getObjectType() == Constants.BITSTREAM) {
+            DSpaceObject subject = event.getSubject(ctx);
+            if (subject != null && Constants.CONTENT_BUNDLE_NAME.equals(subject.getName())) {
+                for (Item item : ((Bundle) subject).getItems()) {
+                    itemIds.add(item.getID());
+                }
+            }
+        }
+    }
+
+    /**
+     * Signal that there are no more events queued in this
+     * event stream.
+     *
+     * @param ctx Context
+     * @throws Exception if error
+     */
+    @Override
+    public void end(Context ctx) throws Exception {
+        try {
+            for (UUID itemId : itemIds) {
+                Item item = itemService.find(ctx, itemId);
+                if (item != null) {
+                    mediaFilterStateService.enqueue(ctx, item);
+                }
+            }
+        } finally {
+            itemIds.clear();
+        }
+    }
+
+    /**
+     * Finish - free any allocated resources.
+     * Called when consumer is being released
+     *
+     * @param ctx Context
+     * @throws Exception if error
+     */
+    @Override
+    public void finish(Context ctx) throws Exception {
+        // no-op
+    }
+}
@@ -0,0 +1,296 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+
+/**
+ * Applies the media filters with worker threads, for {@link MediaFilterServiceImpl}.
+ * <p>
+ * The bitstreams to filter are submitted by the thread walking the repository. Each filter has its own pool of
+ * worker threads, so that slow filters, such as the ones running external programs, don't hold up the others. The
+ * workers only run the filters, and spool their results to temporary files. A single writer thread, with its own
+ * context, stores the filtered bitstreams and commits them in batches.
+ * <p>
+ * Each filter only has a bounded number of bitstreams in progress, including the ones waiting to be stored, so the
+ * walk waits for the workers and the writer when they fall behind.
+ */
+public class MediaFilterPipeline {
+    private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(MediaFilterPipeline.class);
+
+    /**
+     * How long the writer waits for a filtered bitstream before committing the ones already stored
+     */
+    private static final long IDLE_COMMIT_MILLIS = 1000;
+
+    /**
+     * A bitstream filtered by a worker, waiting to be stored
+     */
+    private static final class Derivative {
+        private final String filterKey;
+        private final FormatFilter filter;
+        private final UUID itemId;
+        private final UUID sourceId;
+        private final String newName;
+        private File file;
+
+        private Derivative(String filterKey, FormatFilter filter, UUID itemId, UUID sourceId, String newName) {
+            this.filterKey = filterKey;
+            this.filter = filter;
+            this.itemId = itemId;
+            this.sourceId = sourceId;
+            this.newName = newName;
+        }
+    }
+
+    private final MediaFilterServiceImpl mediaFilterService;
+    private final int batchSize;
+    private final boolean isVerbose;
+    private final boolean isQuiet;
+
+    private final Map<String, ExecutorService> pools = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> inProgress = new ConcurrentHashMap<>();
+    private final BlockingQueue<Derivative> filtered = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger stored = new AtomicInteger();
+    private final long start = System.currentTimeMillis();
+
+    private volatile boolean finishing = false;
+    private volatile Exception failure;
+
+    /**
+     * Create a pipeline and start its writer thread
+     *
+     * @param mediaFilterService the service storing the filtered bitstreams
+     * @param batchSize          the number of filtered bitstreams stored per commit
+     * @param isVerbose          verbose mode of the filters
+     * @param isQuiet            whether to print only errors
+     */
+    public MediaFilterPipeline(MediaFilterServiceImpl mediaFilterService, int batchSize, boolean isVerbose,
+                               boolean isQuiet) {
+        this.mediaFilterService = mediaFilterService;
+        this.batchSize = Math.max(1, batchSize);
+        this.isVerbose = isVerbose;
+        this.isQuiet = isQuiet;
+        writer = new Thread(this::write, "media-filter-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Filter a bitstream with a worker of the filter, waiting if the filter has too many bitstreams in progress.
+     * The source stream is opened by the calling thread, and closed by the worker.
+     *
+     * @param context   the context of the calling thread
+     * @param item      the item of the bitstream, whose handle is already loaded
+     * @param source    the bitstream to filter
+     * @param filter    the filter
+     * @param filterKey the key of the filter configuration, see {@link MediaFilterServiceImpl#getFilterKey}
+     * @param newName   the name of the filtered bitstream
+     * @param workers   the number of workers of the filter
+     * @throws Exception if the bitstream can't be read, or the writer failed
+     */
+    public void submit(Context context, Item item, Bitstream source, FormatFilter filter, String filterKey,
+                       String newName, int workers) throws Exception {
+        if (failure != null) {
+            throw failure;
+        }
+        int poolSize = Math.max(1, workers);
+        Semaphore permits = inProgress.computeIfAbsent(filterKey, key -> new Semaphore(2 * poolSize));
+        ExecutorService pool = pools.computeIfAbsent(filterKey, key -> {
+            AtomicInteger threads = new AtomicInteger();
+            String name = key.substring(key.lastIndexOf('.') + 1);
+            return Executors.newFixedThreadPool(poolSize, runnable -> {
+                Thread thread = new Thread(runnable, "media-filter-" + name + "-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        });
+
+        permits.acquire();
+        Derivative derivative = new Derivative(filterKey, filter, item.getID(), source.getID(), newName);
+        InputStream sourceStream;
+        try {
+            sourceStream = mediaFilterService.bitstreamService.retrieve(context, source);
+        } catch (Exception e) {
+            permits.release();
+            throw e;
+        }
+        submitted.incrementAndGet();
+        pool.execute(() -> filter(derivative, item, sourceStream));
+    }
+
+    /**
+     * Wait for all submitted bitstreams to be filtered and stored, and stop the threads.
+     *
+     * @throws Exception if the writer failed
+     */
+    public void finish() throws Exception {
+        try {
+            for (ExecutorService pool : pools.values()) {
+                pool.shutdown();
+            }
+            for (ExecutorService pool : pools.values()) {
+                while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                    logProgress();
+                }
+            }
+            finishing = true;
+            writer.join();
+        } finally {
+            for (ExecutorService pool : pools.values()) {
+                pool.shutdownNow();
+            }
+        }
+        logProgress();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Run the filter on a worker thread, and queue its result for the writer
+     */
+    private void filter(Derivative derivative, Item item, InputStream sourceStream) {
+        boolean queued = false;
+        // the item is only read for its handle, loaded by the thread walking the repository
+        try (InputStream source = sourceStream;
+             InputStream destStream = derivative.filter.getDestinationStream(item, source, isVerbose)) {
+            if (destStream == null) {
+                if (!isQuiet) {
+                    System.out.println("SKIPPED: bitstream " + derivative.sourceId
+                            + " (item: " + item.getHandle() + ") because filtering was unsuccessful");
+                }
+                return;
+            }
+            derivative.file = File.createTempFile("mediafilter", ".tmp");
+            Files.copy(destStream, derivative.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            filtered.put(derivative);
+            queued = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception | OutOfMemoryError e) {
+            failed.incrementAndGet();
+            System.out.println("ERROR filtering, skipping bitstream #" + derivative.sourceId
+                                   + " (item: " + item.getHandle() + ") " + e);
+            log.error("Unable to filter bitstream " + derivative.sourceId, e);
+        } finally {
+            if (!queued) {
+                discard(derivative);
+            }
+        }
+    }
+
+    /**
+     * Store the filtered bitstreams on the writer thread, until all workers are done
+     */
+    private void write() {
+        Context context = null;
+        try {
+            context = new Context(Context.Mode.BATCH_EDIT);
+            context.turnOffAuthorisationSystem();
+            int uncommitted = 0;
+            while (true) {
+                Derivative derivative = filtered.poll(IDLE_COMMIT_MILLIS, TimeUnit.MILLISECONDS);
+                if (derivative == null) {
+                    if (uncommitted > 0) {
+                        // don't keep the stored bitstreams uncommitted while the workers are busy
+                        context.commit();
+                        uncommitted = 0;
+                    } else if (finishing) {
+                        break;
+                    }
+                    continue;
+                }
+                if (failure != null) {
+                    discard(derivative);
+                    continue;
+                }
+                try {
+                    if (mediaFilterService.storeFilteredBitstream(context, derivative.itemId, derivative.sourceId,
+                                                                  derivative.filter, derivative.newName,
+                                                                  derivative.file)) {
+                        stored.incrementAndGet();
+                        uncommitted++;
+                    }
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    System.out.println("ERROR storing filtered bitstream, skipping bitstream #"
+                                           + derivative.sourceId + " " + e);
+                    log.error("Unable to store the filtered bitstream of " + derivative.sourceId, e);
+                } finally {
+                    discard(derivative);
+                }
+                if (uncommitted >= batchSize) {
+                    context.commit();
+                    uncommitted = 0;
+                    logProgress();
+                }
+            }
+            context.complete();
+        } catch (Exception e) {
+            log.error("Unable to store the filtered bitstreams", e);
+            failure = e;
+            // keep releasing the workers, whose results are dropped
+            Derivative derivative;
+            while (!finishing || !filtered.isEmpty()) {
+                try {
+                    derivative = filtered.poll(IDLE_COMMIT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (derivative != null) {
+                    discard(derivative);
+                }
+            }
+        } finally {
+            if (context != null && context.isValid()) {
+                context.abort();
+            }
+        }
+    }
+
+    private void discard(Derivative derivative) {
+        if (derivative.file != null && derivative.file.exists() && !derivative.file.delete()) {
+            log.warn("Unable to delete " + derivative.file.getAbsolutePath());
+        }
+        derivative.file = null;
+        inProgress.get(derivative.filterKey).release();
+    }
+
+    private void logProgress() {
+        if (isQuiet) {
+            return;
+        }
+        double seconds = Math.max(1, System.currentTimeMillis() - start) / 1000.0;
+        System.out.println(String.format("Filtered %d of %d bitstreams (%.1f bitstreams/s), %d failed",
+                                         stored.get(), submitted.get(), stored.get() / seconds, failed.get()));
+    }
+}
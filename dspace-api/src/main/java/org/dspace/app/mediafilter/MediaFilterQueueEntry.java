@@ -0,0 +1,103 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.dspace.content.Item;
+import org.dspace.core.ReloadableEntity;
+import org.hibernate.proxy.HibernateProxyHelper;
+
+/**
+ * An item whose bitstreams changed since the last run of the media filters, queued by the {@link MediaFilterConsumer}.
+ * An item may be queued more than once.
+ */
+@Entity
+@Table(name = "mediafilter_queue")
+public class MediaFilterQueueEntry implements ReloadableEntity<Integer> {
+
+    @Id
+    @Column(name = "queue_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mediafilter_queue_seq")
+    @SequenceGenerator(name = "mediafilter_queue_seq", sequenceName = "mediafilter_queue_seq", allocationSize = 1)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+
+    @Column(name = "queued_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date queuedDate;
+
+    /**
+     * Protected constructor, create handled by the
+     * {@link org.dspace.app.mediafilter.service.MediaFilterStateService}
+     */
+    protected MediaFilterQueueEntry() {
+    }
+
+    @Override
+    public Integer getID() {
+        return id;
+    }
+
+    /**
+     * @return the queued item
+     */
+    public Item getItem() {
+        return item;
+    }
+
+    void setItem(Item item) {
+        this.item = item;
+    }
+
+    /**
+     * @return when the item was queued
+     */
+    public Date getQueuedDate() {
+        return queuedDate;
+    }
+
+    void setQueuedDate(Date queuedDate) {
+        this.queuedDate = queuedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        Class<?> objClass = HibernateProxyHelper.getClassWithoutInitializingProxy(o);
+        if (getClass() != objClass) {
+            return false;
+        }
+        final MediaFilterQueueEntry that = (MediaFilterQueueEntry) o;
+        return this.getID().equals(that.getID());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 83 * hash + this.getID();
+        return hash;
+    }
+}
@@ -7,14 +7,20 @@
  */
 package org.dspace.app.mediafilter;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.InputStream;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.app.mediafilter.service.MediaFilterService;
+import org.dspace.app.mediafilter.service.MediaFilterStateService;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.Bitstream;
 import org.dspace.content.BitstreamFormat;
@@ -66,6 +72,8 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     protected ItemService itemService;
     @Autowired(required = true)
     protected ConfigurationService configurationService;
+    @Autowired(required = true)
+    protected MediaFilterStateService mediaFilterStateService;
 
     protected int max2Process = Integer.MAX_VALUE;  // maximum number items to process
 
@@ -85,12 +93,22 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     protected boolean isQuiet = false;
     protected boolean isForce = false; // default to not forced
 
+    protected int workers = 1; // default number of worker threads of each filter, 1 to filter in the calling thread
+
+    protected MediaFilterPipeline pipeline = null; // applies the filters when there are worker threads
+
+    private int runDepth = 0; // number of nested applyFilters* calls
+
+    private static final int QUEUE_BATCH_SIZE = 100; // number of queued items read at once
+
     protected MediaFilterServiceImpl() {
 
     }
 
     @Override
     public void afterPropertiesSet() throws Exception {
+        workers = Math.max(1, configurationService.getIntProperty("filter.org.dspace.app.mediafilter.workers", 1));
+
         String[] publicPermissionFilters = configurationService
             .getArrayProperty("filter.org.dspace.app.mediafilter.publicPermission");
 
@@ -103,6 +121,15 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
 
     @Override
     public void applyFiltersAllItems(Context context) throws Exception {
+        startRun();
+        try {
+            applyFiltersAllItemsInRun(context);
+        } finally {
+            endRun();
+        }
+    }
+
+    protected void applyFiltersAllItemsInRun(Context context) throws Exception {
         if (skipList != null) {
             //if a skip-list exists, we need to filter community-by-community
             //so we can respect what is in the skip-list
@@ -123,46 +150,139 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     @Override
     public void applyFiltersCommunity(Context context, Community community)
         throws Exception {   //only apply filters if community not in skip-list
-        if (!inSkipList(community.getHandle())) {
-            List<Community> subcommunities = community.getSubcommunities();
-            for (Community subcommunity : subcommunities) {
-                applyFiltersCommunity(context, subcommunity);
-            }
+        startRun();
+        try {
+            if (!inSkipList(community.getHandle())) {
+                List<Community> subcommunities = community.getSubcommunities();
+                for (Community subcommunity : subcommunities) {
+                    applyFiltersCommunity(context, subcommunity);
+                }
 
-            List<Collection> collections = community.getCollections();
-            for (Collection collection : collections) {
-                applyFiltersCollection(context, collection);
+                List<Collection> collections = community.getCollections();
+                for (Collection collection : collections) {
+                    applyFiltersCollection(context, collection);
+                }
             }
+        } finally {
+            endRun();
         }
     }
 
     @Override
     public void applyFiltersCollection(Context context, Collection collection)
         throws Exception {
-        //only apply filters if collection not in skip-list
-        if (!inSkipList(collection.getHandle())) {
-            Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
-            while (itemIterator.hasNext() && processed < max2Process) {
-                applyFiltersItem(context, itemIterator.next());
+        startRun();
+        try {
+            //only apply filters if collection not in skip-list
+            if (!inSkipList(collection.getHandle())) {
+                Iterator<Item> itemIterator = itemService.findAllByCollection(context, collection);
+                while (itemIterator.hasNext() && processed < max2Process) {
+                    applyFiltersItem(context, itemIterator.next());
+                }
             }
+        } finally {
+            endRun();
         }
     }
 
     @Override
     public void applyFiltersItem(Context c, Item item) throws Exception {
-        //only apply filters if item not in skip-list
-        if (!inSkipList(item.getHandle())) {
-            //cache this item in MediaFilterManager
-            //so it can be accessed by MediaFilters as necessary
-            currentItem = item;
-
-            if (filterItem(c, item)) {
-                // increment processed count
-                ++processed;
+        startRun();
+        try {
+            //only apply filters if item not in skip-list
+            if (!inSkipList(item.getHandle())) {
+                //cache this item in MediaFilterManager
+                //so it can be accessed by MediaFilters as necessary
+                currentItem = item;
+
+                if (filterItem(c, item)) {
+                    // increment processed count
+                    ++processed;
+                }
+                // clear item objects from context cache and internal cache
+                c.uncacheEntity(currentItem);
+                currentItem = null;
+            }
+        } finally {
+            endRun();
+        }
+    }
+
+    @Override
+    public void applyFiltersQueued(Context context) throws Exception {
+        startRun();
+        try {
+            List<UUID> itemIds = mediaFilterStateService.findQueuedItemIds(context, QUEUE_BATCH_SIZE);
+            while (!itemIds.isEmpty() && processed < max2Process) {
+                for (UUID itemId : itemIds) {
+                    if (processed >= max2Process) {
+                        // the other items stay queued for the next run
+                        break;
+                    }
+                    mediaFilterStateService.dequeue(context, itemId);
+                    Item item = itemService.find(context, itemId);
+                    if (item != null && item.isArchived() && !inSkipListHierarchy(context, item)) {
+                        applyFiltersItem(context, item);
+                    }
+                }
+                itemIds = mediaFilterStateService.findQueuedItemIds(context, QUEUE_BATCH_SIZE);
+            }
+        } finally {
+            endRun();
+        }
+    }
+
+    /**
+     * Whether an item is only in collections skipped by the skip-list, directly or through their communities, as
+     * {@link #applyFiltersAllItems} would then never reach it
+     *
+     * @param context context
+     * @param item    the item
+     * @return true if the item has to be skipped
+     * @throws SQLException if database error
+     */
+    protected boolean inSkipListHierarchy(Context context, Item item) throws SQLException {
+        if (skipList == null || item.getCollections().isEmpty()) {
+            return false;
+        }
+        for (Collection collection : item.getCollections()) {
+            boolean skipped = skipList.contains(collection.getHandle());
+            for (Community community : communityService.getAllParents(context, collection)) {
+                skipped |= skipList.contains(community.getHandle());
+            }
+            if (!skipped) {
+                return false;
+            }
+        }
+        if (!isQuiet) {
+            System.out.println("SKIP-LIST: skipped item " + item.getHandle() + " within a skipped collection");
+        }
+        return true;
+    }
+
+    /**
+     * Start applying the filters. The outermost call of a run sets up the worker threads, if any.
+     */
+    protected void startRun() {
+        if (runDepth++ == 0 && workers > 1) {
+            pipeline = new MediaFilterPipeline(this, configurationService.getIntProperty(
+                "filter.org.dspace.app.mediafilter.batch.size", 100), isVerbose, isQuiet);
+        }
+    }
+
+    /**
+     * Stop applying the filters. The outermost call of a run waits for the worker threads to be done, and for the
+     * filtered bitstreams to be stored.
+     *
+     * @throws Exception if the filtered bitstreams couldn't be stored
+     */
+    protected void endRun() throws Exception {
+        if (--runDepth == 0 && pipeline != null) {
+            try {
+                pipeline.finish();
+            } finally {
+                pipeline = null;
             }
-            // clear item objects from context cache and internal cache
-            c.uncacheEntity(currentItem);
-            currentItem = null;
         }
     }
 
@@ -190,31 +310,21 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         // iterate through filter classes. A single format may be actioned
         // by more than one filter
         for (FormatFilter filterClass : filterClasses) {
-            //List fmts = (List)filterFormats.get(filterClasses[i].getClass().getName());
-            String pluginName = null;
-
-            //if this filter class is a SelfNamedPlugin,
-            //its list of supported formats is different for
-            //differently named "plugin"
-            if (SelfNamedPlugin.class.isAssignableFrom(filterClass.getClass())) {
-                //get plugin instance name for this media filter
-                pluginName = ((SelfNamedPlugin) filterClass).getPluginInstanceName();
-            }
-
             //Get list of supported formats for the filter (and possibly named plugin)
             //For SelfNamedPlugins, map key is:
             //  <class-name><separator><plugin-name>
             //For other MediaFilters, map key is just:
             //  <class-name>
-            List<String> fmts = filterFormats.get(filterClass.getClass().getName() +
-                                                      (pluginName != null ? FILTER_PLUGIN_SEPARATOR + pluginName : ""));
+            List<String> fmts = filterFormats.get(getFilterKey(filterClass, FILTER_PLUGIN_SEPARATOR));
 
             if (fmts.contains(myBitstream.getFormat(context).getShortDescription())) {
                 try {
                     // only update item if bitstream not skipped
                     if (processBitstream(context, myItem, myBitstream, filterClass)) {
-                        itemService.update(context, myItem); // Make sure new bitstream has a sequence
-                        // number
+                        if (pipeline == null) {
+                            // Make sure new bitstream has a sequence number, the writer does it otherwise
+                            itemService.update(context, myItem);
+                        }
                         filtered = true;
                     }
                 } catch (Exception e) {
@@ -282,8 +392,10 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                     try {
                         // only update item if bitstream not skipped
                         if (processBitstream(context, myItem, myBitstream, filterClass)) {
-                            itemService.update(context, myItem); // Make sure new bitstream has a sequence
-                            // number
+                            if (pipeline == null) {
+                                // Make sure new bitstream has a sequence number, the writer does it otherwise
+                                itemService.update(context, myItem);
+                            }
                             filtered = true;
                         }
                     } catch (Exception e) {
@@ -300,34 +412,39 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
     @Override
     public boolean processBitstream(Context context, Item item, Bitstream source, FormatFilter formatFilter)
         throws Exception {
+        String filterKey = getFilterKey(formatFilter, ".");
+        String filterVersion = getFilterVersion(filterKey);
+        boolean overWrite = isForce;
+
+        if (!isForce) {
+            MediaFilterState state = mediaFilterStateService.find(context, source, filterKey);
+            // the filtered bitstream may have been deleted since, e.g. by an administrator
+            if (mediaFilterStateService.isUpToDate(state, source, filterVersion)
+                && findFilteredBitstream(itemService.getBundles(item, formatFilter.getBundleName()),
+                                         formatFilter.getFilteredName(source.getName())).getRight() != null) {
+                if (isVerbose) {
+                    System.out.println("SKIPPED: bitstream " + source.getID()
+                                           + " (item: " + item.getHandle() + ") because it is already filtered");
+                }
+                return false;
+            }
+            // the source or the filter changed since the bitstream was filtered, replace the previous result
+            overWrite = state != null;
+        }
+
         //do pre-processing of this bitstream, and if it fails, skip this bitstream!
         if (!formatFilter.preProcessBitstream(context, item, source, isVerbose)) {
             return false;
         }
 
-        boolean overWrite = isForce;
-
         // get bitstream filename, calculate destination filename
         String newName = formatFilter.getFilteredName(source.getName());
 
         // check if destination bitstream exists
-        Bundle existingBundle = null;
-        Bitstream existingBitstream = null;
         List<Bundle> bundles = itemService.getBundles(item, formatFilter.getBundleName());
-
-        if (bundles.size() > 0) {
-            // only finds the last match (FIXME?)
-            for (Bundle bundle : bundles) {
-                List<Bitstream> bitstreams = bundle.getBitstreams();
-
-                for (Bitstream bitstream : bitstreams) {
-                    if (bitstream.getName().trim().equals(newName.trim())) {
-                        existingBundle = bundle;
-                        existingBitstream = bitstream;
-                    }
-                }
-            }
-        }
+        Pair<Bundle, Bitstream> existing = findFilteredBitstream(bundles, newName);
+        Bundle existingBundle = existing.getLeft();
+        Bitstream existingBitstream = existing.getRight();
 
         // if exists and overwrite = false, exit
         if (!overWrite && (existingBitstream != null)) {
@@ -335,6 +452,8 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                 System.out.println("SKIPPED: bitstream " + source.getID()
                                        + " (item: " + item.getHandle() + ") because '" + newName + "' already exists");
             }
+            // filtered before the state was recorded, don't look at it again
+            mediaFilterStateService.update(context, source, filterKey, filterVersion);
 
             return false;
         }
@@ -346,6 +465,13 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
 
         System.out.println("File: " + newName);
 
+        if (pipeline != null) {
+            // filtered by a worker thread, then stored by the writer thread
+            pipeline.submit(context, item, source, formatFilter, filterKey, newName, configurationService
+                .getIntProperty("filter." + filterKey + ".workers", workers));
+            return true;
+        }
+
         // start filtering of the bitstream, using try with resource to close all InputStreams properly
         try (
                 // get the source stream
@@ -362,45 +488,8 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
                 return false;
             }
 
-            Bundle targetBundle; // bundle we're modifying
-            if (bundles.size() < 1) {
-                // create new bundle if needed
-                targetBundle = bundleService.create(context, item, formatFilter.getBundleName());
-            } else {
-                // take the first match as we already looked out for the correct bundle name
-                targetBundle = bundles.get(0);
-            }
-
-            // create bitstream to store the filter result
-            Bitstream b = bitstreamService.create(context, targetBundle, destStream);
-            // set the name, source and description of the bitstream
-            b.setName(context, newName);
-            b.setSource(context, "Written by FormatFilter " + formatFilter.getClass().getName() +
-                    " on " + DCDate.getCurrent() + " (GMT).");
-            b.setDescription(context, formatFilter.getDescription());
-            // Set the format of the bitstream
-            BitstreamFormat bf = bitstreamFormatService.findByShortDescription(context,
-                    formatFilter.getFormatString());
-            bitstreamService.setFormat(context, b, bf);
-            bitstreamService.update(context, b);
-
-            //Set permissions on the derivative bitstream
-            //- First remove any existing policies
-            authorizeService.removeAllPolicies(context, b);
-
-            //- Determine if this is a public-derivative format
-            if (publicFiltersClasses.contains(formatFilter.getClass().getSimpleName())) {
-                //- Set derivative bitstream to be publicly accessible
-                Group anonymous = groupService.findByName(context, Group.ANONYMOUS);
-                authorizeService.addPolicy(context, b, Constants.READ, anonymous);
-            } else {
-                //- Inherit policies from the source bitstream
-                authorizeService.inheritPolicies(context, source, b);
-            }
-
-            //do post-processing of the generated bitstream
-            formatFilter.postProcessBitstream(context, item, b);
-
+            storeFilteredBitstream(context, item, source, formatFilter, newName, bundles, destStream);
+            mediaFilterStateService.update(context, source, filterKey, filterVersion);
         } catch (OutOfMemoryError oome) {
             System.out.println("!!! OutOfMemoryError !!!");
         }
@@ -419,6 +508,158 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         return true;
     }
 
+    /**
+     * Find the bitstream previously produced by a filter
+     *
+     * @param bundles the bundles of the filter
+     * @param newName the name of the filtered bitstream
+     * @return the bundle and bitstream found, or nulls
+     */
+    protected Pair<Bundle, Bitstream> findFilteredBitstream(List<Bundle> bundles, String newName) {
+        Bundle existingBundle = null;
+        Bitstream existingBitstream = null;
+        // only finds the last match (FIXME?)
+        for (Bundle bundle : bundles) {
+            List<Bitstream> bitstreams = bundle.getBitstreams();
+
+            for (Bitstream bitstream : bitstreams) {
+                if (bitstream.getName().trim().equals(newName.trim())) {
+                    existingBundle = bundle;
+                    existingBitstream = bitstream;
+                }
+            }
+        }
+        return Pair.of(existingBundle, existingBitstream);
+    }
+
+    /**
+     * Store the bitstream produced by a filter, with its format and policies
+     *
+     * @param context      context
+     * @param item         the item of the source bitstream
+     * @param source       the source bitstream
+     * @param formatFilter the filter
+     * @param newName      the name of the filtered bitstream
+     * @param bundles      the bundles of the filter
+     * @param destStream   the content of the filtered bitstream
+     * @throws Exception if error
+     */
+    protected void storeFilteredBitstream(Context context, Item item, Bitstream source, FormatFilter formatFilter,
+                                          String newName, List<Bundle> bundles, InputStream destStream)
+        throws Exception {
+        Bundle targetBundle; // bundle we're modifying
+        if (bundles.size() < 1) {
+            // create new bundle if needed
+            targetBundle = bundleService.create(context, item, formatFilter.getBundleName());
+        } else {
+            // take the first match as we already looked out for the correct bundle name
+            targetBundle = bundles.get(0);
+        }
+
+        // create bitstream to store the filter result
+        Bitstream b = bitstreamService.create(context, targetBundle, destStream);
+        // set the name, source and description of the bitstream
+        b.setName(context, newName);
+        b.setSource(context, "Written by FormatFilter " + formatFilter.getClass().getName() +
+                " on " + DCDate.getCurrent() + " (GMT).");
+        b.setDescription(context, formatFilter.getDescription());
+        // Set the format of the bitstream
+        BitstreamFormat bf = bitstreamFormatService.findByShortDescription(context,
+                formatFilter.getFormatString());
+        bitstreamService.setFormat(context, b, bf);
+        bitstreamService.update(context, b);
+
+        //Set permissions on the derivative bitstream
+        //- First remove any existing policies
+        authorizeService.removeAllPolicies(context, b);
+
+        //- Determine if this is a public-derivative format
+        if (publicFiltersClasses.contains(formatFilter.getClass().getSimpleName())) {
+            //- Set derivative bitstream to be publicly accessible
+            Group anonymous = groupService.findByName(context, Group.ANONYMOUS);
+            authorizeService.addPolicy(context, b, Constants.READ, anonymous);
+        } else {
+            //- Inherit policies from the source bitstream
+            authorizeService.inheritPolicies(context, source, b);
+        }
+
+        //do post-processing of the generated bitstream
+        formatFilter.postProcessBitstream(context, item, b);
+    }
+
+    /**
+     * Store the bitstream produced by a worker thread of the {@link MediaFilterPipeline}, replacing the bitstream
+     * previously produced by the filter if any. Called from the writer thread, with its own context.
+     *
+     * @param context      the writer context
+     * @param itemId       the item of the source bitstream
+     * @param sourceId     the source bitstream
+     * @param formatFilter the filter
+     * @param newName      the name of the filtered bitstream
+     * @param file         the content of the filtered bitstream
+     * @return true if stored, false if the item or the source bitstream no longer exist
+     * @throws Exception if error
+     */
+    protected boolean storeFilteredBitstream(Context context, UUID itemId, UUID sourceId, FormatFilter formatFilter,
+                                             String newName, File file) throws Exception {
+        Item item = itemService.find(context, itemId);
+        Bitstream source = bitstreamService.find(context, sourceId);
+        if (item == null || source == null) {
+            return false;
+        }
+        List<Bundle> bundles = itemService.getBundles(item, formatFilter.getBundleName());
+        Pair<Bundle, Bitstream> existing = findFilteredBitstream(bundles, newName);
+        try (InputStream destStream = new FileInputStream(file)) {
+            storeFilteredBitstream(context, item, source, formatFilter, newName, bundles, destStream);
+        }
+        if (existing.getRight() != null) {
+            bundleService.removeBitstream(context, existing.getLeft(), existing.getRight());
+        }
+        // Make sure new bitstream has a sequence number
+        itemService.update(context, item);
+        String filterKey = getFilterKey(formatFilter, ".");
+        mediaFilterStateService.update(context, source, filterKey, getFilterVersion(filterKey));
+
+        if (!isQuiet) {
+            System.out.println("FILTERED: bitstream " + source.getID()
+                                   + " (item: " + item.getHandle() + ") and created '" + newName + "'");
+        }
+        context.uncacheEntity(source);
+        context.uncacheEntity(item);
+        return true;
+    }
+
+    /**
+     * The key of a filter: its class name, followed by its plugin name for SelfNamedPlugins
+     *
+     * @param formatFilter the filter
+     * @param separator    the separator of the class and plugin names
+     * @return the key
+     */
+    protected String getFilterKey(FormatFilter formatFilter, String separator) {
+        String pluginName = null;
+
+        //if this filter class is a SelfNamedPlugin,
+        //its list of supported formats is different for
+        //differently named "plugin"
+        if (SelfNamedPlugin.class.isAssignableFrom(formatFilter.getClass())) {
+            //get plugin instance name for this media filter
+            pluginName = ((SelfNamedPlugin) formatFilter).getPluginInstanceName();
+        }
+        return formatFilter.getClass().getName() + (pluginName != null ? separator + pluginName : "");
+    }
+
+    /**
+     * The version of a filter, from the filter.&lt;key&gt;.version configuration. Changing it makes the next runs
+     * filter again the bitstreams filtered by the previous version.
+     *
+     * @param filterKey the key of the filter, see {@link #getFilterKey}
+     * @return the version, "1" by default
+     */
+    protected String getFilterVersion(String filterKey) {
+        return configurationService.getProperty("filter." + filterKey + ".version", "1");
+    }
+
     @Override
     public Item getCurrentItem() {
         return currentItem;
@@ -451,6 +692,11 @@ public class MediaFilterServiceImpl implements MediaFilterService, InitializingB
         this.isForce = isForce;
     }
 
+    @Override
+    public void setWorkers(int workers) {
+        this.workers = Math.max(1, workers);
+    }
+
     @Override
     public void setMax2Process(int max2Process) {
         this.max2Process = max2Process;
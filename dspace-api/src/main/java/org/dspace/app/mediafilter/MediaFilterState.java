@@ -0,0 +1,145 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+import org.dspace.content.Bitstream;
+import org.dspace.core.ReloadableEntity;
+import org.hibernate.proxy.HibernateProxyHelper;
+
+/**
+ * Records that a media filter processed a bitstream: the checksum of the bitstream and the version of the filter
+ * at that time. The bitstream doesn't have to be filtered again as long as both are unchanged.
+ */
+@Entity
+@Table(name = "mediafilter_state")
+public class MediaFilterState implements ReloadableEntity<Integer> {
+
+    @Id
+    @Column(name = "state_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mediafilter_state_seq")
+    @SequenceGenerator(name = "mediafilter_state_seq", sequenceName = "mediafilter_state_seq", allocationSize = 1)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bitstream_id", nullable = false)
+    private Bitstream bitstream;
+
+    @Column(name = "filter_name", length = 256, nullable = false)
+    private String filterName;
+
+    @Column(name = "source_checksum", length = 64)
+    private String sourceChecksum;
+
+    @Column(name = "filter_version", length = 64)
+    private String filterVersion;
+
+    @Column(name = "processed_date")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date processedDate;
+
+    /**
+     * Protected constructor, create handled by the
+     * {@link org.dspace.app.mediafilter.service.MediaFilterStateService}
+     */
+    protected MediaFilterState() {
+    }
+
+    @Override
+    public Integer getID() {
+        return id;
+    }
+
+    /**
+     * @return the processed bitstream
+     */
+    public Bitstream getBitstream() {
+        return bitstream;
+    }
+
+    void setBitstream(Bitstream bitstream) {
+        this.bitstream = bitstream;
+    }
+
+    /**
+     * @return the key of the filter, its class name followed by its plugin name if any
+     */
+    public String getFilterName() {
+        return filterName;
+    }
+
+    void setFilterName(String filterName) {
+        this.filterName = filterName;
+    }
+
+    /**
+     * @return the checksum of the bitstream when it was processed
+     */
+    public String getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    public void setSourceChecksum(String sourceChecksum) {
+        this.sourceChecksum = sourceChecksum;
+    }
+
+    /**
+     * @return the version of the filter which processed the bitstream
+     */
+    public String getFilterVersion() {
+        return filterVersion;
+    }
+
+    public void setFilterVersion(String filterVersion) {
+        this.filterVersion = filterVersion;
+    }
+
+    /**
+     * @return when the bitstream was processed
+     */
+    public Date getProcessedDate() {
+        return processedDate;
+    }
+
+    public void setProcessedDate(Date processedDate) {
+        this.processedDate = processedDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        Class<?> objClass = HibernateProxyHelper.getClassWithoutInitializingProxy(o);
+        if (getClass() != objClass) {
+            return false;
+        }
+        final MediaFilterState that = (MediaFilterState) o;
+        return this.getID().equals(that.getID());
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 79 * hash + this.getID();
+        return hash;
+    }
+}
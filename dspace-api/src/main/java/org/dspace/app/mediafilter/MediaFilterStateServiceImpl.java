@@ -0,0 +1,94 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.dspace.app.mediafilter.dao.MediaFilterQueueDAO;
+import org.dspace.app.mediafilter.dao.MediaFilterStateDAO;
+import org.dspace.app.mediafilter.service.MediaFilterStateService;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Service implementation for the MediaFilterState and MediaFilterQueueEntry objects.
+ * This class is responsible for all business logic calls for these objects and is autowired by spring.
+ * This class should never be accessed directly.
+ */
+public class MediaFilterStateServiceImpl implements MediaFilterStateService {
+
+    @Autowired(required = true)
+    protected MediaFilterStateDAO mediaFilterStateDAO;
+
+    @Autowired(required = true)
+    protected MediaFilterQueueDAO mediaFilterQueueDAO;
+
+    protected MediaFilterStateServiceImpl() {
+
+    }
+
+    @Override
+    public MediaFilterState find(Context context, Bitstream bitstream, String filterName) throws SQLException {
+        return mediaFilterStateDAO.findByBitstreamAndFilter(context, bitstream, filterName);
+    }
+
+    @Override
+    public boolean isUpToDate(MediaFilterState state, Bitstream bitstream, String filterVersion) {
+        return state != null
+            && Objects.equals(state.getSourceChecksum(), bitstream.getChecksum())
+            && Objects.equals(state.getFilterVersion(), filterVersion);
+    }
+
+    @Override
+    public void update(Context context, Bitstream bitstream, String filterName, String filterVersion)
+        throws SQLException {
+        MediaFilterState state = mediaFilterStateDAO.findByBitstreamAndFilter(context, bitstream, filterName);
+        if (state == null) {
+            state = new MediaFilterState();
+            state.setBitstream(bitstream);
+            state.setFilterName(filterName);
+            state = mediaFilterStateDAO.create(context, state);
+        }
+        state.setSourceChecksum(bitstream.getChecksum());
+        state.setFilterVersion(filterVersion);
+        state.setProcessedDate(new Date());
+        mediaFilterStateDAO.save(context, state);
+    }
+
+    @Override
+    public void enqueue(Context context, Item item) throws SQLException {
+        // items queued concurrently by other transactions may be queued twice, which is harmless
+        if (!mediaFilterQueueDAO.isQueued(context, item)) {
+            MediaFilterQueueEntry entry = new MediaFilterQueueEntry();
+            entry.setItem(item);
+            entry.setQueuedDate(new Date());
+            mediaFilterQueueDAO.create(context, entry);
+        }
+    }
+
+    @Override
+    public List<UUID> findQueuedItemIds(Context context, int limit) throws SQLException {
+        return mediaFilterQueueDAO.findQueuedItemIds(context, limit);
+    }
+
+    @Override
+    public int countQueuedItems(Context context) throws SQLException {
+        return mediaFilterQueueDAO.countQueuedItems(context);
+    }
+
+    @Override
+    public void dequeue(Context context, UUID itemId) throws SQLException {
+        mediaFilterQueueDAO.deleteByItemId(context, itemId);
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter.dao;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import org.dspace.app.mediafilter.MediaFilterQueueEntry;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+
+/**
+ * Database Access Object interface class for the MediaFilterQueueEntry object.
+ * The implementation of this class is responsible for all database calls for the MediaFilterQueueEntry object and is
+ * autowired by spring
+ * This class should only be accessed from a single service and should never be exposed outside of the API
+ */
+public interface MediaFilterQueueDAO extends GenericDAO<MediaFilterQueueEntry> {
+
+    public boolean isQueued(Context context, Item item) throws SQLException;
+
+    public List<UUID> findQueuedItemIds(Context context, int limit) throws SQLException;
+
+    public int countQueuedItems(Context context) throws SQLException;
+
+    public void deleteByItemId(Context context, UUID itemId) throws SQLException;
+}
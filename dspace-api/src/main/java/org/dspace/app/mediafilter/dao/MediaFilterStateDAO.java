@@ -0,0 +1,27 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter.dao;
+
+import java.sql.SQLException;
+
+import org.dspace.app.mediafilter.MediaFilterState;
+import org.dspace.content.Bitstream;
+import org.dspace.core.Context;
+import org.dspace.core.GenericDAO;
+
+/**
+ * Database Access Object interface class for the MediaFilterState object.
+ * The implementation of this class is responsible for all database calls for the MediaFilterState object and is
+ * autowired by spring
+ * This class should only be accessed from a single service and should never be exposed outside of the API
+ */
+public interface MediaFilterStateDAO extends GenericDAO<MediaFilterState> {
+
+    public MediaFilterState findByBitstreamAndFilter(Context context, Bitstream bitstream, String filterName)
+        throws SQLException;
+}
@@ -0,0 +1,61 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter.dao.impl;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.Query;
+
+import org.dspace.app.mediafilter.MediaFilterQueueEntry;
+import org.dspace.app.mediafilter.dao.MediaFilterQueueDAO;
+import org.dspace.content.Item;
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the MediaFilterQueueEntry object.
+ * This class is responsible for all database calls for the MediaFilterQueueEntry object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+public class MediaFilterQueueDAOImpl extends AbstractHibernateDAO<MediaFilterQueueEntry>
+    implements MediaFilterQueueDAO {
+
+    protected MediaFilterQueueDAOImpl() {
+        super();
+    }
+
+    @Override
+    public boolean isQueued(Context context, Item item) throws SQLException {
+        Query query = createQuery(context, "SELECT count(q) FROM MediaFilterQueueEntry q WHERE q.item = :item");
+        query.setParameter("item", item);
+        return count(query) > 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<UUID> findQueuedItemIds(Context context, int limit) throws SQLException {
+        // an item may be queued more than once, it is returned once from its first entry
+        Query query = createQuery(context, "SELECT q.item.id FROM MediaFilterQueueEntry q " +
+            "GROUP BY q.item.id ORDER BY min(q.id)");
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public int countQueuedItems(Context context) throws SQLException {
+        return count(createQuery(context, "SELECT count(DISTINCT q.item.id) FROM MediaFilterQueueEntry q"));
+    }
+
+    @Override
+    public void deleteByItemId(Context context, UUID itemId) throws SQLException {
+        Query query = createQuery(context, "DELETE FROM MediaFilterQueueEntry WHERE item.id = :itemId");
+        query.setParameter("itemId", itemId);
+        query.executeUpdate();
+    }
+}
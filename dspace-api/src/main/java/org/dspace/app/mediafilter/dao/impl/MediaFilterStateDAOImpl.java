@@ -0,0 +1,39 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter.dao.impl;
+
+import java.sql.SQLException;
+import javax.persistence.Query;
+
+import org.dspace.app.mediafilter.MediaFilterState;
+import org.dspace.app.mediafilter.dao.MediaFilterStateDAO;
+import org.dspace.content.Bitstream;
+import org.dspace.core.AbstractHibernateDAO;
+import org.dspace.core.Context;
+
+/**
+ * Hibernate implementation of the Database Access Object interface class for the MediaFilterState object.
+ * This class is responsible for all database calls for the MediaFilterState object and is autowired by spring
+ * This class should never be accessed directly.
+ */
+public class MediaFilterStateDAOImpl extends AbstractHibernateDAO<MediaFilterState> implements MediaFilterStateDAO {
+
+    protected MediaFilterStateDAOImpl() {
+        super();
+    }
+
+    @Override
+    public MediaFilterState findByBitstreamAndFilter(Context context, Bitstream bitstream, String filterName)
+        throws SQLException {
+        Query query = createQuery(context, "SELECT s FROM MediaFilterState s " +
+            "WHERE s.bitstream = :bitstream AND s.filterName = :filterName");
+        query.setParameter("bitstream", bitstream);
+        query.setParameter("filterName", filterName);
+        return singleResult(query);
+    }
+}
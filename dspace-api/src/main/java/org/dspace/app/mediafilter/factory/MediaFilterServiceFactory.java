@@ -8,6 +8,7 @@
 package org.dspace.app.mediafilter.factory;
 
 import org.dspace.app.mediafilter.service.MediaFilterService;
+import org.dspace.app.mediafilter.service.MediaFilterStateService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
@@ -20,6 +21,8 @@ public abstract class MediaFilterServiceFactory {
 
     public abstract MediaFilterService getMediaFilterService();
 
+    public abstract MediaFilterStateService getMediaFilterStateService();
+
     public static MediaFilterServiceFactory getInstance() {
         return DSpaceServicesFactory.getInstance().getServiceManager()
                                     .getServiceByName("mediaFilterServiceFactory", MediaFilterServiceFactory.class);
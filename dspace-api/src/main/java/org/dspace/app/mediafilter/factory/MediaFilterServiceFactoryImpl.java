@@ -8,6 +8,7 @@
 package org.dspace.app.mediafilter.factory;
 
 import org.dspace.app.mediafilter.service.MediaFilterService;
+import org.dspace.app.mediafilter.service.MediaFilterStateService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -20,9 +21,16 @@ public class MediaFilterServiceFactoryImpl extends MediaFilterServiceFactory {
 
     @Autowired(required = true)
     private MediaFilterService mediaFilterService;
+    @Autowired(required = true)
+    private MediaFilterStateService mediaFilterStateService;
 
     @Override
     public MediaFilterService getMediaFilterService() {
         return mediaFilterService;
     }
+
+    @Override
+    public MediaFilterStateService getMediaFilterStateService() {
+        return mediaFilterStateService;
+    }
 }
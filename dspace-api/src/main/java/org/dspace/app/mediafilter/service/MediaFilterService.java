@@ -43,6 +43,16 @@ public interface MediaFilterService {
 
     public void applyFiltersItem(Context c, Item item) throws Exception;
 
+    /**
+     * Apply the filters to the items queued by the media filter event consumer, that is the items installed or
+     * given new bitstreams since the previous run, and remove them from the queue. Items beyond the maximum number
+     * of items to process stay queued for the next run.
+     *
+     * @param context context
+     * @throws Exception if error
+     * @see org.dspace.app.mediafilter.MediaFilterConsumer
+     */
+    public void applyFiltersQueued(Context context) throws Exception;
 
     /**
      * Iterate through the item's bitstreams in the ORIGINAL bundle, applying
@@ -119,6 +129,14 @@ public interface MediaFilterService {
 
     public void setMax2Process(int max2Process);
 
+    /**
+     * Set the default number of worker threads of each filter. With more than one, the filters run in worker
+     * threads, and their results are stored and committed in batches by a writer thread with its own context.
+     *
+     * @param workers the number of worker threads, 1 to filter in the calling thread
+     */
+    public void setWorkers(int workers);
+
     public void setFilterClasses(List<FormatFilter> filterClasses);
 
     public void setSkipList(List<String> skipList);
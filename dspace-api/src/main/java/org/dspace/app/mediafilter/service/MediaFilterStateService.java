@@ -0,0 +1,93 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter.service;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import org.dspace.app.mediafilter.MediaFilterState;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Item;
+import org.dspace.core.Context;
+
+/**
+ * Service keeping track of the bitstreams processed by the media filters, and of the items changed since, so that
+ * a run of the media filters only has to look at what changed.
+ */
+public interface MediaFilterStateService {
+
+    /**
+     * Find what a filter last recorded for a bitstream
+     *
+     * @param context    context
+     * @param bitstream  the bitstream
+     * @param filterName the key of the filter
+     * @return the state, or null if the filter never recorded the bitstream
+     * @throws SQLException if database error
+     */
+    public MediaFilterState find(Context context, Bitstream bitstream, String filterName) throws SQLException;
+
+    /**
+     * Whether a filter already processed the current content of a bitstream, with its current version. The caller
+     * still has to check that the filtered bitstream exists.
+     *
+     * @param state         the state recorded by the filter for the bitstream
+     * @param bitstream     the bitstream
+     * @param filterVersion the current version of the filter
+     * @return true if the bitstream doesn't have to be filtered again
+     */
+    public boolean isUpToDate(MediaFilterState state, Bitstream bitstream, String filterVersion);
+
+    /**
+     * Record that a filter processed the current content of a bitstream
+     *
+     * @param context       context
+     * @param bitstream     the bitstream
+     * @param filterName    the key of the filter
+     * @param filterVersion the current version of the filter
+     * @throws SQLException if database error
+     */
+    public void update(Context context, Bitstream bitstream, String filterName, String filterVersion)
+        throws SQLException;
+
+    /**
+     * Queue an item whose bitstreams have to be filtered, unless it is already queued
+     *
+     * @param context context
+     * @param item    the item
+     * @throws SQLException if database error
+     */
+    public void enqueue(Context context, Item item) throws SQLException;
+
+    /**
+     * Find the queued items, in the order they were queued
+     *
+     * @param context context
+     * @param limit   the maximum number of items
+     * @return the ids of the items
+     * @throws SQLException if database error
+     */
+    public List<UUID> findQueuedItemIds(Context context, int limit) throws SQLException;
+
+    /**
+     * @param context context
+     * @return the number of queued items
+     * @throws SQLException if database error
+     */
+    public int countQueuedItems(Context context) throws SQLException;
+
+    /**
+     * Remove an item from the queue
+     *
+     * @param context context
+     * @param itemId  the id of the item
+     * @throws SQLException if database error
+     */
+    public void dequeue(Context context, UUID itemId) throws SQLException;
+}
@@ -0,0 +1,169 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Item counts of all communities and collections, shared by all requests.
+ * <p>
+ * The counts are kept for a configurable time to live, and are marked as outdated when the items change. Outdated
+ * counts are still returned while they are reloaded in the background, so readers never wait for a reload. Only
+ * the very first lookup, when there are no counts at all yet, loads them in the calling thread, with the loader
+ * given by the caller.
+ */
+public class ItemCountCache {
+    /**
+     * Log4j logger
+     */
+    private static Logger log = org.apache.logging.log4j.LogManager.getLogger(ItemCountCache.class);
+
+    /**
+     * Loads the item counts of all communities and collections
+     */
+    public interface Loader {
+        /**
+         * @return the item counts
+         * @throws ItemCountException if count error
+         */
+        public Counts load() throws ItemCountException;
+    }
+
+    /**
+     * Item counts of the communities and collections, keyed by their id
+     */
+    public static class Counts {
+        private final Map<String, Integer> communities;
+        private final Map<String, Integer> collections;
+
+        public Counts(Map<String, Integer> communities, Map<String, Integer> collections) {
+            this.communities = Map.copyOf(communities);
+            this.collections = Map.copyOf(collections);
+        }
+
+        public Map<String, Integer> getCommunities() {
+            return communities;
+        }
+
+        public Map<String, Integer> getCollections() {
+            return collections;
+        }
+    }
+
+    private static final class Snapshot {
+        private final Counts counts;
+        private final long loaded;
+        private final long generation;
+
+        private Snapshot(Counts counts, long loaded, long generation) {
+            this.counts = counts;
+            this.loaded = loaded;
+            this.generation = generation;
+        }
+    }
+
+    private final Loader loader;
+    private final long timeToLive;
+    private final Executor executor;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Incremented every time the counts are invalidated
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    /**
+     * @param loader     loads the counts in the background
+     * @param timeToLive the number of milliseconds after which the counts are reloaded
+     * @param executor   runs the background reloads
+     */
+    public ItemCountCache(Loader loader, long timeToLive, Executor executor) {
+        this.loader = loader;
+        this.timeToLive = timeToLive;
+        this.executor = executor;
+    }
+
+    /**
+     * Get the item counts, starting a reload in the background if they are outdated.
+     *
+     * @param initialLoader loads the counts in the calling thread if there are none yet
+     * @return the item counts
+     * @throws ItemCountException if the counts couldn't be loaded the first time
+     */
+    public Counts get(Loader initialLoader) throws ItemCountException {
+        Snapshot current = snapshot;
+        if (current == null) {
+            long loading = generation.get();
+            Counts counts = initialLoader.load();
+            store(counts, loading);
+            return counts;
+        }
+        if (isOutdated(current)) {
+            refresh();
+        }
+        return current.counts;
+    }
+
+    /**
+     * Mark the counts as outdated, and reload them in the background. The current counts are returned until the
+     * reload completes.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (snapshot != null) {
+            refresh();
+        }
+    }
+
+    private boolean isOutdated(Snapshot current) {
+        return current.generation != generation.get() || System.currentTimeMillis() - current.loaded >= timeToLive;
+    }
+
+    private void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            // a reload is already running
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                boolean loaded = false;
+                try {
+                    long loading = generation.get();
+                    store(loader.load(), loading);
+                    loaded = true;
+                } catch (ItemCountException | RuntimeException e) {
+                    log.error("Unable to reload the item counts", e);
+                } finally {
+                    refreshing.set(false);
+                }
+                if (loaded && snapshot.generation != generation.get()) {
+                    // invalidated while loading, the counts may already be outdated
+                    refresh();
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            log.error("Unable to schedule the reload of the item counts", e);
+        }
+    }
+
+    private synchronized void store(Counts counts, long loading) {
+        Snapshot current = snapshot;
+        if (current == null || current.generation <= loading) {
+            snapshot = new Snapshot(counts, System.currentTimeMillis(), loading);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+
+/**
+ * Class for marking the shared community and collection item counts as outdated when items are installed,
+ * withdrawn, reinstated, moved, mapped or deleted. The counts are reloaded in the background once all events of
+ * a commit have been consumed.
+ *
+ * @see ItemCountDAOSolr
+ */
+public class ItemCountConsumer implements Consumer {
+
+    /**
+     * Whether an event changing the counts has been consumed since the last end()
+     */
+    private boolean changed = false;
+
+    /**
+     * Initialize - allocate any resources required to operate.
+     * Called at the start of ANY sequence of event consume() calls.
+     *
+     * @throws Exception if error
+     */
+    @Override
+    public void initialize() throws Exception {
+        // no-op
+    }
+
+    /**
+     * Consume an event
+     *
+     * @param ctx   the execution context object
+     * @param event the content event
+     * @throws Exception if error
+     */
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        changed = true;
+    }
+
+    /**
+     * Signal that there are no more events queued in this
+     * event stream.
+     *
+     * @param ctx Context
+     * @throws Exception if error
+     */
+    @Override
+    public void end(Context ctx) throws Exception {
+        if (changed) {
+            changed = false;
+            ItemCountDAOSolr.invalidateSharedCounts();
+        }
+    }
+
+    /**
+     * Finish - free any allocated resources.
+     * Called when consumer is being released
+     *
+     * @param ctx Context
+     * @throws Exception if error
+     */
+    @Override
+    public void finish(Context ctx) throws Exception {
+        // no-op
+    }
+}
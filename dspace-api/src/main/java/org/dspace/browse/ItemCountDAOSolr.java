@@ -7,9 +7,11 @@
  */
 package org.dspace.browse;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
 
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Collection;
@@ -24,12 +26,17 @@ import org.dspace.discovery.SearchService;
 import org.dspace.discovery.SearchServiceException;
 import org.dspace.discovery.configuration.DiscoveryConfigurationParameters;
 import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * Discovery (Solr) driver implementing ItemCountDAO interface to look up item
- * count information in communities and collections. Caching operations are
- * intentionally not implemented because Solr already is our cache.
+ * count information in communities and collections.
+ * <p>
+ * The counts seen by anonymous users are the same for all requests, so they are kept in an {@link ItemCountCache}
+ * shared by the whole JVM, for webui.strengths.cache.ttl seconds (0 disables it). The cache is invalidated by the
+ * {@link ItemCountConsumer}. The counts of authenticated users, and of anonymous users with special groups (e.g. by
+ * IP address), depend on their permissions, and are fetched once per instance.
  *
  * @author Ivan Masár, Andrea Bollini
  */
@@ -39,6 +46,11 @@ public class ItemCountDAOSolr implements ItemCountDAO {
      */
     private static Logger log = org.apache.logging.log4j.LogManager.getLogger(ItemCountDAOSolr.class);
 
+    /**
+     * Item counts of the anonymous users, shared by all instances. Created on first use.
+     */
+    private static volatile ItemCountCache sharedCounts = null;
+
     /**
      * DSpace context
      */
@@ -84,7 +96,15 @@ public class ItemCountDAOSolr implements ItemCountDAO {
      */
     @Override
     public int getCount(DSpaceObject dso) throws ItemCountException {
-        loadCount();
+        if (isShared()) {
+            // the counts are loaded with the context of the request the first time, and in a context of the
+            // reloading thread afterwards
+            ItemCountCache.Counts counts = getSharedCounts().get(() -> loadCount(context));
+            communitiesCount = counts.getCommunities();
+            collectionsCount = counts.getCollections();
+        } else {
+            loadCount();
+        }
         Integer val;
         if (dso instanceof Collection) {
             val = collectionsCount.get(String.valueOf(((Collection) dso).getID()));
@@ -112,8 +132,85 @@ public class ItemCountDAOSolr implements ItemCountDAO {
             return;
         }
 
-        communitiesCount = new HashMap<String, Integer>();
-        collectionsCount = new HashMap<String, Integer>();
+        ItemCountCache.Counts counts = loadCount(context);
+        communitiesCount = counts.getCommunities();
+        collectionsCount = counts.getCollections();
+    }
+
+    /**
+     * Mark the shared item counts as outdated, they are reloaded in the background.
+     */
+    public static void invalidateSharedCounts() {
+        ItemCountCache cache = sharedCounts;
+        if (cache != null) {
+            cache.invalidate();
+        }
+    }
+
+    /**
+     * @return whether the counts of the current user are the shared ones
+     * @throws ItemCountException if the special groups of the user can't be determined
+     */
+    private boolean isShared() throws ItemCountException {
+        try {
+            return context.getCurrentUser() == null && !context.ignoreAuthorization()
+                && context.getSpecialGroups().isEmpty() && getTimeToLive() > 0;
+        } catch (SQLException e) {
+            throw new ItemCountException(e);
+        }
+    }
+
+    private static long getTimeToLive() {
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        return configurationService.getLongProperty("webui.strengths.cache.ttl", 300);
+    }
+
+    private static ItemCountCache getSharedCounts() {
+        ItemCountCache cache = sharedCounts;
+        if (cache == null) {
+            synchronized (ItemCountDAOSolr.class) {
+                cache = sharedCounts;
+                if (cache == null) {
+                    ItemCountCache.Loader loader = () -> new ItemCountDAOSolr().loadAnonymousCount();
+                    cache = new ItemCountCache(loader, getTimeToLive() * 1000,
+                                               Executors.newSingleThreadExecutor(runnable -> {
+                                                   Thread thread = new Thread(runnable, "item-count-refresh");
+                                                   thread.setDaemon(true);
+                                                   return thread;
+                                               }));
+                    sharedCounts = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Fetch the counts of the anonymous users, in a context of its own. This only runs in the thread reloading the
+     * counts in the background, where aborting the context doesn't affect the session of any request.
+     *
+     * @return the item counts
+     * @throws ItemCountException if count error
+     */
+    private ItemCountCache.Counts loadAnonymousCount() throws ItemCountException {
+        Context anonymous = new Context(Context.Mode.READ_ONLY);
+        try {
+            return loadCount(anonymous);
+        } finally {
+            anonymous.abort();
+        }
+    }
+
+    /**
+     * Fetch the counts of all communities and collections from Solr
+     *
+     * @param context DSpace Context
+     * @return the item counts
+     * @throws ItemCountException if count error
+     */
+    private ItemCountCache.Counts loadCount(Context context) throws ItemCountException {
+        Map<String, Integer> communitiesCount = new HashMap<String, Integer>();
+        Map<String, Integer> collectionsCount = new HashMap<String, Integer>();
 
         DiscoverQuery query = new DiscoverQuery();
         query.setFacetMinCount(1);
@@ -138,6 +235,7 @@ public class ItemCountDAOSolr implements ItemCountDAO {
             for (FacetResult c : collCount) {
                 collectionsCount.put(c.getAsFilterQuery(), (int) c.getCount());
             }
+            return new ItemCountCache.Counts(communitiesCount, collectionsCount);
         } catch (SearchServiceException e) {
             log.error("caught exception: ", e);
             throw new ItemCountException(e);
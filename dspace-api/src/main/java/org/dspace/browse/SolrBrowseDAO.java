@@ -7,11 +7,9 @@
  */
 package org.dspace.browse;
 
-import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
@@ -45,26 +43,6 @@ public class SolrBrowseDAO implements BrowseDAO {
         this.context = context;
     }
 
-    static private class FacetValueComparator
-        implements Comparator, Serializable {
-        @Override
-        public int compare(Object o1, Object o2) {
-            String s1 = "";
-            String s2 = "";
-            if (o1 instanceof FacetResult && o2 instanceof String) {
-                FacetResult c = (FacetResult) o1;
-                s1 = c.getSortValue();
-                s2 = (String) o2;
-            } else if (o2 instanceof FacetResult && o1 instanceof String) {
-                FacetResult c = (FacetResult) o2;
-                s1 = (String) o1;
-                s2 = c.getSortValue();
-            }
-            // both object are FacetResult so they are already sorted
-            return s1.compareTo(s2);
-        }
-    }
-
     /**
      * Log4j log
      */
@@ -171,57 +149,100 @@ public class SolrBrowseDAO implements BrowseDAO {
 
     private boolean showFrequencies;
 
+    /**
+     * The number of distinct values, -1 if not known yet
+     */
+    private int distinctCount = -1;
+
     private DiscoverResult getSolrResponse() throws BrowseException {
         if (sResponse == null) {
             DiscoverQuery query = new DiscoverQuery();
             addLocationScopeFilter(query);
             addStatusFilter(query);
-            if (distinct) {
-                DiscoverFacetField dff;
-                if (StringUtils.isNotBlank(startsWith)) {
-                    dff = new DiscoverFacetField(facetField,
-                        DiscoveryConfigurationParameters.TYPE_TEXT, -1,
-                        DiscoveryConfigurationParameters.SORT.VALUE, startsWith);
-                } else {
-                    dff = new DiscoverFacetField(facetField,
-                        DiscoveryConfigurationParameters.TYPE_TEXT, -1,
-                        DiscoveryConfigurationParameters.SORT.VALUE);
-                }
-                query.addFacetField(dff);
-                query.setFacetMinCount(1);
-                query.setMaxResults(0);
-            } else {
-                query.setMaxResults(limit/* > 0 ? limit : 20*/);
-                if (offset > 0) {
-                    query.setStart(offset);
-                }
-
-                // caution check first authority, value is always present!
-                if (authority != null) {
-                    query.addFilterQueries("{!field f=" + facetField + "_authority_filter}"
-                                               + authority);
-                } else if (value != null && !valuePartial) {
-                    query.addFilterQueries("{!field f=" + facetField + "_value_filter}" + value);
-                } else if (valuePartial) {
-                    query.addFilterQueries("{!field f=" + facetField + "_partial}" + value);
-                }
-                // filter on item to be sure to don't include any other object
-                // indexed in the Discovery Search core
-                query.addFilterQueries("search.resourcetype:" + IndexableItem.TYPE);
-                if (orderField != null) {
-                    query.setSortField("bi_" + orderField + "_sort",
-                                       ascending ? SORT_ORDER.asc : SORT_ORDER.desc);
-                }
+            query.setMaxResults(limit/* > 0 ? limit : 20*/);
+            if (offset > 0) {
+                query.setStart(offset);
+            }
+
+            // caution check first authority, value is always present!
+            if (authority != null) {
+                query.addFilterQueries("{!field f=" + facetField + "_authority_filter}"
+                                           + authority);
+            } else if (value != null && !valuePartial) {
+                query.addFilterQueries("{!field f=" + facetField + "_value_filter}" + value);
+            } else if (valuePartial) {
+                query.addFilterQueries("{!field f=" + facetField + "_partial}" + value);
             }
-            try {
-                sResponse = searcher.search(context, query);
-            } catch (SearchServiceException e) {
-                throw new BrowseException(e);
+            // filter on item to be sure to don't include any other object
+            // indexed in the Discovery Search core
+            query.addFilterQueries("search.resourcetype:" + IndexableItem.TYPE);
+            if (orderField != null) {
+                query.setSortField("bi_" + orderField + "_sort",
+                                   ascending ? SORT_ORDER.asc : SORT_ORDER.desc);
             }
+            sResponse = search(query);
         }
         return sResponse;
     }
 
+    private DiscoverResult search(DiscoverQuery query) throws BrowseException {
+        try {
+            return searcher.search(context, query);
+        } catch (SearchServiceException e) {
+            throw new BrowseException(e);
+        }
+    }
+
+    /**
+     * Build the query for the distinct values of the browse, restricted to the scope of the browse.
+     * No documents are requested, only facets.
+     */
+    private DiscoverQuery getDistinctQuery() {
+        DiscoverQuery query = new DiscoverQuery();
+        addLocationScopeFilter(query);
+        addStatusFilter(query);
+        query.setFacetMinCount(1);
+        query.setMaxResults(0);
+        return query;
+    }
+
+    private String getFacetPrefix() {
+        return StringUtils.isNotBlank(startsWith) ? startsWith : null;
+    }
+
+    /**
+     * Retrieve a page of the distinct values, sorted ascending by their sort value as indexed.
+     *
+     * @param facetOffset the number of values to skip
+     * @param facetLimit  the maximum number of values, -1 for all of them
+     * @return the distinct values
+     * @throws BrowseException if browse error
+     */
+    private List<FacetResult> getDistinctValues(int facetOffset, int facetLimit) throws BrowseException {
+        DiscoverQuery query = getDistinctQuery();
+        query.addFacetField(new DiscoverFacetField(facetField, DiscoveryConfigurationParameters.TYPE_TEXT,
+                                                   facetLimit, DiscoveryConfigurationParameters.SORT.VALUE,
+                                                   getFacetPrefix(), facetOffset));
+        return search(query).getFacetResult(facetField);
+    }
+
+    /**
+     * Count the distinct values, without retrieving them.
+     *
+     * @return the number of distinct values
+     * @throws BrowseException if browse error
+     */
+    private int getDistinctCount() throws BrowseException {
+        if (distinctCount < 0) {
+            DiscoverQuery query = getDistinctQuery();
+            query.addFacetValueCountField(new DiscoverFacetField(facetField, DiscoveryConfigurationParameters.TYPE_TEXT,
+                                                                 0, DiscoveryConfigurationParameters.SORT.VALUE,
+                                                                 getFacetPrefix()));
+            distinctCount = (int) Math.max(0, search(query).getFacetValueCount(facetField));
+        }
+        return distinctCount;
+    }
+
     private void addStatusFilter(DiscoverQuery query) {
         try {
             if (!authorizeService.isAdmin(context)
@@ -246,12 +267,11 @@ public class SolrBrowseDAO implements BrowseDAO {
 
     @Override
     public int doCountQuery() throws BrowseException {
-        DiscoverResult resp = getSolrResponse();
         int count = 0;
         if (distinct) {
-            List<FacetResult> facetResults = resp.getFacetResult(facetField);
-            count = facetResults.size();
+            count = getDistinctCount();
         } else {
+            DiscoverResult resp = getSolrResponse();
             // we need to cast to int to respect the BrowseDAO contract...
             count = (int) resp.getTotalSearchResults();
             // FIXME null the response cache
@@ -264,29 +284,25 @@ public class SolrBrowseDAO implements BrowseDAO {
 
     @Override
     public List doValueQuery() throws BrowseException {
-        DiscoverResult resp = getSolrResponse();
-        List<FacetResult> facet = resp.getFacetResult(facetField);
-        int count = doCountQuery();
         int start = offset > 0 ? offset : 0;
-        int max = limit > 0 ? limit : count; //if negative, return everything
-        List<String[]> result = new ArrayList<>();
+        List<FacetResult> facet;
         if (ascending) {
-            for (int i = start; i < (start + max) && i < count; i++) {
-                FacetResult c = facet.get(i);
-                String freq = showFrequencies ? String.valueOf(c.getCount())
-                    : "";
-                result.add(new String[] {c.getDisplayedValue(),
-                    c.getAuthorityKey(), freq});
-            }
+            // only the requested page is retrieved, if negative return everything
+            facet = getDistinctValues(start, limit > 0 ? limit : -1);
         } else {
-            for (int i = count - start - 1; i >= count - (start + max)
-                && i >= 0; i--) {
-                FacetResult c = facet.get(i);
-                String freq = showFrequencies ? String.valueOf(c.getCount())
-                    : "";
-                result.add(new String[] {c.getDisplayedValue(),
-                    c.getAuthorityKey(), freq});
-            }
+            // Solr only sorts the values ascending, so the page is taken from the end
+            int count = getDistinctCount();
+            int end = count - start;
+            int first = limit > 0 ? Math.max(0, end - limit) : 0;
+            facet = end > 0 ? new ArrayList<>(getDistinctValues(first, end - first)) : new ArrayList<>();
+            Collections.reverse(facet);
+        }
+        List<String[]> result = new ArrayList<>();
+        for (FacetResult c : facet) {
+            String freq = showFrequencies ? String.valueOf(c.getCount())
+                : "";
+            result.add(new String[] {c.getDisplayedValue(),
+                c.getAuthorityKey(), freq});
         }
 
         return result;
@@ -364,16 +380,24 @@ public class SolrBrowseDAO implements BrowseDAO {
     @Override
     public int doDistinctOffsetQuery(String column, String value,
                                      boolean isAscending) throws BrowseException {
-        DiscoverResult resp = getSolrResponse();
-        List<FacetResult> facets = resp.getFacetResult(facetField);
-        Comparator comparator = new SolrBrowseDAO.FacetValueComparator();
-        Collections.sort(facets, comparator);
-        int x = Collections.binarySearch(facets, value, comparator);
-        int ascValue = (x >= 0) ? x : -(x + 1);
+        // Binary search of the position of the first value not sorted before the given value. The values are
+        // sorted in the index, so every probe retrieves a single value instead of the whole list.
+        int count = getDistinctCount();
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            List<FacetResult> probe = getDistinctValues(middle, 1);
+            if (probe.isEmpty() || probe.get(0).getSortValue().compareTo(value) >= 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
         if (isAscending) {
-            return ascValue;
+            return low;
         } else {
-            return doCountQuery() - ascValue;
+            return count - low;
         }
     }
 
@@ -446,6 +470,7 @@ public class SolrBrowseDAO implements BrowseDAO {
     @Override
     public void setStartsWith(String startsWith) {
         this.startsWith = startsWith;
+        distinctCount = -1;
     }
 
     @Override
@@ -558,6 +583,7 @@ public class SolrBrowseDAO implements BrowseDAO {
     @Override
     public void setContainerID(UUID containerID) {
         this.containerID = containerID;
+        distinctCount = -1;
 
     }
 
@@ -682,12 +708,14 @@ public class SolrBrowseDAO implements BrowseDAO {
     @Override
     public void setTable(String table) {
         facetField = table;
+        distinctCount = -1;
     }
 
     @Override
     public void setFilterMappingTables(String tableDis, String tableMap) {
         if (tableDis != null) {
             this.facetField = tableDis;
+            distinctCount = -1;
         }
         // this.fields = tableDis;
         // this.tableMap = tableMap;
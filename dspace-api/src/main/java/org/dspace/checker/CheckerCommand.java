@@ -8,10 +8,22 @@
 package org.dspace.checker;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.checker.factory.CheckerServiceFactory;
@@ -20,6 +32,8 @@ import org.dspace.checker.service.ChecksumResultService;
 import org.dspace.checker.service.MostRecentChecksumService;
 import org.dspace.content.Bitstream;
 import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.storage.bitstore.factory.StorageServiceFactory;
 import org.dspace.storage.bitstore.service.BitstreamStorageService;
 
@@ -30,6 +44,15 @@ import org.dspace.storage.bitstore.service.BitstreamStorageService;
  * against the last calculated checksum for that bitstream.
  * </p>
  *
+ * <p>
+ * With more than one worker, the checksums are computed by a pool of threads
+ * while the dispatching and the database updates stay in the calling thread.
+ * The concurrent reads of each assetstore can be limited, both in number
+ * (checker.store.N.workers) and in bytes per second (checker.bytes-per-second
+ * or checker.store.N.bytes-per-second). The results are committed in batches
+ * (checker.batch.size), so an interrupted run keeps the progress made so far.
+ * </p>
+ *
  * @author Jim Downing
  * @author Grace Carpenter
  * @author Nathan Sarr
@@ -78,16 +101,54 @@ public final class CheckerCommand {
      */
     private boolean reportVerbose = false;
 
+    /**
+     * Number of bitstreams checked concurrently
+     */
+    private int workers = 1;
+
+    /**
+     * Number of results committed at once when checking concurrently
+     */
+    private int batchSize = 100;
+
+    /**
+     * Concurrent checks allowed per assetstore
+     */
+    private final Map<Integer, Semaphore> storePermits = new ConcurrentHashMap<>();
+
+    /**
+     * Read throttle per assetstore, absent if unlimited
+     */
+    private final Map<Integer, RateLimiter> storeThrottles = new ConcurrentHashMap<>();
+
+    private ConfigurationService configurationService = null;
+
     /**
      * Default constructor uses DSpace plugin manager to construct dependencies.
      *
      * @param context Context
      */
     public CheckerCommand(Context context) {
-        checksumService = CheckerServiceFactory.getInstance().getMostRecentChecksumService();
-        checksumHistoryService = CheckerServiceFactory.getInstance().getChecksumHistoryService();
-        bitstreamStorageService = StorageServiceFactory.getInstance().getBitstreamStorageService();
-        checksumResultService = CheckerServiceFactory.getInstance().getChecksumResultService();
+        this(context, CheckerServiceFactory.getInstance().getMostRecentChecksumService(),
+             CheckerServiceFactory.getInstance().getChecksumHistoryService(),
+             StorageServiceFactory.getInstance().getBitstreamStorageService(),
+             CheckerServiceFactory.getInstance().getChecksumResultService(),
+             DSpaceServicesFactory.getInstance().getConfigurationService());
+    }
+
+    /**
+     * Constructor with explicit dependencies, for testing.
+     */
+    CheckerCommand(Context context, MostRecentChecksumService checksumService,
+                   ChecksumHistoryService checksumHistoryService, BitstreamStorageService bitstreamStorageService,
+                   ChecksumResultService checksumResultService, ConfigurationService configurationService) {
+        this.checksumService = checksumService;
+        this.checksumHistoryService = checksumHistoryService;
+        this.bitstreamStorageService = bitstreamStorageService;
+        this.checksumResultService = checksumResultService;
+        this.configurationService = configurationService;
+        workers = configurationService.getIntProperty("checker.workers", 1);
+        batchSize = configurationService.getIntProperty("checker.batch.size", 100);
         this.context = context;
     }
 
@@ -120,6 +181,11 @@ public final class CheckerCommand {
         // bitstream table - this always done.
         checksumService.updateMissingBitstreams(context);
 
+        if (workers > 1) {
+            processConcurrently();
+            return;
+        }
+
         Bitstream bitstream = dispatcher.next();
 
         while (bitstream != null) {
@@ -136,6 +202,144 @@ public final class CheckerCommand {
         }
     }
 
+    /**
+     * Check the bitstreams from the dispatcher with a pool of worker threads computing the checksums. The
+     * bitstreams are dispatched in batches, whose results are committed once all of them are checked.
+     *
+     * @throws SQLException if database error
+     */
+    protected void processConcurrently() throws SQLException {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "checksum-checker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            boolean dispatching = true;
+            while (dispatching) {
+                List<MostRecentChecksum> batch = new ArrayList<>(batchSize);
+                List<Future<Map<String, Object>>> checksums = new ArrayList<>(batchSize);
+                while (batch.size() < Math.max(1, batchSize)) {
+                    Bitstream bitstream = dispatcher.next();
+                    if (bitstream == null) {
+                        dispatching = false;
+                        break;
+                    }
+                    LOG.debug("Dispatching bitstream id = " + bitstream.getID());
+                    MostRecentChecksum info = checksumService.findByBitstream(context, bitstream);
+                    if (info == null || !info.isToBeProcessed() || info.getBitstream().isDeleted()) {
+                        // nothing to compute, handled right away
+                        info = checkBitstream(bitstream);
+                        checksums.add(null);
+                    } else {
+                        // Claim the bitstream, the dispatchers select the bitstreams by these dates so they don't
+                        // return it again while it is checked. The batch is committed once all checks are recorded.
+                        Date claimed = new Date();
+                        info.setProcessStartDate(claimed);
+                        info.setProcessEndDate(claimed);
+                        Bitstream toCheck = info.getBitstream();
+                        checksums.add(executor.submit(() -> computeChecksum(toCheck)));
+                    }
+                    batch.add(info);
+                }
+
+                for (int i = 0; i < batch.size(); i++) {
+                    MostRecentChecksum info = batch.get(i);
+                    if (checksums.get(i) != null) {
+                        recordChecksum(info, checksums.get(i));
+                    }
+                    if (reportVerbose
+                        || !ChecksumResultCode.CHECKSUM_MATCH.equals(info.getChecksumResult().getResultCode())) {
+                        collector.collect(context, info);
+                    }
+                    if (info.getBitstream() != null) {
+                        context.uncacheEntity(info.getBitstream());
+                    }
+                }
+                context.commit();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Compute the checksum of a bitstream, within the concurrency and throughput limits of its assetstore.
+     * Called from the worker threads.
+     *
+     * @param bitstream the bitstream
+     * @return the checksum and the checksum algorithm
+     * @throws IOException if the bitstream can't be read
+     */
+    Map<String, Object> computeChecksum(Bitstream bitstream) throws IOException {
+        int store = bitstream.getStoreNumber();
+        Semaphore permits = storePermits.computeIfAbsent(store, number -> new Semaphore(
+            Math.max(1, configurationService.getIntProperty("checker.store." + number + ".workers", workers))));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for assetstore " + store);
+        }
+        try {
+            RateLimiter throttle = getThrottle(store);
+            if (throttle != null) {
+                // the bytes about to be read are paid in advance, larger than int bitstreams in several steps
+                for (long remaining = bitstream.getSizeBytes(); remaining > 0; remaining -= Integer.MAX_VALUE) {
+                    throttle.acquire((int) Math.min(remaining, Integer.MAX_VALUE));
+                }
+            }
+            Map<?, ?> computed = bitstreamStorageService.computeChecksum(context, bitstream);
+            Map<String, Object> checksum = new HashMap<>();
+            if (computed != null) {
+                computed.forEach((key, value) -> checksum.put(String.valueOf(key), value));
+            }
+            return checksum;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @param store the assetstore number
+     * @return the read throttle of the assetstore, null if its reads are unlimited
+     */
+    RateLimiter getThrottle(int store) {
+        return storeThrottles.computeIfAbsent(store, number -> {
+            long bytesPerSecond = configurationService.getLongProperty(
+                "checker.store." + number + ".bytes-per-second",
+                configurationService.getLongProperty("checker.bytes-per-second", 0));
+            return bytesPerSecond > 0 ? RateLimiter.create(bytesPerSecond) : null;
+        });
+    }
+
+    /**
+     * Record the checksum computed by a worker thread, the same way {@link #processBitstream} does.
+     *
+     * @param info     the bitstream info, already claimed
+     * @param checksum the checksum computation
+     * @throws SQLException if database error
+     */
+    private void recordChecksum(MostRecentChecksum info, Future<Map<String, Object>> checksum)
+        throws SQLException {
+        Map<String, Object> checksumMap = null;
+        IOException error = null;
+        try {
+            checksumMap = checksum.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                error = (IOException) e.getCause();
+            } else {
+                error = new IOException(e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while checking bitstream ID " + info.getBitstream().getID(), e);
+        }
+        recordChecksum(info, checksumMap, error);
+    }
+
     /**
      * Check a specified bitstream.
      *
@@ -244,8 +448,34 @@ public final class CheckerCommand {
     protected void processBitstream(MostRecentChecksum info) throws SQLException {
         info.setProcessStartDate(new Date());
 
+        Map checksumMap = null;
+        IOException error = null;
+        try {
+            checksumMap = bitstreamStorageService.computeChecksum(context, info.getBitstream());
+        } catch (IOException e) {
+            error = e;
+        }
+        recordChecksum(info, checksumMap, error);
+    }
+
+    /**
+     * Record the result of a checksum computation, and compare it to the expected checksum.
+     *
+     * @param info        BitstreamInfo to handle
+     * @param checksumMap the computed checksum and checksum algorithm
+     * @param error       the error computing the checksum, null if there was none
+     * @throws SQLException if database error
+     */
+    protected void recordChecksum(MostRecentChecksum info, Map checksumMap, IOException error) throws SQLException {
         try {
-            Map checksumMap = bitstreamStorageService.computeChecksum(context, info.getBitstream());
+            if (error != null) {
+                // bitstream located, but file missing from asset store
+                info.setChecksumResult(getChecksumResultByCode(ChecksumResultCode.BITSTREAM_NOT_FOUND));
+                info.setToBeProcessed(false);
+                LOG.error("Error retrieving bitstream ID " + info.getBitstream().getID()
+                              + " from " + "asset store.", error);
+                return;
+            }
             if (MapUtils.isNotEmpty(checksumMap)) {
                 info.setBitstreamFound(true);
                 if (checksumMap.containsKey("checksum")) {
@@ -259,12 +489,6 @@ public final class CheckerCommand {
 
             // compare new checksum to previous checksum
             info.setChecksumResult(compareChecksums(info.getExpectedChecksum(), info.getCurrentChecksum()));
-        } catch (IOException e) {
-            // bitstream located, but file missing from asset store
-            info.setChecksumResult(getChecksumResultByCode(ChecksumResultCode.BITSTREAM_NOT_FOUND));
-            info.setToBeProcessed(false);
-            LOG.error("Error retrieving bitstream ID " + info.getBitstream().getID()
-                          + " from " + "asset store.", e);
         } catch (SQLException e) {
             // ??this code only executes if an SQL
             // exception occurs in *DSpace* code, probably
@@ -356,4 +580,31 @@ public final class CheckerCommand {
     public void setReportVerbose(boolean reportVerbose) {
         this.reportVerbose = reportVerbose;
     }
+
+    /**
+     * Get the number of bitstreams checked concurrently.
+     *
+     * @return the number of worker threads, 1 if the bitstreams are checked one by one
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Set the number of bitstreams checked concurrently, overriding checker.workers.
+     *
+     * @param workers the number of worker threads, 1 to check the bitstreams one by one
+     */
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Set the number of results committed at once when checking concurrently, overriding checker.batch.size.
+     *
+     * @param batchSize the batch size
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
 }
@@ -16,6 +16,7 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -225,6 +226,32 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         return itemDAO.findAll(context, true, true);
     }
 
+    @Override
+    public Iterator<Item> findAllUnfiltered(Context context, Integer limit, Integer offset) throws SQLException {
+        return itemDAO.findAll(context, true, true, limit, offset);
+    }
+
+    @Override
+    public Iterator<Item> findAllUnfilteredAfter(Context context, Date lastModified, UUID lastId, Integer limit)
+        throws SQLException {
+        return itemDAO.findAllAfter(context, true, true, lastModified, lastId, limit);
+    }
+
+    @Override
+    public List<UUID> findExistingIDs(Context context, List<UUID> ids) throws SQLException {
+        return itemDAO.findExistingIDs(context, ids);
+    }
+
+    @Override
+    public List<Item> findByIds(Context context, List<UUID> ids) throws SQLException {
+        return itemDAO.findByIds(context, ids);
+    }
+
+    @Override
+    public Map<UUID, Date> findLastModifiedDates(Context context) throws SQLException {
+        return itemDAO.findLastModifiedDates(context, true, true);
+    }
+
     @Override
     public Iterator<Item> findBySubmitter(Context context, EPerson eperson) throws SQLException {
         return itemDAO.findBySubmitter(context, eperson);
@@ -491,6 +518,11 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         log.info(LogManager.getHeader(context, "update_item", "item_id="
             + item.getID()));
 
+        if (item.isMetadataModified()) {
+            // the entity type or metadata used by related items may have changed
+            relationshipMetadataService.invalidateRelationshipMetadata(context, item.getID());
+        }
+
         super.update(context, item);
 
         // Set sequence IDs for bitstreams in Item. To guarantee uniqueness,
@@ -683,6 +715,8 @@ public class ItemServiceImpl extends DSpaceObjectServiceImpl<Item> implements It
         log.info(LogManager.getHeader(context, "delete_item", "item_id="
             + item.getID()));
 
+        relationshipMetadataService.invalidateRelationshipMetadata(context, item.getID());
+
         // Remove relationships
         for (Relationship relationship : relationshipService.findByItem(context, item)) {
             relationshipService.forceDelete(context, relationship, false, false);
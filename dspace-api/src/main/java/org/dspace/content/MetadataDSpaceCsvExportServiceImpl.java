@@ -7,6 +7,7 @@
  */
 package org.dspace.content;
 
+import java.io.OutputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -15,6 +16,7 @@ import java.util.List;
 
 import com.google.common.collect.Iterators;
 import org.dspace.app.bulkedit.DSpaceCSV;
+import org.dspace.app.bulkedit.DSpaceCSVWriter;
 import org.dspace.content.service.ItemService;
 import org.dspace.content.service.MetadataDSpaceCsvExportService;
 import org.dspace.core.Constants;
@@ -34,6 +36,17 @@ public class MetadataDSpaceCsvExportServiceImpl implements MetadataDSpaceCsvExpo
     @Override
     public DSpaceCSV handleExport(Context context, boolean exportAllItems, boolean exportAllMetadata, String handle,
                                   DSpaceRunnableHandler handler) throws Exception {
+        return this.export(context, getItemsToExport(context, exportAllItems, handle, handler), exportAllMetadata);
+    }
+
+    @Override
+    public void handleExport(Context context, boolean exportAllItems, boolean exportAllMetadata, String handle,
+                             DSpaceRunnableHandler handler, OutputStream output) throws Exception {
+        this.export(context, getItemsToExport(context, exportAllItems, handle, handler), exportAllMetadata, output);
+    }
+
+    private Iterator<Item> getItemsToExport(Context context, boolean exportAllItems, String handle,
+                                            DSpaceRunnableHandler handler) throws SQLException {
         Iterator<Item> toExport = null;
 
         if (exportAllItems) {
@@ -63,8 +76,7 @@ public class MetadataDSpaceCsvExportServiceImpl implements MetadataDSpaceCsvExpo
             }
         }
 
-        DSpaceCSV csv = this.export(context, toExport, exportAllMetadata);
-        return csv;
+        return toExport;
     }
 
     @Override
@@ -85,6 +97,25 @@ public class MetadataDSpaceCsvExportServiceImpl implements MetadataDSpaceCsvExpo
         return csv;
     }
 
+    @Override
+    public void export(Context context, Iterator<Item> toExport, boolean exportAll, OutputStream output)
+        throws Exception {
+        Context.Mode originalMode = context.getCurrentMode();
+        context.setMode(Context.Mode.READ_ONLY);
+
+        // First pass: spool each item while collecting the headings, second pass: write the CSV
+        try (DSpaceCSVWriter writer = new DSpaceCSVWriter(exportAll)) {
+            while (toExport.hasNext()) {
+                Item item = toExport.next();
+                writer.addItem(item);
+                context.uncacheEntity(item);
+            }
+            writer.write(output);
+        } finally {
+            context.setMode(originalMode);
+        }
+    }
+
     @Override
     public DSpaceCSV export(Context context, Community community, boolean exportAll) throws Exception {
         return export(context, buildFromCommunity(context, community), exportAll);
@@ -0,0 +1,261 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+
+/**
+ * Bounded cache of the relationship metadata computed for items by the {@link RelationshipMetadataService}.
+ * <p>
+ * Entries are removed when the item itself is invalidated, and when one of the items it is directly related to is
+ * invalidated (as their metadata ends up in the virtual metadata). Virtual metadata configurations following more
+ * than one relationship may pick up changes further away, entries expire after the time to live to bound how long
+ * these stay stale.
+ * <p>
+ * The cached values are never handed out, every lookup returns copies belonging to the requesting item. The cache
+ * itself doesn't know about transactions, see {@link RelationshipMetadataServiceImpl} for how only committed
+ * relationship metadata ends up in it.
+ */
+public class RelationshipMetadataCache {
+
+    private final Cache<Key, Entry> cache;
+
+    /**
+     * Cache keys of the items whose entries depend on an item, with the entry which registered the dependency
+     */
+    private final ConcurrentHashMap<UUID, Map<Key, Entry>> dependents = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented by every invalidation, to discard values computed while an invalidation took place
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize    the maximum number of cached entries
+     * @param timeToLive the number of seconds after which an entry expires
+     */
+    public RelationshipMetadataCache(int maxSize, long timeToLive) {
+        this(maxSize, timeToLive, Ticker.systemTicker());
+    }
+
+    /**
+     * @param maxSize    the maximum number of cached entries
+     * @param timeToLive the number of seconds after which an entry expires
+     * @param ticker     the time source, for testing
+     */
+    RelationshipMetadataCache(int maxSize, long timeToLive, Ticker ticker) {
+        cache = CacheBuilder.newBuilder()
+                            .maximumSize(maxSize)
+                            .expireAfterWrite(timeToLive, TimeUnit.SECONDS)
+                            .ticker(ticker)
+                            .removalListener((RemovalListener<Key, Entry>) notification -> {
+                                // a replaced entry shares its dependencies with the new one
+                                if (notification.getCause() != RemovalCause.REPLACED) {
+                                    removeDependencies(notification.getKey(), notification.getValue());
+                                }
+                            })
+                            .build();
+    }
+
+    /**
+     * Get the cached relationship metadata of an item.
+     *
+     * @param item                  the item
+     * @param enableVirtualMetadata whether the virtual metadata is included
+     * @return copies of the cached values, or null if they aren't cached
+     */
+    public List<RelationshipMetadataValue> get(Item item, boolean enableVirtualMetadata) {
+        Entry entry = cache.getIfPresent(new Key(item.getID(), enableVirtualMetadata));
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        List<RelationshipMetadataValue> copies = new LinkedList<>();
+        for (int i = 0; i < entry.values.size(); i++) {
+            copies.add(copy(entry.values.get(i), entry.owned[i] ? item : null));
+        }
+        return copies;
+    }
+
+    /**
+     * @return the value to pass to {@link #put}, taken before the relationship metadata is computed
+     */
+    public long getStamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Cache the relationship metadata of an item, unless something was invalidated while it was being computed.
+     *
+     * @param item                  the item
+     * @param enableVirtualMetadata whether the virtual metadata is included
+     * @param values                the relationship metadata
+     * @param relatedItems          the items the relationship metadata was computed from
+     * @param stamp                 the result of {@link #getStamp()} before the relationship metadata was computed
+     */
+    public void put(Item item, boolean enableVirtualMetadata, List<RelationshipMetadataValue> values,
+                    Collection<UUID> relatedItems, long stamp) {
+        if (invalidations.get() != stamp) {
+            return;
+        }
+        Key key = new Key(item.getID(), enableVirtualMetadata);
+        List<RelationshipMetadataValue> copies = new ArrayList<>(values.size());
+        boolean[] owned = new boolean[values.size()];
+        for (RelationshipMetadataValue value : values) {
+            // don't keep the item itself, the copies handed out belong to the requesting item
+            owned[copies.size()] = value.getDSpaceObject() != null;
+            copies.add(copy(value, null));
+        }
+        Entry entry = new Entry(copies, owned, List.copyOf(relatedItems));
+        for (UUID related : entry.relatedItems) {
+            // registered atomically, as removeDependencies drops maps which become empty
+            dependents.compute(related, (id, keys) -> {
+                Map<Key, Entry> registered = keys != null ? keys : new ConcurrentHashMap<>();
+                registered.put(key, entry);
+                return registered;
+            });
+        }
+        cache.put(key, entry);
+        if (invalidations.get() != stamp) {
+            // an invalidation happened in the meantime, it may have missed this entry
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Remove the relationship metadata of an item, and of all items which are directly related to it.
+     *
+     * @param itemId the id of the item
+     */
+    public void invalidate(UUID itemId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(new Key(itemId, true));
+        cache.invalidate(new Key(itemId, false));
+        Map<Key, Entry> keys = dependents.remove(itemId);
+        if (keys != null) {
+            cache.invalidateAll(keys.keySet());
+        }
+    }
+
+    /**
+     * Remove all cached relationship metadata.
+     */
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+        dependents.clear();
+    }
+
+    /**
+     * @return the number of lookups which found the relationship metadata in the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which didn't find the relationship metadata in the cache
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove the dependencies registered by an entry which left the cache. The notification may arrive after a newer
+     * entry for the same item was put, whose dependencies must stay.
+     */
+    private void removeDependencies(Key key, Entry entry) {
+        if (key == null || entry == null) {
+            return;
+        }
+        for (UUID related : entry.relatedItems) {
+            dependents.computeIfPresent(related, (id, keys) -> {
+                keys.remove(key, entry);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static RelationshipMetadataValue copy(RelationshipMetadataValue value, Item item) {
+        RelationshipMetadataValue copy = new RelationshipMetadataValue();
+        copy.setMetadataField(value.getMetadataField());
+        copy.setValue(value.getValue());
+        copy.setLanguage(value.getLanguage());
+        copy.setAuthority(value.getAuthority());
+        copy.setConfidence(value.getConfidence());
+        copy.setPlace(value.getPlace());
+        copy.setUseForPlace(value.isUseForPlace());
+        copy.setDSpaceObject(item);
+        return copy;
+    }
+
+    private static final class Key {
+        private final UUID itemId;
+        private final boolean enableVirtualMetadata;
+
+        Key(UUID itemId, boolean enableVirtualMetadata) {
+            this.itemId = itemId;
+            this.enableVirtualMetadata = enableVirtualMetadata;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return enableVirtualMetadata == other.enableVirtualMetadata && itemId.equals(other.itemId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, enableVirtualMetadata);
+        }
+    }
+
+    private static final class Entry {
+        private final List<RelationshipMetadataValue> values;
+        /**
+         * Whether each value belongs to the item, values describing the relationship itself don't
+         */
+        private final boolean[] owned;
+        private final List<UUID> relatedItems;
+
+        Entry(List<RelationshipMetadataValue> values, boolean[] owned, List<UUID> relatedItems) {
+            this.values = values;
+            this.owned = owned;
+            this.relatedItems = relatedItems;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.event.Consumer;
+import org.dspace.event.Event;
+
+/**
+ * Class for removing the cached relationship metadata of items changed outside of the item and relationship
+ * services. Creating, updating or deleting a relationship updates the items involved, so these changes are covered
+ * too.
+ * <p>
+ * Events are consumed before the changes are actually committed, so the cached relationship metadata is removed
+ * again once the transaction is over, see
+ * {@link RelationshipMetadataService#invalidateRelationshipMetadata(Context, java.util.UUID)}.
+ */
+public class RelationshipMetadataConsumer implements Consumer {
+
+    protected RelationshipMetadataService relationshipMetadataService =
+        ContentServiceFactory.getInstance().getRelationshipMetadataService();
+
+    /**
+     * Initialize - allocate any resources required to operate.
+     * Called at the start of ANY sequence of event consume() calls.
+     *
+     * @throws Exception if error
+     */
+    @Override
+    public void initialize() throws Exception {
+        // no-op
+    }
+
+    /**
+     * Consume an event
+     *
+     * @param ctx   the execution context object
+     * @param event the content event
+     * @throws Exception if error
+     */
+    @Override
+    public void consume(Context ctx, Event event) throws Exception {
+        if (event.getSubjectType() == Constants.ITEM) {
+            relationshipMetadataService.invalidateRelationshipMetadata(ctx, event.getSubjectID());
+        }
+    }
+
+    /**
+     * Signal that there are no more events queued in this
+     * event stream.
+     *
+     * @param ctx Context
+     * @throws Exception if error
+     */
+    @Override
+    public void end(Context ctx) throws Exception {
+        // no-op
+    }
+
+    /**
+     * Finish - free any allocated resources.
+     * Called when consumer is being released
+     *
+     * @param ctx Context
+     * @throws Exception if error
+     */
+    @Override
+    public void finish(Context ctx) throws Exception {
+        // no-op
+    }
+}
@@ -9,6 +9,7 @@ package org.dspace.content;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.UUID;
 
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Context;
@@ -30,6 +31,31 @@ public interface RelationshipMetadataService {
      */
     public List<RelationshipMetadataValue> getRelationshipMetadata(Item item, boolean enableVirtualMetadata);
 
+    /**
+     * Remove the cached relationship metadata of an item, and of the items directly related to it.
+     * This has to be called whenever the relationships or the metadata of the item change. The cache is invalidated
+     * again once the current transaction of the context is over, and isn't used by this thread until then.
+     *
+     * @param context the DSpace context in which the item was changed
+     * @param itemId the id of the item
+     */
+    public void invalidateRelationshipMetadata(Context context, UUID itemId);
+
+    /**
+     * Remove all cached relationship metadata.
+     */
+    public void clearRelationshipMetadataCache();
+
+    /**
+     * @return the number of times the relationship metadata of an item was found in the cache
+     */
+    public long getCacheHitCount();
+
+    /**
+     * @return the number of times the relationship metadata of an item had to be computed while the cache is enabled
+     */
+    public long getCacheMissCount();
+
     /**
      * Retrieves the list of RelationshipMetadataValue objects specific to only one Relationship of the item.
      *
@@ -9,9 +9,12 @@ package org.dspace.content;
 
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
@@ -21,6 +24,7 @@ import org.dspace.content.virtual.VirtualMetadataConfiguration;
 import org.dspace.content.virtual.VirtualMetadataPopulator;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
 import org.springframework.beans.factory.annotation.Autowired;
 
 public class RelationshipMetadataServiceImpl implements RelationshipMetadataService {
@@ -39,10 +43,39 @@ public class RelationshipMetadataServiceImpl implements RelationshipMetadataServ
     @Autowired(required = true)
     protected MetadataFieldService metadataFieldService;
 
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    /**
+     * Cache of the computed relationship metadata, null if disabled. Created on first use from the configuration.
+     */
+    private volatile RelationshipMetadataCache cache;
+    private volatile boolean cacheConfigured;
+
+    /**
+     * Items invalidated in the database transaction of the current thread which has not ended yet. While it is set,
+     * the thread sees changes no other thread sees (and which may still be rolled back), so it neither reads from nor
+     * writes to the cache.
+     */
+    private final ThreadLocal<Set<UUID>> uncommitted = new ThreadLocal<>();
+
     @Override
     public List<RelationshipMetadataValue> getRelationshipMetadata(Item item, boolean enableVirtualMetadata) {
+        RelationshipMetadataCache metadataCache = getCache();
+        if (metadataCache != null && (uncommitted.get() != null || item.isMetadataModified())) {
+            metadataCache = null;
+        }
+        if (metadataCache != null && item.getID() != null) {
+            List<RelationshipMetadataValue> cached = metadataCache.get(item, enableVirtualMetadata);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long stamp = metadataCache != null ? metadataCache.getStamp() : 0;
+
         Context context = new Context();
         List<RelationshipMetadataValue> fullMetadataValueList = new LinkedList<>();
+        Set<UUID> relatedItems = new HashSet<>();
         try {
             String entityType = getEntityTypeStringFromMetadata(item);
             if (StringUtils.isNotBlank(entityType)) {
@@ -51,15 +84,82 @@ public class RelationshipMetadataServiceImpl implements RelationshipMetadataServ
                     fullMetadataValueList
                         .addAll(findRelationshipMetadataValueForItemRelationship(context, item, entityType,
                                 relationship, enableVirtualMetadata));
+                    relatedItems.add(relationship.getLeftItem().getID());
+                    relatedItems.add(relationship.getRightItem().getID());
                 }
 
             }
         } catch (SQLException e) {
             log.error("Lookup for Relationships for item with uuid: " + item.getID() + " caused DSpace to crash", e);
+            return fullMetadataValueList;
+        }
+        if (metadataCache != null && item.getID() != null) {
+            relatedItems.remove(item.getID());
+            metadataCache.put(item, enableVirtualMetadata, fullMetadataValueList, relatedItems, stamp);
         }
         return fullMetadataValueList;
     }
 
+    @Override
+    public void invalidateRelationshipMetadata(Context context, UUID itemId) {
+        RelationshipMetadataCache metadataCache = getCache();
+        if (metadataCache == null || itemId == null) {
+            return;
+        }
+        metadataCache.invalidate(itemId);
+        // Other threads may cache the committed state again until this transaction is over, so invalidate once more
+        // after it ended
+        Set<UUID> itemIds = uncommitted.get();
+        if (itemIds == null) {
+            Set<UUID> pending = new HashSet<>();
+            uncommitted.set(pending);
+            itemIds = pending;
+            context.afterTransaction(committed -> {
+                uncommitted.remove();
+                for (UUID id : pending) {
+                    metadataCache.invalidate(id);
+                }
+            });
+        }
+        itemIds.add(itemId);
+    }
+
+    @Override
+    public void clearRelationshipMetadataCache() {
+        RelationshipMetadataCache metadataCache = getCache();
+        if (metadataCache != null) {
+            metadataCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        RelationshipMetadataCache metadataCache = getCache();
+        return metadataCache != null ? metadataCache.getHitCount() : 0;
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        RelationshipMetadataCache metadataCache = getCache();
+        return metadataCache != null ? metadataCache.getMissCount() : 0;
+    }
+
+    private RelationshipMetadataCache getCache() {
+        if (!cacheConfigured) {
+            synchronized (this) {
+                if (!cacheConfigured) {
+                    int size = configurationService.getIntProperty("relationship.metadata.cache.size", 0);
+                    long timeToLive = configurationService.getLongProperty("relationship.metadata.cache.ttl", 300);
+                    if (size > 0 && timeToLive > 0) {
+                        cache = new RelationshipMetadataCache(size, timeToLive);
+                    }
+                    cacheConfigured = true;
+                }
+            }
+        }
+        return cache;
+    }
+
     public String getEntityTypeStringFromMetadata(Item item) {
         List<MetadataValue> list = item.getMetadata();
         for (MetadataValue mdv : list) {
@@ -97,6 +97,7 @@ public class RelationshipServiceImpl implements RelationshipService {
                 // This order of execution should be handled in the creation (create, updateplace, update relationship)
                 // for a proper place allocation
                 Relationship relationshipToReturn = relationshipDAO.create(context, relationship);
+                invalidateRelationshipMetadata(context, relationshipToReturn);
                 updatePlaceInRelationship(context, relationshipToReturn);
                 update(context, relationshipToReturn);
                 updateItemsInRelationship(context, relationship);
@@ -323,6 +324,7 @@ public class RelationshipServiceImpl implements RelationshipService {
                     authorizeService.authorizeActionBoolean(context, relationship.getRightItem(), Constants.WRITE)) {
                     if (isRelationshipValidToCreate(context, relationship)) {
                         relationshipDAO.save(context, relationship);
+                        invalidateRelationshipMetadata(context, relationship);
                     }
                 } else {
                     throw new AuthorizeException("You do not have write rights on this relationship's items");
@@ -376,6 +378,7 @@ public class RelationshipServiceImpl implements RelationshipService {
         if (authorizeService.authorizeActionBoolean(context, relationship.getLeftItem(), Constants.WRITE) ||
             authorizeService.authorizeActionBoolean(context, relationship.getRightItem(), Constants.WRITE)) {
             relationshipDAO.delete(context, relationship);
+            invalidateRelationshipMetadata(context, relationship);
             updatePlaceInRelationship(context, relationship);
             updateItemsInRelationship(context, relationship);
         } else {
@@ -386,6 +389,18 @@ public class RelationshipServiceImpl implements RelationshipService {
 
 
 
+    /**
+     * Remove the cached relationship metadata of both items of a relationship which has been created, updated or
+     * deleted.
+     *
+     * @param context      The relevant DSpace context
+     * @param relationship The relationship
+     */
+    private void invalidateRelationshipMetadata(Context context, Relationship relationship) {
+        relationshipMetadataService.invalidateRelationshipMetadata(context, relationship.getLeftItem().getID());
+        relationshipMetadataService.invalidateRelationshipMetadata(context, relationship.getRightItem().getID());
+    }
+
     /**
      * Utility method to ensure discovery is updated for the 2 items
      * This method is used when creating, modifying or deleting a relationship
@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.dspace.content.Collection;
@@ -34,6 +35,38 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
 
     public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn) throws SQLException;
 
+    /**
+     * Find a page of the Items which are archived or withdrawn, ordered by last-modified date and then by id.
+     *
+     * @param context   Context
+     * @param archived  whether to find archived items
+     * @param withdrawn whether to find withdrawn items
+     * @param limit     maximum number of items to return, or null for no limit
+     * @param offset    number of items to skip, or null to skip none
+     * @return iterator over items
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn, Integer limit,
+                                  Integer offset) throws SQLException;
+
+    /**
+     * Find a page of the Items which are archived or withdrawn and which come after the given item, in the
+     * order of {@link #findAll(Context, boolean, boolean, Integer, Integer)}. As the position is given by the key
+     * of the last item already seen rather than by an offset, the database does not have to step over the earlier
+     * items.
+     *
+     * @param context      Context
+     * @param archived     whether to find archived items
+     * @param withdrawn    whether to find withdrawn items
+     * @param lastModified last-modified date of the last item already seen
+     * @param lastId       id of the last item already seen
+     * @param limit        maximum number of items to return, or null for no limit
+     * @return iterator over items
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAllAfter(Context context, boolean archived, boolean withdrawn, Date lastModified,
+                                       UUID lastId, Integer limit) throws SQLException;
+
     /**
      * Find all Items modified since a Date.
      *
@@ -181,4 +214,35 @@ public interface ItemDAO extends DSpaceObjectLegacySupportDAO<Item> {
     public int countItems(Context context, EPerson submitter, boolean includeArchived, boolean includeWithdrawn)
         throws SQLException;
 
+    /**
+     * Find which of the given identifiers belong to an existing item
+     *
+     * @param context context
+     * @param ids     the item identifiers to look for
+     * @return the identifiers of the items that exist, in no particular order
+     * @throws SQLException if database error
+     */
+    List<UUID> findExistingIDs(Context context, List<UUID> ids) throws SQLException;
+
+    /**
+     * Load the items with the given identifiers, together with their metadata
+     *
+     * @param context context
+     * @param ids     the item identifiers
+     * @return the items found, in no particular order
+     * @throws SQLException if database error
+     */
+    List<Item> findByIds(Context context, List<UUID> ids) throws SQLException;
+
+    /**
+     * Find the identifier and last modified date of all items, without loading the items themselves
+     *
+     * @param context   context
+     * @param archived  whether to include archived items
+     * @param withdrawn whether to include withdrawn items
+     * @return the last modified date by item identifier
+     * @throws SQLException if database error
+     */
+    Map<UUID, Date> findLastModifiedDates(Context context, boolean archived, boolean withdrawn) throws SQLException;
+
 }
@@ -8,10 +8,13 @@
 package org.dspace.content.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
@@ -77,6 +80,41 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return iterate(query);
     }
 
+    @Override
+    public Iterator<Item> findAll(Context context, boolean archived, boolean withdrawn, Integer limit, Integer offset)
+        throws SQLException {
+        Query query = createQuery(context, "SELECT i FROM Item i" +
+            " WHERE (i.inArchive = :in_archive OR i.withdrawn = :withdrawn)" +
+            " ORDER BY i.lastModified, i.id");
+        query.setParameter("in_archive", archived);
+        query.setParameter("withdrawn", withdrawn);
+        if (offset != null) {
+            query.setFirstResult(offset);
+        }
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return iterate(query);
+    }
+
+    @Override
+    public Iterator<Item> findAllAfter(Context context, boolean archived, boolean withdrawn, Date lastModified,
+                                       UUID lastId, Integer limit) throws SQLException {
+        Query query = createQuery(context, "SELECT i FROM Item i" +
+            " WHERE (i.inArchive = :in_archive OR i.withdrawn = :withdrawn)" +
+            " AND (i.lastModified > :last_modified" +
+            " OR (i.lastModified = :last_modified AND i.id > :last_id))" +
+            " ORDER BY i.lastModified, i.id");
+        query.setParameter("in_archive", archived);
+        query.setParameter("withdrawn", withdrawn);
+        query.setParameter("last_modified", lastModified, TemporalType.TIMESTAMP);
+        query.setParameter("last_id", lastId);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return iterate(query);
+    }
+
     @Override
     public Iterator<Item> findAll(Context context, boolean archived,
                                   boolean withdrawn, boolean discoverable, Date lastModified)
@@ -413,4 +451,55 @@ public class ItemDAOImpl extends AbstractHibernateDSODAO<Item> implements ItemDA
         return count(query);
 
     }
+
+    @Override
+    public List<UUID> findExistingIDs(Context context, List<UUID> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<UUID> existing = new ArrayList<>(ids.size());
+        // Some databases (e.g. Oracle) limit the number of expressions in an IN clause to 1000
+        for (int start = 0; start < ids.size(); start += 1000) {
+            Query query = createQuery(context, "SELECT i.id FROM Item i WHERE i.id IN (:ids)");
+            query.setParameter("ids", ids.subList(start, Math.min(start + 1000, ids.size())));
+            @SuppressWarnings("unchecked")
+            List<UUID> result = query.getResultList();
+            existing.addAll(result);
+        }
+        return existing;
+    }
+
+    @Override
+    public List<Item> findByIds(Context context, List<UUID> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Item> items = new ArrayList<>(ids.size());
+        // Some databases (e.g. Oracle) limit the number of expressions in an IN clause to 1000
+        for (int start = 0; start < ids.size(); start += 1000) {
+            Query query = createQuery(context,
+                                      "SELECT DISTINCT i FROM Item i LEFT JOIN FETCH i.metadata WHERE i.id IN (:ids)");
+            query.setParameter("ids", ids.subList(start, Math.min(start + 1000, ids.size())));
+            @SuppressWarnings("unchecked")
+            List<Item> result = query.getResultList();
+            items.addAll(result);
+        }
+        return items;
+    }
+
+    @Override
+    public Map<UUID, Date> findLastModifiedDates(Context context, boolean archived, boolean withdrawn)
+        throws SQLException {
+        Query query = createQuery(context, "SELECT i.id, i.lastModified FROM Item i" +
+            " WHERE i.inArchive = :in_archive OR i.withdrawn = :withdrawn");
+        query.setParameter("in_archive", archived);
+        query.setParameter("withdrawn", withdrawn);
+        Map<UUID, Date> lastModified = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        for (Object[] row : rows) {
+            lastModified.put((UUID) row[0], (Date) row[1]);
+        }
+        return lastModified;
+    }
 }
@@ -17,11 +17,14 @@ import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -60,6 +63,7 @@ import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.content.Bitstream;
+import org.dspace.content.BitstreamFormat;
 import org.dspace.content.Bundle;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
@@ -83,6 +87,7 @@ import org.dspace.license.factory.LicenseServiceFactory;
 import org.dspace.license.service.CreativeCommonsService;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.util.IncompressibleMimeTypes;
 import org.jdom.Element;
 import org.jdom.Namespace;
 import org.jdom.output.Format;
@@ -156,6 +161,11 @@ public abstract class AbstractMETSDisseminator
      */
     protected static final String TEMPLATE_TYPE_SUFFIX = " Template";
 
+    /**
+     * Suffix of the file a package is written to, before it is renamed to the package file
+     */
+    protected static final String TEMP_FILE_SUFFIX = ".tmp";
+
     /**
      * Wrapper for a table of streams to add to the package, such as
      * mdRef'd metadata.  Key is relative pathname of file, value is
@@ -241,15 +251,19 @@ public abstract class AbstractMETSDisseminator
         // also ensures that the Checksums don't change because of accidental @ID value changes.
         resetCounter();
 
+        // Write to a temporary file renamed once complete, so that an interrupted dissemination never
+        // leaves a partial package file behind (which an incremental dissemination would keep)
+        File tempFile = new File(pkgFile.getPath() + TEMP_FILE_SUFFIX);
+        boolean written = false;
         FileOutputStream outStream = null;
         try {
-            //Make sure our package file exists
-            if (!pkgFile.exists()) {
-                PackageUtils.createFile(pkgFile);
+            //Make sure our package file (and its directory) exists
+            if (!tempFile.exists()) {
+                PackageUtils.createFile(tempFile);
             }
 
             //Open up an output stream to write to package file
-            outStream = new FileOutputStream(pkgFile);
+            outStream = new FileOutputStream(tempFile);
 
             // Generate a true manifest-only "package", no external files/data & no need to zip up
             if (params != null && params.getBooleanProperty("manifestOnly", false)) {
@@ -264,6 +278,11 @@ public abstract class AbstractMETSDisseminator
                 writeZipPackage(context, dso, params, outStream);
             } //end if/else
 
+            outStream.close();
+            outStream = null;
+            Files.move(tempFile.toPath(), pkgFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            written = true;
+
             // Assuming no errors, log this dissemination
             log.info(LogManager.getHeader(context, "package_disseminate",
                                           "Disseminated package file=" + pkgFile.getName() +
@@ -288,6 +307,9 @@ public abstract class AbstractMETSDisseminator
             if (outStream != null) {
                 outStream.close();
             }
+            if (!written) {
+                Files.deleteIfExists(tempFile.toPath());
+            }
         }
     }
 
@@ -461,6 +483,7 @@ public abstract class AbstractMETSDisseminator
                                 ze.setTime(DEFAULT_MODIFIED_DATE);
                             }
                             ze.setSize(auth ? bitstream.getSizeBytes() : 0);
+                            setZipLevel(context, zip, bitstream);
                             zip.putNextEntry(ze);
                             if (auth) {
                                 InputStream input = bitstreamService.retrieve(context, bitstream);
@@ -500,6 +523,7 @@ public abstract class AbstractMETSDisseminator
                 ze.setSize(logoBs.getSizeBytes());
                 //Set a default modified date so that checksum of Zip doesn't change if Zip contents are unchanged
                 ze.setTime(DEFAULT_MODIFIED_DATE);
+                setZipLevel(context, zip, logoBs);
                 zip.putNextEntry(ze);
                 Utils.copy(bitstreamService.retrieve(context, logoBs), zip);
                 zip.closeEntry();
@@ -507,6 +531,30 @@ public abstract class AbstractMETSDisseminator
         }
     }
 
+    /**
+     * Set the compression level of the Zip entry of a bitstream, before the entry is started.
+     * Bitstreams whose format is already compressed are added without compression.
+     *
+     * @param context   DSpace Context
+     * @param zip       Zip output
+     * @param bitstream the bitstream of the next entry
+     * @throws SQLException if database error
+     */
+    protected void setZipLevel(Context context, ZipOutputStream zip, Bitstream bitstream) throws SQLException {
+        BitstreamFormat format = bitstream.getFormat(context);
+        String mimeType = format == null ? null : format.getMIMEType();
+        zip.setLevel(isIncompressible(mimeType) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param mimeType a MIME type, may be null
+     * @return whether the MIME type is listed in mets.disseminate.zip.store.mimetypes
+     */
+    protected boolean isIncompressible(String mimeType) {
+        return new IncompressibleMimeTypes(configurationService.getArrayProperty(
+            "mets.disseminate.zip.store.mimetypes", IncompressibleMimeTypes.DEFAULT_TYPES)).contains(mimeType);
+    }
+
     // set metadata type - if Mdtype.parse() gets exception,
     // that means it's not in the MDTYPE vocabulary, so use OTHER.
     protected void setMdType(MdWrap mdWrap, String mdtype) {
@@ -1386,7 +1434,15 @@ public abstract class AbstractMETSDisseminator
             "* unauthorized=[value]      " +
             "If 'skip', skip over any files which the user doesn't have authorization to read. " +
             "If 'zero', create a zero-length file for any files the user doesn't have authorization to read. " +
-            "By default, an AuthorizationException will be thrown for any files the user cannot read.";
+            "By default, an AuthorizationException will be thrown for any files the user cannot read." +
+            "\n\n" +
+            "* workers=[number]      " +
+            "When disseminating recursively (-a), the number of threads disseminating Items concurrently, " +
+            "each with its own database connection (defaults to 1)." +
+            "\n\n" +
+            "* incremental=[boolean]      " +
+            "When disseminating recursively (-a), skip any Item whose package file already exists and is newer " +
+            "than the Item's last modified date (defaults to false).";
     }
 
     /**
@@ -12,8 +12,18 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
@@ -25,6 +35,10 @@ import org.dspace.content.service.CommunityService;
 import org.dspace.content.service.ItemService;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
+import org.dspace.eperson.EPerson;
+import org.dspace.eperson.Group;
+import org.dspace.eperson.factory.EPersonServiceFactory;
+import org.dspace.eperson.service.EPersonService;
 
 /**
  * An abstract implementation of a DSpace Package Disseminator, which
@@ -35,6 +49,12 @@ import org.dspace.core.Context;
  * method of the PackageIngester interface.  This method is setup to
  * recursively call disseminate() method.
  * <P>
+ * A recursive dissemination may disseminate the Items with a pool of worker
+ * threads (see {@link PackageParameters#getWorkers()}), each Item with its own
+ * Context and its own instance of the disseminator. In incremental mode (see
+ * {@link PackageParameters#incrementalModeEnabled()}) it skips the Items whose
+ * package is newer than the Item.
+ * <P>
  * All Package disseminators should either extend this abstract class
  * or implement <code>PackageDisseminator</code> to better suit their needs.
  *
@@ -44,13 +64,28 @@ import org.dspace.core.Context;
  */
 public abstract class AbstractPackageDisseminator
     implements PackageDisseminator {
+    private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(AbstractPackageDisseminator.class);
+
     /**
      * List of all successfully disseminated package files
      */
     private List<File> packageFileList = new ArrayList<File>();
 
+    /**
+     * Workers disseminating the Items of a recursive dissemination, when there is more than one
+     */
+    private ExecutorService itemWorkers;
+    private Semaphore itemPermits;
+    private final ThreadLocal<PackageDisseminator> workerDisseminators = new ThreadLocal<>();
+
+    /**
+     * Items submitted to the workers and not yet collected, by package file
+     */
+    private final Map<File, Future<?>> pendingItems = new LinkedHashMap<>();
+
     protected final CommunityService communityService = ContentServiceFactory.getInstance().getCommunityService();
     protected final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    protected final EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
 
     /**
      * Recursively export one or more DSpace Objects as a series of packages.
@@ -92,12 +127,26 @@ public abstract class AbstractPackageDisseminator
             params.setRecursiveModeEnabled(true);
         }
 
+        // Start the Item workers for the whole recursive dissemination
+        if (itemWorkers == null && params.getWorkers() > 1) {
+            return disseminateAllConcurrently(context, dso, params, pkgFile);
+        }
+
         // If this object package has NOT already been disseminated
         // NOTE: This ensures we don't accidentally disseminate the same object
         // TWICE, e.g. when an Item is mapped into multiple Collections.
         if (!getPackageList().contains(pkgFile)) {
-            // Disseminate the object using provided PackageDisseminator
-            disseminate(context, dso, params, pkgFile);
+            if (isPackageUpToDate(dso, params, pkgFile)) {
+                log.info("Skipping up to date package file=" + pkgFile.getName() + " for Object, type="
+                             + Constants.typeText[dso.getType()] + ", handle=" + dso.getHandle());
+            } else if (itemWorkers != null && dso.getType() == Constants.ITEM) {
+                // The package list is updated once the worker is done
+                submitItem(context, (Item) dso, params, pkgFile);
+                return getPackageList();
+            } else {
+                // Disseminate the object using provided PackageDisseminator
+                disseminate(context, dso, params, pkgFile);
+            }
         }
 
         //check if package was disseminated
@@ -173,6 +222,191 @@ public abstract class AbstractPackageDisseminator
         return getPackageList();
     }
 
+    /**
+     * Recursively disseminate the object as in {@link #disseminateAll}, with a
+     * pool of workers disseminating the Items. The calling thread walks the
+     * objects, waiting whenever the workers have twice as many Items in progress
+     * as there are workers.
+     *
+     * @param context DSpace context.
+     * @param dso     initial DSpace object
+     * @param params  Properties-style list of options specific to this packager
+     * @param pkgFile File where initial package should be written.
+     * @return the package files disseminated
+     * @throws PackageException   if the first failed Item failed with one, or if interrupted
+     * @throws CrosswalkException if crosswalk error
+     * @throws AuthorizeException if authorization error
+     * @throws SQLException       if database error
+     * @throws IOException        if IO error
+     */
+    protected List<File> disseminateAllConcurrently(Context context, DSpaceObject dso,
+                                                    PackageParameters params, File pkgFile)
+        throws PackageException, CrosswalkException,
+        AuthorizeException, SQLException, IOException {
+        int workers = params.getWorkers();
+        AtomicInteger threads = new AtomicInteger();
+        itemWorkers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "package-disseminator-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        itemPermits = new Semaphore(2 * workers);
+        try {
+            disseminateAll(context, dso, params, pkgFile);
+            collectItems(true);
+        } finally {
+            itemWorkers.shutdownNow();
+            itemWorkers = null;
+            itemPermits = null;
+            pendingItems.clear();
+        }
+        return getPackageList();
+    }
+
+    /**
+     * Whether the package of the object can be kept in incremental mode: the
+     * object is an Item, and its package file exists and is newer than the Item.
+     *
+     * @param dso     DSpace object
+     * @param params  Properties-style list of options specific to this packager
+     * @param pkgFile File where the package of the object is written
+     * @return true if the object need not be disseminated again
+     */
+    protected boolean isPackageUpToDate(DSpaceObject dso, PackageParameters params, File pkgFile) {
+        return params.incrementalModeEnabled() && dso.getType() == Constants.ITEM
+            && pkgFile.exists() && ((Item) dso).getLastModified() != null
+            && pkgFile.lastModified() > ((Item) dso).getLastModified().getTime();
+    }
+
+    /**
+     * Disseminate an Item with a worker, waiting while too many Items are in progress.
+     */
+    private void submitItem(Context context, Item item, PackageParameters params, File pkgFile)
+        throws PackageException, CrosswalkException, AuthorizeException, SQLException, IOException {
+        if (pendingItems.containsKey(pkgFile)) {
+            return;
+        }
+        // Fail early if an Item already failed
+        collectItems(false);
+
+        // The worker reloads the Item and the user in its own Context
+        UUID itemId = item.getID();
+        EPerson user = context.getCurrentUser();
+        UUID userId = user == null ? null : user.getID();
+        List<UUID> specialGroups = new ArrayList<>();
+        for (Group group : context.getSpecialGroups()) {
+            specialGroups.add(group.getID());
+        }
+        boolean ignoreAuthorization = context.ignoreAuthorization();
+
+        try {
+            itemPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PackageException("Interrupted while waiting for the package disseminator workers", e);
+        }
+        Semaphore permits = itemPermits;
+        try {
+            pendingItems.put(pkgFile, itemWorkers.submit(() -> {
+                try {
+                    disseminateItem(itemId, userId, specialGroups, ignoreAuthorization, params, pkgFile);
+                } finally {
+                    permits.release();
+                }
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Disseminate an Item on a worker thread, with a new Context for the same user.
+     */
+    private void disseminateItem(UUID itemId, UUID userId, List<UUID> specialGroups, boolean ignoreAuthorization,
+                                 PackageParameters params, File pkgFile) throws Exception {
+        try (Context workerContext = new Context(Context.Mode.READ_ONLY)) {
+            if (userId != null) {
+                workerContext.setCurrentUser(ePersonService.find(workerContext, userId));
+            }
+            for (UUID groupId : specialGroups) {
+                workerContext.setSpecialGroup(groupId);
+            }
+            if (ignoreAuthorization) {
+                workerContext.turnOffAuthorisationSystem();
+            }
+            Item item = itemService.find(workerContext, itemId);
+            if (item == null) {
+                log.warn("Skipping Item " + itemId + ", which no longer exists");
+                return;
+            }
+            PackageDisseminator disseminator = workerDisseminators.get();
+            if (disseminator == null) {
+                disseminator = newWorkerDisseminator();
+                workerDisseminators.set(disseminator);
+            }
+            disseminator.disseminate(workerContext, item, params, pkgFile);
+        }
+    }
+
+    /**
+     * Create the disseminator used by a worker thread, as the state of a
+     * disseminator (such as the METS identifier counter) is not shared between
+     * threads. By default, a new instance of this class.
+     *
+     * @return a new disseminator
+     * @throws ReflectiveOperationException if this class cannot be instantiated
+     */
+    protected PackageDisseminator newWorkerDisseminator() throws ReflectiveOperationException {
+        return getClass().getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Add the packages of the Items completed by the workers to the package list,
+     * rethrowing the failure of the first failed Item.
+     *
+     * @param wait whether to wait for all Items in progress
+     */
+    private void collectItems(boolean wait)
+        throws PackageException, CrosswalkException, AuthorizeException, SQLException, IOException {
+        Iterator<Map.Entry<File, Future<?>>> pending = pendingItems.entrySet().iterator();
+        while (pending.hasNext()) {
+            Map.Entry<File, Future<?>> entry = pending.next();
+            if (!wait && !entry.getValue().isDone()) {
+                continue;
+            }
+            try {
+                entry.getValue().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PackageException("Interrupted while waiting for the package disseminator workers", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof PackageException) {
+                    throw (PackageException) cause;
+                } else if (cause instanceof CrosswalkException) {
+                    throw (CrosswalkException) cause;
+                } else if (cause instanceof AuthorizeException) {
+                    throw (AuthorizeException) cause;
+                } else if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                } else if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new PackageException(cause);
+            }
+            pending.remove();
+            if (entry.getKey().exists()) {
+                addToPackageList(entry.getKey());
+            }
+        }
+    }
+
     /**
      * Add File to list of successfully disseminated package files
      *
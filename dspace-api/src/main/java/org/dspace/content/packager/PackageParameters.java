@@ -301,5 +301,60 @@ public class PackageParameters extends Properties {
         addProperty("recursiveMode", String.valueOf(value));
     }
 
+    /***
+     * Utility method to tell if incremental mode is enabled.
+     * Checks the Packager parameters.
+     * <p>
+     * In incremental mode, a recursive dissemination (disseminateAll())
+     * skips over any Item whose package file already exists and is newer
+     * than the Item's last modified date.
+     * <p>
+     * Defaults to 'false' if previously unset.
+     *
+     * @return boolean result
+     */
+    public boolean incrementalModeEnabled() {
+        return getBooleanProperty("incremental", false);
+    }
+
+    /***
+     * Utility method to enable/disable incremental mode.
+     * <p>
+     * In incremental mode, a recursive dissemination (disseminateAll())
+     * skips over any Item whose package file already exists and is newer
+     * than the Item's last modified date.
+     *
+     * @param value boolean value (true = incremental enabled, false = incremental disabled)
+     */
+    public void setIncrementalModeEnabled(boolean value) {
+        addProperty("incremental", String.valueOf(value));
+    }
+
+    /***
+     * Utility method to get the number of worker threads used to
+     * disseminate Items in a recursive dissemination (disseminateAll()).
+     * Checks the Packager parameters.
+     * <p>
+     * Defaults to 1 if previously unset, i.e. all packages are disseminated
+     * one after another by the calling thread.
+     *
+     * @return the number of workers, at least 1
+     * @throws NumberFormatException if the value is not a number
+     */
+    public int getWorkers() {
+        String value = getProperty("workers");
+        return value == null ? 1 : Math.max(1, Integer.parseInt(value.trim()));
+    }
+
+    /***
+     * Utility method to set the number of worker threads used to
+     * disseminate Items in a recursive dissemination (disseminateAll()).
+     *
+     * @param value the number of workers
+     */
+    public void setWorkers(int value) {
+        setProperty("workers", String.valueOf(value));
+    }
+
 
 }
@@ -13,6 +13,7 @@ import java.sql.SQLException;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.dspace.authorize.AuthorizeException;
@@ -101,6 +102,64 @@ public interface ItemService
      */
     public Iterator<Item> findAllUnfiltered(Context context) throws SQLException;
 
+    /**
+     * Get a page of all "final" items in the archive, both archived ("in archive" flag) or
+     * withdrawn items are included. The items are ordered by last-modified date and then by id.
+     *
+     * @param context DSpace context object
+     * @param limit   maximum number of items to return, or null for no limit
+     * @param offset  number of items to skip, or null to skip none
+     * @return an iterator over the items in the archive.
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAllUnfiltered(Context context, Integer limit, Integer offset) throws SQLException;
+
+    /**
+     * Get a page of all "final" items in the archive which come after the given item, in the order of
+     * {@link #findAllUnfiltered(Context, Integer, Integer)}. Use this rather than an offset to walk
+     * through all items: the cost of a page does not grow with the number of items before it.
+     *
+     * @param context      DSpace context object
+     * @param lastModified last-modified date of the last item already seen
+     * @param lastId       id of the last item already seen
+     * @param limit        maximum number of items to return, or null for no limit
+     * @return an iterator over the items in the archive.
+     * @throws SQLException if database error
+     */
+    public Iterator<Item> findAllUnfilteredAfter(Context context, Date lastModified, UUID lastId, Integer limit)
+        throws SQLException;
+
+    /**
+     * Find which of the given identifiers belong to an existing item, using a single query.
+     *
+     * @param context DSpace context object
+     * @param ids     the item identifiers to look for
+     * @return the identifiers of the items that exist, in no particular order
+     * @throws SQLException if database error
+     */
+    public List<UUID> findExistingIDs(Context context, List<UUID> ids) throws SQLException;
+
+    /**
+     * Load the items with the given identifiers, together with their metadata, using a single query. Loading many
+     * items up front this way saves a query per item when they are processed one by one afterwards.
+     *
+     * @param context DSpace context object
+     * @param ids     the item identifiers
+     * @return the items found, in no particular order
+     * @throws SQLException if database error
+     */
+    public List<Item> findByIds(Context context, List<UUID> ids) throws SQLException;
+
+    /**
+     * Get the identifier and last modified date of all "final" items in the archive, both archived or withdrawn,
+     * like {@link #findAllUnfiltered(Context)} but without loading the items themselves.
+     *
+     * @param context DSpace context object
+     * @return the last modified date by item identifier
+     * @throws SQLException if database error
+     */
+    public Map<UUID, Date> findLastModifiedDates(Context context) throws SQLException;
+
     /**
      * Find all the items in the archive by a given submitter. The order is
      * indeterminate. Only items with the "in archive" flag set are included.
@@ -7,6 +7,7 @@
  */
 package org.dspace.content.service;
 
+import java.io.OutputStream;
 import java.util.Iterator;
 
 import org.dspace.app.bulkedit.DSpaceCSV;
@@ -35,6 +36,21 @@ public interface MetadataDSpaceCsvExportService {
     public DSpaceCSV handleExport(Context context, boolean exportAllItems, boolean exportAllMetadata,
                                   String handle, DSpaceRunnableHandler dSpaceRunnableHandler) throws Exception;
 
+    /**
+     * This method will export DSpaceObject objects depending on the parameters it gets, like
+     * {@link #handleExport(Context, boolean, boolean, String, DSpaceRunnableHandler)}, but writes the CSV to the
+     * given output stream instead of keeping it in memory.
+     * @param context           The relevant DSpace context
+     * @param exportAllItems    A boolean indicating whether or not the entire repository should be exported
+     * @param exportAllMetadata Defines if all metadata should be exported or only the allowed ones
+     * @param handle            The handle for the DSpaceObject to be exported, can be a Community, Collection or Item
+     * @param output            The stream the CSV is written to, left open
+     * @throws Exception        If something goes wrong
+     */
+    public void handleExport(Context context, boolean exportAllItems, boolean exportAllMetadata,
+                             String handle, DSpaceRunnableHandler dSpaceRunnableHandler, OutputStream output)
+        throws Exception;
+
     /**
      * This method will export all the Items in the given toExport iterator to a DSpaceCSV
      * @param context       The relevant DSpace context
@@ -45,6 +61,18 @@ public interface MetadataDSpaceCsvExportService {
      */
     public DSpaceCSV export(Context context, Iterator<Item> toExport, boolean exportAll) throws Exception;
 
+    /**
+     * This method will export all the Items in the given toExport iterator as CSV to the given output stream. Only
+     * the CSV headings are kept in memory, the lines are spooled to a temporary file until all items are read.
+     * @param context       The relevant DSpace context
+     * @param toExport      The iterator containing the items to export
+     * @param exportAll     Defines if all metadata should be exported or only the allowed ones
+     * @param output        The stream the CSV is written to, left open
+     * @throws Exception    If something goes wrong
+     */
+    public void export(Context context, Iterator<Item> toExport, boolean exportAll, OutputStream output)
+        throws Exception;
+
     /**
      * This method will export all the Items within the given Community to a DSpaceCSV
      * @param context       The relevant DSpace context
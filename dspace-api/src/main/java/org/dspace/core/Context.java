@@ -17,6 +17,7 @@ import java.util.Set;
 import java.util.Stack;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.ResourcePolicy;
@@ -572,6 +573,21 @@ public class Context implements AutoCloseable {
         }
     }
 
+    /**
+     * Run an action once the current database transaction is over, e.g. to drop cached data which may have been
+     * computed by other threads from the state before the transaction was committed. The action runs immediately if
+     * no transaction is in progress.
+     *
+     * @param action called with true if the transaction was committed, false if it was rolled back
+     */
+    public void afterTransaction(Consumer<Boolean> action) {
+        if (isTransactionAlive()) {
+            dbConnection.afterTransaction(action);
+        } else {
+            action.accept(true);
+        }
+    }
+
     /**
      * Find out if this context is valid. Returns <code>false</code> if this
      * context has been aborted or completed.
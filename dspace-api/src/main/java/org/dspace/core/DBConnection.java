@@ -8,6 +8,7 @@
 package org.dspace.core;
 
 import java.sql.SQLException;
+import java.util.function.Consumer;
 import javax.sql.DataSource;
 
 import org.dspace.storage.rdbms.DatabaseConfigVO;
@@ -148,4 +149,12 @@ public interface DBConnection<T> {
      * @throws java.sql.SQLException passed through.
      */
     public <E extends ReloadableEntity> void uncacheEntity(E entity) throws SQLException;
+
+    /**
+     * Register an action to run once the current transaction is over, i.e. after it was committed or rolled back.
+     * If no transaction is in progress, the action is run immediately.
+     *
+     * @param action called with true if the transaction was committed, false if it was rolled back
+     */
+    public void afterTransaction(Consumer<Boolean> action);
 }
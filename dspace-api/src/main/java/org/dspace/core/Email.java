@@ -286,6 +286,21 @@ public class Email {
      * @throws IOException        if IO error
      */
     public void send() throws MessagingException, IOException {
+        send(null);
+    }
+
+    /**
+     * Sends the email as {@link #send()} does, over an already connected
+     * transport, so that a batch of emails can be sent over a single
+     * connection to the mail server.
+     *
+     * @param transport a connected transport of the session of the
+     *                  {@link org.dspace.services.EmailService}, or null to
+     *                  connect just for this email
+     * @throws MessagingException if there was a problem sending the mail.
+     * @throws IOException        if IO error
+     */
+    public void send(Transport transport) throws MessagingException, IOException {
         ConfigurationService config
                 = DSpaceServicesFactory.getInstance().getConfigurationService();
 
@@ -428,6 +443,9 @@ public class Email {
             text.append('\n').append(fullMessage);
 
             LOG.info(text.toString());
+        } else if (transport != null) {
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
         } else {
             Transport.send(message);
         }
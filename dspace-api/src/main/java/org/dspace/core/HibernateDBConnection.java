@@ -10,7 +10,10 @@ package org.dspace.core;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.function.Consumer;
 import javax.sql.DataSource;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 
 import org.dspace.authorize.ResourcePolicy;
 import org.dspace.content.Bitstream;
@@ -337,4 +340,23 @@ public class HibernateDBConnection implements DBConnection<Session> {
             }
         }
     }
+
+    @Override
+    public void afterTransaction(Consumer<Boolean> action) {
+        if (!isTransActionAlive()) {
+            action.accept(true);
+            return;
+        }
+        getTransaction().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // nothing to do before the transaction is over
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == Status.STATUS_COMMITTED);
+            }
+        });
+    }
 }
@@ -56,6 +56,10 @@ public class DiscoverQuery {
      * Attributes required for the faceting of values
      **/
     private List<DiscoverFacetField> facetFields;
+    /**
+     * Facet fields of which only the number of distinct values is requested
+     */
+    private List<DiscoverFacetField> facetValueCountFields;
     private List<String> facetQueries;
     private int facetLimit = -1;
     private int facetMinCount = -1;
@@ -80,6 +84,7 @@ public class DiscoverQuery {
         this.fieldPresentQueries = new ArrayList<String>();
 
         this.facetFields = new ArrayList<DiscoverFacetField>();
+        this.facetValueCountFields = new ArrayList<DiscoverFacetField>();
         this.facetQueries = new ArrayList<String>();
         this.searchFields = new ArrayList<String>();
         this.hitHighlighting = new HashMap<String, DiscoverHitHighlightingField>();
@@ -235,6 +240,26 @@ public class DiscoverQuery {
         return facetFields;
     }
 
+    /**
+     * Adds a facet field of which the number of distinct values (taking its prefix and the facet minimum count into
+     * account) is requested, without the values themselves being returned.
+     * The count is available through {@link DiscoverResult#getFacetValueCount(String)}
+     *
+     * @param facetField the facet field to count the values of, its limit, offset and sort order are ignored
+     */
+    public void addFacetValueCountField(DiscoverFacetField facetField) {
+        facetValueCountFields.add(facetField);
+    }
+
+    /**
+     * Gets the facet fields of which the number of distinct values is requested
+     *
+     * @return the facet fields to count the values of
+     */
+    public List<DiscoverFacetField> getFacetValueCountFields() {
+        return facetValueCountFields;
+    }
+
     /**
      * Gets the minimum number of values that need to be present before a valid facet value has been found
      *
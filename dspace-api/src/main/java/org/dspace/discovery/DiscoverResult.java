@@ -29,6 +29,7 @@ public class DiscoverResult {
     private int start;
     private List<IndexableObject> indexableObjects;
     private Map<String, List<FacetResult>> facetResults;
+    private Map<String, Long> facetValueCounts;
 
     /**
      * A map that contains all the documents sougth after, the key is a string representation of the Indexable Object
@@ -42,6 +43,7 @@ public class DiscoverResult {
     public DiscoverResult() {
         indexableObjects = new ArrayList<IndexableObject>();
         facetResults = new LinkedHashMap<String, List<FacetResult>>();
+        facetValueCounts = new HashMap<String, Long>();
         searchDocuments = new LinkedHashMap<String, List<SearchDocument>>();
         highlightedResults = new HashMap<String, IndexableObjectHighlightResult>();
     }
@@ -103,6 +105,22 @@ public class DiscoverResult {
         return ListUtils.emptyIfNull(facetResults.get(facet));
     }
 
+    public void setFacetValueCount(String facetField, long count) {
+        facetValueCounts.put(facetField, count);
+    }
+
+    /**
+     * Get the number of distinct values of a facet field requested with
+     * {@link DiscoverQuery#addFacetValueCountField(DiscoverFacetField)}
+     *
+     * @param facetField the name of the facet field
+     * @return the number of distinct values, or -1 if it wasn't requested
+     */
+    public long getFacetValueCount(String facetField) {
+        Long count = facetValueCounts.get(facetField);
+        return count != null ? count : -1;
+    }
+
     public List<FacetResult> getFacetResult(DiscoverySearchFilterFacet field) {
         List<DiscoverResult.FacetResult> facetValues = getFacetResult(field.getIndexFieldName());
         // Check if we are dealing with a date, sometimes the facet values arrive as dates !
@@ -7,13 +7,17 @@
  */
 package org.dspace.discovery;
 
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
 import org.apache.logging.log4j.Logger;
+import org.dspace.content.Bitstream;
 import org.dspace.content.Bundle;
 import org.dspace.content.DSpaceObject;
+import org.dspace.content.Item;
 import org.dspace.core.Constants;
 import org.dspace.core.Context;
 import org.dspace.discovery.indexobject.factory.IndexFactory;
@@ -68,7 +72,7 @@ public class IndexEventConsumer implements Consumer {
         }
 
         int st = event.getSubjectType();
-        if (!(st == Constants.ITEM || st == Constants.BUNDLE
+        if (!(st == Constants.ITEM || st == Constants.BUNDLE || st == Constants.BITSTREAM
             || st == Constants.COLLECTION || st == Constants.COMMUNITY || st == Constants.SITE)) {
             log
                 .warn("IndexConsumer should not have been given this kind of Subject in an event, skipping: "
@@ -83,12 +87,12 @@ public class IndexEventConsumer implements Consumer {
 
         // If event subject is a Bundle and event was Add or Remove,
         // transform the event to be a Modify on the owning Item.
-        // It could be a new bitstream in the TEXT bundle which
-        // would change the index.
+        // It could be a new bitstream in the TEXT bundle, or any
+        // bitstream counted in the item facts, which would change the index.
         int et = event.getEventType();
         if (st == Constants.BUNDLE) {
             if ((et == Event.ADD || et == Event.REMOVE) && subject != null
-                && ((Bundle) subject).getName().equals("TEXT")) {
+                && !((Bundle) subject).getItems().isEmpty()) {
                 st = Constants.ITEM;
                 et = Event.MODIFY;
                 subject = ((Bundle) subject).getItems().get(0);
@@ -101,6 +105,21 @@ public class IndexEventConsumer implements Consumer {
             }
         }
 
+        // If event subject is a Bitstream and event was Modify (e.g. its format changed),
+        // transform the event to be a Modify on the owning Item, as the item facts
+        // hold the formats and sizes of its bitstreams.
+        if (st == Constants.BITSTREAM) {
+            Item item = et == Event.MODIFY && subject != null ? getOwningItem((Bitstream) subject) : null;
+            if (item == null) {
+                return;
+            }
+            st = Constants.ITEM;
+            subject = item;
+            if (log.isDebugEnabled()) {
+                log.debug("Transforming Bitstream event into MODIFY of Item " + subject.getHandle());
+            }
+        }
+
         switch (et) {
             case Event.CREATE:
             case Event.MODIFY:
@@ -178,6 +197,18 @@ public class IndexEventConsumer implements Consumer {
         }
     }
 
+    /**
+     * @return the item holding the bitstream, or null if it doesn't belong to an item (e.g. a logo)
+     */
+    private Item getOwningItem(Bitstream bitstream) throws SQLException {
+        for (Bundle bundle : bitstream.getBundles()) {
+            if (!bundle.getItems().isEmpty()) {
+                return bundle.getItems().get(0);
+            }
+        }
+        return null;
+    }
+
     /**
      * Process sets of objects to add, update, and delete in index. Correct for
      * interactions between the sets -- e.g. objects which were deleted do not
@@ -186,6 +217,12 @@ public class IndexEventConsumer implements Consumer {
     @Override
     public void end(Context ctx) throws Exception {
 
+        if (DSpaceServicesFactory.getInstance().getConfigurationService()
+                                 .getBooleanProperty("discovery.index.async.enabled", false)) {
+            enqueue();
+            return;
+        }
+
         try {
             for (String uid : uniqueIdsToDelete) {
                 try {
@@ -229,6 +266,30 @@ public class IndexEventConsumer implements Consumer {
         }
     }
 
+    /**
+     * Hand the collected objects over to the asynchronous {@link IndexingQueue} instead of indexing them on the
+     * current thread.
+     */
+    protected void enqueue() throws IOException {
+        try {
+            if (!objectsToUpdate.isEmpty() || !uniqueIdsToDelete.isEmpty()) {
+                Set<String> uniqueIdsToUpdate = new HashSet<>();
+                for (IndexableObject iu : objectsToUpdate) {
+                    if (iu.getUniqueIndexID() != null) {
+                        uniqueIdsToUpdate.add(iu.getUniqueIndexID());
+                    }
+                }
+                DSpaceServicesFactory.getInstance().getServiceManager()
+                                     .getServiceByName(IndexingQueue.class.getName(), IndexingQueue.class)
+                                     .enqueue(uniqueIdsToDelete, uniqueIdsToUpdate);
+            }
+        } finally {
+            // "free" the resources
+            objectsToUpdate.clear();
+            uniqueIdsToDelete.clear();
+        }
+    }
+
     @Override
     public void finish(Context ctx) throws Exception {
         // No-op
@@ -0,0 +1,658 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Queue of pending index updates, drained asynchronously by a pool of background workers.
+ * <p>
+ * The {@link IndexEventConsumer} hands the unique index ids of the objects to (re)index or remove to this queue
+ * when "discovery.index.async.enabled" is set, instead of writing the documents on the committing request thread.
+ * Repeated updates of an object which is still waiting are coalesced into a single one. An object is only
+ * processed by one worker at a time, so its operations reach Solr in the order they were queued. The workers
+ * resolve the objects in their own read-only Context, send the documents to Solr in batches and rely on Solr's
+ * commitWithin rather than on hard commits.
+ * <p>
+ * Every entry is appended to a journal file, which is forced to disk before {@link #enqueue} returns, and stays in
+ * the journal until Solr acknowledged it: a batch which can't be written is queued again, and is left in the journal
+ * when the queue is stopped. The journal is truncated whenever the queue runs empty, and rewritten with only the
+ * waiting entries once it grew past "discovery.index.async.journal.compact" entries. Journals left behind by a JVM
+ * which didn't shut down cleanly are replayed on startup.
+ * <p>
+ * The size, lag and counters of the queue are logged every "discovery.index.async.metrics.interval" seconds while
+ * it is active, and are available from {@link #getMetrics()}.
+ */
+public class IndexingQueue {
+
+    private static final Logger log = LogManager.getLogger(IndexingQueue.class);
+
+    protected static final String JOURNAL_SUFFIX = ".journal";
+
+    /**
+     * The operation to perform on a queued unique index id
+     */
+    public enum Operation {
+        UPDATE('U'), DELETE('D');
+
+        private final char code;
+
+        Operation(char code) {
+            this.code = code;
+        }
+
+        static Operation fromCode(char code) {
+            return code == DELETE.code ? DELETE : UPDATE;
+        }
+    }
+
+    @Autowired
+    protected ConfigurationService configurationService;
+    @Autowired
+    protected SolrSearchCore solrSearchCore;
+    @Autowired
+    protected IndexObjectFactoryFactory indexObjectServiceFactory;
+
+    // pending operation by unique index id, and the order in which they were queued
+    private final Map<String, PendingEntry> pending = new ConcurrentHashMap<>();
+    private final BlockingQueue<String> uniqueIds = new LinkedBlockingQueue<>();
+    // entries taken from the queue by a worker and not acknowledged by Solr yet, by unique index id
+    private final Map<String, PendingEntry> inFlight = new ConcurrentHashMap<>();
+    // unique index ids skipped by a worker while another one was busy with the same object, they are queued again
+    // once that worker is done, guarded by the journal monitor
+    private final Set<String> deferred = new HashSet<>();
+
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastLag;
+
+    private final Object journalMonitor = new Object();
+    private File journalDir;
+    private File journalFile;
+    private RandomAccessFile journal;
+    private FileLock journalLock;
+    private Writer journalWriter;
+    // number of entries written to the current journal, guarded by the journal monitor
+    private int journalEntries;
+
+    private ExecutorService executorService;
+    private ScheduledExecutorService metricsService;
+    private volatile boolean running;
+    private int batchSize;
+    private int commitWithin;
+    private long retryDelay;
+    private int compactThreshold;
+
+    /**
+     * Open the journal, replay the journals left behind by previous runs and start the workers.
+     */
+    public void init() throws IOException {
+        batchSize = Math.max(1, configurationService.getIntProperty("discovery.index.async.batch.size", 100));
+        commitWithin = configurationService.getIntProperty("discovery.index.async.commitWithin", 10000);
+        retryDelay = Math.max(0, configurationService.getLongProperty("discovery.index.async.retry.delay", 5000));
+        compactThreshold = configurationService.getIntProperty("discovery.index.async.journal.compact", 10000);
+        int threads = Math.max(1, configurationService.getIntProperty("discovery.index.async.threads", 2));
+        int metricsInterval = configurationService.getIntProperty("discovery.index.async.metrics.interval", 60);
+
+        journalDir = new File(configurationService.getProperty("discovery.index.async.dir",
+            configurationService.getProperty("dspace.dir") + File.separator + "var" + File.separator
+                + "discovery-index-queue"));
+        if (!journalDir.exists() && !journalDir.mkdirs()) {
+            throw new IOException("Unable to create the indexing queue directory " + journalDir);
+        }
+        synchronized (journalMonitor) {
+            openJournal();
+        }
+        recoverJournals(journalDir);
+
+        running = true;
+        executorService = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executorService.submit(this::drain);
+        }
+        if (metricsInterval > 0) {
+            metricsService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "indexing-queue-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            metricsService.scheduleAtFixedRate(new MetricsLogger(), metricsInterval, metricsInterval,
+                                               TimeUnit.SECONDS);
+        }
+        log.info("Started asynchronous indexing queue with {} workers, {} entries recovered", threads,
+                 pending.size());
+    }
+
+    /**
+     * Stop the workers, giving them "discovery.index.async.shutdown.timeout" seconds to drain the queue. Entries
+     * which could not be processed in time remain in the journal and are replayed on the next start.
+     */
+    public void destroy() {
+        running = false;
+        if (executorService == null) {
+            return;
+        }
+        if (metricsService != null) {
+            metricsService.shutdownNow();
+        }
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(
+                configurationService.getIntProperty("discovery.index.async.shutdown.timeout", 30), TimeUnit.SECONDS)) {
+                executorService.shutdownNow();
+                // Give the interrupted workers a moment to put their batch back
+                executorService.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        int remaining;
+        synchronized (journalMonitor) {
+            // Entries a worker is still busy with are not acknowledged, they must stay in the journal too
+            remaining = pending.size() + inFlight.size();
+            try {
+                closeJournal(remaining == 0);
+            } catch (IOException e) {
+                log.error("Unable to close the indexing queue journal " + journalFile, e);
+            }
+        }
+        if (remaining > 0) {
+            log.warn("Stopped asynchronous indexing queue with {} pending entries, kept in {}", remaining,
+                     journalFile);
+        }
+    }
+
+    /**
+     * Queue the removal of the given documents and the (re)indexing of the given objects. The deletions are queued
+     * first, so an object which is both removed and updated ends up being (re)indexed.
+     *
+     * @param uniqueIdsToDelete the unique index ids of the documents to remove
+     * @param uniqueIdsToUpdate the unique index ids of the objects to (re)index
+     * @throws IOException if the entries could not be written to the journal
+     */
+    public void enqueue(Collection<String> uniqueIdsToDelete, Collection<String> uniqueIdsToUpdate)
+        throws IOException {
+        synchronized (journalMonitor) {
+            for (String uniqueId : uniqueIdsToDelete) {
+                add(uniqueId, Operation.DELETE);
+            }
+            for (String uniqueId : uniqueIdsToUpdate) {
+                add(uniqueId, Operation.UPDATE);
+            }
+            syncJournal();
+        }
+    }
+
+    /**
+     * @return the number of objects waiting to be indexed or removed
+     */
+    public int getQueueSize() {
+        return pending.size() + inFlight.size();
+    }
+
+    /**
+     * @return the time in milliseconds the oldest waiting entry has spent in the queue
+     */
+    public long getLag() {
+        String oldest = uniqueIds.peek();
+        PendingEntry entry = oldest != null ? pending.get(oldest) : null;
+        return entry != null ? System.currentTimeMillis() - entry.queued : 0;
+    }
+
+    /**
+     * @return the time in milliseconds the last processed entry spent in the queue
+     */
+    public long getLastLag() {
+        return lastLag;
+    }
+
+    /**
+     * @return the number of documents written since startup
+     */
+    public long getIndexedCount() {
+        return indexed.get();
+    }
+
+    /**
+     * @return the number of documents removed since startup
+     */
+    public long getDeletedCount() {
+        return deleted.get();
+    }
+
+    /**
+     * @return the number of entries which could not be processed since startup
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of entries in the journal, including those already superseded or acknowledged
+     */
+    public int getJournalSize() {
+        synchronized (journalMonitor) {
+            return journalEntries;
+        }
+    }
+
+    /**
+     * @return all of the above by name, e.g. for monitoring
+     */
+    public Map<String, Long> getMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("size", (long) getQueueSize());
+        metrics.put("lag", getLag());
+        metrics.put("lastLag", getLastLag());
+        metrics.put("indexed", getIndexedCount());
+        metrics.put("deleted", getDeletedCount());
+        metrics.put("failed", getFailedCount());
+        metrics.put("journal", (long) getJournalSize());
+        return metrics;
+    }
+
+    /**
+     * Create the Context used by a worker to resolve the queued objects
+     *
+     * @return a read-only Context
+     */
+    protected Context newContext() {
+        return new Context(Context.Mode.READ_ONLY);
+    }
+
+    /**
+     * Add a single entry, the caller holds the journal monitor.
+     */
+    private void add(String uniqueId, Operation operation) throws IOException {
+        writeJournalEntry(uniqueId, operation);
+
+        PendingEntry entry = pending.get(uniqueId);
+        if (entry != null) {
+            // Still waiting, the latest operation wins
+            entry.operation = operation;
+        } else {
+            pending.put(uniqueId, new PendingEntry(uniqueId, operation));
+            uniqueIds.add(uniqueId);
+        }
+    }
+
+    /**
+     * Append a single entry to the journal, the caller holds the journal monitor.
+     */
+    private void writeJournalEntry(String uniqueId, Operation operation) throws IOException {
+        journalWriter.write(operation.code);
+        journalWriter.write(' ');
+        journalWriter.write(uniqueId);
+        journalWriter.write('\n');
+        journalEntries++;
+    }
+
+    /**
+     * Write the buffered entries to the journal and force them to disk, the caller holds the journal monitor.
+     */
+    private void syncJournal() throws IOException {
+        journalWriter.flush();
+        journal.getChannel().force(false);
+    }
+
+    /**
+     * Body of the worker threads
+     */
+    private void drain() {
+        try {
+            while (running || !uniqueIds.isEmpty()) {
+                String first = uniqueIds.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    List<String> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    uniqueIds.drainTo(batch, batchSize - 1);
+                    if (!process(batch)) {
+                        if (!running) {
+                            // Don't hold up the shutdown, the batch is kept in the journal for the next start
+                            return;
+                        }
+                        // Solr is most likely unavailable, give it some time
+                        Thread.sleep(retryDelay);
+                    }
+                    compactJournal();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write a batch to the index
+     *
+     * @return false if the batch could not be written and was queued again
+     */
+    private boolean process(List<String> batch) {
+        List<PendingEntry> entries = new ArrayList<>(batch.size());
+        for (String uniqueId : batch) {
+            PendingEntry entry = take(uniqueId);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        boolean written = false;
+        try {
+            written = write(entries);
+        } catch (RuntimeException e) {
+            log.error("Unable to write a batch of " + entries.size() + " entries to the index, they will be retried",
+                      e);
+        }
+        complete(entries, written);
+        return written;
+    }
+
+    /**
+     * Take the waiting entry of an object from the queue, unless another worker is still busy with the same object:
+     * the entry then waits until that worker is done, as writing both at once could let the older operation reach
+     * Solr last.
+     *
+     * @return the entry, or null if there is none or it was deferred
+     */
+    private PendingEntry take(String uniqueId) {
+        synchronized (journalMonitor) {
+            if (inFlight.containsKey(uniqueId)) {
+                if (pending.containsKey(uniqueId)) {
+                    deferred.add(uniqueId);
+                }
+                return null;
+            }
+            PendingEntry entry = pending.remove(uniqueId);
+            if (entry != null) {
+                inFlight.put(uniqueId, entry);
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Release the entries of a processed batch, queueing again the entries deferred while they were in flight.
+     * Entries which could not be written are put back in the queue, unless a newer operation on the same object was
+     * queued meanwhile. The entries are still in the journal, so it doesn't need to be written again.
+     *
+     * @param written whether the entries were written to the index
+     */
+    private void complete(List<PendingEntry> entries, boolean written) {
+        synchronized (journalMonitor) {
+            for (PendingEntry entry : entries) {
+                inFlight.remove(entry.uniqueId);
+                if (written || pending.putIfAbsent(entry.uniqueId, entry) != null) {
+                    if (deferred.remove(entry.uniqueId)) {
+                        uniqueIds.add(entry.uniqueId);
+                    }
+                } else {
+                    uniqueIds.add(entry.uniqueId);
+                }
+            }
+        }
+    }
+
+    private boolean write(List<PendingEntry> entries) {
+        SolrClient solr = solrSearchCore.getSolr();
+        if (solr == null || entries.isEmpty()) {
+            return true;
+        }
+
+        List<String> toDelete = new ArrayList<>();
+        List<String> toUpdate = new ArrayList<>();
+        for (PendingEntry entry : entries) {
+            lastLag = System.currentTimeMillis() - entry.queued;
+            if (entry.operation == Operation.DELETE) {
+                toDelete.add(entry.uniqueId);
+            } else {
+                toUpdate.add(entry.uniqueId);
+            }
+        }
+
+        Context context = newContext();
+        context.turnOffAuthorisationSystem();
+        try {
+            List<SolrInputDocument> documents = new ArrayList<>(toUpdate.size());
+            for (String uniqueId : toUpdate) {
+                try {
+                    IndexFactory indexFactory = indexObjectServiceFactory.getIndexableObjectFactory(uniqueId);
+                    Optional<IndexableObject> indexableObject =
+                        indexFactory.findIndexableObject(context, StringUtils.substringAfter(uniqueId, "-"));
+                    if (indexableObject.isPresent()) {
+                        SolrInputDocument document = indexFactory.buildDocument(context, indexableObject.get());
+                        indexFactory.prepareDocument(context, indexableObject.get(), document);
+                        documents.add(document);
+                        context.uncacheEntity(indexableObject.get().getIndexedObject());
+                    } else {
+                        // The object no longer exists, make sure it is no longer found either
+                        toDelete.add(uniqueId);
+                    }
+                } catch (SQLException | IOException | RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.error("Failed while indexing object: " + uniqueId, e);
+                }
+            }
+
+            try {
+                if (!toDelete.isEmpty()) {
+                    solr.deleteById(toDelete, commitWithin);
+                    deleted.addAndGet(toDelete.size());
+                }
+                if (!documents.isEmpty()) {
+                    solr.add(documents, commitWithin);
+                    indexed.addAndGet(documents.size());
+                }
+                return true;
+            } catch (SolrServerException | IOException e) {
+                log.error("Unable to write " + documents.size() + " documents and " + toDelete.size()
+                              + " deletions to the index, they will be retried", e);
+                return false;
+            }
+        } finally {
+            context.abort();
+        }
+    }
+
+    /**
+     * Truncate the journal when the queue is empty, or rewrite it with only the waiting entries once most of its
+     * entries were acknowledged or superseded.
+     */
+    private void compactJournal() {
+        synchronized (journalMonitor) {
+            int live = pending.size() + inFlight.size();
+            try {
+                if (live == 0) {
+                    journalWriter.flush();
+                    journal.getChannel().truncate(0);
+                    journal.seek(0);
+                    journalEntries = 0;
+                } else if (compactThreshold > 0 && journalEntries >= compactThreshold
+                    && journalEntries >= 2 * live) {
+                    rotateJournal();
+                }
+            } catch (IOException e) {
+                log.error("Unable to compact the indexing queue journal " + journalFile, e);
+            }
+        }
+    }
+
+    /**
+     * Replace the journal by a new one holding only the entries which are not acknowledged yet, the caller holds
+     * the journal monitor. The new journal is complete before the old one is removed, so a crash in between
+     * replays some entries twice rather than losing them.
+     */
+    private void rotateJournal() throws IOException {
+        File oldFile = journalFile;
+        RandomAccessFile oldJournal = journal;
+        FileLock oldLock = journalLock;
+        Writer oldWriter = journalWriter;
+        int oldEntries = journalEntries;
+        openJournal();
+        try {
+            // In flight entries first, a waiting entry for the same object is more recent
+            for (PendingEntry entry : inFlight.values()) {
+                writeJournalEntry(entry.uniqueId, entry.operation);
+            }
+            for (PendingEntry entry : pending.values()) {
+                writeJournalEntry(entry.uniqueId, entry.operation);
+            }
+            syncJournal();
+        } catch (IOException e) {
+            // Keep using the old journal, which still has all entries
+            closeJournal(true);
+            journalFile = oldFile;
+            journal = oldJournal;
+            journalLock = oldLock;
+            journalWriter = oldWriter;
+            journalEntries = oldEntries;
+            throw e;
+        }
+        oldWriter.flush();
+        oldLock.release();
+        oldJournal.close();
+        if (!oldFile.delete()) {
+            log.warn("Unable to delete the compacted indexing queue journal " + oldFile);
+        }
+        log.debug("Compacted indexing queue journal from {} to {} entries", oldEntries, journalEntries);
+    }
+
+    /**
+     * Create, lock and open a new journal, the caller holds the journal monitor.
+     */
+    private void openJournal() throws IOException {
+        journalFile = new File(journalDir, "queue-" + UUID.randomUUID() + JOURNAL_SUFFIX);
+        journal = new RandomAccessFile(journalFile, "rw");
+        journalLock = journal.getChannel().lock();
+        journalWriter = Channels.newWriter(journal.getChannel(), StandardCharsets.UTF_8.newEncoder(), -1);
+        journalEntries = 0;
+    }
+
+    /**
+     * Close the current journal, the caller holds the journal monitor.
+     *
+     * @param delete whether to delete the journal once closed
+     */
+    private void closeJournal(boolean delete) throws IOException {
+        journalWriter.flush();
+        journalLock.release();
+        journal.close();
+        if (delete && !journalFile.delete()) {
+            log.warn("Unable to delete the indexing queue journal " + journalFile);
+        }
+    }
+
+    /**
+     * Replay the journals of queues which were not stopped cleanly. A journal still locked belongs to a running
+     * JVM (e.g. the command line launcher next to the web application) and is left alone.
+     */
+    private void recoverJournals(File journalDir) throws IOException {
+        File[] journals = journalDir.listFiles((dir, name) -> name.endsWith(JOURNAL_SUFFIX));
+        if (journals == null) {
+            return;
+        }
+        for (File file : journals) {
+            if (file.equals(journalFile)) {
+                continue;
+            }
+            int recovered = 0;
+            try (RandomAccessFile orphan = new RandomAccessFile(file, "rw");
+                 FileChannel channel = orphan.getChannel()) {
+                FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    continue;
+                }
+                BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                synchronized (journalMonitor) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.length() > 2) {
+                            // Replaying in order gives the same outcome as the original sequence of operations
+                            add(line.substring(2), Operation.fromCode(line.charAt(0)));
+                            recovered++;
+                        }
+                    }
+                    syncJournal();
+                }
+                lock.release();
+            }
+            if (!file.delete()) {
+                log.warn("Unable to delete recovered indexing queue journal " + file);
+            }
+            log.info("Recovered {} entries from indexing queue journal {}", recovered, file);
+        }
+    }
+
+    private static class PendingEntry {
+        private final String uniqueId;
+        private final long queued = System.currentTimeMillis();
+        private volatile Operation operation;
+
+        PendingEntry(String uniqueId, Operation operation) {
+            this.uniqueId = uniqueId;
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * Logs the metrics of the queue while it is active
+     */
+    private class MetricsLogger implements Runnable {
+        private Map<String, Long> previous;
+
+        @Override
+        public void run() {
+            Map<String, Long> metrics = getMetrics();
+            if (metrics.get("size") > 0 || !metrics.equals(previous)) {
+                log.info("Indexing queue metrics: {}", metrics);
+            }
+            previous = metrics;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+
+/**
+ * Rebuilds the documents of a single index type using a pool of worker threads.
+ * <p>
+ * The calling thread only walks the identifiers returned by {@link IndexFactory#findAll(Context)} and hands them
+ * to the workers in batches. Every worker owns its own read-only {@link Context} (and therefore its own database
+ * session), builds the documents of a batch and sends them to Solr in a single add request. Progress and throughput
+ * are logged after every batch.
+ * <p>
+ * Documents are always (re)written, so this is only meant for forced reindexing.
+ * <p>
+ * Should all workers stop (e.g. because they could not get a database connection), the calling thread indexes the
+ * remaining objects itself, with its own Context.
+ */
+public class ParallelIndexer {
+
+    private static final Logger log = LogManager.getLogger(ParallelIndexer.class);
+
+    /**
+     * Marker telling a worker there is no more work, compared by identity
+     */
+    private static final List<String> END_OF_WORK = new ArrayList<>();
+
+    private final SolrClient solr;
+    private final int threads;
+    private final int batchSize;
+
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long startTime;
+
+    /**
+     * @param solr      the client of the search core the documents are written to
+     * @param threads   the number of worker threads
+     * @param batchSize the number of documents sent to Solr per add request
+     */
+    public ParallelIndexer(SolrClient solr, int threads, int batchSize) {
+        this.solr = solr;
+        this.threads = Math.max(1, threads);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Index all objects of the type handled by the given factory.
+     *
+     * @param context      The relevant DSpace Context, only used to list the objects to index
+     * @param indexFactory the factory of the type to index
+     * @return the number of documents written to the search core
+     * @throws SQLException         if the objects could not be listed
+     * @throws InterruptedException if the calling thread was interrupted while waiting for the workers
+     */
+    public long index(Context context, IndexFactory indexFactory) throws SQLException, InterruptedException {
+        indexed.set(0);
+        failed.set(0);
+        startTime = System.currentTimeMillis();
+
+        BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(threads * 2);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>(threads);
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executorService.submit(new Worker(indexFactory, queue)));
+            }
+
+            boolean synchronous = false;
+            Iterator<IndexableObject> indexableObjects = indexFactory.findAll(context);
+            List<String> batch = new ArrayList<>(batchSize);
+            while (indexableObjects.hasNext()) {
+                IndexableObject indexableObject = indexableObjects.next();
+                batch.add(indexableObject.getID().toString());
+                context.uncacheEntity(indexableObject.getIndexedObject());
+                if (batch.size() == batchSize) {
+                    synchronous = handOver(context, indexFactory, queue, batch, workers, synchronous);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                synchronous = handOver(context, indexFactory, queue, batch, workers, synchronous);
+            }
+            if (!synchronous) {
+                for (int i = 0; i < threads; i++) {
+                    if (!enqueue(queue, END_OF_WORK, workers)) {
+                        break;
+                    }
+                }
+            }
+
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    log.error("Indexing worker for type " + indexFactory.getType() + " failed", e.getCause());
+                }
+            }
+
+            // Batches left behind by workers which stopped
+            List<List<String>> left = new ArrayList<>();
+            queue.drainTo(left);
+            for (List<String> leftover : left) {
+                if (leftover != END_OF_WORK) {
+                    indexBatch(context, indexFactory, leftover);
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        log.info("Indexed {} objects of type {} in {} seconds ({} failed, {} objects/s)", indexed.get(),
+                 indexFactory.getType(), (System.currentTimeMillis() - startTime) / 1000, failed.get(),
+                 getThroughput());
+        return indexed.get();
+    }
+
+    /**
+     * @return the number of documents written to the search core by the last (or current) run
+     */
+    public long getIndexedCount() {
+        return indexed.get();
+    }
+
+    /**
+     * @return the number of objects which could not be indexed by the last (or current) run
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of documents written per second by the last (or current) run
+     */
+    public long getThroughput() {
+        long elapsed = System.currentTimeMillis() - startTime;
+        return elapsed > 0 ? indexed.get() * 1000 / elapsed : indexed.get();
+    }
+
+    /**
+     * Create the Context of a worker thread.
+     *
+     * @return a new read-only Context, with the authorisation system turned off
+     */
+    protected Context newWorkerContext() {
+        Context context = new Context(Context.Mode.READ_ONLY);
+        context.turnOffAuthorisationSystem();
+        return context;
+    }
+
+    /**
+     * Hand a batch to the workers, or index it with the calling thread once no worker is left.
+     *
+     * @return whether the calling thread now indexes the batches itself
+     */
+    private boolean handOver(Context context, IndexFactory indexFactory, BlockingQueue<List<String>> queue,
+                             List<String> batch, List<Future<?>> workers, boolean synchronous)
+        throws InterruptedException {
+        if (!synchronous && enqueue(queue, batch, workers)) {
+            return false;
+        }
+        if (!synchronous) {
+            log.warn("All indexing workers for type {} have stopped, indexing the remaining objects without them",
+                     indexFactory.getType());
+        }
+        // Batches left in the queue by the workers first
+        List<List<String>> batches = new ArrayList<>();
+        queue.drainTo(batches);
+        batches.add(batch);
+        for (List<String> left : batches) {
+            indexBatch(context, indexFactory, left);
+        }
+        return true;
+    }
+
+    /**
+     * Hand a batch to the workers.
+     *
+     * @return false if none of them is left to take it
+     */
+    private boolean enqueue(BlockingQueue<List<String>> queue, List<String> batch, List<Future<?>> workers)
+        throws InterruptedException {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (workers.stream().allMatch(Future::isDone)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void indexBatch(Context context, IndexFactory indexFactory, List<String> batch) {
+        List<SolrInputDocument> documents = new ArrayList<>(batch.size());
+        for (String id : batch) {
+            try {
+                Optional<IndexableObject> indexableObject = indexFactory.findIndexableObject(context, id);
+                if (indexableObject.isPresent()) {
+                    SolrInputDocument document = indexFactory.buildDocument(context, indexableObject.get());
+                    indexFactory.prepareDocument(context, indexableObject.get(), document);
+                    documents.add(document);
+                    context.uncacheEntity(indexableObject.get().getIndexedObject());
+                }
+            } catch (SQLException | IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                log.error("Unable to index " + indexFactory.getType() + " " + id + ": " + e.getMessage(), e);
+            }
+        }
+
+        if (!documents.isEmpty()) {
+            try {
+                solr.add(documents);
+                long total = indexed.addAndGet(documents.size());
+                log.info("Indexed {} objects of type {} ({} objects/s)", total, indexFactory.getType(),
+                         getThroughput());
+            } catch (SolrServerException | IOException | RuntimeException e) {
+                failed.addAndGet(documents.size());
+                log.error("Unable to write a batch of " + documents.size() + " documents to the index: "
+                              + e.getMessage(), e);
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final IndexFactory indexFactory;
+        private final BlockingQueue<List<String>> queue;
+
+        Worker(IndexFactory indexFactory, BlockingQueue<List<String>> queue) {
+            this.indexFactory = indexFactory;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            Context context = newWorkerContext();
+            try {
+                List<String> batch = queue.take();
+                while (batch != END_OF_WORK) {
+                    indexBatch(context, indexFactory, batch);
+                    batch = queue.take();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                context.abort();
+            }
+        }
+    }
+}
@@ -11,6 +11,7 @@ import static java.util.stream.Collectors.joining;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Serializable;
 import java.io.StringWriter;
 import java.sql.SQLException;
 import java.text.ParseException;
@@ -26,8 +27,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.mail.MessagingException;
 
 import org.apache.commons.collections4.CollectionUtils;
@@ -39,10 +42,12 @@ import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.FacetField;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.client.solrj.response.json.BucketBasedJsonFacet;
 import org.apache.solr.client.solrj.util.ClientUtils;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.apache.solr.common.params.FacetParams;
 import org.apache.solr.common.params.HighlightParams;
 import org.apache.solr.common.params.MoreLikeThisParams;
@@ -102,6 +107,11 @@ public class SolrServiceImpl implements SearchService, IndexingService {
 
     private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(SolrServiceImpl.class);
 
+    /**
+     * Number of orphaned documents removed from the index per delete request when cleaning the index
+     */
+    protected static final int CLEAN_INDEX_DELETE_BATCH_SIZE = 1000;
+
     @Autowired
     protected ContentServiceFactory contentServiceFactory;
     @Autowired
@@ -308,18 +318,38 @@ public class SolrServiceImpl implements SearchService, IndexingService {
         updateIndex(context, force, null);
     }
 
+    /**
+     * Iterates over all objects of the given type (or all types if null) and updates them in the index.
+     * <p>
+     * When forcing the update and "discovery.index.threads" is larger than 1, the documents are built by a pool of
+     * worker threads, each using its own Context, and written to Solr in batches of "discovery.index.batch.size"
+     * documents.
+     *
+     * @param context the dspace context
+     * @param force   whether or not to force the reindexing
+     * @param type    the type of the objects to index, null for all types
+     */
     @Override
     public void updateIndex(Context context, boolean force, String type) {
         try {
             final List<IndexFactory> indexableObjectServices = indexObjectServiceFactory.
                 getIndexFactories();
+            final int threads = configurationService.getIntProperty("discovery.index.threads", 1);
             for (IndexFactory indexableObjectService : indexableObjectServices) {
                 if (type == null || StringUtils.equals(indexableObjectService.getType(), type)) {
-                    final Iterator<IndexableObject> indexableObjects = indexableObjectService.findAll(context);
-                    while (indexableObjects.hasNext()) {
-                        final IndexableObject indexableObject = indexableObjects.next();
-                        indexContent(context, indexableObject, force);
-                        context.uncacheEntity(indexableObject.getIndexedObject());
+                    if (force && threads > 1 && solrSearchCore.getSolr() != null) {
+                        new ParallelIndexer(solrSearchCore.getSolr(), threads,
+                                            configurationService.getIntProperty("discovery.index.batch.size", 100))
+                            .index(context, indexableObjectService);
+                    } else if (!force && solrSearchCore.getSolr() != null) {
+                        updateStaleDocuments(context, indexableObjectService);
+                    } else {
+                        final Iterator<IndexableObject> indexableObjects = indexableObjectService.findAll(context);
+                        while (indexableObjects.hasNext()) {
+                            final IndexableObject indexableObject = indexableObjects.next();
+                            indexContent(context, indexableObject, force);
+                            context.uncacheEntity(indexableObject.getIndexedObject());
+                        }
                     }
                 }
             }
@@ -329,12 +359,137 @@ public class SolrServiceImpl implements SearchService, IndexingService {
 
         } catch (IOException | SQLException | SolrServerException e) {
             log.error(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while updating the index", e);
+        }
+    }
+
+    /**
+     * Brings the documents of a single index type up to date. Rather than querying the index for every object,
+     * the last indexed date of all documents of the type is read in one cursor based pass and handed to the
+     * factory, which only returns the stale or missing objects. Documents of objects which no longer exist are
+     * removed.
+     *
+     * @param context                the dspace context
+     * @param indexableObjectService the factory of the type to update
+     * @throws SQLException        if database error
+     * @throws IOException         if IO error
+     * @throws SolrServerException if the index could not be queried
+     */
+    protected void updateStaleDocuments(Context context, IndexFactory indexableObjectService)
+        throws SQLException, IOException, SolrServerException {
+        final String type = indexableObjectService.getType();
+        final Map<Serializable, Long> lastIndexed = getLastIndexedTimes(indexableObjectService);
+        long indexed = 0;
+
+        final Iterator<IndexableObject> indexableObjects = indexableObjectService.findStale(context, lastIndexed);
+        while (indexableObjects.hasNext()) {
+            final IndexableObject indexableObject = indexableObjects.next();
+            // Staleness was already established, no need to check it again
+            indexContent(context, indexableObject, true);
+            indexed++;
+            context.uncacheEntity(indexableObject.getIndexedObject());
+        }
+
+        // Whatever is left was not returned from the database, double check before removing it from the index
+        long removed = 0;
+        final List<String> ids = new ArrayList<>(lastIndexed.size());
+        for (Serializable id : lastIndexed.keySet()) {
+            ids.add(id.toString());
+        }
+        final Set<String> existing = indexableObjectService.findExistingIds(context, ids);
+        for (String id : ids) {
+            if (!existing.contains(id)) {
+                log.info("Deleting: " + type + "-" + id);
+                unIndexContent(context, type + "-" + id);
+                removed++;
+            }
+        }
+        log.info("Updated index for type {}: {} objects (re)indexed, {} documents removed", type, indexed, removed);
+    }
+
+    /**
+     * Read the last indexed time of every document of the given type from the index.
+     *
+     * @param indexableObjectService the factory of the type, used to parse the identifiers
+     * @return the last indexed time in milliseconds (0 if unknown) by primary key, see
+     * {@link IndexFactory#parseId(String)}
+     * @throws SQLException        if database error
+     * @throws SolrServerException if the index could not be queried
+     * @throws IOException         if IO error
+     */
+    protected Map<Serializable, Long> getLastIndexedTimes(IndexFactory indexableObjectService)
+        throws SQLException, SolrServerException, IOException {
+        final Map<Serializable, Long> lastIndexed = new HashMap<>();
+        SolrQuery query = new SolrQuery("*:*");
+        query.addFilterQuery(SearchUtils.RESOURCE_TYPE_FIELD + ":"
+                                 + ClientUtils.escapeQueryChars(indexableObjectService.getType()));
+        query.setFields(SearchUtils.RESOURCE_ID_FIELD, SearchUtils.LAST_INDEXED_FIELD);
+        streamDocuments(query, documents -> {
+            for (SolrDocument doc : documents) {
+                final String id = (String) doc.getFieldValue(SearchUtils.RESOURCE_ID_FIELD);
+                final Object value = doc.getFieldValue(SearchUtils.LAST_INDEXED_FIELD);
+                try {
+                    lastIndexed.put(indexableObjectService.parseId(id),
+                                    value instanceof Date ? ((Date) value).getTime() : 0L);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid {} identifier in the discovery index: {}", indexableObjectService.getType(),
+                             id);
+                }
+            }
+        });
+        return lastIndexed;
+    }
+
+    /**
+     * Walk over all documents matching the query using cursor based paging. Unlike start/rows paging, the cost of
+     * retrieving a page doesn't grow with its depth in the result set. The sort and start of the query are
+     * overwritten as required by cursors.
+     *
+     * @param query   the query to execute
+     * @param handler called with every page of documents
+     * @throws SQLException        if database error
+     * @throws SolrServerException if the index could not be queried
+     * @throws IOException         if IO error
+     */
+    protected void streamDocuments(SolrQuery query, SolrDocumentPageHandler handler)
+        throws SQLException, SolrServerException, IOException {
+        query.setStart(0);
+        query.setSort(SearchUtils.RESOURCE_UNIQUE_ID, SolrQuery.ORDER.asc);
+        if (query.getRows() == null) {
+            query.setRows(configurationService.getIntProperty("discovery.index.cursor.rows", 10000));
+        }
+        String cursorMark = CursorMarkParams.CURSOR_MARK_START;
+        while (true) {
+            query.set(CursorMarkParams.CURSOR_MARK_PARAM, cursorMark);
+            QueryResponse rsp = solrSearchCore.getSolr().query(query, solrSearchCore.REQUEST_METHOD);
+            if (!rsp.getResults().isEmpty()) {
+                handler.handle(rsp.getResults());
+            }
+            String nextCursorMark = rsp.getNextCursorMark();
+            if (cursorMark.equals(nextCursorMark)) {
+                break;
+            }
+            cursorMark = nextCursorMark;
         }
     }
 
+    /**
+     * Callback receiving the pages of documents retrieved by
+     * {@link #streamDocuments(SolrQuery, SolrDocumentPageHandler)}
+     */
+    @FunctionalInterface
+    protected interface SolrDocumentPageHandler {
+        void handle(SolrDocumentList documents) throws SQLException, SolrServerException, IOException;
+    }
+
     /**
      * Iterates over all documents in the Lucene index and verifies they are in
      * database, if not, they are removed.
+     * <p>
+     * The index is walked using cursor based paging, the existence of the objects of
+     * each page is checked per type in bulk and orphaned documents are deleted in batches.
      *
      * @param force whether or not to force a clean index
      * @throws IOException            IO exception
@@ -357,49 +512,53 @@ public class SolrServiceImpl implements SearchService, IndexingService {
                     indexableObjectService.deleteAll();
                 }
             } else {
-                // First, we'll just get a count of the total results
-                SolrQuery countQuery = new SolrQuery("*:*");
-                countQuery.setRows(0);  // don't actually request any data
-                // Get the total amount of results
-                QueryResponse totalResponse = solrSearchCore.getSolr().query(countQuery,
-                                                                             solrSearchCore.REQUEST_METHOD);
-                long total = totalResponse.getResults().getNumFound();
-
-                int start = 0;
-                int batch = 100;
-
-                // Now get actual Solr Documents in batches
-                SolrQuery query = new SolrQuery();
+                final List<String> toDelete = new ArrayList<>();
+                final AtomicLong deleted = new AtomicLong();
+
+                SolrQuery query = new SolrQuery("*:*");
                 query.setFields(SearchUtils.RESOURCE_UNIQUE_ID, SearchUtils.RESOURCE_ID_FIELD,
                                 SearchUtils.RESOURCE_TYPE_FIELD);
-                query.addSort(SearchUtils.RESOURCE_UNIQUE_ID, SolrQuery.ORDER.asc);
-                query.setQuery("*:*");
-                query.setRows(batch);
-                // Keep looping until we hit the total number of Solr docs
-                while (start < total) {
-                    query.setStart(start);
-                    QueryResponse rsp = solrSearchCore.getSolr().query(query, solrSearchCore.REQUEST_METHOD);
-                    SolrDocumentList docs = rsp.getResults();
-
-                    for (SolrDocument doc : docs) {
-                        String uniqueID = (String) doc.getFieldValue(SearchUtils.RESOURCE_UNIQUE_ID);
-
-                        IndexableObject o = findIndexableObject(context, doc);
-
-                        if (o == null) {
-                            log.info("Deleting: " + uniqueID);
-                            /*
-                             * Use IndexWriter to delete, its easier to manage
-                             * write.lock
-                             */
-                            unIndexContent(context, uniqueID);
-                        } else {
-                            log.debug("Keeping: " + o.getUniqueIndexID());
+                streamDocuments(query, documents -> {
+                    // Group the identifiers of the page by type, so their existence can be checked in bulk
+                    Map<String, Map<String, String>> uniqueIdsByType = new HashMap<>();
+                    for (SolrDocument doc : documents) {
+                        uniqueIdsByType
+                            .computeIfAbsent((String) doc.getFirstValue(SearchUtils.RESOURCE_TYPE_FIELD),
+                                             type -> new HashMap<>())
+                            .put((String) doc.getFirstValue(SearchUtils.RESOURCE_ID_FIELD),
+                                 (String) doc.getFirstValue(SearchUtils.RESOURCE_UNIQUE_ID));
+                    }
+
+                    for (Map.Entry<String, Map<String, String>> entry : uniqueIdsByType.entrySet()) {
+                        final IndexFactory indexableObjectService = indexObjectServiceFactory.
+                                getIndexFactoryByType(entry.getKey());
+                        if (indexableObjectService == null) {
+                            log.warn("No index factory found for type " + entry.getKey() + ", keeping its documents");
+                            continue;
+                        }
+                        final Map<String, String> uniqueIds = entry.getValue();
+                        final Set<String> existing = indexableObjectService
+                            .findExistingIds(context, new ArrayList<>(uniqueIds.keySet()));
+                        for (Map.Entry<String, String> uniqueId : uniqueIds.entrySet()) {
+                            if (!existing.contains(uniqueId.getKey())) {
+                                log.info("Deleting: " + uniqueId.getValue());
+                                toDelete.add(uniqueId.getValue());
+                            }
                         }
                     }
 
-                    start += batch;
+                    if (toDelete.size() >= CLEAN_INDEX_DELETE_BATCH_SIZE) {
+                        solrSearchCore.getSolr().deleteById(toDelete);
+                        deleted.addAndGet(toDelete.size());
+                        toDelete.clear();
+                    }
+                });
+
+                if (!toDelete.isEmpty()) {
+                    solrSearchCore.getSolr().deleteById(toDelete);
+                    deleted.addAndGet(toDelete.size());
                 }
+                log.info("Cleaned discovery index, " + deleted.get() + " documents removed");
             }
         } catch (IOException | SQLException | SolrServerException e) {
             log.error("Error cleaning discovery index: " + e.getMessage(), e);
@@ -837,6 +996,24 @@ public class SolrServiceImpl implements SearchService, IndexingService {
             solrQuery.setParam(FacetParams.FACET_OFFSET, String.valueOf(discoveryQuery.getFacetOffset()));
         }
 
+        if (CollectionUtils.isNotEmpty(discoveryQuery.getFacetValueCountFields())) {
+            // The JSON facet API counts the distinct values (buckets) without returning them
+            Map<String, Object> jsonFacets = new LinkedHashMap<>();
+            for (DiscoverFacetField facetFieldConfig : discoveryQuery.getFacetValueCountFields()) {
+                Map<String, Object> jsonFacet = new LinkedHashMap<>();
+                jsonFacet.put("type", "terms");
+                jsonFacet.put("field", transformFacetField(facetFieldConfig, facetFieldConfig.getField(), false));
+                jsonFacet.put("limit", 0);
+                jsonFacet.put("numBuckets", true);
+                jsonFacet.put("mincount", Math.max(1, discoveryQuery.getFacetMinCount()));
+                if (facetFieldConfig.getPrefix() != null) {
+                    jsonFacet.put("prefix", facetFieldConfig.getPrefix());
+                }
+                jsonFacets.put(facetFieldConfig.getField(), jsonFacet);
+            }
+            solrQuery.setParam("json.facet", org.apache.solr.common.util.Utils.toJSONString(jsonFacets));
+        }
+
         if (0 < discoveryQuery.getHitHighlightingFields().size()) {
             solrQuery.setHighlight(true);
             solrQuery.add(HighlightParams.USE_PHRASE_HIGHLIGHTER, Boolean.TRUE.toString());
@@ -955,6 +1132,17 @@ public class SolrServiceImpl implements SearchService, IndexingService {
                 }
             }
 
+            if (CollectionUtils.isNotEmpty(query.getFacetValueCountFields())
+                && solrQueryResponse.getJsonFacetingResponse() != null) {
+                for (DiscoverFacetField facetFieldConfig : query.getFacetValueCountFields()) {
+                    BucketBasedJsonFacet jsonFacet =
+                        solrQueryResponse.getJsonFacetingResponse().getBucketBasedFacets(facetFieldConfig.getField());
+                    // no facet is returned when no document matches the query
+                    result.setFacetValueCount(facetFieldConfig.getField(),
+                                              jsonFacet != null ? Math.max(0, jsonFacet.getNumBuckets()) : 0);
+                }
+            }
+
             if (solrQueryResponse.getFacetQuery() != null) {
                 // just retrieve the facets in the order they where requested!
                 // also for the date we ask it in proper (reverse) order
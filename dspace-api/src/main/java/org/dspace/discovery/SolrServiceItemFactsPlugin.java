@@ -0,0 +1,175 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.content.Bitstream;
+import org.dspace.content.BitstreamFormat;
+import org.dspace.content.Bundle;
+import org.dspace.content.Item;
+import org.dspace.core.Constants;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.services.ConfigurationService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * This plugin indexes facts about the bundles and bitstreams of an item: the
+ * number of bitstreams per bundle, the number of original bitstreams per MIME
+ * type class and the sizes of the PDF originals and JPEG thumbnails. The item
+ * filters of the REST reports query these fields instead of loading the
+ * bundles and bitstreams of every item.
+ *
+ * Access to the item and its bitstreams is not indexed: policy changes and
+ * embargo lifts do not reindex the item, so the permission filters keep
+ * testing the item itself.
+ *
+ * The MIME type classes are read from the rest.report-mime-document* properties
+ * when the item is indexed, so the index has to be rebuilt after changing them.
+ * It is activated simply by adding this class as a bean to discovery.xml.
+ */
+public class SolrServiceItemFactsPlugin implements SolrServiceIndexPlugin {
+
+    private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(SolrServiceItemFactsPlugin.class);
+
+    /**
+     * Set on every item indexed by this plugin, so items indexed before the plugin was enabled can be told apart
+     */
+    public static final String INDEXED_FIELD = "itemfacts_indexed_b";
+
+    public static final String ORIGINAL_COUNT_FIELD = "itemfacts_original_i";
+    public static final String ORIGINAL_DOC_COUNT_FIELD = "itemfacts_original_doc_i";
+    public static final String ORIGINAL_SUPP_DOC_COUNT_FIELD = "itemfacts_original_supp_doc_i";
+    public static final String ORIGINAL_IMAGE_COUNT_FIELD = "itemfacts_original_image_i";
+    public static final String ORIGINAL_SUPP_IMAGE_COUNT_FIELD = "itemfacts_original_supp_image_i";
+    public static final String ORIGINAL_MIME_FIELD = "itemfacts_original_mime_keyword";
+    public static final String ORIGINAL_PDF_MIN_SIZE_FIELD = "itemfacts_original_pdf_min_size_l";
+    public static final String ORIGINAL_PDF_MAX_SIZE_FIELD = "itemfacts_original_pdf_max_size_l";
+    public static final String TEXT_COUNT_FIELD = "itemfacts_text_i";
+    public static final String THUMBNAIL_COUNT_FIELD = "itemfacts_thumbnail_i";
+    public static final String THUMBNAIL_JPG_MIN_SIZE_FIELD = "itemfacts_thumbnail_jpg_min_size_l";
+    public static final String LICENSE_COUNT_FIELD = "itemfacts_license_i";
+
+    private static final String PDF = "application/pdf";
+    private static final String JPG = "image/jpeg";
+
+    @Autowired(required = true)
+    protected ConfigurationService configurationService;
+
+    @Override
+    public void additionalIndex(Context context, IndexableObject indexableObject, SolrInputDocument document) {
+        if (!(indexableObject instanceof IndexableItem)) {
+            return;
+        }
+        Item item = ((IndexableItem) indexableObject).getIndexedObject();
+        Set<String> docMimes = getMimeTypes("rest.report-mime-document");
+        Set<String> suppDocMimes = getMimeTypes("rest.report-mime-document-supported");
+        Set<String> suppImageMimes = getMimeTypes("rest.report-mime-document-image");
+
+        int original = 0;
+        int originalDoc = 0;
+        int originalSuppDoc = 0;
+        int originalImage = 0;
+        int originalSuppImage = 0;
+        Set<String> originalMimes = new TreeSet<>();
+        Long pdfMinSize = null;
+        Long pdfMaxSize = null;
+        int text = 0;
+        int thumbnail = 0;
+        Long jpgThumbnailMinSize = null;
+        int license = 0;
+
+        try {
+            for (Bundle bundle : item.getBundles()) {
+                String name = bundle.getName();
+                if (Constants.CONTENT_BUNDLE_NAME.equals(name)) {
+                    for (Bitstream bitstream : bundle.getBitstreams()) {
+                        original++;
+                        String mime = getMimeType(context, bitstream);
+                        originalMimes.add(mime);
+                        if (docMimes.contains(mime)) {
+                            originalDoc++;
+                        }
+                        if (suppDocMimes.contains(mime)) {
+                            originalSuppDoc++;
+                        }
+                        if (mime.startsWith("image/")) {
+                            originalImage++;
+                        }
+                        if (suppImageMimes.contains(mime)) {
+                            originalSuppImage++;
+                        }
+                        if (PDF.equals(mime)) {
+                            pdfMinSize = pdfMinSize == null ? bitstream.getSizeBytes()
+                                                            : Math.min(pdfMinSize, bitstream.getSizeBytes());
+                            pdfMaxSize = pdfMaxSize == null ? bitstream.getSizeBytes()
+                                                            : Math.max(pdfMaxSize, bitstream.getSizeBytes());
+                        }
+                    }
+                } else if ("TEXT".equals(name)) {
+                    text += bundle.getBitstreams().size();
+                } else if ("THUMBNAIL".equals(name)) {
+                    for (Bitstream bitstream : bundle.getBitstreams()) {
+                        thumbnail++;
+                        if (JPG.equals(getMimeType(context, bitstream))) {
+                            jpgThumbnailMinSize = jpgThumbnailMinSize == null ? bitstream.getSizeBytes()
+                                : Math.min(jpgThumbnailMinSize, bitstream.getSizeBytes());
+                        }
+                    }
+                } else if (Constants.LICENSE_BUNDLE_NAME.equals(name)) {
+                    license += bundle.getBitstreams().size();
+                }
+            }
+
+            document.addField(ORIGINAL_COUNT_FIELD, original);
+            document.addField(ORIGINAL_DOC_COUNT_FIELD, originalDoc);
+            document.addField(ORIGINAL_SUPP_DOC_COUNT_FIELD, originalSuppDoc);
+            document.addField(ORIGINAL_IMAGE_COUNT_FIELD, originalImage);
+            document.addField(ORIGINAL_SUPP_IMAGE_COUNT_FIELD, originalSuppImage);
+            for (String mime : originalMimes) {
+                document.addField(ORIGINAL_MIME_FIELD, mime);
+            }
+            if (pdfMinSize != null) {
+                document.addField(ORIGINAL_PDF_MIN_SIZE_FIELD, pdfMinSize);
+                document.addField(ORIGINAL_PDF_MAX_SIZE_FIELD, pdfMaxSize);
+            }
+            document.addField(TEXT_COUNT_FIELD, text);
+            document.addField(THUMBNAIL_COUNT_FIELD, thumbnail);
+            if (jpgThumbnailMinSize != null) {
+                document.addField(THUMBNAIL_JPG_MIN_SIZE_FIELD, jpgThumbnailMinSize);
+            }
+            document.addField(LICENSE_COUNT_FIELD, license);
+            document.addField(INDEXED_FIELD, true);
+        } catch (SQLException e) {
+            // Without the marker field the item filters fall back to testing the item itself
+            log.error("Could not index the facts of item " + item.getID(), e);
+        }
+    }
+
+    private Set<String> getMimeTypes(String property) {
+        Set<String> mimes = new HashSet<>();
+        String[] values = configurationService.getArrayProperty(property);
+        if (ArrayUtils.isNotEmpty(values)) {
+            Arrays.stream(values).map(String::trim).forEach(mimes::add);
+        }
+        return mimes;
+    }
+
+    private String getMimeType(Context context, Bitstream bitstream) throws SQLException {
+        BitstreamFormat format = bitstream.getFormat(context);
+        return format == null || format.getMIMEType() == null ? "" : format.getMIMEType();
+    }
+}
@@ -96,4 +96,9 @@ public class ClaimedTaskIndexFactoryImpl extends IndexFactoryImpl<IndexableClaim
         final ClaimedTask claimedTask = claimedTaskService.find(context, Integer.parseInt(id));
         return claimedTask == null ? Optional.empty() : Optional.of(new IndexableClaimedTask(claimedTask));
     }
-}
\ No newline at end of file
+
+    @Override
+    public Integer parseId(String id) {
+        return Integer.valueOf(id);
+    }
+}
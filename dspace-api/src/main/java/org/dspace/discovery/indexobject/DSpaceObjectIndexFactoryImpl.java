@@ -10,6 +10,7 @@ package org.dspace.discovery.indexobject;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.common.SolrInputDocument;
@@ -77,4 +78,9 @@ public abstract class DSpaceObjectIndexFactoryImpl<T extends IndexableDSpaceObje
             }
         }
     }
+
+    @Override
+    public UUID parseId(String id) {
+        return UUID.fromString(id);
+    }
 }
@@ -9,10 +9,17 @@ package org.dspace.discovery.indexobject;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+import com.google.common.collect.AbstractIterator;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
@@ -76,6 +83,62 @@ public abstract class IndexFactoryImpl<T extends IndexableObject, S> implements
         writeDocument(solrInputDocument, null);
     }
 
+    @Override
+    public void prepareDocument(Context context, T indexableObject, SolrInputDocument solrInputDocument)
+            throws SQLException, IOException {
+        // Nothing to add by default, the document built by buildDocument is complete
+    }
+
+    @Override
+    public Set<String> findExistingIds(Context context, List<String> ids) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        for (String id : ids) {
+            Optional<T> indexableObject = findIndexableObject(context, id);
+            if (indexableObject.isPresent()) {
+                existing.add(id);
+                context.uncacheEntity(indexableObject.get().getIndexedObject());
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Walks over all objects returned by {@link #findAll(Context)}, skipping (and uncaching) those which were not
+     * modified since they were last indexed. Types which can read the last modified dates without loading the
+     * objects should override this.
+     */
+    @Override
+    public Iterator<T> findStale(Context context, Map<Serializable, Long> lastIndexed) throws SQLException {
+        final Iterator<T> indexableObjects = findAll(context);
+        return new AbstractIterator<T>() {
+            @Override
+            protected T computeNext() {
+                while (indexableObjects.hasNext()) {
+                    final T indexableObject = indexableObjects.next();
+                    if (isStale(lastIndexed.remove(indexableObject.getID()), indexableObject.getLastModified())) {
+                        return indexableObject;
+                    }
+                    try {
+                        context.uncacheEntity(indexableObject.getIndexedObject());
+                    } catch (SQLException e) {
+                        log.warn("Unable to uncache " + indexableObject.getUniqueIndexID(), e);
+                    }
+                }
+                return endOfData();
+            }
+        };
+    }
+
+    /**
+     * Determine whether an object must be (re)indexed
+     * @param lastIndexedTime   the time the object was last indexed in milliseconds, null if it is not indexed
+     * @param lastModified      the last modified date of the object, null if unknown
+     * @return                  true if the object is not indexed, or may have changed since it was
+     */
+    protected static boolean isStale(Long lastIndexedTime, Date lastModified) {
+        return lastIndexedTime == null || lastModified == null || lastIndexedTime < lastModified.getTime();
+    }
+
     /**
      * Write the document to the index under the appropriate unique identifier.
      *
@@ -87,53 +150,64 @@ public abstract class IndexFactoryImpl<T extends IndexableObject, S> implements
             throws IOException, SolrServerException {
         final SolrClient solr = solrSearchCore.getSolr();
         if (solr != null) {
-            // If full text stream(s) were passed in, we'll index them as part of the SolrInputDocument
-            if (streams != null && !streams.isEmpty()) {
-                // limit full text indexing to first 100,000 characters unless configured otherwise
-                final int charLimit = DSpaceServicesFactory.getInstance().getConfigurationService()
-                                                           .getIntProperty("discovery.solr.fulltext.charLimit",
-                                                                           100000);
-
-                // Use Tika's Text parser as the streams are always from the TEXT bundle (i.e. already extracted text)
-                // TODO: We may wish to consider using Tika to extract the text in the future.
-                TextAndCSVParser tikaParser = new TextAndCSVParser();
-                BodyContentHandler tikaHandler = new BodyContentHandler(charLimit);
-                Metadata tikaMetadata = new Metadata();
-                ParseContext tikaContext = new ParseContext();
-
-                // Use Apache Tika to parse the full text stream(s)
-                try (InputStream fullTextStreams = streams.getStream()) {
-                    tikaParser.parse(fullTextStreams, tikaHandler, tikaMetadata, tikaContext);
-                } catch (SAXException saxe) {
-                    // Check if this SAXException is just a notice that this file was longer than the character limit.
-                    // Unfortunately there is not a unique, public exception type to catch here. This error is thrown
-                    // by Tika's WriteOutContentHandler when it encounters a document longer than the char limit
-                    // https://github.com/apache/tika/blob/main/tika-core/src/main/java/org/apache/tika/sax/WriteOutContentHandler.java
-                    if (saxe.getMessage().contains("limit has been reached")) {
-                        // log that we only indexed up to that configured limit
-                        log.info("Full text is larger than the configured limit (discovery.solr.fulltext.charLimit)."
-                                     + " Only the first {} characters were indexed.", charLimit);
-                    } else {
-                        throw new IOException("Tika parsing error. Could not index full text.", saxe);
-                    }
-                } catch (TikaException ex) {
-                    throw new IOException("Tika parsing error. Could not index full text.", ex);
-                }
+            addFullText(doc, streams);
 
-                // Write Tika metadata to "tika_meta_*" fields.
-                // This metadata is not very useful right now, but we'll keep it just in case it becomes more useful.
-                for (String name : tikaMetadata.names()) {
-                    for (String value : tikaMetadata.getValues(name)) {
-                        doc.addField("tika_meta_" + name, value);
-                    }
+            // Add document to index
+            solr.add(doc);
+        }
+    }
+
+    /**
+     * Parse the provided full text streams and add their content to the document.
+     *
+     * @param doc     the solr document to add the full text to
+     * @param streams list of bitstream content streams, may be null
+     * @throws IOException A general class of exceptions produced by failed or interrupted I/O operations.
+     */
+    protected void addFullText(SolrInputDocument doc, FullTextContentStreams streams) throws IOException {
+        // If full text stream(s) were passed in, we'll index them as part of the SolrInputDocument
+        if (streams != null && !streams.isEmpty()) {
+            // limit full text indexing to first 100,000 characters unless configured otherwise
+            final int charLimit = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                       .getIntProperty("discovery.solr.fulltext.charLimit",
+                                                                       100000);
+
+            // Use Tika's Text parser as the streams are always from the TEXT bundle (i.e. already extracted text)
+            // TODO: We may wish to consider using Tika to extract the text in the future.
+            TextAndCSVParser tikaParser = new TextAndCSVParser();
+            BodyContentHandler tikaHandler = new BodyContentHandler(charLimit);
+            Metadata tikaMetadata = new Metadata();
+            ParseContext tikaContext = new ParseContext();
+
+            // Use Apache Tika to parse the full text stream(s)
+            try (InputStream fullTextStreams = streams.getStream()) {
+                tikaParser.parse(fullTextStreams, tikaHandler, tikaMetadata, tikaContext);
+            } catch (SAXException saxe) {
+                // Check if this SAXException is just a notice that this file was longer than the character limit.
+                // Unfortunately there is not a unique, public exception type to catch here. This error is thrown
+                // by Tika's WriteOutContentHandler when it encounters a document longer than the char limit
+                // https://github.com/apache/tika/blob/main/tika-core/src/main/java/org/apache/tika/sax/WriteOutContentHandler.java
+                if (saxe.getMessage().contains("limit has been reached")) {
+                    // log that we only indexed up to that configured limit
+                    log.info("Full text is larger than the configured limit (discovery.solr.fulltext.charLimit)."
+                                 + " Only the first {} characters were indexed.", charLimit);
+                } else {
+                    throw new IOException("Tika parsing error. Could not index full text.", saxe);
                 }
+            } catch (TikaException ex) {
+                throw new IOException("Tika parsing error. Could not index full text.", ex);
+            }
 
-                // Save (parsed) full text to "fulltext" field
-                doc.addField("fulltext", tikaHandler.toString());
+            // Write Tika metadata to "tika_meta_*" fields.
+            // This metadata is not very useful right now, but we'll keep it just in case it becomes more useful.
+            for (String name : tikaMetadata.names()) {
+                for (String value : tikaMetadata.getValues(name)) {
+                    doc.addField("tika_meta_" + name, value);
+                }
             }
 
-            // Add document to index
-            solr.add(doc);
+            // Save (parsed) full text to "fulltext" field
+            doc.addField("fulltext", tikaHandler.toString());
         }
     }
 
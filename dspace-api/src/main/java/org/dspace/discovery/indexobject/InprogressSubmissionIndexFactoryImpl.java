@@ -63,4 +63,9 @@ public abstract class InprogressSubmissionIndexFactoryImpl
                 getCollectionLocations(context, inProgressSubmission.getCollection());
         indexableCollectionService.storeCommunityCollectionLocations(doc, locations);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Integer parseId(String id) {
+        return Integer.valueOf(id);
+    }
+}
@@ -8,9 +8,11 @@
 package org.dspace.discovery.indexobject;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -22,6 +24,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
+import com.google.common.collect.AbstractIterator;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
@@ -61,6 +64,7 @@ import org.dspace.discovery.indexobject.factory.WorkflowItemIndexFactory;
 import org.dspace.discovery.indexobject.factory.WorkspaceItemIndexFactory;
 import org.dspace.eperson.EPerson;
 import org.dspace.handle.service.HandleService;
+import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.util.MultiFormatDateParser;
 import org.dspace.util.SolrUtils;
@@ -79,6 +83,11 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
     public static final String VARIANTS_STORE_SEPARATOR = "###";
     public static final String STORE_SEPARATOR = "\n|||\n";
 
+    /**
+     * Number of stale items loaded at once by {@link #findStale(Context, Map)}
+     */
+    private static final int STALE_BATCH_SIZE = 100;
+
 
     @Autowired
     protected HandleService handleService;
@@ -114,6 +123,39 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
         };
     }
 
+    /**
+     * Compares the last modified dates of all items, read in a single query, to the last indexed times and only
+     * loads the stale items, in batches.
+     */
+    @Override
+    public Iterator<IndexableItem> findStale(Context context, Map<Serializable, Long> lastIndexed)
+        throws SQLException {
+        final List<UUID> stale = new ArrayList<>();
+        for (Map.Entry<UUID, Date> entry : itemService.findLastModifiedDates(context).entrySet()) {
+            if (isStale(lastIndexed.remove(entry.getKey()), entry.getValue())) {
+                stale.add(entry.getKey());
+            }
+        }
+        return new AbstractIterator<IndexableItem>() {
+            private int loaded = 0;
+            private Iterator<Item> batch = Collections.emptyIterator();
+
+            @Override
+            protected IndexableItem computeNext() {
+                while (!batch.hasNext() && loaded < stale.size()) {
+                    List<UUID> ids = stale.subList(loaded, Math.min(loaded + STALE_BATCH_SIZE, stale.size()));
+                    loaded += ids.size();
+                    try {
+                        batch = itemService.findByIds(context, ids).iterator();
+                    } catch (SQLException e) {
+                        throw new RuntimeException(e.getMessage(), e);
+                    }
+                }
+                return batch.hasNext() ? new IndexableItem(batch.next()) : endOfData();
+            }
+        };
+    }
+
     @Override
     public String getType() {
         return IndexableItem.TYPE;
@@ -298,6 +340,14 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
             }
 
             List<String> toIgnoreMetadataFields = SearchUtils.getIgnoredMetadataFields(item.getType());
+            ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+            // the defaults of the per field authority settings below
+            Boolean ignoreAuthorityDefault = configurationService
+                    .getPropertyAsType("discovery.index.authority.ignore", Boolean.FALSE);
+            Boolean ignorePreferedDefault = configurationService
+                    .getPropertyAsType("discovery.index.authority.ignore-prefered", Boolean.FALSE);
+            Boolean ignoreVariantsDefault = configurationService
+                    .getPropertyAsType("discovery.index.authority.ignore-variants", Boolean.FALSE);
             List<MetadataValue> mydc = itemService.getMetadata(item, Item.ANY, Item.ANY, Item.ANY, Item.ANY);
             for (MetadataValue meta : mydc) {
                 MetadataField metadataField = meta.getMetadataField();
@@ -332,50 +382,24 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
 
                 if (isAuthorityControlled && meta.getAuthority() != null
                         && meta.getConfidence() >= minConfidence) {
-                    boolean ignoreAuthority =
-                            DSpaceServicesFactory
-                                    .getInstance()
-                                    .getConfigurationService()
-                                    .getPropertyAsType("discovery.index.authority.ignore." + field,
-                                            DSpaceServicesFactory
-                                                    .getInstance()
-                                                    .getConfigurationService()
-                                                    .getPropertyAsType(
-                                                            "discovery.index.authority.ignore",
-                                                            Boolean.FALSE),
-                                            true);
+                    boolean ignoreAuthority = configurationService
+                            .getPropertyAsType("discovery.index.authority.ignore." + field, ignoreAuthorityDefault,
+                                    true);
                     if (!ignoreAuthority) {
                         authority = meta.getAuthority();
 
-                        boolean ignorePrefered =
-                                DSpaceServicesFactory
-                                        .getInstance()
-                                        .getConfigurationService()
-                                        .getPropertyAsType("discovery.index.authority.ignore-prefered." + field,
-                                                DSpaceServicesFactory
-                                                        .getInstance()
-                                                        .getConfigurationService()
-                                                        .getPropertyAsType(
-                                                                "discovery.index.authority.ignore-prefered",
-                                                                Boolean.FALSE),
-                                                true);
+                        boolean ignorePrefered = configurationService
+                                .getPropertyAsType("discovery.index.authority.ignore-prefered." + field,
+                                        ignorePreferedDefault, true);
                         if (!ignorePrefered) {
 
                             preferedLabel = choiceAuthorityService
                                     .getLabel(meta, collection, meta.getLanguage());
                         }
 
-                        boolean ignoreVariants =
-                                DSpaceServicesFactory
-                                        .getInstance()
-                                        .getConfigurationService()
-                                        .getPropertyAsType("discovery.index.authority.ignore-variants." + field,
-                                                DSpaceServicesFactory
-                                                        .getInstance()
-                                                        .getConfigurationService()
-                                                        .getPropertyAsType("discovery.index.authority.ignore-variants",
-                                                                Boolean.FALSE),
-                                                true);
+                        boolean ignoreVariants = configurationService
+                                .getPropertyAsType("discovery.index.authority.ignore-variants." + field,
+                                        ignoreVariantsDefault, true);
                         if (!ignoreVariants) {
                             variants = choiceAuthorityService
                                     .getVariants(meta, collection);
@@ -393,8 +417,7 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
 
                     for (DiscoverySearchFilter searchFilter : searchFilterConfigs) {
                         Date date = null;
-                        String separator = DSpaceServicesFactory.getInstance().getConfigurationService()
-                                .getProperty("discovery.solr.facets.split.char");
+                        String separator = configurationService.getProperty("discovery.solr.facets.split.char");
                         if (separator == null) {
                             separator = SearchUtils.FILTER_SEPARATOR;
                         }
@@ -655,6 +678,12 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
         writeDocument(solrInputDocument, new FullTextContentStreams(context, indexableObject.getIndexedObject()));
     }
 
+    @Override
+    public void prepareDocument(Context context, IndexableItem indexableObject, SolrInputDocument solrInputDocument)
+            throws SQLException, IOException {
+        addFullText(solrInputDocument, new FullTextContentStreams(context, indexableObject.getIndexedObject()));
+    }
+
     @Override
     public List<String> getLocations(Context context, IndexableItem indexableDSpaceObject)
             throws SQLException {
@@ -728,6 +757,23 @@ public class ItemIndexFactoryImpl extends DSpaceObjectIndexFactoryImpl<Indexable
         return results;
     }
 
+    @Override
+    public Set<String> findExistingIds(Context context, List<String> ids) throws SQLException {
+        List<UUID> uuids = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            try {
+                uuids.add(UUID.fromString(id));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid item identifier in the discovery index: " + id);
+            }
+        }
+        Set<String> existing = new HashSet<>();
+        for (UUID uuid : itemService.findExistingIDs(context, uuids)) {
+            existing.add(uuid.toString());
+        }
+        return existing;
+    }
+
     @Override
     public Optional<IndexableItem> findIndexableObject(Context context, String id) throws SQLException {
         final Item item = itemService.find(context, UUID.fromString(id));
@@ -106,4 +106,9 @@ public class MetadataFieldIndexFactoryImpl extends IndexFactoryImpl<IndexableMet
     public List getIndexableObjects(Context context, MetadataField object) {
         return Arrays.asList(new IndexableMetadataField(object));
     }
+
+    @Override
+    public Integer parseId(String id) {
+        return Integer.valueOf(id);
+    }
 }
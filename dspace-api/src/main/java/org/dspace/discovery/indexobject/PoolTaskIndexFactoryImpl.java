@@ -101,4 +101,9 @@ public class PoolTaskIndexFactoryImpl extends IndexFactoryImpl<IndexablePoolTask
         final PoolTask poolTask = poolTaskService.find(context, Integer.parseInt(id));
         return poolTask == null ? Optional.empty() : Optional.of(new IndexablePoolTask(poolTask));
     }
+
+    @Override
+    public Integer parseId(String id) {
+        return Integer.valueOf(id);
+    }
 }
@@ -8,10 +8,13 @@
 package org.dspace.discovery.indexobject.factory;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.common.SolrInputDocument;
@@ -58,6 +61,19 @@ public interface IndexFactory<T extends IndexableObject, S> {
     void writeDocument(Context context, T indexableObject, SolrInputDocument solrInputDocument)
             throws SQLException, IOException, SolrServerException;
 
+    /**
+     * Complete the provided document with the content that is only added when the document is written to the solr
+     * core (e.g. the full text of an item), without actually writing it. This allows callers to send documents to
+     * the search core in batches.
+     * @param context               DSpace context object
+     * @param indexableObject       The indexable object the document was built for
+     * @param solrInputDocument     Solr input document as returned by {@link #buildDocument(Context, IndexableObject)}
+     * @throws SQLException         If database error
+     * @throws IOException          If IO error
+     */
+    void prepareDocument(Context context, T indexableObject, SolrInputDocument solrInputDocument)
+            throws SQLException, IOException;
+
     /**
      * Remove the provided indexable object from the solr core
      * @param indexableObject       The indexable object that we want to remove from the search core
@@ -90,6 +106,34 @@ public interface IndexFactory<T extends IndexableObject, S> {
      */
     Optional<T> findIndexableObject(Context context, String id) throws SQLException;
 
+    /**
+     * Determine which of the provided identifiers still resolve to an indexable object
+     * @param context       DSpace context object
+     * @param ids           The identifiers to check, as returned by {@link IndexableObject#getID()}
+     * @return              The identifiers which resolve to an existing object
+     * @throws SQLException If database error
+     */
+    Set<String> findExistingIds(Context context, List<String> ids) throws SQLException;
+
+    /**
+     * Convert an identifier as stored in the search core into the primary key of the indexable object
+     * @param id            The identifier, as returned by {@link IndexableObject#getID()}
+     * @return              The primary key, e.g. a UUID for DSpaceObjects or an Integer for tasks
+     * @throws IllegalArgumentException If the identifier is not valid for this type
+     */
+    Serializable parseId(String id);
+
+    /**
+     * Retrieve the instances which are missing from the search core or were modified since they were last indexed.
+     * The primary key of every existing instance is removed from the provided map, so once the iterator is
+     * exhausted only the keys of indexed objects which no longer exist are left.
+     * @param context       DSpace context object
+     * @param lastIndexed   The last indexed time in milliseconds by primary key, see {@link #parseId(String)}
+     * @return              An iterator containing the objects to be (re)indexed
+     * @throws SQLException If database error
+     */
+    Iterator<T> findStale(Context context, Map<Serializable, Long> lastIndexed) throws SQLException;
+
     /**
      * Determine whether the class can handle the factory implementation
      * @param object        The object which we want to check
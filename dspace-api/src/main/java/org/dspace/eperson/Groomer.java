@@ -28,6 +28,7 @@ import org.dspace.authorize.AuthorizeException;
 import org.dspace.core.Context;
 import org.dspace.eperson.factory.EPersonServiceFactory;
 import org.dspace.eperson.service.EPersonService;
+import org.dspace.eperson.service.GroupService;
 
 /**
  * Tools for manipulating EPersons and Groups.
@@ -43,6 +44,7 @@ public class Groomer {
     };
 
     private static final EPersonService ePersonService = EPersonServiceFactory.getInstance().getEPersonService();
+    private static final GroupService groupService = EPersonServiceFactory.getInstance().getGroupService();
 
     /**
      * Default constructor
@@ -64,6 +66,7 @@ public class Groomer {
         verbs.addOption(new Option("h", "help", false, "explain this tool"));
         verbs.addOption(new Option("a", "aging", false, "discover accounts not used recently"));
         verbs.addOption(new Option("u", "unsalted", false, "list accounts with unsalted password hashes"));
+        verbs.addOption(new Option("g", "group-cache", false, "rebuild the cached group hierarchy"));
 
         Options options = new Options();
         options.addOptionGroup(verbs);
@@ -96,6 +99,9 @@ public class Groomer {
         } else if (command.hasOption('u')) {
             // List accounts with unsalted passwords
             findUnsalted();
+        } else if (command.hasOption('g')) {
+            // Repair the cached group hierarchy
+            rebuildGroupCache();
         } else {
             // Should not happen:  verb option defined but no code!
             System.err.println("Unimplemented verb:  " + verbs.getSelected());
@@ -177,4 +183,18 @@ public class Groomer {
         }
         myContext.abort(); // No changes to commit
     }
+
+    /**
+     * Rebuild the cached group hierarchy from the group memberships.
+     *
+     * @throws SQLException from callees.
+     */
+    private static void rebuildGroupCache() throws SQLException {
+        Context myContext = new Context();
+        myContext.turnOffAuthorisationSystem();
+        groupService.rebuildGroupCache(myContext);
+        myContext.restoreAuthSystemState();
+        myContext.complete();
+        System.out.println("Group cache rebuilt");
+    }
 }
@@ -9,6 +9,7 @@ package org.dspace.eperson;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -496,11 +497,13 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
             ePerson.getGroups().remove(group);
         }
 
-        // empty out group2groupcache table (if we do it after we delete our object we get an issue with references)
-        group2GroupCacheDAO.deleteAll(context);
+        // the ancestors of the group may lose descendants which were only reachable through it
+        Set<UUID> ancestors = new HashSet<>(group2GroupCacheDAO.findParentIds(context, group.getID()));
+        // remove our group2groupcache rows (if we do it after we delete our object we get an issue with references)
+        group2GroupCacheDAO.deleteByGroup(context, group.getID());
         // Remove ourself
         groupDAO.delete(context, group);
-        rethinkGroupCache(context, false);
+        refreshGroupCache(context, ancestors);
 
         log.info(LogManager.getHeader(context, "delete_group", "group_id="
             + group.getID()));
@@ -591,7 +594,7 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
         }
 
         if (group.isGroupsChanged()) {
-            rethinkGroupCache(context, true);
+            updateGroupCache(context, group);
             group.clearGroupsChanged();
         }
 
@@ -606,9 +609,15 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
     }
 
 
+    @Override
+    public void rebuildGroupCache(Context context) throws SQLException {
+        rethinkGroupCache(context, true);
+    }
+
     /**
-     * Regenerate the group cache AKA the group2groupcache table in the database -
-     * meant to be called when a group is added or removed from another group
+     * Regenerate the group cache AKA the group2groupcache table in the database from scratch.
+     * Only meant to repair the table, membership changes update the affected rows through
+     * {@link #updateGroupCache(Context, Group)}.
      *
      * @param context      The relevant DSpace Context.
      * @param flushQueries flushQueries Flush all pending queries
@@ -616,60 +625,133 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
      */
     protected void rethinkGroupCache(Context context, boolean flushQueries) throws SQLException {
 
-        Map<UUID, Set<UUID>> parents = new HashMap<>();
+        Map<UUID, List<UUID>> children = new HashMap<>();
 
         List<Pair<UUID, UUID>> group2groupResults = groupDAO.getGroup2GroupResults(context, flushQueries);
         for (Pair<UUID, UUID> group2groupResult : group2groupResults) {
-            UUID parent = group2groupResult.getLeft();
-            UUID child = group2groupResult.getRight();
+            children.computeIfAbsent(group2groupResult.getLeft(), parent -> new ArrayList<>())
+                    .add(group2groupResult.getRight());
+        }
+        // all relations are known, groups without an entry have no children
+        for (Pair<UUID, UUID> group2groupResult : group2groupResults) {
+            children.putIfAbsent(group2groupResult.getRight(), Collections.emptyList());
+        }
 
-            // if parent doesn't have an entry, create one
-            if (!parents.containsKey(parent)) {
-                Set<UUID> children = new HashSet<>();
+        // empty out group2groupcache table
+        group2GroupCacheDAO.deleteAll(context);
 
-                // add child id to the list
-                children.add(child);
-                parents.put(parent, children);
-            } else {
-                // parent has an entry, now add the child to the parent's record
-                // of children
-                Set<UUID> children = parents.get(parent);
-                children.add(child);
+        // write out new one
+        for (UUID parent : new ArrayList<>(children.keySet())) {
+            if (!children.get(parent).isEmpty()) {
+                group2GroupCacheDAO.create(context, parent, getDescendants(context, parent, children));
             }
         }
+    }
 
-        // now parents is a hash of all of the IDs of groups that are parents
-        // and each hash entry is a hash of all of the IDs of children of those
-        // parent groups
-        // so now to establish all parent,child relationships we can iterate
-        // through the parents hash
-        for (Map.Entry<UUID, Set<UUID>> parent : parents.entrySet()) {
-            Set<UUID> myChildren = getChildren(parents, parent.getKey());
-            parent.getValue().addAll(myChildren);
+    /**
+     * Update the group cache AKA the group2groupcache table after groups were added to or removed from the given
+     * group, or the group was added to or removed from other groups. Only the rows of the group and its (former and
+     * new) ancestors are recomputed.
+     *
+     * @param context The relevant DSpace Context.
+     * @param group   the group whose relations changed
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected void updateGroupCache(Context context, Group group) throws SQLException {
+        // the former ancestors are still in the cache
+        Set<UUID> ancestors = new HashSet<>(group2GroupCacheDAO.findParentIds(context, group.getID()));
+        ancestors.add(group.getID());
+
+        // new ancestors aren't, walk up the direct relations until we reach known ancestors
+        Set<UUID> level = Collections.singleton(group.getID());
+        while (!level.isEmpty()) {
+            Set<UUID> parents = new HashSet<>();
+            for (Pair<UUID, UUID> relation : groupDAO.getGroup2GroupResultsByChildren(context, level)) {
+                if (ancestors.add(relation.getLeft())) {
+                    parents.add(relation.getLeft());
+                }
+            }
+            level = parents;
         }
 
-        // empty out group2groupcache table
-        group2GroupCacheDAO.deleteAll(context);
+        refreshGroupCache(context, ancestors);
+    }
 
-        // write out new one
-        for (Map.Entry<UUID, Set<UUID>> parent : parents.entrySet()) {
-            UUID key = parent.getKey();
+    /**
+     * Make the group cache rows of the given parent groups match the current group relations, adding and removing
+     * only the rows which differ.
+     *
+     * @param context   The relevant DSpace Context.
+     * @param parentIds the groups whose descendants have to be recomputed
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected void refreshGroupCache(Context context, Set<UUID> parentIds) throws SQLException {
+        if (parentIds.isEmpty()) {
+            return;
+        }
+        Map<UUID, Set<UUID>> cached = new HashMap<>();
+        for (Pair<UUID, UUID> row : group2GroupCacheDAO.findIdsByParents(context, parentIds)) {
+            cached.computeIfAbsent(row.getLeft(), parent -> new HashSet<>()).add(row.getRight());
+        }
 
-            for (UUID child : parent.getValue()) {
+        // direct relations, loaded as the hierarchy is walked
+        Map<UUID, List<UUID>> children = new HashMap<>();
+        for (UUID parent : parentIds) {
+            Set<UUID> descendants = getDescendants(context, parent, children);
+            Set<UUID> current = cached.getOrDefault(parent, Collections.emptySet());
 
-                Group parentGroup = find(context, key);
-                Group childGroup = find(context, child);
+            Set<UUID> added = new HashSet<>(descendants);
+            added.removeAll(current);
+            Set<UUID> removed = new HashSet<>(current);
+            removed.removeAll(descendants);
 
+            if (!removed.isEmpty()) {
+                group2GroupCacheDAO.delete(context, parent, removed);
+            }
+            if (!added.isEmpty()) {
+                group2GroupCacheDAO.create(context, parent, added);
+            }
+        }
+    }
 
-                if (parentGroup != null && childGroup != null && group2GroupCacheDAO
-                    .find(context, parentGroup, childGroup) == null) {
-                    Group2GroupCache group2GroupCache = group2GroupCacheDAO.create(context, new Group2GroupCache());
-                    group2GroupCache.setParent(parentGroup);
-                    group2GroupCache.setChild(childGroup);
-                    group2GroupCacheDAO.save(context, group2GroupCache);
+    /**
+     * Find all direct and indirect member groups of a group.
+     *
+     * @param context  The relevant DSpace Context.
+     * @param parent   the id of the group
+     * @param children the known direct member groups per group, missing entries are loaded (and added)
+     * @return the ids of the descendants of the group
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    protected Set<UUID> getDescendants(Context context, UUID parent, Map<UUID, List<UUID>> children)
+        throws SQLException {
+        Set<UUID> descendants = new HashSet<>();
+        Set<UUID> level = Collections.singleton(parent);
+        while (!level.isEmpty()) {
+            Set<UUID> unknown = new HashSet<>(level);
+            unknown.removeAll(children.keySet());
+            if (!unknown.isEmpty()) {
+                for (UUID id : unknown) {
+                    children.put(id, new ArrayList<>());
+                }
+                for (Pair<UUID, UUID> relation : groupDAO.getGroup2GroupResultsByParents(context, unknown)) {
+                    children.get(relation.getLeft()).add(relation.getRight());
                 }
             }
+
+            Set<UUID> next = new HashSet<>();
+            for (UUID id : level) {
+                for (UUID child : children.get(id)) {
+                    if (descendants.add(child)) {
+                        next.add(child);
+                    }
+                }
+            }
+            level = next;
         }
+        // a group isn't its own member, even in a cycle
+        descendants.remove(parent);
+        return descendants;
     }
 
     @Override
@@ -769,30 +851,6 @@ public class GroupServiceImpl extends DSpaceObjectServiceImpl<Group> implements
      * @param parent  the parent you're interested in
      * @return Map whose keys are all of the children of a parent
      */
-    protected Set<UUID> getChildren(Map<UUID, Set<UUID>> parents, UUID parent) {
-        Set<UUID> myChildren = new HashSet<>();
-
-        // degenerate case, this parent has no children
-        if (!parents.containsKey(parent)) {
-            return myChildren;
-        }
-
-        // got this far, so we must have children
-        Set<UUID> children = parents.get(parent);
-
-        // now iterate over all of the children
-
-        for (UUID child : children) {
-            // add this child's ID to our return set
-            myChildren.add(child);
-
-            // and now its children
-            myChildren.addAll(getChildren(parents, child));
-        }
-
-        return myChildren;
-    }
-
     @Override
     public Group findByIdOrLegacyId(Context context, String id) throws SQLException {
         if (org.apache.commons.lang3.StringUtils.isNumeric(id)) {
@@ -14,10 +14,13 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.TimeZone;
+import java.util.UUID;
 import javax.mail.MessagingException;
 
 import org.apache.commons.cli.CommandLine;
@@ -71,6 +74,32 @@ public class SubscribeCLITool {
      */
     private SubscribeCLITool() { }
 
+    /**
+     * New items of a collection, as listed in the subscription emails
+     */
+    private static final class CollectionDigest {
+        private final String name;
+        private final List<DigestItem> items = new ArrayList<>();
+
+        private CollectionDigest(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * A new item of a collection, as listed in the subscription emails
+     */
+    private static final class DigestItem {
+        private final String title;
+        private final List<String> authors = new ArrayList<>();
+        private final String handle;
+
+        private DigestItem(String title, String handle) {
+            this.title = title;
+            this.handle = handle;
+        }
+    }
+
     /**
      * Process subscriptions. This must be invoked only once a day. Messages are
      * only sent out when a collection has actually received new items, so that
@@ -83,6 +112,11 @@ public class SubscribeCLITool {
      * <p>
      * For example, if today's date is 2002-10-10 (in UTC) items made available
      * during 2002-10-09 (UTC) will be included.
+     * <p>
+     * The new items of each subscribed collection are harvested once, and the
+     * part of the email listing them is rendered once per language, however
+     * many e-people subscribed to the collection. The emails are sent by a
+     * {@link SubscriptionMailQueue}.
      *
      * @param context The relevant DSpace Context.
      * @param test    If true, do a "dry run", i.e. don't actually send email, just log the attempt
@@ -95,42 +129,56 @@ public class SubscribeCLITool {
 
         List<Subscription> subscriptions = subscribeService.findAll(context);
 
-        EPerson currentEPerson = null;
-        List<Collection> collections = null; // List of Collections
-
-        // Go through the list collating subscriptions for each e-person
+        // Harvest each subscribed collection once
+        Date midnightYesterday = getMidnightYesterday();
+        Map<UUID, CollectionDigest> digests = new HashMap<>();
         for (Subscription subscription : subscriptions) {
-            // Does this row relate to the same e-person as the last?
-            if ((currentEPerson == null)
-                || (!subscription.getePerson().getID().equals(currentEPerson
-                                                                  .getID()))) {
-                // New e-person. Send mail for previous e-person
-                if (currentEPerson != null) {
-
-                    try {
-                        sendEmail(context, currentEPerson, collections, test);
-                    } catch (MessagingException me) {
-                        log.error("Failed to send subscription to eperson_id="
-                                      + currentEPerson.getID());
-                        log.error(me);
+            Collection collection = subscription.getCollection();
+            if (!digests.containsKey(collection.getID())) {
+                digests.put(collection.getID(), harvestDigest(context, collection, midnightYesterday));
+            }
+        }
+        log.info("Harvested " + digests.size() + " collections for " + subscriptions.size() + " subscriptions");
+
+        // Rendered digests, by locale and collection
+        Map<Locale, Map<UUID, String>> renderedDigests = new HashMap<>();
+
+        SubscriptionMailQueue mailQueue = test ? null : new SubscriptionMailQueue(
+            configurationService.getIntProperty("eperson.subscription.mail.queue.size", 100),
+            configurationService.getIntProperty("eperson.subscription.mail.batch.size", 50),
+            configurationService.getIntProperty("eperson.subscription.mail.attempts", 3),
+            configurationService.getLongProperty("eperson.subscription.mail.retry.delay", 5000));
+        try {
+            EPerson currentEPerson = null;
+            List<Collection> collections = null; // List of Collections
+
+            // Go through the list collating subscriptions for each e-person
+            for (Subscription subscription : subscriptions) {
+                // Does this row relate to the same e-person as the last?
+                if ((currentEPerson == null)
+                    || (!subscription.getePerson().getID().equals(currentEPerson
+                                                                      .getID()))) {
+                    // New e-person. Send mail for previous e-person
+                    if (currentEPerson != null) {
+                        sendDigests(context, currentEPerson, collections, digests, renderedDigests, mailQueue,
+                                    test);
                     }
+
+                    currentEPerson = subscription.getePerson();
+                    collections = new ArrayList<>();
                 }
 
-                currentEPerson = subscription.getePerson();
-                collections = new ArrayList<>();
+                collections.add(subscription.getCollection());
             }
 
-            collections.add(subscription.getCollection());
-        }
-
-        // Process the last person
-        if (currentEPerson != null) {
-            try {
-                sendEmail(context, currentEPerson, collections, test);
-            } catch (MessagingException me) {
-                log.error("Failed to send subscription to eperson_id="
-                              + currentEPerson.getID());
-                log.error(me);
+            // Process the last person
+            if (currentEPerson != null) {
+                sendDigests(context, currentEPerson, collections, digests, renderedDigests, mailQueue, test);
+            }
+        } finally {
+            if (mailQueue != null) {
+                // Wait for the queued emails to be sent
+                mailQueue.close();
             }
         }
     }
@@ -151,12 +199,66 @@ public class SubscribeCLITool {
     public static void sendEmail(Context context, EPerson eperson,
                                  List<Collection> collections, boolean test) throws IOException, MessagingException,
         SQLException {
-        // Get a resource bundle according to the eperson language preferences
-        Locale supportedLocale = I18nUtil.getEPersonLocale(eperson);
-        ResourceBundle labels = ResourceBundle.getBundle("Messages", supportedLocale);
+        Date midnightYesterday = getMidnightYesterday();
+        Map<UUID, CollectionDigest> digests = new HashMap<>();
+        for (Collection collection : collections) {
+            digests.put(collection.getID(), harvestDigest(context, collection, midnightYesterday));
+        }
 
-        // Get the start and end dates for yesterday
+        String emailText = renderEmailText(eperson, collections, digests, new HashMap<>());
+
+        // Send an e-mail if there were any new items
+        if (emailText.length() > 0) {
+            if (test) {
+                log.info(LogManager.getHeader(context, "subscription:", "eperson=" + eperson.getEmail()));
+                log.info(LogManager.getHeader(context, "subscription:", "text=" + emailText));
+            } else {
+                createEmail(eperson, emailText).send();
+                log.info(LogManager.getHeader(context, "sent_subscription", "eperson_id=" + eperson.getID()));
+            }
+        }
+    }
 
+    /**
+     * Queue the email of an e-person, if any of the collections has new items.
+     * Failures are logged, so that the other e-people still get their email.
+     */
+    private static void sendDigests(Context context, EPerson eperson, List<Collection> collections,
+                                    Map<UUID, CollectionDigest> digests,
+                                    Map<Locale, Map<UUID, String>> renderedDigests,
+                                    SubscriptionMailQueue mailQueue, boolean test) {
+        try {
+            String emailText = renderEmailText(eperson, collections, digests, renderedDigests);
+            if (emailText.length() == 0) {
+                return;
+            }
+            if (test) {
+                log.info(LogManager.getHeader(context, "subscription:", "eperson=" + eperson.getEmail()));
+                log.info(LogManager.getHeader(context, "subscription:", "text=" + emailText));
+            } else {
+                mailQueue.add(createEmail(eperson, emailText), "eperson_id=" + eperson.getID());
+                log.info(LogManager.getHeader(context, "queued_subscription", "eperson_id=" + eperson.getID()));
+            }
+        } catch (IOException e) {
+            log.error("Failed to send subscription to eperson_id=" + eperson.getID(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing subscription emails", e);
+        }
+    }
+
+    private static Email createEmail(EPerson eperson, String emailText) throws IOException {
+        Email email = Email.getEmail(
+            I18nUtil.getEmailFilename(I18nUtil.getEPersonLocale(eperson), "subscription"));
+        email.addRecipient(eperson.getEmail());
+        email.addArgument(emailText);
+        return email;
+    }
+
+    /**
+     * The start of the harvest: midnight of yesterday, in the default timezone
+     */
+    private static Date getMidnightYesterday() {
         // The date should reflect the timezone as well. Otherwise we stand to lose that information
         // in truncation and roll to an earlier date than intended.
         Calendar cal = Calendar.getInstance(TimeZone.getDefault());
@@ -169,115 +271,126 @@ public class SubscribeCLITool {
         cal.set(Calendar.HOUR_OF_DAY, 0);
         cal.set(Calendar.MINUTE, 0);
         cal.set(Calendar.SECOND, 0);
-        Date midnightYesterday = cal.getTime();
+        return cal.getTime();
+    }
 
+    /**
+     * Harvest the new items of a collection, keeping only what the emails list, so the
+     * items can be removed from the context cache.
+     */
+    private static CollectionDigest harvestDigest(Context context, Collection c, Date midnightYesterday)
+        throws SQLException {
+        CollectionDigest digest = new CollectionDigest(c.getName());
+        try {
+            boolean includeAll = configurationService
+                .getBooleanProperty("harvest.includerestricted.subscription", true);
+
+            // we harvest all the changed item from yesterday until now
+            List<HarvestedItemInfo> itemInfos = Harvest
+                .harvest(context, c, new DCDate(midnightYesterday).toString(), null, 0, // Limit
+                         // and
+                         // offset
+                         // zero,
+                         // get
+                         // everything
+                         0, true, // Need item objects
+                         false, // But not containers
+                         false, // Or withdrawals
+                         includeAll);
+
+            if (configurationService.getBooleanProperty("eperson.subscription.onlynew", false)) {
+                // get only the items archived yesterday
+                itemInfos = filterOutModified(itemInfos);
+            } else {
+                // strip out the item archived today or
+                // not archived yesterday and modified today
+                itemInfos = filterOutToday(itemInfos);
+            }
+
+            for (HarvestedItemInfo hii : itemInfos) {
+                DigestItem digestItem = new DigestItem(hii.item.getName(),
+                                                       handleService.getCanonicalForm(hii.handle));
+                List<MetadataValue> authors = itemService
+                    .getMetadata(hii.item, MetadataSchemaEnum.DC.getName(), "contributor", Item.ANY, Item.ANY);
+                for (MetadataValue author : authors) {
+                    digestItem.authors.add(author.getValue());
+                }
+                digest.items.add(digestItem);
+                context.uncacheEntity(hii.item);
+            }
+        } catch (ParseException pe) {
+            // This should never get thrown as the Dates are auto-generated
+        }
+        return digest;
+    }
+
+    /**
+     * The text of the email of an e-person, empty if none of the collections has new items.
+     * The digest of each collection is rendered once per locale.
+     */
+    private static String renderEmailText(EPerson eperson, List<Collection> collections,
+                                          Map<UUID, CollectionDigest> digests,
+                                          Map<Locale, Map<UUID, String>> renderedDigests) {
+        // Get a resource bundle according to the eperson language preferences
+        Locale supportedLocale = I18nUtil.getEPersonLocale(eperson);
+        Map<UUID, String> rendered = renderedDigests.computeIfAbsent(supportedLocale, locale -> new HashMap<>());
 
         // FIXME: text of email should be more configurable from an
         // i18n viewpoint
         StringBuilder emailText = new StringBuilder();
         boolean isFirst = true;
 
-        for (int i = 0; i < collections.size(); i++) {
-            Collection c = collections.get(i);
-
-            try {
-                boolean includeAll = configurationService
-                    .getBooleanProperty("harvest.includerestricted.subscription", true);
-
-                // we harvest all the changed item from yesterday until now
-                List<HarvestedItemInfo> itemInfos = Harvest
-                    .harvest(context, c, new DCDate(midnightYesterday).toString(), null, 0, // Limit
-                             // and
-                             // offset
-                             // zero,
-                             // get
-                             // everything
-                             0, true, // Need item objects
-                             false, // But not containers
-                             false, // Or withdrawals
-                             includeAll);
-
-                if (configurationService.getBooleanProperty("eperson.subscription.onlynew", false)) {
-                    // get only the items archived yesterday
-                    itemInfos = filterOutModified(itemInfos);
-                } else {
-                    // strip out the item archived today or
-                    // not archived yesterday and modified today
-                    itemInfos = filterOutToday(itemInfos);
-                }
-
-                // Only add to buffer if there are new items
-                if (itemInfos.size() > 0) {
-                    if (!isFirst) {
-                        emailText
-                            .append("\n---------------------------------------\n");
-                    } else {
-                        isFirst = false;
-                    }
-
-                    emailText.append(labels.getString("org.dspace.eperson.Subscribe.new-items")).append(" ").append(
-                        c.getName()).append(": ").append(
-                        itemInfos.size()).append("\n\n");
-
-                    for (int j = 0; j < itemInfos.size(); j++) {
-                        HarvestedItemInfo hii = (HarvestedItemInfo) itemInfos
-                            .get(j);
+        for (Collection c : collections) {
+            CollectionDigest digest = digests.get(c.getID());
 
-                        String title = hii.item.getName();
-                        emailText.append("      ").append(labels.getString("org.dspace.eperson.Subscribe.title"))
-                                 .append(" ");
-
-                        if (StringUtils.isNotBlank(title)) {
-                            emailText.append(title);
-                        } else {
-                            emailText.append(labels.getString("org.dspace.eperson.Subscribe.untitled"));
-                        }
-
-                        List<MetadataValue> authors = itemService
-                            .getMetadata(hii.item, MetadataSchemaEnum.DC.getName(), "contributor", Item.ANY, Item.ANY);
-
-                        if (authors.size() > 0) {
-                            emailText.append("\n    ").append(labels.getString("org.dspace.eperson.Subscribe.authors"))
-                                     .append(" ").append(
-                                authors.get(0).getValue());
-
-                            for (int k = 1; k < authors.size(); k++) {
-                                emailText.append("\n             ").append(
-                                    authors.get(k).getValue());
-                            }
-                        }
-
-                        emailText.append("\n         ").append(labels.getString("org.dspace.eperson.Subscribe.id"))
-                                 .append(" ").append(
-                            handleService.getCanonicalForm(hii.handle)).append(
-                            "\n\n");
-                    }
+            // Only add to buffer if there are new items
+            if (digest.items.size() > 0) {
+                if (!isFirst) {
+                    emailText
+                        .append("\n---------------------------------------\n");
+                } else {
+                    isFirst = false;
                 }
-            } catch (ParseException pe) {
-                // This should never get thrown as the Dates are auto-generated
+                emailText.append(rendered.computeIfAbsent(c.getID(), id -> renderDigest(digest, supportedLocale)));
             }
         }
+        return emailText.toString();
+    }
 
-        // Send an e-mail if there were any new items
-        if (emailText.length() > 0) {
+    private static String renderDigest(CollectionDigest digest, Locale supportedLocale) {
+        ResourceBundle labels = ResourceBundle.getBundle("Messages", supportedLocale);
+        StringBuilder emailText = new StringBuilder();
 
-            if (test) {
-                log.info(LogManager.getHeader(context, "subscription:", "eperson=" + eperson.getEmail()));
-                log.info(LogManager.getHeader(context, "subscription:", "text=" + emailText.toString()));
+        emailText.append(labels.getString("org.dspace.eperson.Subscribe.new-items")).append(" ").append(
+            digest.name).append(": ").append(
+            digest.items.size()).append("\n\n");
 
-            } else {
+        for (DigestItem item : digest.items) {
+            emailText.append("      ").append(labels.getString("org.dspace.eperson.Subscribe.title"))
+                     .append(" ");
 
-                Email email = Email.getEmail(I18nUtil.getEmailFilename(supportedLocale, "subscription"));
-                email.addRecipient(eperson.getEmail());
-                email.addArgument(emailText.toString());
-                email.send();
+            if (StringUtils.isNotBlank(item.title)) {
+                emailText.append(item.title);
+            } else {
+                emailText.append(labels.getString("org.dspace.eperson.Subscribe.untitled"));
+            }
 
-                log.info(LogManager.getHeader(context, "sent_subscription", "eperson_id=" + eperson.getID()));
+            if (item.authors.size() > 0) {
+                emailText.append("\n    ").append(labels.getString("org.dspace.eperson.Subscribe.authors"))
+                         .append(" ").append(
+                    item.authors.get(0));
 
+                for (int k = 1; k < item.authors.size(); k++) {
+                    emailText.append("\n             ").append(
+                        item.authors.get(k));
+                }
             }
 
-
+            emailText.append("\n         ").append(labels.getString("org.dspace.eperson.Subscribe.id"))
+                     .append(" ").append(item.handle).append(
+                "\n\n");
         }
+        return emailText.toString();
     }
 
     /**
@@ -0,0 +1,230 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+
+import org.apache.logging.log4j.Logger;
+import org.dspace.core.Email;
+import org.dspace.services.factory.DSpaceServicesFactory;
+
+/**
+ * Bounded queue of subscription emails, sent by a background thread, for {@link SubscribeCLITool}.
+ * <p>
+ * The sender takes the queued emails in batches and sends each batch over a single connection to the mail server.
+ * An email which can't be sent is retried over a new connection, after a delay doubling with each attempt, until
+ * the maximum number of attempts is reached. {@link #add} waits while the queue is full, so the emails are built
+ * no faster than they are sent.
+ * <p>
+ * {@link #close()} waits until all queued emails are sent (or given up).
+ */
+public class SubscriptionMailQueue implements AutoCloseable {
+
+    private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(SubscriptionMailQueue.class);
+
+    /**
+     * A queued email and its recipient, for logging
+     */
+    private static final class Message {
+        private final Email email;
+        private final String recipient;
+
+        private Message(Email email, String recipient) {
+            this.email = email;
+            this.recipient = recipient;
+        }
+    }
+
+    private static final Message END = new Message(null, null);
+
+    private final BlockingQueue<Message> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelay;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private final Thread sender;
+
+    /**
+     * Create the queue and start its sender thread.
+     *
+     * @param capacity    the maximum number of emails waiting to be sent
+     * @param batchSize   the maximum number of emails sent over a connection
+     * @param maxAttempts the maximum number of attempts to send an email
+     * @param retryDelay  the delay in milliseconds before the first retry
+     */
+    public SubscriptionMailQueue(int capacity, int batchSize, int maxAttempts, long retryDelay) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelay = Math.max(0, retryDelay);
+
+        sender = new Thread(this::run, "subscription-mailer");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Queue an email, waiting while the queue is full.
+     *
+     * @param email     the email, ready to be sent
+     * @param recipient the recipient of the email, for logging
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void add(Email email, String recipient) throws InterruptedException {
+        if (!sender.isAlive()) {
+            throw new IllegalStateException("The subscription mail queue is closed");
+        }
+        queue.put(new Message(email, recipient));
+    }
+
+    /**
+     * Wait until all queued emails are sent or given up, and stop the sender thread.
+     */
+    @Override
+    public void close() {
+        try {
+            if (sender.isAlive()) {
+                queue.put(END);
+            }
+            sender.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while sending subscription emails, {} emails not sent", queue.size());
+        }
+        log.info("Subscription emails sent: {}, failed: {}", sent.get(), failed.get());
+    }
+
+    /**
+     * @return the number of emails sent
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return the number of emails given up after the maximum number of attempts
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Connect to the mail server. Returns null when sending mail is disabled, as
+     * {@link Email#send(Transport)} then only logs the emails.
+     *
+     * @return a connected transport, or null
+     * @throws MessagingException if the mail server can't be reached
+     */
+    protected Transport openTransport() throws MessagingException {
+        if (DSpaceServicesFactory.getInstance().getConfigurationService()
+                                 .getBooleanProperty("mail.server.disabled", false)) {
+            return null;
+        }
+        Transport transport = DSpaceServicesFactory.getInstance().getEmailService().getSession().getTransport();
+        transport.connect();
+        return transport;
+    }
+
+    /**
+     * Send an email over the current connection.
+     *
+     * @param email     the email
+     * @param transport the connected transport, or null
+     * @throws MessagingException if the email can't be sent
+     * @throws IOException        if the email can't be built
+     */
+    protected void deliver(Email email, Transport transport) throws MessagingException, IOException {
+        email.send(transport);
+    }
+
+    private void run() {
+        List<Message> batch = new ArrayList<>(batchSize);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            if (batch.remove(END)) {
+                // END is the last message ever queued
+                running = false;
+            }
+            if (!sendBatch(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Send a batch over a single connection, reconnecting before each retry.
+     *
+     * @return false if interrupted
+     */
+    private boolean sendBatch(List<Message> batch) {
+        Transport transport = null;
+        try {
+            for (Message message : batch) {
+                int attempt = 1;
+                while (true) {
+                    try {
+                        if (transport == null) {
+                            transport = openTransport();
+                        }
+                        deliver(message.email, transport);
+                        sent.incrementAndGet();
+                        break;
+                    } catch (MessagingException | IOException | RuntimeException e) {
+                        closeTransport(transport);
+                        transport = null;
+                        if (attempt >= maxAttempts) {
+                            failed.incrementAndGet();
+                            log.error("Failed to send subscription to " + message.recipient + " after "
+                                          + attempt + " attempts", e);
+                            break;
+                        }
+                        log.warn("Failed to send subscription to {} (attempt {}), retrying: {}",
+                                 message.recipient, attempt, e.getMessage());
+                        TimeUnit.MILLISECONDS.sleep(retryDelay << Math.min(attempt - 1, 16));
+                        attempt++;
+                    }
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            closeTransport(transport);
+        }
+    }
+
+    private void closeTransport(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing the mail server connection", e);
+            }
+        }
+    }
+}
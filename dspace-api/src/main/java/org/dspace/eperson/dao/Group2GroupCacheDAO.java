@@ -8,8 +8,11 @@
 package org.dspace.eperson.dao;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.core.Context;
 import org.dspace.core.GenericDAO;
 import org.dspace.eperson.Group;
@@ -34,4 +37,53 @@ public interface Group2GroupCacheDAO extends GenericDAO<Group2GroupCache> {
     public Group2GroupCache find(Context context, Group parent, Group child) throws SQLException;
 
     public void deleteAll(Context context) throws SQLException;
+
+    /**
+     * Get the cached parent - child relations of the given parent groups
+     *
+     * @param context   The DSpace context
+     * @param parentIds the ids of the parent groups
+     * @return A list of pairs indicating parent - child
+     * @throws SQLException if database error
+     */
+    public List<Pair<UUID, UUID>> findIdsByParents(Context context, Collection<UUID> parentIds) throws SQLException;
+
+    /**
+     * Get the ids of all cached ancestors of a group
+     *
+     * @param context The DSpace context
+     * @param childId the id of the group
+     * @return the ids of the groups the given group is a (direct or indirect) member of
+     * @throws SQLException if database error
+     */
+    public List<UUID> findParentIds(Context context, UUID childId) throws SQLException;
+
+    /**
+     * Add cached relations between a parent group and some of its descendants
+     *
+     * @param context  The DSpace context
+     * @param parentId the id of the parent group
+     * @param childIds the ids of the descendants
+     * @throws SQLException if database error
+     */
+    public void create(Context context, UUID parentId, Collection<UUID> childIds) throws SQLException;
+
+    /**
+     * Remove cached relations between a parent group and some of its former descendants
+     *
+     * @param context  The DSpace context
+     * @param parentId the id of the parent group
+     * @param childIds the ids of the former descendants
+     * @throws SQLException if database error
+     */
+    public void delete(Context context, UUID parentId, Collection<UUID> childIds) throws SQLException;
+
+    /**
+     * Remove all cached relations of a group, both as parent and as child
+     *
+     * @param context The DSpace context
+     * @param groupId the id of the group
+     * @throws SQLException if database error
+     */
+    public void deleteByGroup(Context context, UUID groupId) throws SQLException;
 }
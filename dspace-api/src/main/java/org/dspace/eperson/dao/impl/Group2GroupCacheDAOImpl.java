@@ -8,14 +8,18 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 import javax.persistence.Query;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.dspace.core.AbstractHibernateDAO;
 import org.dspace.core.Context;
 import org.dspace.eperson.Group;
@@ -90,4 +94,63 @@ public class Group2GroupCacheDAOImpl extends AbstractHibernateDAO<Group2GroupCac
     public void deleteAll(Context context) throws SQLException {
         createQuery(context, "delete from Group2GroupCache").executeUpdate();
     }
+
+    @Override
+    public List<Pair<UUID, UUID>> findIdsByParents(Context context, Collection<UUID> parentIds) throws SQLException {
+        List<UUID> idList = new ArrayList<>(parentIds);
+        List<Pair<UUID, UUID>> results = new ArrayList<>();
+        // Some databases (e.g. Oracle) limit the number of expressions in an IN clause to 1000
+        for (int start = 0; start < idList.size(); start += 1000) {
+            Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(" +
+                "g.parent.id, g.child.id) FROM Group2GroupCache g WHERE g.parent.id IN (:ids)");
+            query.setParameter("ids", idList.subList(start, Math.min(start + 1000, idList.size())));
+            @SuppressWarnings("unchecked")
+            List<Pair<UUID, UUID>> result = query.getResultList();
+            results.addAll(result);
+        }
+        return results;
+    }
+
+    @Override
+    public List<UUID> findParentIds(Context context, UUID childId) throws SQLException {
+        Query query = createQuery(context, "SELECT g.parent.id FROM Group2GroupCache g WHERE g.child.id = :childId");
+        query.setParameter("childId", childId);
+        @SuppressWarnings("unchecked")
+        List<UUID> results = query.getResultList();
+        return results;
+    }
+
+    @Override
+    public void create(Context context, UUID parentId, Collection<UUID> childIds) throws SQLException {
+        List<UUID> idList = new ArrayList<>(childIds);
+        for (int start = 0; start < idList.size(); start += 1000) {
+            Query query = getHibernateSession(context).createNativeQuery(
+                "INSERT INTO group2groupcache (parent_id, child_id) " +
+                "SELECT p.uuid, c.uuid FROM epersongroup p, epersongroup c " +
+                "WHERE p.uuid = :parentId AND c.uuid IN (:childIds)");
+            query.setParameter("parentId", parentId);
+            query.setParameter("childIds", idList.subList(start, Math.min(start + 1000, idList.size())));
+            query.executeUpdate();
+        }
+    }
+
+    @Override
+    public void delete(Context context, UUID parentId, Collection<UUID> childIds) throws SQLException {
+        List<UUID> idList = new ArrayList<>(childIds);
+        for (int start = 0; start < idList.size(); start += 1000) {
+            Query query = createQuery(context, "DELETE FROM Group2GroupCache g " +
+                "WHERE g.parent.id = :parentId AND g.child.id IN (:childIds)");
+            query.setParameter("parentId", parentId);
+            query.setParameter("childIds", idList.subList(start, Math.min(start + 1000, idList.size())));
+            query.executeUpdate();
+        }
+    }
+
+    @Override
+    public void deleteByGroup(Context context, UUID groupId) throws SQLException {
+        Query query = createQuery(context, "DELETE FROM Group2GroupCache g " +
+            "WHERE g.parent.id = :groupId OR g.child.id = :groupId");
+        query.setParameter("groupId", groupId);
+        query.executeUpdate();
+    }
 }
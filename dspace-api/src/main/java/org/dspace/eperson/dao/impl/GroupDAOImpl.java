@@ -8,6 +8,8 @@
 package org.dspace.eperson.dao.impl;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -186,6 +188,36 @@ public class GroupDAOImpl extends AbstractHibernateDSODAO<Group> implements Grou
         return results;
     }
 
+    @Override
+    public List<Pair<UUID, UUID>> getGroup2GroupResultsByParents(Context context, Collection<UUID> parentIds)
+        throws SQLException {
+        return getGroup2GroupResults(context, "g.id", parentIds);
+    }
+
+    @Override
+    public List<Pair<UUID, UUID>> getGroup2GroupResultsByChildren(Context context, Collection<UUID> childIds)
+        throws SQLException {
+        return getGroup2GroupResults(context, "c.id", childIds);
+    }
+
+    private List<Pair<UUID, UUID>> getGroup2GroupResults(Context context, String idField, Collection<UUID> ids)
+        throws SQLException {
+        List<UUID> idList = new ArrayList<>(ids);
+        List<Pair<UUID, UUID>> results = new ArrayList<>();
+        // Some databases (e.g. Oracle) limit the number of expressions in an IN clause to 1000
+        for (int start = 0; start < idList.size(); start += 1000) {
+            Query query = createQuery(context, "SELECT new org.apache.commons.lang3.tuple.ImmutablePair(g.id, c.id) " +
+                "FROM Group g " +
+                "JOIN g.groups c " +
+                "WHERE " + idField + " IN (:ids)");
+            query.setParameter("ids", idList.subList(start, Math.min(start + 1000, idList.size())));
+            @SuppressWarnings("unchecked")
+            List<Pair<UUID, UUID>> result = query.getResultList();
+            results.addAll(result);
+        }
+        return results;
+    }
+
     @Override
     public List<Group> getEmptyGroups(Context context) throws SQLException {
         return list(createQuery(context, "SELECT g from Group g where g.epeople is EMPTY"));
@@ -327,4 +327,13 @@ public interface GroupService extends DSpaceObjectService<Group>, DSpaceObjectLe
      */
     List<Group> findByMetadataField(Context context, String searchValue, MetadataField metadataField)
         throws SQLException;
+
+    /**
+     * Regenerate the cached group hierarchy (the group2groupcache table) from scratch. Membership changes keep it
+     * up to date, so this is only needed to repair it.
+     *
+     * @param context The relevant DSpace Context.
+     * @throws SQLException An exception that provides information on a database access error or other errors.
+     */
+    void rebuildGroupCache(Context context) throws SQLException;
 }
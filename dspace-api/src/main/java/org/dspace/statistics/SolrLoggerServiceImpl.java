@@ -99,6 +99,7 @@ import org.dspace.statistics.service.SolrLoggerService;
 import org.dspace.statistics.util.LocationUtils;
 import org.dspace.statistics.util.SpiderDetector;
 import org.dspace.usage.UsageWorkflowEvent;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -111,7 +112,7 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author kevinvandevelde at atmire.com
  * @author mdiggory at atmire.com
  */
-public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBean {
+public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBean, DisposableBean {
 
     private static final Logger log = LogManager.getLogger();
 
@@ -126,6 +127,9 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
     protected boolean useProxies;
 
+    /** Buffer usage events are written through, null if disabled */
+    protected SolrStatisticsBuffer buffer;
+
     private static final List<String> statisticYearCores = new ArrayList<>();
     private static boolean statisticYearCoresInit = false;
 
@@ -201,6 +205,26 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             log.error("The required 'dbfile' configuration is missing in solr-statistics.cfg!");
         }
         locationService = service;
+
+        if (solr != null && configurationService.getBooleanProperty("solr-statistics.buffer.enabled", false)) {
+            buffer = new SolrStatisticsBuffer(solr,
+                configurationService.getIntProperty("solr-statistics.buffer.capacity", 10000),
+                configurationService.getIntProperty("solr-statistics.buffer.batch.size", 500),
+                configurationService.getLongProperty("solr-statistics.buffer.flush.interval", 1000),
+                SolrStatisticsBuffer.OverflowPolicy.fromConfig(
+                    configurationService.getProperty("solr-statistics.buffer.overflow", "drop")),
+                configurationService.getBooleanProperty("solr-statistics.autoCommit", true),
+                new File(configurationService.getProperty("solr-statistics.buffer.spill.dir",
+                    configurationService.getProperty("dspace.dir") + File.separator + "var" + File.separator
+                        + "statistics-spill")));
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (buffer != null) {
+            buffer.shutdown(configurationService.getLongProperty("solr-statistics.buffer.shutdown.timeout", 30000));
+        }
     }
 
     @Override
@@ -234,12 +258,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
             doc1.addField("statistics_type", StatisticsType.VIEW.text());
 
 
-            solr.add(doc1);
-            // commits are executed automatically using the solr autocommit
-            boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
-            if (!useAutoCommit) {
-                solr.commit(false, false);
-            }
+            addDocument(doc1, true);
 
         } catch (RuntimeException re) {
             throw re;
@@ -274,12 +293,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
             doc1.addField("statistics_type", StatisticsType.VIEW.text());
 
-            solr.add(doc1);
-            // commits are executed automatically using the solr autocommit
-            boolean useAutoCommit = configurationService.getBooleanProperty("solr-statistics.autoCommit", true);
-            if (!useAutoCommit) {
-                solr.commit(false, false);
-            }
+            addDocument(doc1, true);
 
         } catch (RuntimeException re) {
             throw re;
@@ -519,7 +533,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("page", page);
             }
 
-            solr.add(solrDoc);
+            addDocument(solrDoc, false);
         } catch (RuntimeException re) {
             throw re;
         } catch (Exception e) {
@@ -568,7 +582,7 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
                 solrDoc.addField("actor", usageWorkflowEvent.getActor().getID().toString());
             }
 
-            solr.add(solrDoc);
+            addDocument(solrDoc, false);
         } catch (Exception e) {
             //Log the exception, no need to send it through, the workflow shouldn't crash because of this !
             log.error("Error saving WORKFLOW event to Solr", e);
@@ -576,6 +590,33 @@ public class SolrLoggerServiceImpl implements SolrLoggerService, InitializingBea
 
     }
 
+    /**
+     * Send a usage event document to the statistics core, through the statistics buffer when it is enabled.
+     *
+     * @param doc    the usage event document
+     * @param commit whether to commit explicitly when Solr doesn't commit on its own ("solr-statistics.autoCommit")
+     * @throws IOException         if IO error
+     * @throws SolrServerException if the document could not be sent
+     */
+    protected void addDocument(SolrInputDocument doc, boolean commit) throws IOException, SolrServerException {
+        if (buffer != null) {
+            buffer.add(doc);
+            return;
+        }
+        solr.add(doc);
+        // commits are executed automatically using the solr autocommit
+        if (commit && !configurationService.getBooleanProperty("solr-statistics.autoCommit", true)) {
+            solr.commit(false, false);
+        }
+    }
+
+    /**
+     * @return the buffer usage events are written through, null when usage events are written immediately
+     */
+    public SolrStatisticsBuffer getBuffer() {
+        return buffer;
+    }
+
     @Override
     public void storeParents(SolrInputDocument doc1, DSpaceObject dso)
         throws SQLException {
@@ -0,0 +1,356 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+
+/**
+ * Bounded in-memory buffer of usage events, written to the statistics core in batches by a background thread.
+ * <p>
+ * Usage events are added without taking any lock. The buffer is flushed whenever it holds a full batch, and at
+ * least every flush interval. When the buffer is full, the {@link OverflowPolicy} decides whether the event is
+ * dropped, whether the caller waits for room, or whether the event is spilled to a file in the spill directory.
+ * Spilled events (including the ones left behind by a previous run) are sent once the buffer has been emptied.
+ * <p>
+ * {@link #shutdown(long)} stops accepting events and drains the buffer.
+ */
+public class SolrStatisticsBuffer {
+
+    private static final Logger log = LogManager.getLogger(SolrStatisticsBuffer.class);
+
+    protected static final String SPILL_SUFFIX = ".spill";
+
+    /**
+     * What to do with an event when the buffer is full
+     */
+    public enum OverflowPolicy {
+        /** Discard the event */
+        DROP,
+        /** Wait until there is room in the buffer */
+        BLOCK,
+        /** Write the event to a spill file, it will be sent once the buffer has been emptied */
+        SPILL;
+
+        /**
+         * Look up a configured policy, ignoring case.
+         *
+         * @param value the configured name of the policy, may be null
+         * @return the policy, or {@link #DROP} if the value is not a known policy
+         */
+        public static OverflowPolicy fromConfig(String value) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(StringUtils.trim(value))) {
+                    return policy;
+                }
+            }
+            if (StringUtils.isNotBlank(value)) {
+                log.warn("Unknown statistics buffer overflow policy '{}', using {}", value, DROP);
+            }
+            return DROP;
+        }
+    }
+
+    private final SolrClient solr;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final boolean autoCommit;
+    private final File spillDir;
+
+    private final Queue<SolrInputDocument> events = new ConcurrentLinkedQueue<>();
+    private final Semaphore freeSlots;
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong buffered = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    // current spill file, only used when the buffer overflows
+    private File spillFile;
+    private ObjectOutputStream spillStream;
+    private int spillSequence;
+
+    /**
+     * Create the buffer and start its flushing thread.
+     *
+     * @param solr           the statistics core
+     * @param capacity       the maximum number of events held in memory
+     * @param batchSize      the maximum number of events sent per request
+     * @param flushInterval  the maximum time in milliseconds an event stays in the buffer
+     * @param overflowPolicy what to do with events when the buffer is full
+     * @param autoCommit     whether Solr commits on its own, if not every flush is followed by a soft commit
+     * @param spillDir       directory of the spill files, only used by {@link OverflowPolicy#SPILL}
+     */
+    public SolrStatisticsBuffer(SolrClient solr, int capacity, int batchSize, long flushInterval,
+                                OverflowPolicy overflowPolicy, boolean autoCommit, File spillDir) {
+        this.solr = solr;
+        this.freeSlots = new Semaphore(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushInterval));
+        this.overflowPolicy = overflowPolicy;
+        this.autoCommit = autoCommit;
+        this.spillDir = spillDir;
+
+        flusher = new Thread(this::run, "solr-statistics-buffer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Add a usage event to the buffer.
+     *
+     * @param event the usage event document
+     */
+    public void add(SolrInputDocument event) {
+        if (!running) {
+            dropped.incrementAndGet();
+            log.warn("Statistics buffer is shut down, dropping usage event");
+            return;
+        }
+        boolean accepted = freeSlots.tryAcquire();
+        if (!accepted && overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                freeSlots.acquire();
+                accepted = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!accepted) {
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                spill(event);
+            } else {
+                dropped.incrementAndGet();
+            }
+            return;
+        }
+
+        events.add(event);
+        buffered.incrementAndGet();
+        if (size.incrementAndGet() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Stop accepting events and send everything still buffered.
+     *
+     * @param timeout the maximum time in milliseconds to wait for the buffer to be drained
+     */
+    public void shutdown(long timeout) {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn("Statistics buffer not drained within {} ms, {} usage events lost", timeout, size.get());
+        }
+        closeSpillFile();
+    }
+
+    /**
+     * @return the number of events currently in the buffer
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    /**
+     * @return the number of events accepted in the buffer
+     */
+    public long getBufferedCount() {
+        return buffered.get();
+    }
+
+    /**
+     * @return the number of events sent to the statistics core
+     */
+    public long getFlushedCount() {
+        return flushed.get();
+    }
+
+    /**
+     * @return the number of events discarded, either because the buffer was full or because they couldn't be sent
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of events written to a spill file
+     */
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    /**
+     * Body of the flushing thread
+     */
+    private void run() {
+        while (running) {
+            if (size.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            flush();
+            if (running && size.get() == 0) {
+                sendSpilledEvents();
+            }
+        }
+        // drain on shutdown
+        flush();
+    }
+
+    /**
+     * Send all buffered events, in batches.
+     */
+    protected void flush() {
+        while (size.get() > 0) {
+            List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+            SolrInputDocument event;
+            while (batch.size() < batchSize && (event = events.poll()) != null) {
+                batch.add(event);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            size.addAndGet(-batch.size());
+            freeSlots.release(batch.size());
+            if (!send(batch)) {
+                if (overflowPolicy == OverflowPolicy.SPILL) {
+                    batch.forEach(this::spill);
+                } else {
+                    dropped.addAndGet(batch.size());
+                }
+            }
+        }
+    }
+
+    private boolean send(List<SolrInputDocument> batch) {
+        try {
+            solr.add(batch);
+            if (!autoCommit) {
+                solr.commit(false, false);
+            }
+            flushed.addAndGet(batch.size());
+            return true;
+        } catch (SolrServerException | IOException | RuntimeException e) {
+            log.error("Unable to write " + batch.size() + " usage events to the statistics core", e);
+            return false;
+        }
+    }
+
+    private synchronized void spill(SolrInputDocument event) {
+        try {
+            if (spillStream == null) {
+                if (!spillDir.exists() && !spillDir.mkdirs()) {
+                    throw new IOException("Unable to create the statistics spill directory " + spillDir);
+                }
+                spillFile = new File(spillDir, "statistics-" + System.currentTimeMillis() + "-" + spillSequence++
+                    + SPILL_SUFFIX);
+                spillStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile)));
+            }
+            spillStream.writeObject(event);
+            // don't keep a reference to every spilled event
+            spillStream.reset();
+            spilled.incrementAndGet();
+        } catch (IOException e) {
+            dropped.incrementAndGet();
+            log.error("Unable to spill usage event to disk", e);
+        }
+    }
+
+    private synchronized void closeSpillFile() {
+        if (spillStream != null) {
+            try {
+                spillStream.close();
+            } catch (IOException e) {
+                log.error("Unable to close statistics spill file " + spillFile, e);
+            }
+            spillStream = null;
+        }
+    }
+
+    /**
+     * Send the events of all closed spill files, including the ones left behind by previous runs.
+     */
+    private void sendSpilledEvents() {
+        if (spillDir == null || overflowPolicy != OverflowPolicy.SPILL) {
+            return;
+        }
+        closeSpillFile();
+        File[] files = spillDir.listFiles((dir, name) -> name.endsWith(SPILL_SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            synchronized (this) {
+                if (spillStream != null && file.equals(spillFile)) {
+                    // still being written by a concurrent overflow
+                    continue;
+                }
+            }
+            List<SolrInputDocument> batch = new ArrayList<>(batchSize);
+            boolean sent = true;
+            try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                while (sent) {
+                    batch.add((SolrInputDocument) in.readObject());
+                    if (batch.size() == batchSize) {
+                        sent = send(batch);
+                        batch.clear();
+                    }
+                }
+            } catch (EOFException e) {
+                // end of the spill file
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                log.error("Unable to read statistics spill file " + file + ", it is left in place", e);
+                continue;
+            }
+            if (sent && (batch.isEmpty() || send(batch))) {
+                if (!file.delete()) {
+                    log.warn("Unable to delete statistics spill file " + file);
+                }
+            } else {
+                // Solr is unavailable, try again later. Events of the file already sent will be sent twice.
+                return;
+            }
+        }
+    }
+}
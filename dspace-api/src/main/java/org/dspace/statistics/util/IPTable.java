@@ -7,200 +7,534 @@
  */
 package org.dspace.statistics.util;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 /**
- * A Spare v4 IPTable implementation that uses nested HashMaps
- * to optimize IP address matching over ranges of IP addresses.
+ * A table of IPv4 and IPv6 address ranges.
+ * <p>
+ * The ranges are kept as sorted, merged intervals in primitive {@code long} arrays (two longs per IPv6 address), so
+ * a lookup is a binary search which doesn't allocate anything. Ranges may be added at any time, the intervals are
+ * rebuilt on the first lookup after an addition.
  *
  * @author mdiggory at atmire.com
  */
 public class IPTable {
-    private static final Logger log = LogManager.getLogger(IPTable.class);
 
-    /* A lookup tree for IP addresses and SubnetRanges */
-    private final Map<String, Map<String, Map<String, Set<String>>>> map
-            = new HashMap<>();
+    private static final long IPV4_MAX = 0xFFFFFFFFL;
+
+    /* Ranges as added, IPv4 as start and end pairs, IPv6 as start high, start low, end high and end low bits */
+    private long[] addedV4 = new long[32];
+    private int addedV4Length = 0;
+    private long[] addedV6 = new long[32];
+    private int addedV6Length = 0;
+
+    /* The merged intervals, null when ranges have been added since they were built */
+    private volatile Intervals intervals = new Intervals();
 
     /**
-     * Can be full v4 IP, subnet or range string.
+     * Can be a full IPv4 or IPv6 address, a CIDR block, a subnet or a range string.
      * <ul>
-     *   <li>A full address is a complete dotted-quad:  {@code "1.2.3.4".}
+     *   <li>A full address is a complete dotted-quad:  {@code "1.2.3.4"}, or an IPv6 address:
+     *       {@code "2001:db8::1"}.
+     *   <li>A CIDR block is an address followed by a prefix length:  {@code "1.2.3.0/24"} or
+     *       {@code "2001:db8::/32"}.
      *   <li>A subnet is a dotted-triplet:  {@code "1.2.3"}.  It means an entire
      *       Class C subnet:  "1.2.3.0-1.2.3.255".
-     *   <li>A range is two dotted-quad addresses separated by hyphen:
-     *       {@code "1.2.3.4-1.2.3.14"}.  Only the final octet may be different.
+     *   <li>A range is two addresses of the same family separated by hyphen:
+     *       {@code "1.2.3.4-1.2.4.14"}.
      * </ul>
      *
-     * Any attempt at CIDR notation is ignored.
-     *
      * @param ip IP address(es)
      * @throws IPFormatException Exception Class to deal with IPFormat errors.
      */
-    public void add(String ip) throws IPFormatException {
-
-        String[] start;
-
-        String[] end;
-
+    public synchronized void add(String ip) throws IPFormatException {
         String[] range = ip.split("-");
+        if (range.length > 2) {
+            throw new IPFormatException(ip + " - A range needs exactly two addresses");
+        }
 
-        if (range.length >= 2) {
-
-            start = range[0].trim().split("/")[0].split("\\.");
-            end = range[1].trim().split("/")[0].split("\\.");
-
-            if (start.length != 4 || end.length != 4) {
-                throw new IPFormatException(ip + " - Ranges need to be full IPv4 Addresses");
+        if (range.length == 2) {
+            // a prefix length on the range boundaries is ignored
+            String start = range[0].trim().split("/")[0];
+            String end = range[1].trim().split("/")[0];
+            if (isIPv6(start) != isIPv6(end)) {
+                throw new IPFormatException(ip + " - Ranges need two addresses of the same family");
             }
+            if (isIPv6(start)) {
+                addV6(ip, ipv6(start, 0, start.length(), true), ipv6(start, 0, start.length(), false),
+                      ipv6(end, 0, end.length(), true), ipv6(end, 0, end.length(), false));
+            } else {
+                addV4(ip, ipv4(start, 0, start.length()), ipv4(end, 0, end.length()));
+            }
+            return;
+        }
 
-            if (!(start[0].equals(end[0]) && start[1].equals(end[1]) && start[2].equals(end[2]))) {
-                throw new IPFormatException(ip + " - Ranges can only be across the last subnet x.y.z.0 - x.y.z.254");
+        String address = ip.trim();
+        int slash = address.indexOf('/');
+        int end = slash < 0 ? address.length() : slash;
+        int prefix = -1;
+        if (slash >= 0) {
+            try {
+                prefix = Integer.parseInt(address.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IPFormatException(ip + " - Invalid prefix length");
             }
+            if (prefix < 0) {
+                throw new IPFormatException(ip + " - Invalid prefix length");
+            }
+        }
 
+        if (isIPv6(address)) {
+            if (prefix > 128) {
+                throw new IPFormatException(ip + " - Invalid prefix length");
+            }
+            long high = ipv6(address, 0, end, true);
+            long low = ipv6(address, 0, end, false);
+            long highMask = prefix < 0 || prefix >= 64 ? -1L : prefix == 0 ? 0 : -1L << (64 - prefix);
+            long lowMask = prefix < 0 || prefix >= 128 ? -1L : prefix <= 64 ? 0 : -1L << (128 - prefix);
+            addV6(ip, high & highMask, low & lowMask, high | ~highMask, low | ~lowMask);
         } else {
-            //need to ignore CIDR notation for the moment.
-            //ip = ip.split("\\/")[0];
-
-            String[] subnets = ip.split("\\.");
-
-            if (subnets.length < 3) {
+            if (prefix > 32) {
+                throw new IPFormatException(ip + " - Invalid prefix length");
+            }
+            long start;
+            if (prefix < 0 && countDots(address) == 2) {
+                // a dotted-triplet is a class C subnet
+                start = ipv4(address + ".0", 0, address.length() + 2);
+                prefix = 24;
+            } else if (countDots(address) != 3) {
                 throw new IPFormatException(ip + " - require at least three subnet places (255.255.255.0");
+            } else {
+                start = ipv4(address, 0, end);
             }
+            long mask = prefix < 0 ? IPV4_MAX : IPV4_MAX & (IPV4_MAX << (32 - prefix));
+            addV4(ip, start & mask, (start & mask) | (IPV4_MAX & ~mask));
+        }
+    }
 
-            start = subnets;
-            end = subnets;
+    /**
+     * Check whether a given address is contained in this netblock.
+     *
+     * @param ip the address to be tested
+     * @return true if {@code ip} is within this table's limits.
+     * @throws IPFormatException if {@code ip} is not a single IPv4 or IPv6 address.
+     */
+    public boolean contains(String ip) throws IPFormatException {
+        Intervals current = intervals;
+        if (current == null) {
+            current = build();
         }
 
-        if (start.length >= 3) {
-            Map<String, Map<String, Set<String>>> first = map.get(start[0]);
+        int from = 0;
+        int to = ip.length();
+        while (from < to && Character.isWhitespace(ip.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(ip.charAt(to - 1))) {
+            to--;
+        }
 
-            if (first == null) {
-                first = new HashMap<>();
-                map.put(start[0], first);
-            }
+        if (!isIPv6(ip)) {
+            return current.containsV4(ipv4(ip, from, to));
+        }
 
-            Map<String, Set<String>> second = first.get(start[1]);
+        long high = ipv6(ip, from, to, true);
+        long low = ipv6(ip, from, to, false);
+        if (high == 0 && (low >>> 32) == 0xFFFFL) {
+            // IPv4-mapped address
+            return current.containsV4(low & IPV4_MAX);
+        }
+        return current.containsV6(high, low);
+    }
 
-            if (second == null) {
-                second = new HashMap<>();
-                first.put(start[1], second);
+    /**
+     * Convert to a Set.
+     * <p>
+     * Single addresses are returned as such, class C subnets as dotted-triplets. IPv4 ranges are expanded to their
+     * addresses or subnets, unless they're larger than a class B network. Those and IPv6 ranges are returned as CIDR
+     * blocks.
+     *
+     * @return this table's content as a Set
+     */
+    public Set<String> toSet() {
+        Intervals current = intervals;
+        if (current == null) {
+            current = build();
+        }
+
+        Set<String> set = new HashSet<>();
+        for (int i = 0; i < current.v4Starts.length; i++) {
+            long start = current.v4Starts[i];
+            long end = current.v4Ends[i];
+            while (start <= end) {
+                // the largest aligned block starting at start which doesn't go past end
+                int bits = Math.min(Long.numberOfTrailingZeros(start | (1L << 32)),
+                                    63 - Long.numberOfLeadingZeros(end - start + 1));
+                if (bits >= 8 && bits <= 16) {
+                    for (long subnet = start; subnet < start + (1L << bits); subnet += 256) {
+                        String address = formatV4(subnet);
+                        set.add(address.substring(0, address.lastIndexOf('.')));
+                    }
+                } else if (bits < 8) {
+                    for (long address = start; address < start + (1L << bits); address++) {
+                        set.add(formatV4(address));
+                    }
+                } else {
+                    set.add(formatV4(start) + "/" + (32 - bits));
+                }
+                start += 1L << bits;
             }
+        }
+        for (int i = 0; i < current.v6StartHigh.length; i++) {
+            long high = current.v6StartHigh[i];
+            long low = current.v6StartLow[i];
+            long endHigh = current.v6EndHigh[i];
+            long endLow = current.v6EndLow[i];
+            while (true) {
+                int bits = largestV6Block(high, low, endHigh, endLow);
+                set.add(formatV6(high, low) + (bits == 0 ? "" : "/" + (128 - bits)));
+                if (bits == 128) {
+                    break;
+                }
+                // last address of the block
+                long lastHigh = bits > 64 ? high | (-1L >>> (128 - bits)) : high;
+                long lastLow = bits >= 64 ? -1L : low | ~(-1L << bits);
+                if (lastHigh == endHigh && lastLow == endLow) {
+                    break;
+                }
+                low = lastLow + 1;
+                high = low == 0 ? lastHigh + 1 : lastHigh;
+            }
+        }
+        return set;
+    }
 
-            Set<String> third = second.get(start[2]);
+    private void addV4(String ip, long start, long end) throws IPFormatException {
+        if (start > end) {
+            throw new IPFormatException(ip + " - The end of the range comes before its start");
+        }
+        if (addedV4Length + 2 > addedV4.length) {
+            addedV4 = Arrays.copyOf(addedV4, addedV4.length * 2);
+        }
+        addedV4[addedV4Length++] = start;
+        addedV4[addedV4Length++] = end;
+        intervals = null;
+    }
 
-            if (third == null) {
-                third = new HashSet<>();
-                second.put(start[2], third);
-            }
+    private void addV6(String ip, long startHigh, long startLow, long endHigh, long endLow)
+        throws IPFormatException {
+        if (compare(startHigh, startLow, endHigh, endLow) > 0) {
+            throw new IPFormatException(ip + " - The end of the range comes before its start");
+        }
+        if (addedV6Length + 4 > addedV6.length) {
+            addedV6 = Arrays.copyOf(addedV6, addedV6.length * 2);
+        }
+        addedV6[addedV6Length++] = startHigh;
+        addedV6[addedV6Length++] = startLow;
+        addedV6[addedV6Length++] = endHigh;
+        addedV6[addedV6Length++] = endLow;
+        intervals = null;
+    }
 
-            //now populate fourth place (* or value 0-254);
+    /**
+     * Sort and merge the added ranges.
+     */
+    private synchronized Intervals build() {
+        if (intervals != null) {
+            return intervals;
+        }
+        Intervals built = new Intervals();
 
-            if (start.length == 3) {
-                third.add("*");
+        // IPv4 addresses only take 32 bits, so a range sorts as a single long (with the sign bit flipped, as the
+        // start address may use the highest bit)
+        long[] v4 = new long[addedV4Length / 2];
+        for (int i = 0; i < v4.length; i++) {
+            v4[i] = (addedV4[2 * i] << 32 | addedV4[2 * i + 1]) ^ Long.MIN_VALUE;
+        }
+        Arrays.sort(v4);
+        long[] starts = new long[v4.length];
+        long[] ends = new long[v4.length];
+        int count = 0;
+        for (long range : v4) {
+            long start = (range ^ Long.MIN_VALUE) >>> 32;
+            long end = range & IPV4_MAX;
+            if (count > 0 && start <= ends[count - 1] + 1) {
+                ends[count - 1] = Math.max(ends[count - 1], end);
+            } else {
+                starts[count] = start;
+                ends[count++] = end;
             }
+        }
+        built.v4Starts = Arrays.copyOf(starts, count);
+        built.v4Ends = Arrays.copyOf(ends, count);
 
-            if (third.contains("*")) {
-                return;
+        Integer[] order = new Integer[addedV6Length / 4];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = 4 * i;
+        }
+        Arrays.sort(order, (a, b) -> compare(addedV6[a], addedV6[a + 1], addedV6[b], addedV6[b + 1]));
+        long[] startHigh = new long[order.length];
+        long[] startLow = new long[order.length];
+        long[] endHigh = new long[order.length];
+        long[] endLow = new long[order.length];
+        count = 0;
+        for (int i : order) {
+            if (count > 0 && (compare(addedV6[i], addedV6[i + 1], endHigh[count - 1], endLow[count - 1]) <= 0
+                || isSuccessor(addedV6[i], addedV6[i + 1], endHigh[count - 1], endLow[count - 1]))) {
+                if (compare(addedV6[i + 2], addedV6[i + 3], endHigh[count - 1], endLow[count - 1]) > 0) {
+                    endHigh[count - 1] = addedV6[i + 2];
+                    endLow[count - 1] = addedV6[i + 3];
+                }
+            } else {
+                startHigh[count] = addedV6[i];
+                startLow[count] = addedV6[i + 1];
+                endHigh[count] = addedV6[i + 2];
+                endLow[count++] = addedV6[i + 3];
             }
+        }
+        built.v6StartHigh = Arrays.copyOf(startHigh, count);
+        built.v6StartLow = Arrays.copyOf(startLow, count);
+        built.v6EndHigh = Arrays.copyOf(endHigh, count);
+        built.v6EndLow = Arrays.copyOf(endLow, count);
 
-            if (start.length >= 4) {
-                int s = Integer.valueOf(start[3]);
-                int e = Integer.valueOf(end[3]);
-                for (int i = s; i <= e; i++) {
-                    third.add(String.valueOf(i));
-                }
+        intervals = built;
+        return built;
+    }
+
+    private static boolean isIPv6(String ip) {
+        return ip.indexOf(':') >= 0;
+    }
+
+    private static int countDots(String ip) {
+        int dots = 0;
+        for (int i = 0; i < ip.length(); i++) {
+            if (ip.charAt(i) == '.') {
+                dots++;
             }
         }
+        return dots;
     }
 
     /**
-     * Check whether a given address is contained in this netblock.
+     * Parse a dotted-quad.
      *
-     * @param ip the address to be tested
-     * @return true if {@code ip} is within this table's limits.  Returns false
-     *         if {@link ip} looks like an IPv6 address.
-     * @throws IPFormatException Exception Class to deal with IPFormat errors.
+     * @param ip   the string holding the address
+     * @param from the index of the first character of the address
+     * @param to   the index following the last character of the address
+     * @return the address as an unsigned 32 bit number
+     * @throws IPFormatException if this is not a dotted-quad
      */
-    public boolean contains(String ip) throws IPFormatException {
-
-        String[] subnets = ip.split("\\.");
+    private static long ipv4(String ip, int from, int to) throws IPFormatException {
+        long address = 0;
+        int octets = 0;
+        int i = from;
+        while (i < to) {
+            int octet = 0;
+            int digits = 0;
+            while (i < to && ip.charAt(i) >= '0' && ip.charAt(i) <= '9' && digits < 4) {
+                octet = octet * 10 + ip.charAt(i++) - '0';
+                digits++;
+            }
+            if (digits == 0 || digits > 3 || octet > 255 || ++octets > 4) {
+                throw new IPFormatException(ip + " - needs to be a single IP address");
+            }
+            address = address << 8 | octet;
+            if (i < to && (ip.charAt(i) != '.' || ++i == to)) {
+                throw new IPFormatException(ip + " - needs to be a single IP address");
+            }
+        }
+        if (octets != 4) {
+            throw new IPFormatException(ip + " - needs to be a single IP address");
+        }
+        return address;
+    }
 
-        // Does it look like IPv6?
-        if (subnets.length > 4 || ip.contains("::")) {
-            log.warn("Address {} assumed not to match.  IPv6 is not implemented.", ip);
-            return false;
+    /**
+     * Parse an IPv6 address, optionally in brackets, with a zone or with an embedded IPv4 address.
+     *
+     * @param ip   the string holding the address
+     * @param from the index of the first character of the address
+     * @param to   the index following the last character of the address
+     * @param high whether to return the high or the low 64 bits of the address
+     * @return the requested half of the address
+     * @throws IPFormatException if this is not an IPv6 address
+     */
+    private static long ipv6(String ip, int from, int to, boolean high) throws IPFormatException {
+        if (from < to && ip.charAt(from) == '[' && ip.charAt(to - 1) == ']') {
+            from++;
+            to--;
+        }
+        int zone = ip.indexOf('%', from);
+        if (zone >= 0 && zone < to) {
+            to = zone;
         }
 
-        // Does it look like a subnet?
-        if (subnets.length < 4) {
-            throw new IPFormatException("needs to be a single IP address");
+        // the groups before and after the "::", as 128 bit numbers
+        long headHigh = 0;
+        long headLow = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        int headGroups = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+
+        int i = from;
+        if (ip.startsWith("::", i)) {
+            compressed = true;
+            i += 2;
         }
+        while (i < to) {
+            int groupStart = i;
+            long group = 0;
+            while (i < to && Character.digit(ip.charAt(i), 16) >= 0 && i - groupStart < 4) {
+                group = group << 4 | Character.digit(ip.charAt(i++), 16);
+            }
+            int groups = 1;
+            if (i < to && ip.charAt(i) == '.') {
+                // embedded IPv4 address, taking the last two groups
+                group = ipv4(ip, groupStart, to);
+                groups = 2;
+                i = to;
+            } else if (i == groupStart || (i < to && ip.charAt(i) != ':')) {
+                throw new IPFormatException(ip + " - needs to be a single IP address");
+            }
 
-        Map<String, Map<String, Set<String>>> first = map.get(subnets[0]);
+            if (compressed) {
+                tailHigh = tailHigh << (16 * groups) | tailLow >>> (64 - 16 * groups);
+                tailLow = tailLow << (16 * groups) | group;
+                tailGroups += groups;
+            } else {
+                headHigh = headHigh << (16 * groups) | headLow >>> (64 - 16 * groups);
+                headLow = headLow << (16 * groups) | group;
+                headGroups += groups;
+            }
 
-        if (first == null) {
-            return false;
+            if (i < to) {
+                // skip the colon, a second one marks the compressed groups
+                i++;
+                if (i < to && ip.charAt(i) == ':') {
+                    if (compressed) {
+                        throw new IPFormatException(ip + " - needs to be a single IP address");
+                    }
+                    compressed = true;
+                    i++;
+                } else if (i == to) {
+                    throw new IPFormatException(ip + " - needs to be a single IP address");
+                }
+            }
         }
 
-        Map<String, Set<String>> second = first.get(subnets[1]);
-
-        if (second == null) {
-            return false;
+        int total = headGroups + tailGroups;
+        if (compressed ? total > 7 : total != 8) {
+            throw new IPFormatException(ip + " - needs to be a single IP address");
         }
+        // shift the head groups into place, the tail groups already are
+        int shift = 16 * (8 - headGroups);
+        if (shift >= 128) {
+            headHigh = 0;
+            headLow = 0;
+        } else if (shift >= 64) {
+            headHigh = headLow << (shift - 64);
+            headLow = 0;
+        } else if (shift > 0) {
+            headHigh = headHigh << shift | headLow >>> (64 - shift);
+            headLow = headLow << shift;
+        }
+        return high ? headHigh | tailHigh : headLow | tailLow;
+    }
 
-        Set<String> third = second.get(subnets[2]);
+    private static int compare(long highA, long lowA, long highB, long lowB) {
+        int result = Long.compareUnsigned(highA, highB);
+        return result != 0 ? result : Long.compareUnsigned(lowA, lowB);
+    }
 
-        if (third == null) {
-            return false;
+    /**
+     * @return whether address A directly follows address B
+     */
+    private static boolean isSuccessor(long highA, long lowA, long highB, long lowB) {
+        long low = lowB + 1;
+        long high = low == 0 ? highB + 1 : highB;
+        return high == highA && low == lowA && !(highB == -1L && lowB == -1L);
+    }
+
+    /**
+     * @return the number of host bits of the largest aligned block starting at the given address which doesn't go
+     * past the given end address
+     */
+    private static int largestV6Block(long high, long low, long endHigh, long endLow) {
+        int bits = low == 0 ? 64 + (high == 0 ? 64 : Long.numberOfTrailingZeros(high))
+                            : Long.numberOfTrailingZeros(low);
+        while (bits > 0) {
+            long lastHigh = bits > 64 ? high | (-1L >>> (128 - bits)) : high;
+            long lastLow = bits >= 64 ? -1L : low | ~(-1L << bits);
+            if (compare(lastHigh, lastLow, endHigh, endLow) <= 0) {
+                break;
+            }
+            bits--;
         }
+        return bits;
+    }
 
-        return third.contains(subnets[3]) || third.contains("*");
+    private static String formatV4(long address) {
+        return (address >>> 24) + "." + (address >>> 16 & 0xFF) + "." + (address >>> 8 & 0xFF) + "."
+            + (address & 0xFF);
+    }
 
+    private static String formatV6(long high, long low) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            long half = i < 4 ? high : low;
+            if (i > 0) {
+                builder.append(':');
+            }
+            builder.append(Long.toHexString(half >>> (48 - 16 * (i % 4)) & 0xFFFF));
+        }
+        return builder.toString();
     }
 
     /**
-     * Convert to a Set.
-     *
-     * @return this table's content as a Set
+     * Sorted, non overlapping intervals of addresses
      */
-    public Set<String> toSet() {
-        HashSet<String> set = new HashSet<>();
-
-        for (Map.Entry<String, Map<String, Map<String, Set<String>>>> first : map.entrySet()) {
-            String firstString = first.getKey();
-            Map<String, Map<String, Set<String>>> secondMap = first.getValue();
-
-            for (Map.Entry<String, Map<String, Set<String>>> second : secondMap.entrySet()) {
-                String secondString = second.getKey();
-                Map<String, Set<String>> thirdMap = second.getValue();
-
-                for (Map.Entry<String, Set<String>> third : thirdMap.entrySet()) {
-                    String thirdString = third.getKey();
-                    Set<String> fourthSet = third.getValue();
-
-                    if (fourthSet.contains("*")) {
-                        set.add(firstString + "." + secondString + "." + thirdString);
-                    } else {
-                        for (String fourth : fourthSet) {
-                            set.add(firstString + "." + secondString + "." + thirdString + "." + fourth);
-                        }
-                    }
-
+    private static class Intervals {
+        long[] v4Starts = new long[0];
+        long[] v4Ends = new long[0];
+        long[] v6StartHigh = new long[0];
+        long[] v6StartLow = new long[0];
+        long[] v6EndHigh = new long[0];
+        long[] v6EndLow = new long[0];
+
+        boolean containsV4(long address) {
+            int low = 0;
+            int high = v4Starts.length - 1;
+            // find the last interval starting at or before the address
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (v4Starts[middle] <= address) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
                 }
             }
+            return high >= 0 && address <= v4Ends[high];
         }
 
-        return set;
+        boolean containsV6(long addressHigh, long addressLow) {
+            int low = 0;
+            int high = v6StartHigh.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (compare(v6StartHigh[middle], v6StartLow[middle], addressHigh, addressLow) <= 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return high >= 0 && compare(addressHigh, addressLow, v6EndHigh[high], v6EndLow[high]) <= 0;
+        }
     }
 
-
     /**
      * Exception Class to deal with IPFormat errors.
      */
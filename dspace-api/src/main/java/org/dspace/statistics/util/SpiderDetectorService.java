@@ -27,6 +27,12 @@ public interface SpiderDetectorService {
 
     public void loadSpiderIpAddresses();
 
+    /**
+     * Reread the agent and domain patterns and the spider IP addresses from config/spiders, replacing the ones in
+     * use.
+     */
+    public void reloadPatterns();
+
     public Set<String> readPatterns(File patternFile)
         throws IOException;
 
@@ -11,12 +11,13 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.commons.configuration2.ex.ConversionException;
@@ -43,11 +44,15 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
 
     private Boolean useCaseInsensitiveMatching;
 
-    private final List<Pattern> agents
-        = Collections.synchronizedList(new ArrayList<Pattern>());
+    /**
+     * Compiled agent patterns, replaced as a whole when the patterns are reloaded
+     */
+    private volatile SpiderPatterns agents;
 
-    private final List<Pattern> domains
-        = Collections.synchronizedList(new ArrayList<Pattern>());
+    /**
+     * Compiled domain patterns, replaced as a whole when the patterns are reloaded
+     */
+    private volatile SpiderPatterns domains;
 
     private ConfigurationService configurationService;
     private ClientInfoService clientInfoService;
@@ -55,12 +60,30 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
     /**
      * Sparse HashTable structure to hold IP address ranges.
      */
-    private IPTable table = null;
+    private volatile IPTable table = null;
+
+    /**
+     * Interval in milliseconds at which the spider files are checked for changes, 0 or less to never check
+     */
+    private final long reloadInterval;
+
+    /**
+     * When the spider files are next checked for changes
+     */
+    private final AtomicLong nextReloadCheck = new AtomicLong();
+
+    /**
+     * Stamp of the spider files the patterns in use were read from
+     */
+    private volatile long spiderFilesStamp;
 
     @Autowired(required = true)
     public SpiderDetectorServiceImpl(ConfigurationService configurationService, ClientInfoService clientInfoService) {
         this.configurationService = configurationService;
         this.clientInfoService = clientInfoService;
+        this.reloadInterval = TimeUnit.SECONDS.toMillis(
+            configurationService.getIntProperty("usage-statistics.bots.reload-interval", 60));
+        this.nextReloadCheck.set(System.currentTimeMillis() + reloadInterval);
     }
 
     public IPTable getTable() {
@@ -80,27 +103,17 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
      * @return true if the client matches any spider characteristics list.
      */
     public boolean isSpider(String clientIP, String proxyIPs, String hostname, String agent) {
+        reloadIfChanged();
+
         // See if any agent patterns match
         if (null != agent) {
-            synchronized (agents) {
-                if (agents.isEmpty()) {
-                    loadPatterns("agents", agents);
-                }
-            }
-
             if (isUseCaseInsensitiveMatching()) {
                 agent = StringUtils.lowerCase(agent);
                 hostname = StringUtils.lowerCase(hostname);
             }
 
-            for (Pattern candidate : agents) {
-
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(agent).find()) {
-                    return true;
-                }
-
-
+            if (getAgentPatterns().matches(agent)) {
+                return true;
             }
         }
 
@@ -119,18 +132,8 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         }
 
         // No.  See if any DNS names match
-        if (null != hostname) {
-            synchronized (domains) {
-                if (domains.isEmpty()) {
-                    loadPatterns("domains", domains);
-                }
-            }
-            for (Pattern candidate : domains) {
-                // prevent matcher() invocation from a null Pattern object
-                if (null != candidate && candidate.matcher(hostname).find()) {
-                    return true;
-                }
-            }
+        if (null != hostname && getDomainPatterns().matches(hostname)) {
+            return true;
         }
 
         // Not a known spider.
@@ -171,19 +174,110 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         return patterns;
     }
 
+    /**
+     * Reread the agent and domain patterns and, once they were loaded, the spider IP addresses. The new ones (and
+     * empty verdict caches) are swapped in at once, requests being checked meanwhile still use the previous ones.
+     */
+    public synchronized void reloadPatterns() {
+        readSpiderFiles(table != null);
+    }
+
+    /**
+     * Read the agent and domain patterns, and optionally the spider IP addresses, replacing the ones in use. The
+     * caller holds the monitor of this service.
+     *
+     * @param ipAddresses whether to read the spider IP addresses too
+     */
+    private void readSpiderFiles(boolean ipAddresses) {
+        // Taken first, so a file changed while it is read is read again on the next check
+        long stamp = getSpiderFilesStamp();
+        SpiderPatterns newAgents = loadPatterns("agents");
+        SpiderPatterns newDomains = loadPatterns("domains");
+        if (ipAddresses) {
+            table = readSpiderIpAddresses();
+        }
+        agents = newAgents;
+        domains = newDomains;
+        spiderFilesStamp = stamp;
+    }
+
+    /**
+     * Reload the spider files if they changed since they were read, checking at most once every
+     * "usage-statistics.bots.reload-interval" seconds. Only the request which runs the check waits for the reload.
+     */
+    private void reloadIfChanged() {
+        long next = nextReloadCheck.get();
+        long now = System.currentTimeMillis();
+        if (reloadInterval <= 0 || now < next || agents == null
+            || !nextReloadCheck.compareAndSet(next, now + reloadInterval)) {
+            return;
+        }
+        if (getSpiderFilesStamp() != spiderFilesStamp) {
+            log.info("Spider files changed, reloading them");
+            reloadPatterns();
+        }
+    }
+
+    /**
+     * @return a stamp of the names, sizes and modification times of the spider files, which changes whenever one
+     * of them is added, removed or modified
+     */
+    private long getSpiderFilesStamp() {
+        File spidersDir = getSpidersDir();
+        long stamp = 1;
+        for (File dir : new File[] {spidersDir, new File(spidersDir, "agents"), new File(spidersDir, "domains")}) {
+            File[] files = dir.listFiles(File::isFile);
+            if (files != null) {
+                Arrays.sort(files);
+                for (File file : files) {
+                    stamp = 31 * stamp + Objects.hash(file.getName(), file.length(), file.lastModified());
+                }
+            }
+        }
+        return stamp;
+    }
+
+    private File getSpidersDir() {
+        return new File(configurationService.getProperty("dspace.dir"), "config/spiders");
+    }
+
+    private SpiderPatterns getAgentPatterns() {
+        SpiderPatterns patterns = agents;
+        if (patterns == null) {
+            synchronized (this) {
+                if (agents == null) {
+                    readSpiderFiles(false);
+                }
+                patterns = agents;
+            }
+        }
+        return patterns;
+    }
+
+    private SpiderPatterns getDomainPatterns() {
+        SpiderPatterns patterns = domains;
+        if (patterns == null) {
+            synchronized (this) {
+                if (domains == null) {
+                    readSpiderFiles(false);
+                }
+                patterns = domains;
+            }
+        }
+        return patterns;
+    }
+
     /**
      * Load agent name patterns from all files in a single subdirectory of config/spiders.
      *
-     * @param directory   simple directory name (e.g. "agents").
-     *                    "${dspace.dir}/config/spiders" will be prepended to yield the path to
-     *                    the directory of pattern files.
-     * @param patternList patterns read from the files in {@code directory} will
-     *                    be added to this List.
+     * @param directory simple directory name (e.g. "agents").
+     *                  "${dspace.dir}/config/spiders" will be prepended to yield the path to
+     *                  the directory of pattern files.
+     * @return the patterns read from the files in {@code directory}
      */
-    private void loadPatterns(String directory, List<Pattern> patternList) {
-        String dspaceHome = configurationService.getProperty("dspace.dir");
-        File spidersDir = new File(dspaceHome, "config/spiders");
-        File patternsDir = new File(spidersDir, directory);
+    private SpiderPatterns loadPatterns(String directory) {
+        Set<String> patternSet = new LinkedHashSet<>();
+        File patternsDir = new File(getSpidersDir(), directory);
         if (patternsDir.exists() && patternsDir.isDirectory()) {
             for (File file : patternsDir.listFiles()) {
                 Set<String> patterns;
@@ -199,7 +293,7 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
                     if (isUseCaseInsensitiveMatching()) {
                         pattern = StringUtils.lowerCase(pattern);
                     }
-                    patternList.add(Pattern.compile(pattern));
+                    patternSet.add(pattern);
                 }
 
 
@@ -208,6 +302,8 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
         } else {
             log.info("No patterns loaded from {}", patternsDir.getPath());
         }
+        int cacheSize = configurationService.getIntProperty("usage-statistics.bots.cache-size", 10000);
+        return new SpiderPatterns(patternSet, cacheSize);
     }
 
     /**
@@ -230,12 +326,15 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
      * @return if is spider IP
      */
     public boolean isSpider(String ip) {
-        if (table == null) {
+        reloadIfChanged();
+        IPTable ipTable = table;
+        if (ipTable == null) {
             loadSpiderIpAddresses();
+            ipTable = table;
         }
 
         try {
-            if (table.contains(ip)) {
+            if (ipTable.contains(ip)) {
                 return true;
             }
         } catch (Exception e) {
@@ -251,41 +350,49 @@ public class SpiderDetectorServiceImpl implements SpiderDetectorService {
     public synchronized void loadSpiderIpAddresses() {
 
         if (table == null) {
-            table = new IPTable();
+            table = readSpiderIpAddresses();
+        }
 
-            String filePath = configurationService.getProperty("dspace.dir");
+    }
 
-            try {
-                File spidersDir = new File(filePath, "config/spiders");
-
-                if (spidersDir.exists() && spidersDir.isDirectory()) {
-                    for (File file : spidersDir.listFiles()) {
-                        if (file.isFile()) {
-                            for (String ip : readPatterns(file)) {
-                                log.debug("Loading {}", ip);
-                                if (!Character.isDigit(ip.charAt(0))) {
-                                    try {
-                                        ip = DnsLookup.forward(ip);
-                                        log.debug("Resolved to {}", ip);
-                                    } catch (IOException e) {
-                                        log.warn("Not loading {}:  {}", ip, e.getMessage());
-                                        continue;
-                                    }
+    /**
+     * Read the spider IP addresses from the files in config/spiders.
+     *
+     * @return the IP addresses, as a new table
+     */
+    private IPTable readSpiderIpAddresses() {
+        IPTable ipTable = new IPTable();
+
+        try {
+            File spidersDir = getSpidersDir();
+
+            if (spidersDir.exists() && spidersDir.isDirectory()) {
+                for (File file : spidersDir.listFiles()) {
+                    if (file.isFile()) {
+                        for (String ip : readPatterns(file)) {
+                            log.debug("Loading {}", ip);
+                            if (!Character.isDigit(ip.charAt(0)) && ip.indexOf(':') < 0) {
+                                try {
+                                    ip = DnsLookup.forward(ip);
+                                    log.debug("Resolved to {}", ip);
+                                } catch (IOException e) {
+                                    log.warn("Not loading {}:  {}", ip, e.getMessage());
+                                    continue;
                                 }
-                                table.add(ip);
                             }
-                            log.info("Loaded Spider IP file: " + file);
+                            ipTable.add(ip);
                         }
+                        log.info("Loaded Spider IP file: " + file);
                     }
-                } else {
-                    log.info("No spider file loaded");
                 }
-            } catch (IOException | IPTable.IPFormatException e) {
-                log.error("Error Loading Spiders:" + e.getMessage(), e);
+            } else {
+                log.info("No spider file loaded");
             }
-
+        } catch (IOException | IPTable.IPFormatException e) {
+            log.error("Error Loading Spiders:" + e.getMessage(), e);
         }
 
+        return ipTable;
     }
 
     /**
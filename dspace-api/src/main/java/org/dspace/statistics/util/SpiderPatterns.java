@@ -0,0 +1,416 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Immutable set of spider patterns (user agents or host names), matched in a single pass over the input.
+ * <p>
+ * For every pattern the longest literal substring any match must contain is extracted, and all these literals are
+ * put in an Aho-Corasick automaton. Matching a text walks the automaton once, and only the patterns whose literal
+ * occurs in the text are evaluated as a regular expression. Patterns which are nothing but a literal don't need to be
+ * evaluated at all, patterns without a usable literal (e.g. a top level alternation) are always evaluated.
+ * <p>
+ * Optionally the verdicts of recently matched texts are kept in a bounded cache, as the same user agents come back
+ * over and over. Since the set is immutable, reloading the patterns is done by swapping in a new instance.
+ */
+public final class SpiderPatterns {
+
+    private static final Logger log = LogManager.getLogger(SpiderPatterns.class);
+
+    /**
+     * Texts longer than this are never cached
+     */
+    private static final int MAX_CACHED_LENGTH = 1024;
+
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    /**
+     * Escaped letters which stand for a single character class, boundary or control character
+     */
+    private static final String SIMPLE_ESCAPES = "dDsSwWhHvVbBAGZzRXtnrfae";
+
+    private final Pattern[] patterns;
+    private final boolean[] literalOnly;
+    private final int[] alwaysEvaluated;
+    private final Node root;
+    private final Cache<String, Boolean> verdicts;
+
+    /**
+     * @param regexes   the patterns, invalid ones are logged and skipped
+     * @param cacheSize the maximum number of verdicts kept, 0 to not cache verdicts
+     */
+    public SpiderPatterns(Collection<String> regexes, int cacheSize) {
+        List<Pattern> compiled = new ArrayList<>(regexes.size());
+        List<String> literals = new ArrayList<>(regexes.size());
+        List<Boolean> pure = new ArrayList<>(regexes.size());
+        for (String regex : regexes) {
+            try {
+                compiled.add(Pattern.compile(regex));
+            } catch (PatternSyntaxException e) {
+                log.error("Skipping invalid spider pattern {}: {}", regex, e.getDescription());
+                continue;
+            }
+            Literal literal = requiredLiteral(regex);
+            literals.add(literal == null ? null : literal.text);
+            pure.add(literal != null && literal.wholePattern);
+        }
+
+        patterns = compiled.toArray(new Pattern[0]);
+        literalOnly = new boolean[patterns.length];
+        List<Integer> always = new ArrayList<>();
+        Node trie = new Node();
+        for (int i = 0; i < patterns.length; i++) {
+            String literal = literals.get(i);
+            if (literal == null) {
+                always.add(i);
+            } else {
+                literalOnly[i] = pure.get(i);
+                trie.add(literal, i);
+            }
+        }
+        alwaysEvaluated = always.stream().mapToInt(Integer::intValue).toArray();
+        root = trie.freeze();
+        verdicts = cacheSize > 0 ? CacheBuilder.newBuilder().maximumSize(cacheSize).build() : null;
+    }
+
+    /**
+     * @return the number of patterns in this set
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * @return the number of patterns evaluated for every text, because no literal could be extracted from them
+     */
+    public int getAlwaysEvaluatedCount() {
+        return alwaysEvaluated.length;
+    }
+
+    /**
+     * Check whether any of the patterns can be found in the text.
+     *
+     * @param text the user agent or host name
+     * @return true if any pattern matches part of the text
+     */
+    public boolean matches(String text) {
+        if (verdicts == null || text.length() > MAX_CACHED_LENGTH) {
+            return evaluate(text);
+        }
+        Boolean verdict = verdicts.getIfPresent(text);
+        if (verdict == null) {
+            verdict = evaluate(text);
+            verdicts.put(text, verdict);
+        }
+        return verdict;
+    }
+
+    private boolean evaluate(String text) {
+        BitSet evaluated = null;
+        Node state = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            Node next = state.child(c);
+            while (next == null && state != root) {
+                state = state.fail;
+                next = state.child(c);
+            }
+            state = next == null ? root : next;
+
+            for (int id : state.outputs) {
+                if (literalOnly[id]) {
+                    return true;
+                }
+                if (evaluated == null) {
+                    evaluated = new BitSet(patterns.length);
+                }
+                if (!evaluated.get(id)) {
+                    evaluated.set(id);
+                    if (patterns[id].matcher(text).find()) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        for (int id : alwaysEvaluated) {
+            if (patterns[id].matcher(text).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the longest literal which must occur in every match of the regular expression.
+     *
+     * @param regex the regular expression
+     * @return the literal, or null if none could be found
+     */
+    static Literal requiredLiteral(String regex) {
+        String best = "";
+        StringBuilder run = new StringBuilder();
+        boolean wholePattern = true;
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            // the literal character at this position, or -1 for any other atom
+            int literal = -1;
+            int end;
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || regex.charAt(i + 1) == 'Q') {
+                    return null;
+                }
+                char escaped = regex.charAt(i + 1);
+                if (!Character.isLetterOrDigit(escaped)) {
+                    literal = escaped;
+                } else if (SIMPLE_ESCAPES.indexOf(escaped) < 0) {
+                    // back references, octal, hexadecimal, unicode and property escapes span more characters
+                    return null;
+                }
+                end = i + 2;
+            } else if (c == '[') {
+                end = skipClass(regex, i);
+            } else if (c == '(') {
+                if (regex.startsWith("(?", i)) {
+                    // flags and lookarounds change the meaning of the surrounding literals
+                    return null;
+                }
+                end = skipGroup(regex, i);
+            } else if (c == '|' || c == ')' || c == '*' || c == '+' || c == '?' || c == '{') {
+                // top level alternation or a construct we don't understand
+                return null;
+            } else if (c == '.' || c == '^' || c == '$') {
+                end = i + 1;
+            } else {
+                literal = c;
+                end = i + 1;
+            }
+            if (end < 0) {
+                return null;
+            }
+
+            // quantifier of the atom
+            boolean optional = false;
+            boolean repeated = false;
+            if (end < regex.length()) {
+                char q = regex.charAt(end);
+                if (q == '?' || q == '*' || q == '{') {
+                    optional = true;
+                    end = q == '{' ? regex.indexOf('}', end) + 1 : end + 1;
+                    if (end == 0) {
+                        return null;
+                    }
+                } else if (q == '+') {
+                    repeated = true;
+                    end++;
+                }
+                if (optional || repeated) {
+                    if (end < regex.length() && (regex.charAt(end) == '?' || regex.charAt(end) == '+')) {
+                        end++;
+                    }
+                }
+            }
+
+            if (literal >= 0 && !optional) {
+                run.append((char) literal);
+            }
+            if (literal < 0 || optional || repeated) {
+                wholePattern = false;
+                if (run.length() > best.length()) {
+                    best = run.toString();
+                }
+                run.setLength(0);
+            }
+            i = end;
+        }
+        if (run.length() > best.length()) {
+            best = run.toString();
+        }
+        return best.isEmpty() ? null : new Literal(best, wholePattern);
+    }
+
+    /**
+     * @return the index following the character class starting at {@code start}, or -1 if it isn't closed
+     */
+    private static int skipClass(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // a closing bracket right after the opening one (or its negation) is a literal
+                if (regex.startsWith("^]", i + 1)) {
+                    i += 2;
+                } else if (regex.startsWith("]", i + 1)) {
+                    i++;
+                }
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index following the group starting at {@code start}, or -1 if it isn't closed
+     */
+    private static int skipGroup(String regex, int start) {
+        int depth = 0;
+        int i = start;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                i = skipClass(regex, i);
+                if (i < 0) {
+                    return -1;
+                }
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * A literal required by a pattern
+     */
+    static final class Literal {
+        final String text;
+        /**
+         * Whether the pattern is nothing but this literal, so finding the literal is a match
+         */
+        final boolean wholePattern;
+
+        Literal(String text, boolean wholePattern) {
+            this.text = text;
+            this.wholePattern = wholePattern;
+        }
+    }
+
+    /**
+     * State of the Aho-Corasick automaton
+     */
+    private static final class Node {
+        // used while building the trie
+        private TreeMap<Character, Node> children = new TreeMap<>();
+        private final List<Integer> ids = new ArrayList<>();
+
+        // used while matching
+        private char[] keys;
+        private Node[] next;
+        private Node fail;
+        private int[] outputs = NO_OUTPUTS;
+
+        void add(String literal, int id) {
+            Node node = this;
+            for (int i = 0; i < literal.length(); i++) {
+                node = node.children.computeIfAbsent(literal.charAt(i), c -> new Node());
+            }
+            node.ids.add(id);
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? next[index] : null;
+        }
+
+        /**
+         * Compute the failure links and outputs breadth first, and switch to the compact representation.
+         *
+         * @return this node, the root of the automaton
+         */
+        Node freeze() {
+            Deque<Node> queue = new ArrayDeque<>();
+            this.fail = this;
+            compact(this);
+            for (Node child : next) {
+                child.fail = this;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                compact(node);
+                for (int i = 0; i < node.keys.length; i++) {
+                    Node child = node.next[i];
+                    Node fallback = node.fail;
+                    Node target = fallback.childWhileBuilding(node.keys[i]);
+                    while (target == null && fallback != this) {
+                        fallback = fallback.fail;
+                        target = fallback.childWhileBuilding(node.keys[i]);
+                    }
+                    child.fail = target == null || target == child ? this : target;
+                    queue.add(child);
+                }
+                // the outputs of the failure state are complete, as it is closer to the root
+                int[] inherited = node.fail.outputs;
+                int[] outputs = new int[node.ids.size() + inherited.length];
+                for (int i = 0; i < node.ids.size(); i++) {
+                    outputs[i] = node.ids.get(i);
+                }
+                System.arraycopy(inherited, 0, outputs, node.ids.size(), inherited.length);
+                node.outputs = outputs.length == 0 ? NO_OUTPUTS : outputs;
+            }
+            return this;
+        }
+
+        /**
+         * Lookup which works both before and after the node has been compacted, as failure states are looked up
+         * on nodes of the previous level
+         */
+        private Node childWhileBuilding(char c) {
+            return keys != null ? child(c) : children.get(c);
+        }
+
+        private static void compact(Node node) {
+            if (node.keys != null) {
+                return;
+            }
+            node.keys = new char[node.children.size()];
+            node.next = new Node[node.children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                node.keys[i] = entry.getKey();
+                node.next[i++] = entry.getValue();
+            }
+            node.children = null;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.dspace.content.Bitstream;
 
 /**
@@ -44,6 +45,39 @@ public interface BitStoreService {
      */
     public InputStream get(Bitstream bitstream) throws IOException;
 
+    /**
+     * Retrieve part of the bits for bitstream, e.g. to answer an HTTP Range request.
+     * <p>
+     * The default implementation reads and discards the bits before the offset, stores should override it
+     * to only read the requested part.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @param offset    position of the first byte to retrieve
+     * @param length    maximum number of bytes to retrieve
+     * @return The stream of bits, ending at offset + length or at the end of the asset
+     * @throws java.io.IOException If a problem occurs while retrieving the bits, or if no
+     *                             asset with ID exists in the store
+     */
+    public default InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        InputStream in = get(bitstream);
+        if (in == null) {
+            return null;
+        }
+        long remaining = offset;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                // skip may return 0 before the end of the stream, only reading tells
+                if (in.read() < 0) {
+                    break;
+                }
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+        return new BoundedInputStream(in, length);
+    }
+
     /**
      * Store a stream of bits.
      *
@@ -12,11 +12,16 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.logging.log4j.Logger;
 import org.dspace.content.Bitstream;
 import org.dspace.core.Utils;
@@ -52,6 +57,12 @@ public class DSBitStoreService implements BitStoreService {
     // Checksum algorithm
     private static final String CSA = "MD5";
 
+    /**
+     * Buffer used to read the files whose checksum is computed, one per thread
+     */
+    private static final ThreadLocal<ByteBuffer> CHECKSUM_BUFFER =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(1024 * 1024));
+
     /**
      * the asset directory
      */
@@ -94,6 +105,31 @@ public class DSBitStoreService implements BitStoreService {
         }
     }
 
+    /**
+     * Retrieve part of the bits for bitstream, reading the file from the given position on.
+     *
+     * @param bitstream DSpace Bitstream object
+     * @param offset    position of the first byte to retrieve
+     * @param length    maximum number of bytes to retrieve
+     * @return The stream of bits
+     * @throws java.io.IOException If a problem occurs while retrieving the bits
+     */
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(getFile(bitstream).toPath(), StandardOpenOption.READ);
+            channel.position(offset);
+            return new BoundedInputStream(Channels.newInputStream(channel), length);
+        } catch (Exception e) {
+            if (channel != null) {
+                channel.close();
+            }
+            log.error("get(" + bitstream.getInternalId() + ", " + offset + ", " + length + ")", e);
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Store a stream of bits.
      *
@@ -157,25 +193,25 @@ public class DSBitStoreService implements BitStoreService {
                 }
                 if (attrs.containsKey("checksum")) {
                     // generate checksum by reading the bytes
-                    DigestInputStream dis = null;
+                    MessageDigest digest;
                     try {
-                        FileInputStream fis = new FileInputStream(file);
-                        dis = new DigestInputStream(fis, MessageDigest.getInstance(CSA));
+                        digest = MessageDigest.getInstance(CSA);
                     } catch (NoSuchAlgorithmException e) {
                         log.warn("Caught NoSuchAlgorithmException", e);
                         throw new IOException("Invalid checksum algorithm");
                     }
-                    final int BUFFER_SIZE = 1024 * 4;
-                    final byte[] buffer = new byte[BUFFER_SIZE];
-                    while (true) {
-                        final int count = dis.read(buffer, 0, BUFFER_SIZE);
-                        if (count == -1) {
-                            break;
+                    // large reads straight into a direct buffer, as whole assetstores get checksummed
+                    ByteBuffer buffer = CHECKSUM_BUFFER.get();
+                    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                        buffer.clear();
+                        while (channel.read(buffer) != -1) {
+                            buffer.flip();
+                            digest.update(buffer);
+                            buffer.clear();
                         }
                     }
-                    attrs.put("checksum", Utils.toHex(dis.getMessageDigest().digest()));
+                    attrs.put("checksum", Utils.toHex(digest.digest()));
                     attrs.put("checksum_algorithm", CSA);
-                    dis.close();
                 }
                 if (attrs.containsKey("modified")) {
                     attrs.put("modified", String.valueOf(file.lastModified()));
@@ -7,6 +7,7 @@
  */
 package org.dspace.storage.bitstore;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -160,6 +161,33 @@ public class S3BitStoreService implements BitStoreService {
         }
     }
 
+    /**
+     * Retrieve part of the bits for the asset with ID, using a ranged GET so that only the requested bytes are
+     * transferred.
+     *
+     * @param bitstream The ID of the asset to retrieve
+     * @param offset    position of the first byte to retrieve
+     * @param length    maximum number of bytes to retrieve
+     * @return The stream of bits, or null
+     * @throws java.io.IOException If a problem occurs while retrieving the bits
+     */
+    @Override
+    public InputStream get(Bitstream bitstream, long offset, long length) throws IOException {
+        if (length <= 0) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        String key = getFullKey(bitstream.getInternalId());
+        try {
+            GetObjectRequest request = new GetObjectRequest(bucketName, key)
+                .withRange(offset, offset + length - 1);
+            S3Object object = s3Service.getObject(request);
+            return (object != null) ? object.getObjectContent() : null;
+        } catch (AmazonClientException e) {
+            log.error("get(" + key + ", " + offset + ", " + length + ")", e);
+            throw new IOException(e);
+        }
+    }
+
     /**
      * Store a stream of bits.
      *
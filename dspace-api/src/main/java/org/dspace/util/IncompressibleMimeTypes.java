@@ -0,0 +1,71 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The MIME types of files which are already compressed, and are added to zip
+ * files without compression so that large media files aren't deflated for no
+ * gain. A type ending in "*" matches every type starting with the text before
+ * the "*", such as "video/*" or "application/vnd.openxmlformats-officedocument.*".
+ * <p>
+ * NOTE: the entries of these files are still DEFLATED (at level 0) rather than
+ * STORED, as a STORED entry needs the CRC-32 of its content before it is
+ * written, which would mean reading every file twice.
+ */
+public final class IncompressibleMimeTypes {
+
+    /**
+     * The MIME types which are not compressed, unless configured otherwise
+     */
+    public static final String[] DEFAULT_TYPES = {
+        "image/jpeg", "image/png", "image/gif", "image/jp2", "audio/*", "video/*", "application/pdf",
+        "application/zip", "application/gzip", "application/x-gzip", "application/x-7z-compressed",
+        "application/vnd.openxmlformats-officedocument.*"
+    };
+
+    private final List<String> types = new ArrayList<>();
+    private final List<String> prefixes = new ArrayList<>();
+
+    /**
+     * @param types the MIME types, blank ones are ignored
+     */
+    public IncompressibleMimeTypes(String... types) {
+        for (String type : types) {
+            type = StringUtils.trimToEmpty(type);
+            if (type.endsWith("*")) {
+                prefixes.add(type.substring(0, type.length() - 1));
+            } else if (!type.isEmpty()) {
+                this.types.add(type);
+            }
+        }
+    }
+
+    /**
+     * @param mimeType a MIME type, may be null
+     * @return whether files of the MIME type are not compressed
+     */
+    public boolean contains(String mimeType) {
+        if (mimeType == null) {
+            return false;
+        }
+        if (types.contains(mimeType)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (mimeType.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
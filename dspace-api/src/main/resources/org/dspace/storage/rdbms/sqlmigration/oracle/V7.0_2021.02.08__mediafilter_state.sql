@@ -0,0 +1,44 @@
+--
+-- The contents of this file are subject to the license and copyright
+-- detailed in the LICENSE and NOTICE files at the root of the source
+-- tree and available online at
+--
+-- http://www.dspace.org/license/
+--
+
+-- ===============================================================
+-- WARNING WARNING WARNING WARNING WARNING WARNING WARNING WARNING
+--
+-- DO NOT MANUALLY RUN THIS DATABASE MIGRATION. IT WILL BE EXECUTED
+-- AUTOMATICALLY (IF NEEDED) BY "FLYWAY" WHEN YOU STARTUP DSPACE.
+-- http://flywaydb.org/
+-- ===============================================================
+
+-------------------------------------------------------------------------------
+-- Tables recording which bitstreams the media filters have processed, and
+-- which items have to be filtered again since the last filter-media run
+-------------------------------------------------------------------------------
+
+CREATE SEQUENCE mediafilter_state_seq;
+
+CREATE TABLE mediafilter_state
+(
+    state_id          NUMBER NOT NULL PRIMARY KEY,
+    bitstream_id      RAW(16) NOT NULL REFERENCES bitstream(uuid) ON DELETE CASCADE,
+    filter_name       VARCHAR2(256) NOT NULL,
+    source_checksum   VARCHAR2(64),
+    filter_version    VARCHAR2(64),
+    processed_date    TIMESTAMP,
+    CONSTRAINT mediafilter_state_unique UNIQUE (bitstream_id, filter_name)
+);
+
+CREATE SEQUENCE mediafilter_queue_seq;
+
+CREATE TABLE mediafilter_queue
+(
+    queue_id          NUMBER NOT NULL PRIMARY KEY,
+    item_id           RAW(16) NOT NULL REFERENCES item(uuid) ON DELETE CASCADE,
+    queued_date       TIMESTAMP
+);
+
+CREATE INDEX mediafilter_queue_item_idx ON mediafilter_queue(item_id);
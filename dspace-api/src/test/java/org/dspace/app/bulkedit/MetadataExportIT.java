@@ -8,7 +8,9 @@
 package org.dspace.app.bulkedit;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.nio.charset.StandardCharsets;
@@ -24,12 +26,14 @@ import org.dspace.builder.ItemBuilder;
 import org.dspace.content.Collection;
 import org.dspace.content.Community;
 import org.dspace.content.Item;
+import org.dspace.content.service.MetadataDSpaceCsvExportService;
 import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.scripts.configuration.ScriptConfiguration;
 import org.dspace.scripts.factory.ScriptServiceFactory;
 import org.dspace.scripts.service.ScriptService;
 import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
+import org.dspace.utils.DSpace;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -71,6 +75,37 @@ public class MetadataExportIT
         assertTrue(fileContent.contains(String.valueOf(item.getID())));
     }
 
+    @Test
+    public void metadataExportStreamedAsInMemoryTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Community community = CommunityBuilder.createCommunity(context)
+                .build();
+        Collection collection = CollectionBuilder.createCollection(context, community)
+                .build();
+        Collection collection2 = CollectionBuilder.createCollection(context, community)
+                .build();
+        ItemBuilder.createItem(context, collection)
+                .withTitle("A \"quoted\"\ntitle")
+                .withAuthor("Donald, Smith")
+                .withAuthor("Smith, Donald")
+                .build();
+        ItemBuilder.createItem(context, collection2)
+                .withTitle("Another title")
+                .withSubject("subject")
+                .withMetadata("dc", "description", "abstract", "abstract")
+                .build();
+        context.restoreAuthSystemState();
+
+        MetadataDSpaceCsvExportService exportService = new DSpace().getServiceManager()
+                .getServicesByType(MetadataDSpaceCsvExportService.class).get(0);
+        TestDSpaceRunnableHandler handler = new TestDSpaceRunnableHandler();
+        String inMemory = exportService.handleExport(context, false, false, community.getHandle(), handler)
+                .toString();
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        exportService.handleExport(context, false, false, community.getHandle(), handler, streamed);
+        assertEquals(inMemory, streamed.toString(StandardCharsets.UTF_8));
+    }
+
     @Test(expected = ParseException.class)
     public void metadataExportWithoutFileParameter()
         throws IllegalAccessException, InstantiationException, ParseException {
@@ -42,6 +42,8 @@ import org.dspace.scripts.DSpaceRunnable;
 import org.dspace.scripts.configuration.ScriptConfiguration;
 import org.dspace.scripts.factory.ScriptServiceFactory;
 import org.dspace.scripts.service.ScriptService;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -188,6 +190,33 @@ public class MetadataImportIT extends AbstractIntegrationTestWithDatabase {
         assertEquals(itemService.getMetadata(item, "dc", "contributor", "author", Item.ANY).size(), 0);
     }
 
+    @Test
+    public void metadataImportInCommitBatchesTest() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item1 = ItemBuilder.createItem(context, collection).withTitle("Batch item 1").build();
+        Item item2 = ItemBuilder.createItem(context, collection).withTitle("Batch item 2").build();
+        Item item3 = ItemBuilder.createItem(context, collection).withTitle("Batch item 3").build();
+        context.restoreAuthSystemState();
+
+        String[] csv = {"id,collection,dc.title,dc.contributor.author",
+            item1.getID().toString() + "," + collection.getHandle() + ",Batch item 1,Author 1",
+            item2.getID().toString() + "," + collection.getHandle() + ",Batch item 2,Author 2",
+            item3.getID().toString() + "," + collection.getHandle() + ",Batch item 3,Author 3"};
+        ConfigurationService configurationService = DSpaceServicesFactory.getInstance().getConfigurationService();
+        configurationService.setProperty("bulkedit.commit-batch-size", 2);
+        try {
+            performImportScript(csv);
+        } finally {
+            configurationService.setProperty("bulkedit.commit-batch-size", null);
+        }
+
+        for (int i = 1; i <= 3; i++) {
+            Item item = findItemByName("Batch item " + i);
+            assertEquals("Author " + i,
+                         itemService.getMetadata(item, "dc", "contributor", "author", Item.ANY).get(0).getValue());
+        }
+    }
+
     private Item findItemByName(String name) throws SQLException {
         Item importedItem = null;
         List<Item> allItems = IteratorUtils.toList(itemService.findAll(context));
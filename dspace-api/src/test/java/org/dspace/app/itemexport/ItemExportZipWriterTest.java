@@ -0,0 +1,114 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.itemexport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.util.IncompressibleMimeTypes;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ItemExportZipWriter}
+ */
+public class ItemExportZipWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCompressionByMimeType() throws Exception {
+        byte[] data = new byte[100000];
+        Arrays.fill(data, (byte) 'a');
+        ItemExportZipWriter zip = new ItemExportZipWriter(part -> new File(folder.getRoot(), "export.zip"), 0,
+                                                          Deflater.BEST_COMPRESSION,
+                                                          new IncompressibleMimeTypes("application/pdf", "image/*"));
+        zip.startItem();
+        zip.putEntry("1/dublin_core.xml", data);
+        zip.putEntry("1/text.txt", new ByteArrayInputStream(data), "text/plain");
+        zip.putEntry("1/paper.pdf", new ByteArrayInputStream(data), "application/pdf");
+        zip.putEntry("1/image.png", new ByteArrayInputStream(data), "image/png");
+        assertTrue(zip.hasEntry("1/paper.pdf"));
+        zip.close();
+
+        assertEquals(Collections.singletonList(new File(folder.getRoot(), "export.zip")), zip.getFiles());
+        assertFalse(new File(folder.getRoot(), "export.zip_tmp").exists());
+        try (ZipFile zipFile = new ZipFile(zip.getFiles().get(0))) {
+            assertTrue(zipFile.getEntry("1/dublin_core.xml").getCompressedSize() < data.length / 10);
+            assertTrue(zipFile.getEntry("1/text.txt").getCompressedSize() < data.length / 10);
+            assertTrue(zipFile.getEntry("1/paper.pdf").getCompressedSize() >= data.length);
+            assertTrue(zipFile.getEntry("1/image.png").getCompressedSize() >= data.length);
+            assertArrayEquals(data, IOUtils.toByteArray(zipFile.getInputStream(zipFile.getEntry("1/paper.pdf"))));
+            assertArrayEquals(data, IOUtils.toByteArray(zipFile.getInputStream(zipFile.getEntry("1/text.txt"))));
+        }
+    }
+
+    @Test
+    public void testSplitBetweenItems() throws Exception {
+        byte[] data = new byte[2000];
+        ItemExportZipWriter zip = new ItemExportZipWriter(part -> new File(folder.getRoot(), "export_" + part),
+                                                          1000, Deflater.DEFAULT_COMPRESSION,
+                                                          new IncompressibleMimeTypes("application/octet-stream"));
+        for (int item = 1; item <= 3; item++) {
+            zip.startItem();
+            zip.putEntry(item + "/a", new ByteArrayInputStream(data), "application/octet-stream");
+            zip.putEntry(item + "/b", new ByteArrayInputStream(data), "application/octet-stream");
+        }
+        zip.close();
+
+        assertEquals(3, zip.getFiles().size());
+        for (int part = 1; part <= 3; part++) {
+            File file = zip.getFiles().get(part - 1);
+            assertEquals(new File(folder.getRoot(), "export_" + part), file);
+            List<String> names = new ArrayList<>();
+            try (ZipFile zipFile = new ZipFile(file)) {
+                for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                    names.add(entry.getName());
+                }
+            }
+            assertEquals(Arrays.asList(part + "/a", part + "/b"), names);
+        }
+    }
+
+    @Test
+    public void testEmptyExport() throws Exception {
+        ItemExportZipWriter zip = new ItemExportZipWriter(part -> new File(folder.getRoot(), "export.zip"), 0,
+                                                          Deflater.DEFAULT_COMPRESSION, new IncompressibleMimeTypes());
+        zip.close();
+        assertEquals(1, zip.getFiles().size());
+        try (ZipFile zipFile = new ZipFile(zip.getFiles().get(0))) {
+            assertEquals(0, zipFile.size());
+        }
+    }
+
+    @Test
+    public void testAbort() throws Exception {
+        ItemExportZipWriter zip = new ItemExportZipWriter(part -> new File(folder.getRoot(), "export.zip"), 0,
+                                                          Deflater.DEFAULT_COMPRESSION, new IncompressibleMimeTypes());
+        zip.startItem();
+        zip.putEntry("1/contents", new byte[10]);
+        zip.abort();
+        assertTrue(zip.getFiles().isEmpty());
+        assertEquals(0, folder.getRoot().list().length);
+    }
+}
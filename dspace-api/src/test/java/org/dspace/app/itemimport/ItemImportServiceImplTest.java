@@ -0,0 +1,104 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.itemimport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.core.Context;
+import org.junit.Test;
+
+/**
+ * Unit tests for the concurrent mode of {@link ItemImportServiceImpl}
+ */
+public class ItemImportServiceImplTest {
+
+    /**
+     * Import recording the items it adds and deletes instead of storing them
+     */
+    private static class RecordingItemImport extends ItemImportServiceImpl {
+        private final Set<String> failing;
+        private final List<String> deleted = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingItemImport(Set<String> failing) {
+            this.failing = failing;
+            setWorkers(2);
+        }
+
+        @Override
+        protected String addItemInOwnContext(UUID epersonId, boolean ignoreAuthorization, List<UUID> collectionIds,
+                                             String sourceDir, String itemname, boolean template) throws Exception {
+            if (failing.contains(itemname)) {
+                throw new Exception("Unable to add " + itemname);
+            }
+            return itemname + " 123456789/" + itemname + System.lineSeparator();
+        }
+
+        @Override
+        protected void deleteItemInOwnContext(UUID epersonId, boolean ignoreAuthorization, String itemID) {
+            deleted.add(itemID);
+        }
+    }
+
+    @Test
+    public void testMapfileInDirectoryOrder() throws Exception {
+        RecordingItemImport itemImport = new RecordingItemImport(Set.of());
+        StringWriter mapfile = new StringWriter();
+        itemImport.addItemsConcurrently(mock(Context.class), null, "/import",
+                                        new String[] {"item1", "item2", "item3", "item4", "item5"},
+                                        Map.of("item2", "123456789/item2"), new PrintWriter(mapfile), false);
+
+        assertEquals(List.of("item1 123456789/item1", "item3 123456789/item3", "item4 123456789/item4",
+                             "item5 123456789/item5"), mapfileLines(mapfile));
+        assertEquals(List.of(), itemImport.deleted);
+    }
+
+    @Test
+    public void testFailedImportDeletesAddedItems() throws Exception {
+        RecordingItemImport itemImport = new RecordingItemImport(Set.of("item3"));
+        StringWriter mapfile = new StringWriter();
+        try {
+            itemImport.addItemsConcurrently(mock(Context.class), null, "/import",
+                                            new String[] {"item1", "item2", "item3", "item4", "item5"},
+                                            Map.of(), new PrintWriter(mapfile), false);
+            fail("The failure to add an item should be passed on");
+        } catch (Exception e) {
+            assertEquals("Unable to add item3", e.getMessage());
+        }
+
+        // Which items were started before the failure depends on the worker threads, but whatever was added is
+        // deleted again
+        Set<String> added = new HashSet<>();
+        for (String line : mapfileLines(mapfile)) {
+            added.add(line.split(" ")[1]);
+        }
+        assertEquals(added, new HashSet<>(itemImport.deleted));
+        assertEquals(added.size(), itemImport.deleted.size());
+    }
+
+    private List<String> mapfileLines(StringWriter mapfile) {
+        List<String> lines = new ArrayList<>();
+        for (String line : mapfile.toString().split(System.lineSeparator())) {
+            if (!line.isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.app.mediafilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.app.mediafilter.factory.MediaFilterServiceFactory;
+import org.dspace.app.mediafilter.service.MediaFilterService;
+import org.dspace.app.mediafilter.service.MediaFilterStateService;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.content.service.BundleService;
+import org.dspace.content.service.ItemService;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests for the media filters keeping track of the filtered bitstreams and of the queued items
+ */
+public class MediaFilterServiceIT extends AbstractIntegrationTestWithDatabase {
+
+    private static final AtomicInteger filtered = new AtomicInteger();
+
+    /**
+     * Filter upper casing text bitstreams, counting how often it runs
+     */
+    public static class UpperCaseFilter extends MediaFilter {
+        @Override
+        public String getFilteredName(String sourceName) {
+            return sourceName + ".upper";
+        }
+
+        @Override
+        public String getBundleName() {
+            return "TEXT";
+        }
+
+        @Override
+        public String getFormatString() {
+            return "Text";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Upper cased text";
+        }
+
+        @Override
+        public InputStream getDestinationStream(Item item, InputStream source, boolean verbose) throws IOException {
+            filtered.incrementAndGet();
+            String text = IOUtils.toString(source, StandardCharsets.UTF_8);
+            return new ByteArrayInputStream(text.toUpperCase().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private final ItemService itemService = ContentServiceFactory.getInstance().getItemService();
+    private final BundleService bundleService = ContentServiceFactory.getInstance().getBundleService();
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+    private final MediaFilterStateService mediaFilterStateService =
+        MediaFilterServiceFactory.getInstance().getMediaFilterStateService();
+
+    private Collection collection;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        filtered.set(0);
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        context.restoreAuthSystemState();
+    }
+
+    @Test
+    public void testInstalledItemIsQueued() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Queued").build();
+        context.restoreAuthSystemState();
+
+        assertTrue(mediaFilterStateService.findQueuedItemIds(context, Integer.MAX_VALUE).contains(item.getID()));
+
+        // an item is only queued once
+        mediaFilterStateService.enqueue(context, item);
+        int queued = mediaFilterStateService.countQueuedItems(context);
+        mediaFilterStateService.enqueue(context, item);
+        assertEquals(queued, mediaFilterStateService.countQueuedItems(context));
+
+        mediaFilterStateService.dequeue(context, item.getID());
+        assertFalse(mediaFilterStateService.findQueuedItemIds(context, Integer.MAX_VALUE).contains(item.getID()));
+    }
+
+    @Test
+    public void testItemWithNewBitstreamIsQueued() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Queued").build();
+        mediaFilterStateService.dequeue(context, item.getID());
+        createTextBitstream(item, "new content");
+        context.restoreAuthSystemState();
+
+        assertTrue(mediaFilterStateService.findQueuedItemIds(context, Integer.MAX_VALUE).contains(item.getID()));
+    }
+
+    @Test
+    public void testApplyFiltersQueued() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Queued").build();
+        Bitstream source = createTextBitstream(item, "some text");
+        context.restoreAuthSystemState();
+
+        newMediaFilterService().applyFiltersQueued(context);
+
+        assertEquals(1, filtered.get());
+        assertEquals("SOME TEXT", getDerivativeContent(item));
+        assertFalse(mediaFilterStateService.findQueuedItemIds(context, Integer.MAX_VALUE).contains(item.getID()));
+        MediaFilterState state = mediaFilterStateService.find(context, source, UpperCaseFilter.class.getName());
+        assertNotNull(state);
+        assertEquals(source.getChecksum(), state.getSourceChecksum());
+        assertEquals("1", state.getFilterVersion());
+    }
+
+    @Test
+    public void testUpToDateBitstreamIsSkipped() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Filtered").build();
+        createTextBitstream(item, "some text");
+        newMediaFilterService().applyFiltersItem(context, item);
+        newMediaFilterService().applyFiltersItem(context, item);
+        context.restoreAuthSystemState();
+
+        assertEquals(1, filtered.get());
+    }
+
+    @Test
+    public void testDeletedDerivativeIsFilteredAgain() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Filtered").build();
+        createTextBitstream(item, "some text");
+        newMediaFilterService().applyFiltersItem(context, item);
+
+        Bundle textBundle = itemService.getBundles(item, "TEXT").get(0);
+        bundleService.removeBitstream(context, textBundle, textBundle.getBitstreams().get(0));
+        newMediaFilterService().applyFiltersItem(context, item);
+        context.restoreAuthSystemState();
+
+        assertEquals(2, filtered.get());
+        assertEquals("SOME TEXT", getDerivativeContent(item));
+    }
+
+    @Test
+    public void testApplyFiltersWithWorkers() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Filtered").build();
+        createTextBitstream(item, "some text");
+        context.restoreAuthSystemState();
+        // the filtered bitstreams are stored by the writer thread of the pipeline, in a context of its own
+        context.commit();
+        item = context.reloadEntity(item);
+
+        MediaFilterService mediaFilterService = newMediaFilterService();
+        mediaFilterService.setWorkers(2);
+        mediaFilterService.applyFiltersItem(context, item);
+
+        context.uncacheEntity(item);
+        item = itemService.find(context, item.getID());
+        assertEquals(1, filtered.get());
+        assertEquals("SOME TEXT", getDerivativeContent(item));
+    }
+
+    private MediaFilterService newMediaFilterService() {
+        MediaFilterService mediaFilterService = MediaFilterServiceFactory.getInstance().getMediaFilterService();
+        mediaFilterService.setFilterClasses(List.of(new UpperCaseFilter()));
+        mediaFilterService.setFilterFormats(Map.of(UpperCaseFilter.class.getName(), List.of("Text")));
+        mediaFilterService.setQuiet(true);
+        return mediaFilterService;
+    }
+
+    private Bitstream createTextBitstream(Item item, String text) throws Exception {
+        try (InputStream is = IOUtils.toInputStream(text, StandardCharsets.UTF_8)) {
+            return BitstreamBuilder.createBitstream(context, item, is)
+                                   .withName("text.txt")
+                                   .withMimeType("text/plain")
+                                   .build();
+        }
+    }
+
+    private String getDerivativeContent(Item item) throws Exception {
+        List<Bundle> bundles = itemService.getBundles(item, "TEXT");
+        assertEquals(1, bundles.size());
+        List<Bitstream> bitstreams = bundles.get(0).getBitstreams();
+        assertEquals(1, bitstreams.size());
+        assertEquals("text.txt.upper", bitstreams.get(0).getName());
+        try (InputStream is = bitstreamService.retrieve(context, bitstreams.get(0))) {
+            return IOUtils.toString(is, StandardCharsets.UTF_8);
+        }
+    }
+}
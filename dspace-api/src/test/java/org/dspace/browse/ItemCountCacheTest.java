@@ -0,0 +1,116 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ItemCountCache}
+ */
+public class ItemCountCacheTest {
+
+    private int loads;
+    private List<Runnable> scheduled;
+
+    @Before
+    public void setUp() {
+        loads = 0;
+        scheduled = new ArrayList<>();
+    }
+
+    @Test
+    public void testFirstLoadInCallingThread() throws Exception {
+        ItemCountCache cache = new ItemCountCache(this::load, 60000, scheduled::add);
+        assertEquals(Integer.valueOf(1), cache.get(this::load).getCollections().get("coll"));
+        assertEquals(Integer.valueOf(1), cache.get(this::load).getCollections().get("coll"));
+        assertEquals(1, loads);
+        assertEquals(0, scheduled.size());
+    }
+
+    @Test
+    public void testInvalidateReloadsInBackground() throws Exception {
+        ItemCountCache cache = new ItemCountCache(this::load, 60000, scheduled::add);
+        cache.get(this::load);
+        cache.invalidate();
+        cache.invalidate();
+        // the outdated counts are returned until the reload has run
+        assertEquals(Integer.valueOf(1), cache.get(this::load).getCollections().get("coll"));
+        assertEquals(1, scheduled.size());
+
+        runScheduled();
+        assertEquals(Integer.valueOf(2), cache.get(this::load).getCollections().get("coll"));
+        assertEquals(0, scheduled.size());
+    }
+
+    @Test
+    public void testExpiredCountsAreReloaded() throws Exception {
+        ItemCountCache cache = new ItemCountCache(this::load, 0, scheduled::add);
+        cache.get(this::load);
+        assertEquals(Integer.valueOf(1), cache.get(this::load).getCollections().get("coll"));
+        runScheduled();
+        assertEquals(Integer.valueOf(2), cache.get(this::load).getCollections().get("coll"));
+    }
+
+    @Test
+    public void testInvalidateWhileLoadingReloadsAgain() throws Exception {
+        ItemCountCache[] cache = new ItemCountCache[1];
+        cache[0] = new ItemCountCache(() -> {
+            ItemCountCache.Counts counts = load();
+            if (loads == 2) {
+                cache[0].invalidate();
+            }
+            return counts;
+        }, 60000, scheduled::add);
+        cache[0].get(this::load);
+        cache[0].invalidate();
+        runScheduled();
+        assertEquals(Integer.valueOf(2), cache[0].get(this::load).getCollections().get("coll"));
+        assertEquals(1, scheduled.size());
+        runScheduled();
+        assertEquals(Integer.valueOf(3), cache[0].get(this::load).getCollections().get("coll"));
+    }
+
+    @Test
+    public void testFailedReloadKeepsCounts() throws Exception {
+        boolean[] fail = new boolean[1];
+        ItemCountCache cache = new ItemCountCache(() -> {
+            if (fail[0]) {
+                throw new ItemCountException("Solr unavailable");
+            }
+            return load();
+        }, 60000, scheduled::add);
+        cache.get(this::load);
+        fail[0] = true;
+        cache.invalidate();
+        runScheduled();
+        assertEquals(Integer.valueOf(1), cache.get(this::load).getCollections().get("coll"));
+
+        // the next lookup tries again
+        fail[0] = false;
+        runScheduled();
+        assertEquals(Integer.valueOf(2), cache.get(this::load).getCollections().get("coll"));
+    }
+
+    private ItemCountCache.Counts load() {
+        loads++;
+        return new ItemCountCache.Counts(Map.of("comm", loads), Map.of("coll", loads));
+    }
+
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
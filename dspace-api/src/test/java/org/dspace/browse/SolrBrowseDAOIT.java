@@ -0,0 +1,132 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.browse;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Collection;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests for the distinct (value) browse of {@link SolrBrowseDAO}: the count of the values, the paging
+ * of the values and the offset of a jump-to value.
+ */
+public class SolrBrowseDAOIT extends AbstractIntegrationTestWithDatabase {
+
+    private BrowseIndex subjectIndex;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        subjectIndex = BrowseIndex.getBrowseIndex("subject");
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        Collection collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        ItemBuilder.createItem(context, collection).withTitle("First")
+                   .withSubject("Charlie").withSubject("alpha").build();
+        ItemBuilder.createItem(context, collection).withTitle("Second")
+                   .withSubject("echo").withSubject("charlie").build();
+        ItemBuilder.createItem(context, collection).withTitle("Third")
+                   .withSubject("delta").withSubject("bravo").build();
+        context.restoreAuthSystemState();
+    }
+
+    @Test
+    public void testDistinctCount() throws Exception {
+        SolrBrowseDAO dao = distinctDAO(true);
+        // "Charlie" and "charlie" have the same sort value, but are displayed differently
+        assertEquals(6, dao.doCountQuery());
+
+        dao.setStartsWith("c");
+        assertEquals(2, dao.doCountQuery());
+        dao.setStartsWith("z");
+        assertEquals(0, dao.doCountQuery());
+    }
+
+    @Test
+    public void testDistinctValuesPaging() throws Exception {
+        SolrBrowseDAO dao = distinctDAO(true);
+        dao.setOffset(1);
+        dao.setLimit(2);
+        assertEquals(List.of("bravo", "Charlie"), displayedValues(dao));
+        dao.setOffset(4);
+        assertEquals(List.of("delta", "echo"), displayedValues(dao));
+        dao.setOffset(6);
+        assertEquals(List.of(), displayedValues(dao));
+
+        dao.setOffset(0);
+        dao.setLimit(-1);
+        // the values with the same sort value are in the order of the displayed values
+        assertEquals(List.of("alpha", "bravo", "Charlie", "charlie", "delta", "echo"), displayedValues(dao));
+    }
+
+    @Test
+    public void testDistinctValuesPagingDescending() throws Exception {
+        SolrBrowseDAO dao = distinctDAO(false);
+        dao.setOffset(1);
+        dao.setLimit(2);
+        assertEquals(List.of("delta", "charlie"), displayedValues(dao));
+        // the last page is shorter than the limit
+        dao.setOffset(5);
+        assertEquals(List.of("alpha"), displayedValues(dao));
+        dao.setOffset(6);
+        assertEquals(List.of(), displayedValues(dao));
+    }
+
+    @Test
+    public void testDistinctOffset() throws Exception {
+        SolrBrowseDAO dao = distinctDAO(true);
+        assertEquals(0, dao.doDistinctOffsetQuery("sort_value", "alpha", true));
+        assertEquals(0, dao.doDistinctOffsetQuery("sort_value", "a", true));
+        assertEquals(2, dao.doDistinctOffsetQuery("sort_value", "charlie", true));
+        // a value which isn't indexed is placed before the first greater value
+        assertEquals(2, dao.doDistinctOffsetQuery("sort_value", "c", true));
+        assertEquals(4, dao.doDistinctOffsetQuery("sort_value", "delta", true));
+        assertEquals(6, dao.doDistinctOffsetQuery("sort_value", "zulu", true));
+    }
+
+    @Test
+    public void testDistinctOffsetDescending() throws Exception {
+        SolrBrowseDAO dao = distinctDAO(false);
+        // the number of values not sorted before the value
+        assertEquals(6, dao.doDistinctOffsetQuery("sort_value", "alpha", false));
+        assertEquals(4, dao.doDistinctOffsetQuery("sort_value", "charlie", false));
+        assertEquals(0, dao.doDistinctOffsetQuery("sort_value", "zulu", false));
+    }
+
+    /**
+     * Create a DAO set up for a distinct browse of the subjects, as done by the {@link BrowseEngine}
+     */
+    private SolrBrowseDAO distinctDAO(boolean ascending) {
+        SolrBrowseDAO dao = new SolrBrowseDAO(context);
+        dao.setTable(subjectIndex.getDistinctTableName());
+        dao.setDistinct(true);
+        dao.setAscending(ascending);
+        dao.setOrderField("sort_value");
+        return dao;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> displayedValues(SolrBrowseDAO dao) throws BrowseException {
+        List<String> values = new ArrayList<>();
+        for (String[] value : (List<String[]>) dao.doValueQuery()) {
+            values.add(value[0]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.checker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dspace.checker.service.ChecksumHistoryService;
+import org.dspace.checker.service.ChecksumResultService;
+import org.dspace.checker.service.MostRecentChecksumService;
+import org.dspace.content.Bitstream;
+import org.dspace.core.Context;
+import org.dspace.services.ConfigurationService;
+import org.dspace.storage.bitstore.service.BitstreamStorageService;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the concurrent mode of {@link CheckerCommand}
+ */
+public class CheckerCommandTest {
+
+    private final Map<String, Object> properties = new HashMap<>();
+    private Context context;
+    private MostRecentChecksumService checksumService;
+    private BitstreamStorageService bitstreamStorageService;
+    private ConfigurationService configurationService;
+
+    @Before
+    public void setUp() {
+        context = mock(Context.class);
+        checksumService = mock(MostRecentChecksumService.class);
+        bitstreamStorageService = mock(BitstreamStorageService.class);
+        configurationService = mock(ConfigurationService.class);
+        when(configurationService.getIntProperty(anyString(), anyInt())).thenAnswer(
+            invocation -> properties.getOrDefault(invocation.getArgument(0), invocation.getArgument(1)));
+        when(configurationService.getLongProperty(anyString(), anyLong())).thenAnswer(
+            invocation -> properties.getOrDefault(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @Test
+    public void testStoreWorkers() throws Exception {
+        properties.put("checker.workers", 4);
+        properties.put("checker.batch.size", 10);
+        properties.put("checker.store.1.workers", 1);
+
+        // The checks of assetstore 0 wait for each other, so they only complete if they run concurrently
+        CountDownLatch concurrent = new CountDownLatch(2);
+        Map<Integer, AtomicInteger> active = new ConcurrentHashMap<>();
+        Map<Integer, AtomicInteger> maxActive = new ConcurrentHashMap<>();
+        when(bitstreamStorageService.computeChecksum(any(), any())).thenAnswer(invocation -> {
+            int store = ((Bitstream) invocation.getArgument(1)).getStoreNumber();
+            int running = active.computeIfAbsent(store, number -> new AtomicInteger()).incrementAndGet();
+            maxActive.computeIfAbsent(store, number -> new AtomicInteger()).accumulateAndGet(running, Math::max);
+            try {
+                if (store == 0) {
+                    concurrent.countDown();
+                    assertTrue(concurrent.await(10, TimeUnit.SECONDS));
+                } else {
+                    Thread.sleep(10);
+                }
+            } finally {
+                active.get(store).decrementAndGet();
+            }
+            Map<String, Object> checksum = new HashMap<>();
+            checksum.put("checksum", "abc");
+            checksum.put("checksum_algorithm", "MD5");
+            return checksum;
+        });
+
+        List<Bitstream> bitstreams = new ArrayList<>();
+        for (int store : new int[] {0, 1, 1, 0, 1, 1}) {
+            bitstreams.add(mockBitstream(store));
+        }
+        CheckerCommand checker = newChecker();
+        Iterator<Bitstream> dispatched = bitstreams.iterator();
+        checker.setDispatcher(() -> dispatched.hasNext() ? dispatched.next() : null);
+        checker.setCollector(mock(ChecksumResultsCollector.class));
+        checker.process();
+
+        assertEquals(2, maxActive.get(0).get());
+        assertEquals(1, maxActive.get(1).get());
+        verify(bitstreamStorageService, times(6)).computeChecksum(any(), any());
+        verify(checksumService, times(6)).update(any(), any());
+        verify(context).commit();
+    }
+
+    @Test
+    public void testStoreThrottles() throws Exception {
+        CheckerCommand checker = newChecker();
+        assertNull(checker.getThrottle(0));
+
+        properties.put("checker.bytes-per-second", 1000L);
+        properties.put("checker.store.2.bytes-per-second", 5000L);
+        checker = newChecker();
+        assertEquals(1000, checker.getThrottle(1).getRate(), 0);
+        assertEquals(5000, checker.getThrottle(2).getRate(), 0);
+        // the throttle is shared by all reads of the assetstore
+        assertSame(checker.getThrottle(2), checker.getThrottle(2));
+    }
+
+    @Test
+    public void testComputeChecksumCopiesResult() throws Exception {
+        properties.put("checker.bytes-per-second", 1000000L);
+        Map<Object, Object> computed = new HashMap<>();
+        computed.put("checksum", "abc");
+        when(bitstreamStorageService.computeChecksum(any(), any())).thenReturn(computed);
+
+        Map<String, Object> checksum = newChecker().computeChecksum(mockBitstream(0));
+        assertEquals(Map.of("checksum", "abc"), checksum);
+    }
+
+    private CheckerCommand newChecker() {
+        return new CheckerCommand(context, checksumService, mock(ChecksumHistoryService.class),
+                                  bitstreamStorageService, mock(ChecksumResultService.class), configurationService);
+    }
+
+    private Bitstream mockBitstream(int store) throws Exception {
+        Bitstream bitstream = mock(Bitstream.class);
+        when(bitstream.getStoreNumber()).thenReturn(store);
+        when(bitstream.getSizeBytes()).thenReturn(100L);
+        MostRecentChecksum info = mock(MostRecentChecksum.class);
+        when(info.getBitstream()).thenReturn(bitstream);
+        when(info.isToBeProcessed()).thenReturn(true);
+        when(info.getChecksumResult()).thenReturn(mock(ChecksumResult.class));
+        when(checksumService.findByBitstream(context, bitstream)).thenReturn(info);
+        return bitstream;
+    }
+}
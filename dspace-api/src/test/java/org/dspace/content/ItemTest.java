@@ -214,6 +214,43 @@ public class ItemTest extends AbstractDSpaceObjectTest {
         assertTrue("testFindAll 1", added);
     }
 
+    /**
+     * Test of findAllUnfiltered and findAllUnfilteredAfter methods, of class Item.
+     */
+    @Test
+    public void testFindAllUnfilteredPaged() throws Exception {
+        List<UUID> expected = new ArrayList<>();
+        Iterator<Item> all = itemService.findAllUnfiltered(context);
+        while (all.hasNext()) {
+            expected.add(all.next().getID());
+        }
+
+        List<UUID> byOffset = new ArrayList<>();
+        Iterator<Item> page = itemService.findAllUnfiltered(context, 1, 0);
+        while (page.hasNext()) {
+            byOffset.add(page.next().getID());
+            page = itemService.findAllUnfiltered(context, 1, byOffset.size());
+        }
+
+        List<UUID> byCursor = new ArrayList<>();
+        page = itemService.findAllUnfiltered(context, 1, 0);
+        while (page.hasNext()) {
+            Item last = page.next();
+            byCursor.add(last.getID());
+            page = itemService.findAllUnfilteredAfter(context, last.getLastModified(), last.getID(), 1);
+        }
+
+        assertTrue("testFindAllUnfilteredPaged 0", byCursor.contains(it.getID()));
+        assertEquals("testFindAllUnfilteredPaged 1", expected.size(), byCursor.size());
+        assertTrue("testFindAllUnfilteredPaged 2", byCursor.containsAll(expected));
+        assertEquals("testFindAllUnfilteredPaged 3", byOffset, byCursor);
+
+        // without a limit or an offset, all items are returned
+        List<UUID> unbounded = new ArrayList<>();
+        itemService.findAllUnfiltered(context, null, null).forEachRemaining(item -> unbounded.add(item.getID()));
+        assertEquals("testFindAllUnfilteredPaged 4", byCursor, unbounded);
+    }
+
     /**
      * Test of findBySubmitter method, of class Item.
      */
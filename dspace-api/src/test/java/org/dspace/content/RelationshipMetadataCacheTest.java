@@ -0,0 +1,156 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.content;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Ticker;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RelationshipMetadataCache}
+ */
+public class RelationshipMetadataCacheTest {
+
+    private RelationshipMetadataCache cache;
+    private Item publication;
+    private Item person;
+
+    @Before
+    public void setUp() {
+        cache = new RelationshipMetadataCache(100, 300);
+        publication = item();
+        person = item();
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        assertNull(cache.get(publication, true));
+        cache.put(publication, true, List.of(value(publication, "Smith, John", 0)), Set.of(person.getID()),
+                  cache.getStamp());
+
+        List<RelationshipMetadataValue> cached = cache.get(publication, true);
+        assertEquals(1, cached.size());
+        assertEquals("Smith, John", cached.get(0).getValue());
+        assertEquals(0, cached.get(0).getPlace());
+        assertSame(publication, cached.get(0).getDSpaceObject());
+
+        assertNull(cache.get(publication, false));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testCopiesAreReturned() {
+        RelationshipMetadataValue value = value(publication, "Smith, John", 0);
+        cache.put(publication, true, List.of(value), Set.of(person.getID()), cache.getStamp());
+
+        RelationshipMetadataValue cached = cache.get(publication, true).get(0);
+        assertNotSame(value, cached);
+        cached.setPlace(5);
+        assertEquals(0, cache.get(publication, true).get(0).getPlace());
+    }
+
+    @Test
+    public void testValuesWithoutItemStayWithoutItem() {
+        cache.put(publication, false, List.of(value(null, person.getID().toString(), 0)), Set.of(person.getID()),
+                  cache.getStamp());
+        assertNull(cache.get(publication, false).get(0).getDSpaceObject());
+    }
+
+    @Test
+    public void testInvalidateItem() {
+        cache.put(publication, true, List.of(), Set.of(person.getID()), cache.getStamp());
+        cache.put(publication, false, List.of(), Set.of(person.getID()), cache.getStamp());
+
+        cache.invalidate(publication.getID());
+        assertNull(cache.get(publication, true));
+        assertNull(cache.get(publication, false));
+    }
+
+    @Test
+    public void testInvalidateRelatedItem() {
+        Item other = item();
+        cache.put(publication, true, List.of(), Set.of(person.getID()), cache.getStamp());
+        cache.put(other, true, List.of(), Set.of(), cache.getStamp());
+
+        cache.invalidate(person.getID());
+        assertNull(cache.get(publication, true));
+        assertEquals(0, cache.get(other, true).size());
+    }
+
+    @Test
+    public void testReplacedEntryKeepsDependencies() {
+        cache.put(publication, true, List.of(), Set.of(person.getID()), cache.getStamp());
+        cache.put(publication, true, List.of(), Set.of(person.getID()), cache.getStamp());
+
+        cache.invalidate(person.getID());
+        assertNull(cache.get(publication, true));
+    }
+
+    @Test
+    public void testExpiredEntryKeepsDependenciesOfNewerEntry() {
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        };
+        cache = new RelationshipMetadataCache(100, 300, ticker);
+        cache.put(publication, true, List.of(), Set.of(person.getID()), cache.getStamp());
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(301));
+        // the expiry of the first entry is only noticed when the second one is put
+        cache.put(publication, true, List.of(), Set.of(person.getID()), cache.getStamp());
+        assertEquals(0, cache.get(publication, true).size());
+
+        cache.invalidate(person.getID());
+        assertNull(cache.get(publication, true));
+    }
+
+    @Test
+    public void testStaleValuesAreNotCached() {
+        long stamp = cache.getStamp();
+        cache.invalidate(person.getID());
+        cache.put(publication, true, List.of(), Set.of(person.getID()), stamp);
+        assertNull(cache.get(publication, true));
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        cache.put(publication, true, List.of(), Set.of(person.getID()), cache.getStamp());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    private Item item() {
+        Item item = new Item();
+        item.id = UUID.randomUUID();
+        return item;
+    }
+
+    private RelationshipMetadataValue value(Item item, String text, int place) {
+        RelationshipMetadataValue value = new RelationshipMetadataValue();
+        value.setValue(text);
+        value.setAuthority("virtual::1");
+        value.setPlace(place);
+        value.setUseForPlace(true);
+        value.setDSpaceObject(item);
+        return value;
+    }
+}
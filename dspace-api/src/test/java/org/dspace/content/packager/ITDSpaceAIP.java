@@ -577,6 +577,82 @@ public class ITDSpaceAIP extends AbstractIntegrationTest {
         log.info("testRestoreCollectionHierarchy() - END");
     }
 
+    /**
+     * Test restoration from AIPs of a Collection Hierarchy exported with several workers
+     */
+    @Test
+    public void testRestoreCollectionHierarchyWithWorkers() throws Exception {
+        log.info("testRestoreCollectionHierarchyWithWorkers() - BEGIN");
+
+        // Locate the collection (from our test data)
+        Collection testCollection = (Collection) handleService.resolveToObject(context, testCollectionHandle);
+
+        // Get parent object, so that we can restore to same parent later
+        Community parent = (Community) collectionService.getParentObject(context, testCollection);
+
+        // Save basic info about collection (and children) to an infoMap
+        HashMap<String, String> infoMap = new HashMap<String, String>();
+        saveObjectInfo(testCollection, infoMap);
+
+        // Export collection & child AIPs, disseminating the items concurrently
+        log.info("testRestoreCollectionHierarchyWithWorkers() - CREATE AIPs");
+        PackageParameters pkgParams = new PackageParameters();
+        pkgParams.setWorkers(2);
+        File aipFile = createAIP(testCollection, pkgParams, true);
+
+        // Delete everything from collection on down
+        log.info("testRestoreCollectionHierarchyWithWorkers() - DELETE Collection Hierarchy");
+        communityService.removeCollection(context, parent, testCollection);
+
+        // Assert all objects in infoMap no longer exist in DSpace
+        assertObjectsNotExist(infoMap);
+
+        // Restore this Collection (recursively) from AIPs
+        log.info("testRestoreCollectionHierarchyWithWorkers() - RESTORE Collection Hierarchy");
+        restoreFromAIP(parent, aipFile, null, true);
+
+        // Assert all objects in infoMap now exist again!
+        assertObjectsExist(infoMap);
+
+        log.info("testRestoreCollectionHierarchyWithWorkers() - END");
+    }
+
+    /**
+     * Test that an incremental export only replaces the AIPs of Items older than the Item
+     */
+    @Test
+    public void testIncrementalItemAIP() throws Exception {
+        log.info("testIncrementalItemAIP() - BEGIN");
+
+        // Locate the collection and item (from our test data)
+        Collection testCollection = (Collection) handleService.resolveToObject(context, testCollectionHandle);
+        Item testItem = (Item) handleService.resolveToObject(context, testItemHandle);
+        File itemAIPFile = new File(aipTempFolder.getRoot(), PackageUtils.getPackageName(testItem, "zip"));
+        // File times may be truncated to the second
+        long lastModified = testItem.getLastModified().getTime() / 1000 * 1000;
+
+        // Export collection & child AIPs
+        log.info("testIncrementalItemAIP() - CREATE AIPs");
+        createAIP(testCollection, null, true);
+        assertThat("testIncrementalItemAIP() item AIP exists", itemAIPFile.exists());
+
+        // An item AIP newer than the item is kept
+        itemAIPFile.setLastModified(lastModified + 2000);
+        PackageParameters pkgParams = new PackageParameters();
+        pkgParams.setIncrementalModeEnabled(true);
+        createAIP(testCollection, pkgParams, true);
+        assertEquals("testIncrementalItemAIP() item AIP kept", lastModified + 2000, itemAIPFile.lastModified());
+
+        // An item AIP older than the item is replaced
+        itemAIPFile.setLastModified(lastModified - 2000);
+        pkgParams = new PackageParameters();
+        pkgParams.setIncrementalModeEnabled(true);
+        createAIP(testCollection, pkgParams, true);
+        assertThat("testIncrementalItemAIP() item AIP replaced", itemAIPFile.lastModified() > lastModified);
+
+        log.info("testIncrementalItemAIP() - END");
+    }
+
     /**
      * Test restoration from AIP of an access restricted Collection
      */
@@ -0,0 +1,185 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.dspace.content.Item;
+import org.dspace.content.service.ItemService;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.discovery.indexobject.IndexablePoolTask;
+import org.dspace.discovery.indexobject.ItemIndexFactoryImpl;
+import org.dspace.discovery.indexobject.PoolTaskIndexFactoryImpl;
+import org.dspace.xmlworkflow.storedcomponents.PoolTask;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Unit tests for the detection of stale documents by the index factories
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class IndexFactoryImplTest {
+
+    private static final long INDEXED = 1_000_000L;
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private Context context;
+
+    @InjectMocks
+    private ItemIndexFactoryImpl itemIndexFactory;
+
+    @Test
+    public void testParseId() {
+        UUID uuid = UUID.randomUUID();
+        assertEquals(uuid, itemIndexFactory.parseId(uuid.toString()));
+        assertEquals(Integer.valueOf(42), new PoolTaskIndexFactoryImpl().parseId("42"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testItemFindStale() throws Exception {
+        UUID unchanged = UUID.randomUUID();
+        UUID modified = UUID.randomUUID();
+        UUID unknownDate = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+
+        Map<UUID, Date> lastModified = new HashMap<>();
+        lastModified.put(unchanged, new Date(INDEXED - 1));
+        lastModified.put(modified, new Date(INDEXED + 1));
+        lastModified.put(unknownDate, null);
+        lastModified.put(missing, new Date(INDEXED - 1));
+        when(itemService.findLastModifiedDates(context)).thenReturn(lastModified);
+
+        Map<Serializable, Long> lastIndexed = new HashMap<>();
+        lastIndexed.put(unchanged, INDEXED);
+        lastIndexed.put(modified, INDEXED);
+        lastIndexed.put(unknownDate, INDEXED);
+        lastIndexed.put(deleted, INDEXED);
+
+        Map<UUID, Item> items = new HashMap<>();
+        for (UUID uuid : List.of(modified, unknownDate, missing)) {
+            items.put(uuid, mock(Item.class));
+        }
+        List<UUID> loaded = new ArrayList<>();
+        when(itemService.findByIds(any(), anyList())).thenAnswer(invocation -> {
+            List<Item> result = new ArrayList<>();
+            for (UUID uuid : (List<UUID>) invocation.getArgument(1)) {
+                loaded.add(uuid);
+                result.add(items.get(uuid));
+            }
+            return result;
+        });
+
+        Set<Item> stale = new HashSet<>();
+        Iterator<IndexableItem> iterator = itemIndexFactory.findStale(context, lastIndexed);
+        while (iterator.hasNext()) {
+            stale.add(iterator.next().getIndexedObject());
+        }
+
+        // Only the stale items were loaded, and only the deleted item is left
+        assertEquals(new HashSet<>(items.values()), stale);
+        assertEquals(items.keySet(), new HashSet<>(loaded));
+        assertEquals(Set.of(deleted), lastIndexed.keySet());
+        verify(itemService, never()).findAllUnfiltered(any());
+    }
+
+    @Test
+    public void testDefaultFindStale() throws Exception {
+        IndexablePoolTask unchanged = mockTask(1, new Date(INDEXED - 1));
+        PoolTask unchangedTask = mock(PoolTask.class);
+        when(unchanged.getIndexedObject()).thenReturn(unchangedTask);
+        IndexablePoolTask modified = mockTask(2, new Date(INDEXED + 1));
+        IndexablePoolTask missing = mockTask(3, new Date(INDEXED - 1));
+        List<IndexablePoolTask> tasks = List.of(unchanged, modified, missing);
+        PoolTaskIndexFactoryImpl poolTaskIndexFactory = new PoolTaskIndexFactoryImpl() {
+            @Override
+            public Iterator<IndexablePoolTask> findAll(Context context) {
+                return tasks.iterator();
+            }
+        };
+
+        Map<Serializable, Long> lastIndexed = new HashMap<>();
+        lastIndexed.put(1, INDEXED);
+        lastIndexed.put(2, INDEXED);
+        lastIndexed.put(4, INDEXED);
+
+        List<IndexablePoolTask> stale = new ArrayList<>();
+        poolTaskIndexFactory.findStale(context, lastIndexed).forEachRemaining(stale::add);
+
+        assertEquals(List.of(modified, missing), stale);
+        assertEquals(Set.of(4), lastIndexed.keySet());
+        verify(context).uncacheEntity(unchangedTask);
+    }
+
+    @Test
+    public void testIsStale() {
+        assertTrue(isStale(null, new Date(INDEXED)));
+        assertTrue(isStale(INDEXED, null));
+        assertTrue(isStale(INDEXED, new Date(INDEXED + 1)));
+        assertFalse(isStale(INDEXED, new Date(INDEXED)));
+    }
+
+    private boolean isStale(Long lastIndexedTime, Date lastModified) {
+        Map<Serializable, Long> lastIndexed = new HashMap<>();
+        if (lastIndexedTime != null) {
+            lastIndexed.put(1, lastIndexedTime);
+        }
+        IndexablePoolTask task = mockTask(1, lastModified);
+        PoolTaskIndexFactoryImpl poolTaskIndexFactory = new PoolTaskIndexFactoryImpl() {
+            @Override
+            public Iterator<IndexablePoolTask> findAll(Context context) {
+                return List.of(task).iterator();
+            }
+        };
+        try {
+            Iterator<IndexablePoolTask> stale = poolTaskIndexFactory.findStale(context, lastIndexed);
+            boolean result = stale.hasNext();
+            if (result) {
+                assertSame(task, stale.next());
+            }
+            return result;
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private IndexablePoolTask mockTask(int id, Date lastModified) {
+        IndexablePoolTask task = mock(IndexablePoolTask.class);
+        when(task.getID()).thenReturn(id);
+        when(task.getLastModified()).thenReturn(lastModified);
+        return task;
+    }
+}
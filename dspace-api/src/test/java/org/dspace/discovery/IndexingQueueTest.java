@@ -0,0 +1,231 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.dspace.discovery.indexobject.factory.IndexObjectFactoryFactory;
+import org.dspace.services.ConfigurationService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link IndexingQueue}
+ */
+public class IndexingQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, Object> properties = new HashMap<>();
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+    private File journalDir;
+    private IndexObjectFactoryFactory indexObjectFactoryFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        journalDir = folder.newFolder("queue");
+        properties.put("discovery.index.async.dir", journalDir.getAbsolutePath());
+        properties.put("discovery.index.async.threads", 1);
+        properties.put("discovery.index.async.shutdown.timeout", 2);
+        properties.put("discovery.index.async.retry.delay", 10L);
+        properties.put("discovery.index.async.metrics.interval", 0);
+
+        IndexFactory indexFactory = mock(IndexFactory.class);
+        when(indexFactory.findIndexableObject(any(), anyString())).thenAnswer(invocation -> {
+            IndexableObject indexableObject = mock(IndexableObject.class);
+            when(indexableObject.getID()).thenReturn(invocation.getArgument(1));
+            return Optional.of(indexableObject);
+        });
+        when(indexFactory.buildDocument(any(), any())).thenAnswer(invocation -> {
+            SolrInputDocument document = new SolrInputDocument();
+            document.addField("id", "Item-" + ((IndexableObject) invocation.getArgument(1)).getID());
+            return document;
+        });
+        indexObjectFactoryFactory = mock(IndexObjectFactoryFactory.class);
+        when(indexObjectFactoryFactory.getIndexableObjectFactory(anyString())).thenReturn(indexFactory);
+    }
+
+    @Test
+    public void testEntriesKeptWhileSolrIsDown() throws Exception {
+        SolrClient unavailable = mock(SolrClient.class);
+        CountDownLatch attempted = new CountDownLatch(1);
+        when(unavailable.add(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            attempted.countDown();
+            throw new SolrServerException("unavailable");
+        });
+        IndexingQueue queue = startQueue(unavailable);
+        queue.enqueue(List.of(), List.of("Item-1", "Item-2", "Item-3"));
+        assertTrue(attempted.await(10, TimeUnit.SECONDS));
+        queue.destroy();
+
+        // Nothing was acknowledged, so all entries are still in the journal
+        File[] journals = journalDir.listFiles((dir, name) -> name.endsWith(IndexingQueue.JOURNAL_SUFFIX));
+        assertEquals(1, journals.length);
+        assertEquals(List.of("U Item-1", "U Item-2", "U Item-3"),
+                     Files.readAllLines(journals[0].toPath(), StandardCharsets.UTF_8));
+
+        // and they are indexed once Solr is back
+        queue = startQueue(recordingSolr(null));
+        waitFor(() -> written.size() == 3);
+        queue.destroy();
+        assertEquals(Set.of("Item-1", "Item-2", "Item-3"), Set.copyOf(written));
+        assertEquals(0, journalDir.listFiles().length);
+    }
+
+    @Test
+    public void testJournalCompaction() throws Exception {
+        properties.put("discovery.index.async.journal.compact", 10);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> journalSizes = Collections.synchronizedList(new ArrayList<>());
+        IndexingQueue[] queue = new IndexingQueue[1];
+        queue[0] = startQueue(recordingSolr(() -> {
+            journalSizes.add(queue[0].getJournalSize());
+            release.await(10, TimeUnit.SECONDS);
+        }));
+
+        // The first update is held up in Solr while the second one is queued over and over again
+        queue[0].enqueue(List.of(), List.of("Item-1"));
+        waitFor(() -> journalSizes.size() == 1);
+        for (int i = 0; i < 30; i++) {
+            queue[0].enqueue(List.of(), List.of("Item-2"));
+        }
+        assertEquals(31, queue[0].getJournalSize());
+        assertEquals(2, queue[0].getQueueSize());
+        release.countDown();
+
+        waitFor(() -> written.size() == 2);
+        // Once the first update was acknowledged, the journal was rewritten with only the second one, rather than
+        // holding on to all 31 entries
+        assertEquals(List.of(1, 1), journalSizes);
+        waitFor(() -> queue[0].getQueueSize() == 0);
+        Map<String, Long> metrics = queue[0].getMetrics();
+        assertEquals(2L, (long) metrics.get("indexed"));
+        assertEquals(0L, (long) metrics.get("failed"));
+        queue[0].destroy();
+        assertEquals(0, journalDir.listFiles().length);
+    }
+
+    @Test
+    public void testOperationsOnAnObjectStayInOrder() throws Exception {
+        properties.put("discovery.index.async.threads", 2);
+        CountDownLatch adding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> operations = Collections.synchronizedList(new ArrayList<>());
+        SolrClient solr = recordingSolr(() -> {
+            adding.countDown();
+            release.await(10, TimeUnit.SECONDS);
+        });
+        when(solr.deleteById(anyList(), anyInt())).thenAnswer(invocation -> {
+            operations.add("D " + invocation.getArgument(0));
+            return null;
+        });
+        IndexingQueue queue = startQueue(solr);
+
+        // The update is held up in Solr by one worker while the deletion is queued
+        queue.enqueue(List.of(), List.of("Item-1"));
+        assertTrue(adding.await(10, TimeUnit.SECONDS));
+        queue.enqueue(List.of("Item-1"), List.of());
+        Thread.sleep(200);
+        // the other worker must not remove the document before the update is written
+        assertTrue(operations.isEmpty());
+        assertEquals(2, queue.getQueueSize());
+        release.countDown();
+
+        waitFor(() -> operations.size() == 1);
+        assertEquals(List.of("Item-1"), written);
+        assertEquals(List.of("D [Item-1]"), operations);
+        waitFor(() -> queue.getQueueSize() == 0);
+        queue.destroy();
+    }
+
+    /**
+     * Create a Solr client recording the ids of the documents written to it
+     */
+    @SuppressWarnings("unchecked")
+    private SolrClient recordingSolr(Callback beforeAdd) throws Exception {
+        SolrClient solr = mock(SolrClient.class);
+        when(solr.add(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            if (beforeAdd != null) {
+                beforeAdd.call();
+            }
+            for (SolrInputDocument document : (Collection<SolrInputDocument>) invocation.getArgument(0)) {
+                written.add((String) document.getFieldValue("id"));
+            }
+            return null;
+        });
+        return solr;
+    }
+
+    private IndexingQueue startQueue(SolrClient solr) throws Exception {
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getIntProperty(anyString(), anyInt())).thenAnswer(
+            invocation -> properties.getOrDefault(invocation.getArgument(0), invocation.getArgument(1)));
+        when(configurationService.getLongProperty(anyString(), anyLong())).thenAnswer(
+            invocation -> properties.getOrDefault(invocation.getArgument(0), invocation.getArgument(1)));
+        when(configurationService.getProperty(anyString(), anyString())).thenAnswer(
+            invocation -> properties.getOrDefault(invocation.getArgument(0), invocation.getArgument(1)));
+        SolrSearchCore solrSearchCore = mock(SolrSearchCore.class);
+        when(solrSearchCore.getSolr()).thenReturn(solr);
+
+        IndexingQueue queue = new IndexingQueue() {
+            @Override
+            protected Context newContext() {
+                return mock(Context.class);
+            }
+        };
+        queue.configurationService = configurationService;
+        queue.solrSearchCore = solrSearchCore;
+        queue.indexObjectServiceFactory = indexObjectFactoryFactory;
+        queue.init();
+        return queue;
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for the queue", System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Callback {
+        void call() throws Exception;
+    }
+}
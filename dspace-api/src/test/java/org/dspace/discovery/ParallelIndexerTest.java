@@ -0,0 +1,114 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.core.Context;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ParallelIndexer}
+ */
+public class ParallelIndexerTest {
+
+    private static final int OBJECTS = 95;
+
+    private SolrClient solr;
+    private IndexFactory indexFactory;
+    private Context context;
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        solr = mock(SolrClient.class);
+        indexFactory = mock(IndexFactory.class);
+        context = mock(Context.class);
+
+        List<IndexableObject> objects = new ArrayList<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            IndexableObject object = mock(IndexableObject.class);
+            when(object.getID()).thenReturn("object-" + i);
+            objects.add(object);
+        }
+        when(indexFactory.getType()).thenReturn("Item");
+        when(indexFactory.findAll(context)).thenAnswer(invocation -> objects.iterator());
+        when(indexFactory.findIndexableObject(any(), anyString())).thenAnswer(invocation -> {
+            IndexableObject object = mock(IndexableObject.class);
+            when(object.getID()).thenReturn(invocation.getArgument(1));
+            return Optional.of(object);
+        });
+        when(indexFactory.buildDocument(any(), any())).thenAnswer(invocation -> {
+            SolrInputDocument document = new SolrInputDocument();
+            document.addField("id", ((IndexableObject) invocation.getArgument(1)).getID());
+            return document;
+        });
+        when(solr.add(anyCollection())).thenAnswer(invocation -> {
+            for (SolrInputDocument document : (Collection<SolrInputDocument>) invocation.getArgument(0)) {
+                written.add((String) document.getFieldValue("id"));
+            }
+            return null;
+        });
+    }
+
+    @Test
+    public void testIndexWithWorkers() throws Exception {
+        ParallelIndexer indexer = new ParallelIndexer(solr, 4, 10) {
+            @Override
+            protected Context newWorkerContext() {
+                return mock(Context.class);
+            }
+        };
+
+        assertEquals(OBJECTS, indexer.index(context, indexFactory));
+        assertEquals(0, indexer.getFailedCount());
+        assertAllWritten();
+    }
+
+    @Test
+    public void testIndexWithoutWorkers() throws Exception {
+        // The workers can't get a Context, so the calling thread indexes everything
+        ParallelIndexer indexer = new ParallelIndexer(solr, 2, 10) {
+            @Override
+            protected Context newWorkerContext() {
+                throw new IllegalStateException("no database connection");
+            }
+        };
+
+        assertEquals(OBJECTS, indexer.index(context, indexFactory));
+        assertEquals(0, indexer.getFailedCount());
+        assertAllWritten();
+    }
+
+    private void assertAllWritten() {
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < OBJECTS; i++) {
+            expected.add("object-" + i);
+        }
+        assertEquals(OBJECTS, written.size());
+        assertEquals(expected, new HashSet<>(written));
+    }
+}
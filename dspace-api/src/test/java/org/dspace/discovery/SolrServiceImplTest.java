@@ -0,0 +1,83 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.dspace.core.Context;
+import org.dspace.core.ReloadableEntity;
+import org.dspace.discovery.indexobject.factory.IndexFactory;
+import org.junit.Test;
+
+/**
+ * Unit tests for the incremental update of the index by {@link SolrServiceImpl}
+ */
+public class SolrServiceImplTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdateStaleDocuments() throws Exception {
+        Context context = mock(Context.class);
+        IndexFactory indexFactory = mock(IndexFactory.class);
+        IndexableObject stale = mock(IndexableObject.class);
+        ReloadableEntity staleEntity = mock(ReloadableEntity.class);
+        when(stale.getIndexedObject()).thenReturn(staleEntity);
+        when(indexFactory.getType()).thenReturn("Item");
+        // The factory leaves the documents of objects it didn't find in the map
+        when(indexFactory.findStale(any(), any())).thenAnswer(invocation -> {
+            Map<Serializable, Long> lastIndexed = invocation.getArgument(1);
+            lastIndexed.remove(1);
+            return List.of(stale).iterator();
+        });
+        // Object 2 was created after the factory looked, object 3 is really gone
+        when(indexFactory.findExistingIds(any(), anyList())).thenReturn(Set.of("2"));
+
+        List<IndexableObject> indexed = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        SolrServiceImpl solrService = new SolrServiceImpl() {
+            @Override
+            protected Map<Serializable, Long> getLastIndexedTimes(IndexFactory indexableObjectService) {
+                Map<Serializable, Long> lastIndexed = new HashMap<>();
+                lastIndexed.put(1, 0L);
+                lastIndexed.put(2, 0L);
+                lastIndexed.put(3, 0L);
+                return lastIndexed;
+            }
+
+            @Override
+            public void indexContent(Context context, IndexableObject indexableObject, boolean force) {
+                indexed.add(indexableObject);
+            }
+
+            @Override
+            public void unIndexContent(Context context, String searchUniqueID) {
+                removed.add(searchUniqueID);
+            }
+        };
+
+        solrService.updateStaleDocuments(context, indexFactory);
+
+        assertEquals(List.of(stale), indexed);
+        assertEquals(List.of("Item-3"), removed);
+        verify(indexFactory, never()).findAll(any());
+        verify(context).uncacheEntity(staleEntity);
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.discovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.solr.common.SolrInputDocument;
+import org.dspace.AbstractIntegrationTestWithDatabase;
+import org.dspace.builder.BitstreamBuilder;
+import org.dspace.builder.BundleBuilder;
+import org.dspace.builder.CollectionBuilder;
+import org.dspace.builder.CommunityBuilder;
+import org.dspace.builder.ItemBuilder;
+import org.dspace.content.Bitstream;
+import org.dspace.content.Bundle;
+import org.dspace.content.Collection;
+import org.dspace.content.Item;
+import org.dspace.content.factory.ContentServiceFactory;
+import org.dspace.content.service.BitstreamFormatService;
+import org.dspace.content.service.BitstreamService;
+import org.dspace.discovery.indexobject.IndexableCollection;
+import org.dspace.discovery.indexobject.IndexableItem;
+import org.dspace.services.ConfigurationService;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Integration tests for the item facts indexed by {@link SolrServiceItemFactsPlugin}
+ */
+public class SolrServiceItemFactsPluginIT extends AbstractIntegrationTestWithDatabase {
+
+    private final BitstreamService bitstreamService = ContentServiceFactory.getInstance().getBitstreamService();
+    private final BitstreamFormatService bitstreamFormatService =
+        ContentServiceFactory.getInstance().getBitstreamFormatService();
+    private final SearchService searchService = SearchUtils.getSearchService();
+
+    private SolrServiceItemFactsPlugin plugin;
+    private Collection collection;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        ConfigurationService configurationService = mock(ConfigurationService.class);
+        when(configurationService.getArrayProperty("rest.report-mime-document"))
+            .thenReturn(new String[] {"text/plain", " application/pdf"});
+        when(configurationService.getArrayProperty("rest.report-mime-document-supported"))
+            .thenReturn(new String[] {"application/pdf"});
+        when(configurationService.getArrayProperty("rest.report-mime-document-image"))
+            .thenReturn(new String[] {"image/jpeg"});
+        plugin = new SolrServiceItemFactsPlugin();
+        plugin.configurationService = configurationService;
+
+        context.turnOffAuthorisationSystem();
+        parentCommunity = CommunityBuilder.createCommunity(context).build();
+        collection = CollectionBuilder.createCollection(context, parentCommunity).build();
+        context.restoreAuthSystemState();
+    }
+
+    @Test
+    public void testItemFacts() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Facts").build();
+        createBitstream(item, "small pdf", "application/pdf");
+        createBitstream(item, "a larger pdf", "application/pdf");
+        createBitstream(item, "text", "text/plain");
+        createBitstream(item, "jpeg", "image/jpeg");
+        createBitstream(item, "png", "image/png");
+        Bundle thumbnails = BundleBuilder.createBundle(context, item).withName("THUMBNAIL").build();
+        try (InputStream is = IOUtils.toInputStream("thumbnail", StandardCharsets.UTF_8)) {
+            BitstreamBuilder.createBitstream(context, thumbnails, is).withMimeType("image/jpeg").build();
+        }
+        context.restoreAuthSystemState();
+
+        SolrInputDocument document = index(item);
+
+        assertEquals(true, document.getFieldValue(SolrServiceItemFactsPlugin.INDEXED_FIELD));
+        assertEquals(5, document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_COUNT_FIELD));
+        assertEquals(3, document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_DOC_COUNT_FIELD));
+        assertEquals(2, document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_SUPP_DOC_COUNT_FIELD));
+        assertEquals(2, document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_IMAGE_COUNT_FIELD));
+        assertEquals(1, document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_SUPP_IMAGE_COUNT_FIELD));
+        assertEquals(List.of("application/pdf", "image/jpeg", "image/png", "text/plain"),
+                     List.copyOf(document.getFieldValues(SolrServiceItemFactsPlugin.ORIGINAL_MIME_FIELD)));
+        assertEquals(9L, document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_PDF_MIN_SIZE_FIELD));
+        assertEquals(12L, document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_PDF_MAX_SIZE_FIELD));
+        assertEquals(0, document.getFieldValue(SolrServiceItemFactsPlugin.TEXT_COUNT_FIELD));
+        assertEquals(1, document.getFieldValue(SolrServiceItemFactsPlugin.THUMBNAIL_COUNT_FIELD));
+        assertEquals(9L, document.getFieldValue(SolrServiceItemFactsPlugin.THUMBNAIL_JPG_MIN_SIZE_FIELD));
+        assertEquals(0, document.getFieldValue(SolrServiceItemFactsPlugin.LICENSE_COUNT_FIELD));
+    }
+
+    @Test
+    public void testItemWithoutBitstreams() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("No bitstreams").build();
+        context.restoreAuthSystemState();
+
+        SolrInputDocument document = index(item);
+
+        assertEquals(true, document.getFieldValue(SolrServiceItemFactsPlugin.INDEXED_FIELD));
+        assertEquals(0, document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_COUNT_FIELD));
+        assertNull(document.getFieldValues(SolrServiceItemFactsPlugin.ORIGINAL_MIME_FIELD));
+        // no sizes are indexed, so the size filters don't match the item
+        assertNull(document.getFieldValue(SolrServiceItemFactsPlugin.ORIGINAL_PDF_MIN_SIZE_FIELD));
+        assertNull(document.getFieldValue(SolrServiceItemFactsPlugin.THUMBNAIL_JPG_MIN_SIZE_FIELD));
+    }
+
+    @Test
+    public void testBitstreamFormatChangeUpdatesFacts() throws Exception {
+        context.turnOffAuthorisationSystem();
+        Item item = ItemBuilder.createItem(context, collection).withTitle("Format change").build();
+        Bitstream bitstream = createBitstream(item, "not really a pdf", "application/pdf");
+        context.restoreAuthSystemState();
+        context.commit();
+        assertEquals(1, countIndexed(item, "application/pdf"));
+
+        // a bitstream MODIFY event reindexes the owning item
+        context.turnOffAuthorisationSystem();
+        bitstream = context.reloadEntity(bitstream);
+        bitstreamService.setFormat(context, bitstream, bitstreamFormatService.findByMIMEType(context, "image/jpeg"));
+        bitstreamService.update(context, bitstream);
+        context.restoreAuthSystemState();
+        context.commit();
+        assertEquals(0, countIndexed(item, "application/pdf"));
+        assertEquals(1, countIndexed(item, "image/jpeg"));
+    }
+
+    @Test
+    public void testOtherObjectsAreIgnored() throws Exception {
+        SolrInputDocument document = new SolrInputDocument();
+        plugin.additionalIndex(context, new IndexableCollection(collection), document);
+        assertTrue(document.isEmpty());
+    }
+
+    private SolrInputDocument index(Item item) {
+        SolrInputDocument document = new SolrInputDocument();
+        plugin.additionalIndex(context, new IndexableItem(item), document);
+        return document;
+    }
+
+    private Bitstream createBitstream(Item item, String content, String mimeType) throws Exception {
+        try (InputStream is = IOUtils.toInputStream(content, StandardCharsets.UTF_8)) {
+            return BitstreamBuilder.createBitstream(context, item, is).withMimeType(mimeType).build();
+        }
+    }
+
+    /**
+     * @return the number of indexed items with the given id and original bitstream MIME type
+     */
+    private long countIndexed(Item item, String mimeType) throws SearchServiceException {
+        DiscoverQuery query = new DiscoverQuery();
+        query.setQuery("*:*");
+        query.addFilterQueries(SearchUtils.RESOURCE_ID_FIELD + ":" + item.getID(),
+                               SolrServiceItemFactsPlugin.ORIGINAL_MIME_FIELD + ":\"" + mimeType + "\"");
+        return searchService.search(context, query).getTotalSearchResults();
+    }
+}
@@ -345,6 +345,69 @@ public class GroupTest extends AbstractUnitTest {
         assertFalse("isMemberGroup 6", groupService.isParentOf(context, level2Group, topGroup));
     }
 
+    @Test
+    public void removeMemberGroupUpdatesAncestors() throws SQLException, AuthorizeException {
+        context.turnOffAuthorisationSystem();
+        groupService.removeMember(context, level1Group, level2Group);
+        groupService.update(context, level1Group);
+        assertFalse(groupService.isParentOf(context, level1Group, level2Group));
+        assertFalse(groupService.isParentOf(context, topGroup, level2Group));
+        assertTrue(groupService.isParentOf(context, topGroup, level1Group));
+
+        groupService.addMember(context, level1Group, level2Group);
+        groupService.update(context, level1Group);
+        context.restoreAuthSystemState();
+        assertTrue(groupService.isParentOf(context, level1Group, level2Group));
+        assertTrue(groupService.isParentOf(context, topGroup, level2Group));
+    }
+
+    @Test
+    public void removeMemberGroupKeepsOtherPaths() throws SQLException, AuthorizeException, IOException {
+        Group shortcut = createGroup("shortcut");
+        try {
+            context.turnOffAuthorisationSystem();
+            // topGroup -> shortcut -> level2Group is a second path to level2Group
+            groupService.addMember(context, topGroup, shortcut);
+            groupService.addMember(context, shortcut, level2Group);
+            groupService.update(context, topGroup);
+            groupService.update(context, shortcut);
+
+            groupService.removeMember(context, level1Group, level2Group);
+            groupService.update(context, level1Group);
+            assertFalse(groupService.isParentOf(context, level1Group, level2Group));
+            assertTrue(groupService.isParentOf(context, topGroup, level2Group));
+        } finally {
+            groupService.delete(context, shortcut);
+            context.restoreAuthSystemState();
+        }
+        assertFalse(groupService.isParentOf(context, topGroup, level2Group));
+    }
+
+    @Test
+    public void addParentGroupOnlyUpdatingChild() throws SQLException, AuthorizeException, IOException {
+        Group newTop = createGroup("newTop");
+        try {
+            context.turnOffAuthorisationSystem();
+            groupService.addMember(context, newTop, topGroup);
+            // only the child group is updated
+            groupService.update(context, topGroup);
+            assertTrue(groupService.isParentOf(context, newTop, topGroup));
+            assertTrue(groupService.isParentOf(context, newTop, level2Group));
+        } finally {
+            groupService.delete(context, newTop);
+            context.restoreAuthSystemState();
+        }
+    }
+
+    @Test
+    public void rebuildGroupCache() throws SQLException {
+        groupService.rebuildGroupCache(context);
+        assertTrue(groupService.isParentOf(context, topGroup, level1Group));
+        assertTrue(groupService.isParentOf(context, level1Group, level2Group));
+        assertTrue(groupService.isParentOf(context, topGroup, level2Group));
+        assertFalse(groupService.isParentOf(context, level2Group, topGroup));
+    }
+
     @Test
     public void isMemberEPerson() throws SQLException, AuthorizeException, EPersonDeletionException, IOException {
         EPerson ePerson = null;
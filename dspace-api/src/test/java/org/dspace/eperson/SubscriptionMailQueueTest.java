@@ -0,0 +1,93 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.eperson;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+
+import org.dspace.core.Email;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SubscriptionMailQueue}
+ */
+public class SubscriptionMailQueueTest {
+
+    /**
+     * Queue recording the delivered emails instead of sending them, failing the
+     * first deliveries of some emails
+     */
+    private static class RecordingMailQueue extends SubscriptionMailQueue {
+        private final Map<Email, Integer> failures;
+        private final List<Email> delivered = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingMailQueue(int batchSize, int maxAttempts, Map<Email, Integer> failures) {
+            super(2, batchSize, maxAttempts, 1);
+            this.failures = failures;
+        }
+
+        @Override
+        protected Transport openTransport() {
+            return null;
+        }
+
+        @Override
+        protected void deliver(Email email, Transport transport) throws MessagingException {
+            int remaining = failures.getOrDefault(email, 0);
+            if (remaining > 0) {
+                failures.put(email, remaining - 1);
+                throw new MessagingException("unavailable");
+            }
+            delivered.add(email);
+        }
+    }
+
+    @Test
+    public void testSendInOrder() throws Exception {
+        List<Email> emails = new ArrayList<>();
+        RecordingMailQueue queue = new RecordingMailQueue(3, 1, new HashMap<>());
+        for (int i = 0; i < 10; i++) {
+            Email email = new Email();
+            emails.add(email);
+            queue.add(email, "eperson " + i);
+        }
+        queue.close();
+
+        assertEquals(emails, queue.delivered);
+        assertEquals(10, queue.getSentCount());
+        assertEquals(0, queue.getFailedCount());
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+        Email flaky = new Email();
+        Email broken = new Email();
+        Email fine = new Email();
+        Map<Email, Integer> failures = new HashMap<>();
+        failures.put(flaky, 2);
+        failures.put(broken, 5);
+        RecordingMailQueue queue = new RecordingMailQueue(10, 3, failures);
+        queue.add(flaky, "flaky");
+        queue.add(broken, "broken");
+        queue.add(fine, "fine");
+        queue.close();
+
+        assertEquals(List.of(flaky, fine), queue.delivered);
+        assertEquals(2, queue.getSentCount());
+        assertEquals(1, queue.getFailedCount());
+        // the broken email was given up after 3 attempts
+        assertEquals(2, (int) failures.get(broken));
+    }
+}
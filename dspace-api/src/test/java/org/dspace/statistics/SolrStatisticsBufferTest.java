@@ -0,0 +1,159 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.NamedList;
+import org.dspace.statistics.SolrStatisticsBuffer.OverflowPolicy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link SolrStatisticsBuffer}
+ */
+public class SolrStatisticsBufferTest {
+
+    // long enough to never flush on time during a test
+    private static final long NO_TIMED_FLUSH = 60000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEventsAreSentOnShutdown() {
+        CapturingSolrClient solr = new CapturingSolrClient();
+        SolrStatisticsBuffer buffer = new SolrStatisticsBuffer(solr, 100, 1000, NO_TIMED_FLUSH,
+                                                               OverflowPolicy.DROP, true, null);
+        for (int i = 0; i < 25; i++) {
+            buffer.add(event(i));
+        }
+        assertEquals(25, buffer.getSize());
+        assertEquals(0, solr.documents.size());
+
+        buffer.shutdown(5000);
+
+        assertEquals(25, solr.documents.size());
+        assertEquals(25, buffer.getBufferedCount());
+        assertEquals(25, buffer.getFlushedCount());
+        assertEquals(0, buffer.getSize());
+    }
+
+    @Test
+    public void testFullBatchIsSent() throws Exception {
+        CapturingSolrClient solr = new CapturingSolrClient();
+        SolrStatisticsBuffer buffer = new SolrStatisticsBuffer(solr, 100, 10, NO_TIMED_FLUSH,
+                                                               OverflowPolicy.DROP, true, null);
+        for (int i = 0; i < 10; i++) {
+            buffer.add(event(i));
+        }
+        waitFor(() -> buffer.getFlushedCount() == 10);
+
+        assertEquals(10, solr.documents.size());
+        buffer.shutdown(5000);
+    }
+
+    @Test
+    public void testEventsAreDroppedWhenFull() {
+        CapturingSolrClient solr = new CapturingSolrClient();
+        SolrStatisticsBuffer buffer = new SolrStatisticsBuffer(solr, 5, 1000, NO_TIMED_FLUSH,
+                                                               OverflowPolicy.DROP, true, null);
+        for (int i = 0; i < 8; i++) {
+            buffer.add(event(i));
+        }
+        assertEquals(5, buffer.getBufferedCount());
+        assertEquals(3, buffer.getDroppedCount());
+
+        buffer.shutdown(5000);
+        assertEquals(5, solr.documents.size());
+    }
+
+    @Test
+    public void testSpilledEventsAreSentLater() throws Exception {
+        File spillDir = folder.newFolder("spill");
+        CapturingSolrClient solr = new CapturingSolrClient();
+        SolrStatisticsBuffer buffer = new SolrStatisticsBuffer(solr, 2, 1000, NO_TIMED_FLUSH,
+                                                               OverflowPolicy.SPILL, true, spillDir);
+        for (int i = 0; i < 5; i++) {
+            buffer.add(event(i));
+        }
+        assertEquals(2, buffer.getBufferedCount());
+        assertEquals(3, buffer.getSpilledCount());
+        buffer.shutdown(5000);
+        assertEquals(2, solr.documents.size());
+        assertEquals(1, spillDir.list().length);
+
+        // A new buffer picks up the spill file once it is empty
+        SolrStatisticsBuffer next = new SolrStatisticsBuffer(solr, 2, 1000, 10,
+                                                             OverflowPolicy.SPILL, true, spillDir);
+        waitFor(() -> solr.documents.size() == 5);
+        next.shutdown(5000);
+
+        List<Object> ids = new ArrayList<>();
+        for (SolrInputDocument document : solr.documents) {
+            ids.add(document.getFieldValue("id"));
+        }
+        assertTrue(ids.containsAll(List.of("0", "1", "2", "3", "4")));
+        waitFor(() -> spillDir.list().length == 0);
+    }
+
+    @Test
+    public void testOverflowPolicyFromConfig() {
+        assertEquals(OverflowPolicy.SPILL, OverflowPolicy.fromConfig("spill"));
+        assertEquals(OverflowPolicy.BLOCK, OverflowPolicy.fromConfig(" Block "));
+        assertEquals(OverflowPolicy.DROP, OverflowPolicy.fromConfig("DROP"));
+        // Unknown or missing policies fall back to dropping the event rather than failing the startup
+        assertEquals(OverflowPolicy.DROP, OverflowPolicy.fromConfig("discard"));
+        assertEquals(OverflowPolicy.DROP, OverflowPolicy.fromConfig(null));
+    }
+
+    private SolrInputDocument event(int id) {
+        SolrInputDocument document = new SolrInputDocument();
+        document.addField("id", String.valueOf(id));
+        return document;
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Timed out waiting for the statistics buffer", System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Solr client keeping the documents of all update requests
+     */
+    private static class CapturingSolrClient extends SolrClient {
+        private final List<SolrInputDocument> documents = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public NamedList<Object> request(SolrRequest request, String collection) {
+            if (request instanceof UpdateRequest && ((UpdateRequest) request).getDocuments() != null) {
+                documents.addAll(((UpdateRequest) request).getDocuments());
+            }
+            return new NamedList<>();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -7,15 +7,17 @@
  */
 package org.dspace.statistics.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Set;
+
 import org.dspace.statistics.util.IPTable.IPFormatException;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
-import org.junit.Ignore;
 import org.junit.Test;
 
 /**
@@ -48,9 +50,90 @@ public class IPTableTest {
      * Test of add method, of class IPTable.
      * @throws java.lang.Exception passed through.
      */
-    @Ignore
     @Test
     public void testAdd() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("10.1.2");
+        instance.add("10.1.3.4-10.1.3.14");
+        instance.add("10.2.0.0/16");
+        instance.add("10.3.4.5/32");
+
+        assertTrue(instance.contains("10.1.2.0"));
+        assertTrue(instance.contains("10.1.2.255"));
+        assertFalse(instance.contains("10.1.1.255"));
+        assertTrue(instance.contains("10.1.3.4"));
+        assertTrue(instance.contains("10.1.3.14"));
+        assertFalse(instance.contains("10.1.3.3"));
+        assertFalse(instance.contains("10.1.3.15"));
+        assertTrue(instance.contains("10.2.0.0"));
+        assertTrue(instance.contains("10.2.255.255"));
+        assertFalse(instance.contains("10.3.0.0"));
+        assertTrue(instance.contains("10.3.4.5"));
+        assertFalse(instance.contains("10.3.4.6"));
+    }
+
+    /**
+     * Test of add method with a range which doesn't stay within a subnet.
+     * @throws java.lang.Exception passed through.
+     */
+    @Test
+    public void testAddWideRange() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("192.168.1.200-192.168.3.10");
+        instance.add("10.0.0.1");
+        instance.add("200.0.0.1");
+
+        assertTrue(instance.contains("192.168.1.200"));
+        assertTrue(instance.contains("192.168.2.100"));
+        assertTrue(instance.contains("192.168.3.10"));
+        assertFalse(instance.contains("192.168.1.199"));
+        assertFalse(instance.contains("192.168.3.11"));
+        assertTrue(instance.contains("10.0.0.1"));
+        assertTrue(instance.contains("200.0.0.1"));
+    }
+
+    /**
+     * Test of add and contains methods with IPv6 addresses.
+     * @throws java.lang.Exception passed through.
+     */
+    @Test
+    public void testIPv6() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("2001:db8::/32");
+        instance.add("fec0:0:0:1::2");
+        instance.add("::1");
+        instance.add("10.0.0.1");
+
+        assertTrue(instance.contains("2001:db8::1"));
+        assertTrue(instance.contains("2001:0db8:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertFalse(instance.contains("2001:db9::"));
+        assertTrue(instance.contains("fec0::1:0:0:0:2"));
+        assertFalse(instance.contains("fec0:0:0:1::3"));
+        assertTrue(instance.contains("[::1]"));
+        assertTrue(instance.contains("::ffff:10.0.0.1"));
+        assertFalse(instance.contains("::"));
+    }
+
+    /**
+     * Test of add method when presented with invalid ranges.
+     * @throws Exception passed through.
+     */
+    @Test(expected = IPFormatException.class)
+    public void testAddBadRange()
+            throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("10.1.3.14-10.1.3.4");
+    }
+
+    /**
+     * Test of add method when presented with an invalid prefix length.
+     * @throws Exception passed through.
+     */
+    @Test(expected = IPFormatException.class)
+    public void testAddBadPrefix()
+            throws Exception {
+        IPTable instance = new IPTable();
+        instance.add("10.1.3.0/33");
     }
 
     /**
@@ -93,8 +176,17 @@ public class IPTableTest {
     /**
      * Test of toSet method, of class IPTable.
      */
-    @Ignore
     @Test
-    public void testToSet() {
+    public void testToSet() throws Exception {
+        IPTable instance = new IPTable();
+        instance.add(LOCALHOST);
+        instance.add("10.1.2");
+        instance.add("10.1.3.4-10.1.3.6");
+        instance.add("10.2.4.0/23");
+        instance.add("11.0.0.0/8");
+        instance.add("2001:db8::/32");
+
+        assertEquals(Set.of(LOCALHOST, "10.1.2", "10.1.3.4", "10.1.3.5", "10.1.3.6", "10.2.4", "10.2.5",
+                            "11.0.0.0/8", "2001:db8:0:0:0:0:0:0/32"), instance.toSet());
     }
 }
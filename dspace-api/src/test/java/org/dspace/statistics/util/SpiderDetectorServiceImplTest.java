@@ -9,6 +9,15 @@ package org.dspace.statistics.util;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.dspace.AbstractDSpaceTest;
 import org.dspace.core.factory.CoreServiceFactory;
@@ -17,7 +26,9 @@ import org.dspace.services.ConfigurationService;
 import org.dspace.services.factory.DSpaceServicesFactory;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * @author mwood
@@ -26,6 +37,9 @@ import org.junit.Test;
 public class SpiderDetectorServiceImplTest extends AbstractDSpaceTest {
     private static final String NOT_A_BOT_ADDRESS = "192.168.0.1";
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private ConfigurationService configurationService;
 
     private ClientInfoService clientInfoService;
@@ -323,6 +337,59 @@ public class SpiderDetectorServiceImplTest extends AbstractDSpaceTest {
     }
 
 
+    /**
+     * Test that reloading the patterns replaces the ones in use
+     */
+    @Test
+    public void testReloadPatterns() throws Exception {
+        File agentsFile = writeAgentPatterns("^somebot");
+        spiderDetectorService = new SpiderDetectorServiceImpl(mockConfigurationService(0), clientInfoService);
+        assertTrue(spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS, null, null, "somebot/1.0"));
+        assertFalse(spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS, null, null, "otherbot/1.0"));
+
+        Files.writeString(agentsFile.toPath(), "^otherbot\n", StandardCharsets.UTF_8);
+        // the files are not checked for changes, so the patterns in use are kept until they are reloaded
+        assertTrue(spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS, null, null, "somebot/1.0"));
+        spiderDetectorService.reloadPatterns();
+        assertFalse(spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS, null, null, "somebot/1.0"));
+        assertTrue(spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS, null, null, "otherbot/1.0"));
+    }
+
+    /**
+     * Test that changed pattern files are reloaded once the reload interval passed
+     */
+    @Test
+    public void testChangedPatternFilesAreReloaded() throws Exception {
+        File agentsFile = writeAgentPatterns("^somebot");
+        spiderDetectorService = new SpiderDetectorServiceImpl(mockConfigurationService(1), clientInfoService);
+        assertTrue(spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS, null, null, "somebot/1.0"));
+
+        Files.writeString(agentsFile.toPath(), "^otherbot\n", StandardCharsets.UTF_8);
+        // make sure the change is seen whatever the precision of the file system
+        assertTrue(agentsFile.setLastModified(agentsFile.lastModified() + 10000));
+        Thread.sleep(1100);
+        assertFalse(spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS, null, null, "somebot/1.0"));
+        assertTrue(spiderDetectorService.isSpider(NOT_A_BOT_ADDRESS, null, null, "otherbot/1.0"));
+    }
+
+    private File writeAgentPatterns(String pattern) throws Exception {
+        File agentsDir = new File(folder.getRoot(), "config/spiders/agents");
+        assertTrue(agentsDir.mkdirs());
+        File agentsFile = new File(agentsDir, "agents.txt");
+        Files.writeString(agentsFile.toPath(), pattern + "\n", StandardCharsets.UTF_8);
+        return agentsFile;
+    }
+
+    private ConfigurationService mockConfigurationService(int reloadInterval) {
+        ConfigurationService spidersConfiguration = mock(ConfigurationService.class);
+        when(spidersConfiguration.getProperty("dspace.dir")).thenReturn(folder.getRoot().getAbsolutePath());
+        when(spidersConfiguration.getIntProperty(anyString(), anyInt()))
+            .thenAnswer(invocation -> invocation.getArgument(1));
+        when(spidersConfiguration.getIntProperty(eq("usage-statistics.bots.reload-interval"), anyInt()))
+            .thenReturn(reloadInterval);
+        return spidersConfiguration;
+    }
+
     /**
      * Method to make sure the SpiderDetector is using CaseSensitive matching again after each test
      *
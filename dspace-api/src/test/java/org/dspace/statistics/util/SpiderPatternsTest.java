@@ -0,0 +1,108 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.statistics.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SpiderPatterns}
+ */
+public class SpiderPatternsTest {
+
+    @Test
+    public void testRequiredLiteral() {
+        assertLiteral("msnbot", "msnbot", true);
+        assertLiteral("Pingdom\\.com_bot_version_1\\.4_\\(http://www\\.pingdom\\.com/\\)",
+                      "Pingdom.com_bot_version_1.4_(http://www.pingdom.com/)", true);
+        assertLiteral("Xenu(\\s|\\+)Link(\\s|\\+)Sleuth", "Sleuth", false);
+        assertLiteral("[^a]fish", "fish", false);
+        assertLiteral("^voyager\\/", "voyager/", false);
+        assertLiteral("mail.ru", "mail", false);
+        assertLiteral("lycos[_+]", "lycos", false);
+        assertLiteral("httpget\\?5\\.2\\.2", "httpget?5.2.2", true);
+        assertLiteral("googlebots?", "googlebot", false);
+        assertLiteral("crawl(.*)\\.exabot\\.com\\.", ".exabot.com.", false);
+        assertLiteral("a+bcd", "bcd", false);
+
+        assertNull(SpiderPatterns.requiredLiteral("cfnetwork|checkbot"));
+        assertNull(SpiderPatterns.requiredLiteral("^$"));
+        assertNull(SpiderPatterns.requiredLiteral("(?i)googlebot"));
+        assertNull(SpiderPatterns.requiredLiteral("\\x41bot"));
+        assertNull(SpiderPatterns.requiredLiteral("\\Qbot\\E"));
+    }
+
+    @Test
+    public void testMatches() {
+        SpiderPatterns patterns = new SpiderPatterns(List.of("msnbot", "Xenu(\\s|\\+)Link(\\s|\\+)Sleuth",
+                                                             "cfnetwork|checkbot", "^IDA$", "[^a]fish", "mail.ru"),
+                                                     0);
+        assertEquals(6, patterns.size());
+        assertEquals(1, patterns.getAlwaysEvaluatedCount());
+
+        assertTrue(patterns.matches("msnbot/2.0b (+http://search.msn.com/msnbot.htm)"));
+        assertTrue(patterns.matches("Xenu Link Sleuth/1.3.8"));
+        assertTrue(patterns.matches("Xenu+Link+Sleuth"));
+        assertTrue(patterns.matches("CFNetwork checkbot"));
+        assertTrue(patterns.matches("IDA"));
+        assertTrue(patterns.matches("Swordfish"));
+        assertTrue(patterns.matches("Mail.RU_Bot/2.0 mail.ru"));
+
+        assertFalse(patterns.matches("Mozilla/5.0 (X11; Linux x86_64; rv:91.0) Gecko/20100101 Firefox/91.0"));
+        assertFalse(patterns.matches("Xenu_Link_Sleuth"));
+        assertFalse(patterns.matches("Sleuth"));
+        assertFalse(patterns.matches("IDA Pro"));
+        assertFalse(patterns.matches("afish"));
+        assertFalse(patterns.matches(""));
+    }
+
+    @Test
+    public void testOverlappingLiterals() {
+        SpiderPatterns patterns = new SpiderPatterns(List.of("abcd", "bcx\\d", "cq"), 0);
+        assertTrue(patterns.matches("xxabcd"));
+        assertTrue(patterns.matches("abcx1"));
+        assertTrue(patterns.matches("abcq"));
+        assertFalse(patterns.matches("abcx"));
+        assertFalse(patterns.matches("abc"));
+    }
+
+    @Test
+    public void testInvalidPatternsAreSkipped() {
+        SpiderPatterns patterns = new SpiderPatterns(List.of("msnbot", "bad(pattern"), 0);
+        assertEquals(1, patterns.size());
+        assertTrue(patterns.matches("msnbot"));
+    }
+
+    @Test
+    public void testCachedVerdicts() {
+        SpiderPatterns patterns = new SpiderPatterns(List.of("msnbot"), 10);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(patterns.matches("msnbot"));
+            assertFalse(patterns.matches("Firefox"));
+        }
+    }
+
+    @Test
+    public void testNoPatterns() {
+        SpiderPatterns patterns = new SpiderPatterns(List.of(), 10);
+        assertEquals(0, patterns.size());
+        assertFalse(patterns.matches("msnbot"));
+    }
+
+    private void assertLiteral(String regex, String expected, boolean wholePattern) {
+        SpiderPatterns.Literal literal = SpiderPatterns.requiredLiteral(regex);
+        assertEquals(regex, expected, literal.text);
+        assertEquals(regex, wholePattern, literal.wholePattern);
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.util;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link IncompressibleMimeTypes}
+ */
+public class IncompressibleMimeTypesTest {
+
+    @Test
+    public void testContains() {
+        IncompressibleMimeTypes types = new IncompressibleMimeTypes(" application/pdf", "video/*", "");
+        assertTrue(types.contains("application/pdf"));
+        assertTrue(types.contains("video/mp4"));
+        assertFalse(types.contains("application/pdfx"));
+        assertFalse(types.contains("text/plain"));
+        assertFalse(types.contains(""));
+        assertFalse(types.contains(null));
+    }
+
+    @Test
+    public void testContainsDefaultTypes() {
+        IncompressibleMimeTypes types = new IncompressibleMimeTypes(IncompressibleMimeTypes.DEFAULT_TYPES);
+        assertTrue(types.contains("image/jpeg"));
+        assertTrue(types.contains("audio/mpeg"));
+        // a type ending in "*" matches every type starting with the text before it, not only subtypes
+        assertTrue(types.contains("application/vnd.openxmlformats-officedocument.wordprocessingml.document"));
+        assertTrue(types.contains("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+        assertFalse(types.contains("application/vnd.oasis.opendocument.text"));
+        assertFalse(types.contains("text/plain"));
+    }
+}
@@ -9,12 +9,16 @@ package org.dspace.rest;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.UUID;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
@@ -32,6 +36,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.AuthorizeException;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
@@ -50,6 +55,8 @@ import org.dspace.rest.common.Bitstream;
 import org.dspace.rest.common.Item;
 import org.dspace.rest.common.MetadataEntry;
 import org.dspace.rest.exceptions.ContextException;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 import org.dspace.usage.UsageEvent;
 
 /**
@@ -71,9 +78,16 @@ public class ItemsResource extends Resource {
     protected ResourcePolicyService resourcePolicyService = AuthorizeServiceFactory.getInstance()
                                                                                    .getResourcePolicyService();
     protected GroupService groupService = EPersonServiceFactory.getInstance().getGroupService();
+    protected ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                               .getConfigurationService();
 
     private static final Logger log = org.apache.logging.log4j.LogManager.getLogger(ItemsResource.class);
 
+    /**
+     * Response header holding the cursor of the page following the returned items.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     /**
      * Return item properties without metadata and bitstreams. You can add
      * additional properties by parameter expand.
@@ -140,14 +154,23 @@ public class ItemsResource extends Resource {
     /**
      * It returns an array of items in DSpace. You can define how many items in
      * list will be and from which index will start. Items in list are sorted by
-     * handle, not by id.
+     * last modification date and then by id.
+     * <p>
+     * To walk through all items, pass the cursor returned in the
+     * {@value #NEXT_CURSOR_HEADER} header of each response to the next request
+     * instead of increasing the offset. A cursor page costs the same whatever
+     * its position, while an offset page gets slower the further it is.
      *
      * @param expand        String which define, what additional properties will be in
      *                      returned item. Options are separeted by commas and are: "all",
      *                      "metadata", "parentCollection", "parentCollectionList",
      *                      "parentCommunityList" and "bitstreams".
-     * @param limit         How many items in array will be. Default value is 100.
+     * @param limit         How many items in array will be. Default value is 100, at
+     *                      most "rest.items.max-limit".
      * @param offset        On which index will array start. Default value is 0.
+     *                      Ignored when a cursor is given.
+     * @param cursor        Cursor returned with the previous page. The array will start
+     *                      with the item after the last item of that page.
      * @param user_ip       User's IP address.
      * @param user_agent    User agent string (specifies browser used and its version).
      * @param xforwardedfor When accessed via a reverse proxy, the application sees the proxy's IP as the
@@ -158,48 +181,89 @@ public class ItemsResource extends Resource {
      *                      The value of the "rest-dspace-token" header must be set with passed
      *                      token from login method.
      * @param request       Servlet's HTTP request object.
+     * @param response      Servlet's HTTP response object, which gets the cursor of the next page.
      * @return Return array of items, on which has logged user into context
      * permission.
      * @throws WebApplicationException It can be thrown by SQLException, when was problem with
      *                                 reading items from database or ContextException, when was
-     *                                 problem with creating context of DSpace.
+     *                                 problem with creating context of DSpace. Or BAD_REQUEST(400)
+     *                                 if the cursor is not valid.
      */
     @GET
     @Produces( {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
     public Item[] getItems(@QueryParam("expand") String expand, @QueryParam("limit") @DefaultValue("100") Integer limit,
                            @QueryParam("offset") @DefaultValue("0") Integer offset,
+                           @QueryParam("cursor") String cursor,
                            @QueryParam("userIP") String user_ip,
                            @QueryParam("userAgent") String user_agent,
                            @QueryParam("xforwardedfor") String xforwardedfor,
-                           @Context HttpHeaders headers, @Context HttpServletRequest request)
+                           @Context HttpHeaders headers, @Context HttpServletRequest request,
+                           @Context HttpServletResponse response)
         throws WebApplicationException {
 
-        log.info("Reading items.(offset=" + offset + ",limit=" + limit + ").");
+        log.info("Reading items.(offset=" + offset + ",limit=" + limit + ",cursor=" + cursor + ").");
         org.dspace.core.Context context = null;
         List<Item> items = null;
 
+        if (!((limit != null) && (limit >= 0) && (offset != null) && (offset >= 0))) {
+            log.warn("Paging was badly set, using default values.");
+            limit = 100;
+            offset = 0;
+        }
+        int maxLimit = configurationService.getIntProperty("rest.items.max-limit", 1000);
+        if (limit > maxLimit) {
+            log.warn("Paging limit(" + limit + ") is above the maximum, using " + maxLimit + ".");
+            limit = maxLimit;
+        }
+
+        Date lastModified = null;
+        UUID lastId = null;
+        if (StringUtils.isNotBlank(cursor)) {
+            try {
+                String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(":", 2);
+                lastModified = new Date(Long.parseLong(key[0]));
+                lastId = UUID.fromString(key[1]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                log.warn("Cursor(" + cursor + ") is not valid.");
+                throw new WebApplicationException(Response.Status.BAD_REQUEST);
+            }
+        }
+
+        // Hibernate only limits a scrolled query to a positive number of rows, so don't even query for no items
+        if (limit == 0) {
+            return new Item[0];
+        }
+
         try {
             context = createContext();
 
-            Iterator<org.dspace.content.Item> dspaceItems = itemService.findAllUnfiltered(context);
-            items = new ArrayList<Item>();
-
-            if (!((limit != null) && (limit >= 0) && (offset != null) && (offset >= 0))) {
-                log.warn("Paging was badly set, using default values.");
-                limit = 100;
-                offset = 0;
+            Iterator<org.dspace.content.Item> dspaceItems;
+            if (lastId != null) {
+                dspaceItems = itemService.findAllUnfilteredAfter(context, lastModified, lastId, limit);
+            } else {
+                dspaceItems = itemService.findAllUnfiltered(context, limit, offset);
             }
+            items = new ArrayList<Item>();
 
-            for (int i = 0; (dspaceItems.hasNext()) && (i < (limit + offset)); i++) {
+            org.dspace.content.Item lastItem = null;
+            while (dspaceItems.hasNext()) {
                 org.dspace.content.Item dspaceItem = dspaceItems.next();
-                if (i >= offset) {
-                    if (itemService.isItemListedForUser(context, dspaceItem)) {
-                        items.add(new Item(dspaceItem, servletContext, expand, context));
-                        writeStats(dspaceItem, UsageEvent.Action.VIEW, user_ip, user_agent, xforwardedfor,
-                                   headers, request, context);
-                    }
+                lastItem = dspaceItem;
+                if (itemService.isItemListedForUser(context, dspaceItem)) {
+                    items.add(new Item(dspaceItem, servletContext, expand, context));
+                    writeStats(dspaceItem, UsageEvent.Action.VIEW, user_ip, user_agent, xforwardedfor,
+                               headers, request, context);
                 }
             }
+
+            // The cursor points past the last item read, whether it was listed or not
+            if (lastItem != null) {
+                String key = lastItem.getLastModified().getTime() + ":" + lastItem.getID();
+                response.setHeader(NEXT_CURSOR_HEADER,
+                                   Base64.getUrlEncoder().withoutPadding()
+                                         .encodeToString(key.getBytes(StandardCharsets.UTF_8)));
+            }
             context.complete();
         } catch (SQLException e) {
             processException("Something went wrong while reading items from database. Message: " + e, context);
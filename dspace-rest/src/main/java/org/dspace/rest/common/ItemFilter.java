@@ -17,6 +17,7 @@ import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.logging.log4j.Logger;
 import org.dspace.core.Context;
 import org.dspace.core.factory.CoreServiceFactory;
@@ -147,11 +148,42 @@ public class ItemFilter {
         if (itemFilterTest == null) {
             return false;
         }
-        if (itemFilterTest.testItem(context, item)) {
+        return recordResult(itemFilterTest.testItem(context, item), restItem);
+    }
+
+    /**
+     * Test an item against this filter without recording the outcome.
+     *
+     * @param context DSpace context
+     * @param item    the item to test
+     * @return whether the item passed the test of this filter
+     */
+    public boolean test(Context context, org.dspace.content.Item item) {
+        return itemFilterTest != null && itemFilterTest.testItem(context, item);
+    }
+
+    /**
+     * Record the outcome of a test already run elsewhere, e.g. against the Discovery index.
+     *
+     * @param passed   whether the item passed the test of this filter
+     * @param restItem REST representation of the item
+     * @return passed
+     */
+    public boolean recordResult(boolean passed, org.dspace.rest.common.Item restItem) {
+        initCount();
+        if (passed) {
             addItem(restItem);
-            return true;
         }
-        return false;
+        return passed;
+    }
+
+    /**
+     * @return the Discovery filter queries selecting the items which pass this filter, or null
+     * if the items have to be tested one by one
+     */
+    @JsonIgnore
+    public String[] getFilterQueries() {
+        return itemFilterTest == null ? null : itemFilterTest.getFilterQueries();
     }
 
     @XmlAttribute(name = "filter-name")
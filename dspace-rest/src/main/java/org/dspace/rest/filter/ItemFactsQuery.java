@@ -0,0 +1,47 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.rest.filter;
+
+/**
+ * Build the Discovery filter queries of the item filters over the fields indexed by
+ * {@link org.dspace.discovery.SolrServiceItemFactsPlugin}.
+ */
+final class ItemFactsQuery {
+
+    /**
+     * Default constructor
+     */
+    private ItemFactsQuery() { }
+
+    static String atLeast(String field, long min) {
+        return field + ":[" + min + " TO *]";
+    }
+
+    static String equalTo(String field, long value) {
+        return field + ":" + value;
+    }
+
+    static String hasValue(String field, String[] values) {
+        StringBuilder query = new StringBuilder(field).append(":(");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                query.append(" OR ");
+            }
+            query.append('"').append(values[i].trim()).append('"');
+        }
+        return query.append(")").toString();
+    }
+
+    static String greaterThan(String field, String otherField) {
+        return "{!frange l=1}sub(" + field + "," + otherField + ")";
+    }
+
+    static String sameAs(String field, String otherField) {
+        return "{!frange l=0 u=0}sub(" + field + "," + otherField + ")";
+    }
+}
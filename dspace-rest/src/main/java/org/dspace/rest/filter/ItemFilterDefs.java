@@ -7,6 +7,11 @@
  */
 package org.dspace.rest.filter;
 
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_DOC_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_IMAGE_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_MIME_FIELD;
+
 import org.dspace.content.Item;
 import org.dspace.core.Context;
 
@@ -55,27 +60,47 @@ public class ItemFilterDefs implements ItemFilterList {
             public boolean testItem(Context context, Item item) {
                 return ItemFilterUtil.countOriginalBitstream(item) > 1;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.atLeast(ORIGINAL_COUNT_FIELD, 2)};
+            }
         },
         has_no_originals("Item has No Original Bitstreams", null, CAT_BASIC) {
             public boolean testItem(Context context, Item item) {
                 return ItemFilterUtil.countOriginalBitstream(item) == 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.equalTo(ORIGINAL_COUNT_FIELD, 0)};
+            }
         },
         has_one_original("Item has One Original Bitstream", null, CAT_BASIC) {
             public boolean testItem(Context context, Item item) {
                 return ItemFilterUtil.countOriginalBitstream(item) == 1;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.equalTo(ORIGINAL_COUNT_FIELD, 1)};
+            }
         },
         has_doc_original("Item has a Doc Original Bitstream (PDF, Office, Text, HTML, XML, etc)", null, CAT_MIME) {
             public boolean testItem(Context context, Item item) {
                 return ItemFilterUtil
                     .countOriginalBitstreamMime(context, item, ItemFilterUtil.getDocumentMimeTypes()) > 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.atLeast(ORIGINAL_DOC_COUNT_FIELD, 1)};
+            }
         },
         has_image_original("Item has an Image Original Bitstream", null, CAT_MIME) {
             public boolean testItem(Context context, Item item) {
                 return ItemFilterUtil.countOriginalBitstreamMimeStartsWith(context, item, "image") > 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.atLeast(ORIGINAL_IMAGE_COUNT_FIELD, 1)};
+            }
         },
         has_unsupp_type("Has Other Bitstream Types (not Doc or Image)", null, ItemFilterDefs.CAT_MIME) {
             public boolean testItem(Context context, Item item) {
@@ -88,6 +113,11 @@ public class ItemFilterDefs implements ItemFilterList {
                 int imgCount = ItemFilterUtil.countOriginalBitstreamMimeStartsWith(context, item, "image");
                 return (bitCount - docCount - imgCount) > 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {"{!frange l=1}sub(sub(" + ORIGINAL_COUNT_FIELD + ","
+                    + ORIGINAL_DOC_COUNT_FIELD + ")," + ORIGINAL_IMAGE_COUNT_FIELD + ")"};
+            }
         },
         has_mixed_original("Item has multiple types of Original Bitstreams (Doc, Image, Other)", null, CAT_MIME) {
             public boolean testItem(Context context, Item item) {
@@ -111,11 +141,19 @@ public class ItemFilterDefs implements ItemFilterList {
             public boolean testItem(Context context, Item item) {
                 return ItemFilterUtil.countOriginalBitstreamMime(context, item, MIMES_PDF) > 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.hasValue(ORIGINAL_MIME_FIELD, MIMES_PDF)};
+            }
         },
         has_jpg_original("Item has JPG Original Bitstream", null, CAT_MIME) {
             public boolean testItem(Context context, Item item) {
                 return ItemFilterUtil.countOriginalBitstreamMime(context, item, MIMES_JPG) > 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.hasValue(ORIGINAL_MIME_FIELD, MIMES_JPG)};
+            }
         },;
 
         private String title = null;
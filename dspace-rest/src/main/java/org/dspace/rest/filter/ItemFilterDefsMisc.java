@@ -7,6 +7,18 @@
  */
 package org.dspace.rest.filter;
 
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.LICENSE_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_DOC_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_IMAGE_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_PDF_MAX_SIZE_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_PDF_MIN_SIZE_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_SUPP_DOC_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.ORIGINAL_SUPP_IMAGE_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.TEXT_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.THUMBNAIL_COUNT_FIELD;
+import static org.dspace.discovery.SolrServiceItemFactsPlugin.THUMBNAIL_JPG_MIN_SIZE_FIELD;
+
 import java.util.List;
 
 import org.dspace.content.Item;
@@ -35,6 +47,11 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                     .countOriginalBitstreamMime(context, item, ItemFilterUtil.getSupportedImageMimeTypes());
                 return (imageCount == suppImageCount);
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.atLeast(ORIGINAL_IMAGE_COUNT_FIELD, 1),
+                    ItemFactsQuery.sameAs(ORIGINAL_IMAGE_COUNT_FIELD, ORIGINAL_SUPP_IMAGE_COUNT_FIELD)};
+            }
         },
         has_unsupp_image_type("Item has Image Bitstream that is Unsupported", null, CAT_MIME_SUPP) {
             public boolean testItem(Context context, Item item) {
@@ -46,6 +63,11 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                     .countOriginalBitstreamMime(context, item, ItemFilterUtil.getSupportedImageMimeTypes());
                 return (imageCount - suppImageCount) > 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {
+                    ItemFactsQuery.greaterThan(ORIGINAL_IMAGE_COUNT_FIELD, ORIGINAL_SUPP_IMAGE_COUNT_FIELD)};
+            }
         },
         has_only_supp_doc_type("Item Document Bitstreams are Supported", null, CAT_MIME_SUPP) {
             public boolean testItem(Context context, Item item) {
@@ -58,6 +80,11 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                     .countOriginalBitstreamMime(context, item, ItemFilterUtil.getSupportedDocumentMimeTypes());
                 return docCount == suppDocCount;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.atLeast(ORIGINAL_DOC_COUNT_FIELD, 1),
+                    ItemFactsQuery.sameAs(ORIGINAL_DOC_COUNT_FIELD, ORIGINAL_SUPP_DOC_COUNT_FIELD)};
+            }
         },
         has_unsupp_doc_type("Item has Document Bitstream that is Unsupported", null, CAT_MIME_SUPP) {
             public boolean testItem(Context context, Item item) {
@@ -70,6 +97,11 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                     .countOriginalBitstreamMime(context, item, ItemFilterUtil.getSupportedDocumentMimeTypes());
                 return (docCount - suppDocCount) > 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {
+                    ItemFactsQuery.greaterThan(ORIGINAL_DOC_COUNT_FIELD, ORIGINAL_SUPP_DOC_COUNT_FIELD)};
+            }
         },
         has_small_pdf("Has unusually small PDF", null, ItemFilterDefs.CAT_MIME) {
             public boolean testItem(Context context, Item item) {
@@ -77,6 +109,12 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                     .countBitstreamSmallerThanMinSize(context, BundleName.ORIGINAL, item, ItemFilterDefs.MIMES_PDF,
                                                       "rest.report-pdf-min-size") > 0;
             }
+
+            public String[] getFilterQueries() {
+                long size = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                 .getLongProperty("rest.report-pdf-min-size");
+                return new String[] {ORIGINAL_PDF_MIN_SIZE_FIELD + ":[* TO " + size + "}"};
+            }
         },
         has_large_pdf("Has unusually large PDF", null, ItemFilterDefs.CAT_MIME) {
             public boolean testItem(Context context, Item item) {
@@ -84,6 +122,12 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                     .countBitstreamLargerThanMaxSize(context, BundleName.ORIGINAL, item, ItemFilterDefs.MIMES_PDF,
                                                      "rest.report-pdf-max-size") > 0;
             }
+
+            public String[] getFilterQueries() {
+                long size = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                 .getLongProperty("rest.report-pdf-max-size");
+                return new String[] {ORIGINAL_PDF_MAX_SIZE_FIELD + ":{" + size + " TO *]"};
+            }
         },
         has_unsupported_bundle("Has bitstream in an unsuppored bundle", null, CAT_MISC) {
             public boolean testItem(Context context, Item item) {
@@ -98,6 +142,12 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                     .countBitstreamSmallerThanMinSize(context, BundleName.THUMBNAIL, item, ItemFilterDefs.MIMES_JPG,
                                                       "rest.report-thumbnail-min-size") > 0;
             }
+
+            public String[] getFilterQueries() {
+                long size = DSpaceServicesFactory.getInstance().getConfigurationService()
+                                                 .getLongProperty("rest.report-thumbnail-min-size");
+                return new String[] {THUMBNAIL_JPG_MIN_SIZE_FIELD + ":[* TO " + size + "}"};
+            }
         },
         has_doc_without_text("Has document bitstream without TEXT item", null, ItemFilterDefs.CAT_MIME) {
             public boolean testItem(Context context, Item item) {
@@ -109,6 +159,10 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                 int countText = ItemFilterUtil.countBitstream(BundleName.TEXT, item);
                 return countDoc > countText;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.greaterThan(ORIGINAL_DOC_COUNT_FIELD, TEXT_COUNT_FIELD)};
+            }
         },
         has_original_without_thumbnail("Has original bitstream without thumbnail", null, CAT_MISC) {
             public boolean testItem(Context context, Item item) {
@@ -119,6 +173,10 @@ public class ItemFilterDefsMisc implements ItemFilterList {
                 int countThumb = ItemFilterUtil.countBitstream(BundleName.THUMBNAIL, item);
                 return countBit > countThumb;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.greaterThan(ORIGINAL_COUNT_FIELD, THUMBNAIL_COUNT_FIELD)};
+            }
         },
         has_invalid_thumbnail_name("Has invalid thumbnail name (assumes one thumbnail for each original)", null,
                                    CAT_MISC) {
@@ -152,6 +210,10 @@ public class ItemFilterDefsMisc implements ItemFilterList {
             public boolean testItem(Context context, Item item) {
                 return ItemFilterUtil.countBitstream(BundleName.LICENSE, item) == 0;
             }
+
+            public String[] getFilterQueries() {
+                return new String[] {ItemFactsQuery.equalTo(LICENSE_COUNT_FIELD, 0)};
+            }
         },
         has_license_documentation("Has documentation in the license bundle", null, CAT_MISC) {
             public boolean testItem(Context context, Item item) {
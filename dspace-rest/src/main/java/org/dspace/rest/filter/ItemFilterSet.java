@@ -9,8 +9,14 @@ package org.dspace.rest.filter;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import javax.servlet.ServletContext;
 import javax.ws.rs.WebApplicationException;
 
@@ -18,8 +24,17 @@ import org.apache.logging.log4j.Logger;
 import org.dspace.authorize.factory.AuthorizeServiceFactory;
 import org.dspace.authorize.service.AuthorizeService;
 import org.dspace.core.Context;
+import org.dspace.discovery.DiscoverQuery;
+import org.dspace.discovery.IndexableObject;
+import org.dspace.discovery.SearchService;
+import org.dspace.discovery.SearchServiceException;
+import org.dspace.discovery.SearchUtils;
+import org.dspace.discovery.SolrServiceItemFactsPlugin;
+import org.dspace.discovery.indexobject.IndexableItem;
 import org.dspace.rest.common.Item;
 import org.dspace.rest.common.ItemFilter;
+import org.dspace.services.ConfigurationService;
+import org.dspace.services.factory.DSpaceServicesFactory;
 
 /**
  * The set of Item Filter Use Cases to apply to a collection of items.
@@ -28,10 +43,19 @@ import org.dspace.rest.common.ItemFilter;
  */
 public class ItemFilterSet {
     protected AuthorizeService authorizeService = AuthorizeServiceFactory.getInstance().getAuthorizeService();
+    protected SearchService searchService = SearchUtils.getSearchService();
+    protected ConfigurationService configurationService = DSpaceServicesFactory.getInstance()
+                                                                               .getConfigurationService();
     static Logger log = org.apache.logging.log4j.LogManager.getLogger(ItemFilterSet.class);
 
+    /**
+     * Number of items evaluated together against the Discovery index
+     */
+    private static final int BATCH_SIZE = 100;
+
     private List<ItemFilter> itemFilters;
     private ItemFilter allFiltersFilter;
+    private boolean reportItems;
 
     /**
      * Construct a set of Item Filters identified by a list string.
@@ -44,6 +68,7 @@ public class ItemFilterSet {
         log.debug(String.format("Create ItemFilterSet: %s", filterList));
         itemFilters = ItemFilter.getItemFilters(filterList, reportItems);
         allFiltersFilter = ItemFilter.getAllFiltersFilter(itemFilters);
+        this.reportItems = reportItems;
     }
 
     /**
@@ -123,21 +148,128 @@ public class ItemFilterSet {
                                 Iterator<org.dspace.content.Item> childItems, List<Item> items, boolean save,
                                 String expand) throws WebApplicationException, SQLException {
         int count = 0;
+        List<org.dspace.content.Item> batch = new ArrayList<org.dspace.content.Item>();
         while (childItems.hasNext()) {
             count++;
             org.dspace.content.Item item = childItems.next();
             log.debug(item.getHandle() + " evaluate.");
             if (authorizeService.authorizeActionBoolean(context, item, org.dspace.core.Constants.READ)) {
-                Item restItem = new Item(item, servletContext, expand, context);
-                if (save) {
-                    items.add(restItem);
+                batch.add(item);
+                if (batch.size() == BATCH_SIZE) {
+                    testItems(context, servletContext, batch, save ? items : null, expand);
+                    batch.clear();
                 }
-                testItem(context, item, restItem);
             } else {
                 log.debug(item.getHandle() + " not authorized - not included in result set.");
             }
         }
+        testItems(context, servletContext, batch, save ? items : null, expand);
         return count;
     }
 
+    /**
+     * Evaluate a batch of items against the Item Filters in the Item Filter Set. The filters which
+     * have filter queries are run as one Discovery query per filter for the whole batch; items which
+     * have not been indexed with their item facts, or all items if Discovery can't be queried, are
+     * tested one by one. The REST representation of an item is only built if it is saved or reported.
+     *
+     * @param context        Current DSpace Context
+     * @param servletContext Context of the servlet container.
+     * @param items          DSpace Objects to evaluate
+     * @param saved          List to add the REST representations of the evaluated items to, or null
+     * @param expand         List of item details to include in the results
+     * @throws WebApplicationException Runtime exception for applications.
+     * @throws SQLException            An exception that provides information on a database access error or other
+     * errors.
+     */
+    protected void testItems(Context context, ServletContext servletContext, List<org.dspace.content.Item> items,
+                             List<Item> saved, String expand) throws WebApplicationException, SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<ItemFilter, Set<UUID>> indexMatches = new HashMap<ItemFilter, Set<UUID>>();
+        Set<UUID> indexed = Collections.emptySet();
+        if (configurationService.getBooleanProperty("rest.report-use-index", true)) {
+            for (ItemFilter itemFilter : itemFilters) {
+                if (itemFilter.hasItemTest() && itemFilter.getFilterQueries() != null) {
+                    indexMatches.put(itemFilter, null);
+                }
+            }
+            if (!indexMatches.isEmpty()) {
+                try {
+                    indexed = findIndexed(context, items, SolrServiceItemFactsPlugin.INDEXED_FIELD + ":true");
+                    if (!indexed.isEmpty()) {
+                        for (ItemFilter itemFilter : indexMatches.keySet()) {
+                            indexMatches.put(itemFilter, findIndexed(context, items, itemFilter.getFilterQueries()));
+                        }
+                    }
+                } catch (SearchServiceException e) {
+                    log.warn("Could not query the item facts, testing the items one by one: " + e.getMessage(), e);
+                    indexed = Collections.emptySet();
+                }
+            }
+        }
+
+        boolean[] passed = new boolean[itemFilters.size()];
+        for (org.dspace.content.Item item : items) {
+            boolean isIndexed = indexed.contains(item.getID());
+            boolean anyTrue = false;
+            boolean bAllTrue = true;
+            for (int i = 0; i < itemFilters.size(); i++) {
+                ItemFilter itemFilter = itemFilters.get(i);
+                if (!itemFilter.hasItemTest()) {
+                    continue;
+                }
+                Set<UUID> matches = isIndexed ? indexMatches.get(itemFilter) : null;
+                passed[i] = matches != null ? matches.contains(item.getID()) : itemFilter.test(context, item);
+                anyTrue |= passed[i];
+                bAllTrue &= passed[i];
+            }
+
+            Item restItem = null;
+            if (saved != null || (reportItems && (anyTrue || bAllTrue))) {
+                restItem = new Item(item, servletContext, expand, context);
+            }
+            if (saved != null) {
+                saved.add(restItem);
+            }
+            for (int i = 0; i < itemFilters.size(); i++) {
+                if (itemFilters.get(i).hasItemTest()) {
+                    itemFilters.get(i).recordResult(passed[i], restItem);
+                }
+            }
+            if (bAllTrue && allFiltersFilter != null) {
+                allFiltersFilter.addItem(restItem);
+            }
+        }
+    }
+
+    /**
+     * Find which of the given items are found in the Discovery index with the given filter queries.
+     *
+     * @throws SearchServiceException if Discovery could not be queried
+     */
+    private Set<UUID> findIndexed(Context context, List<org.dspace.content.Item> items, String... filterQueries)
+        throws SearchServiceException {
+        StringBuilder query = new StringBuilder(SearchUtils.RESOURCE_ID_FIELD).append(":(");
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                query.append(" OR ");
+            }
+            query.append(items.get(i).getID());
+        }
+        query.append(")");
+
+        DiscoverQuery discoverQuery = new DiscoverQuery();
+        discoverQuery.setQuery(query.toString());
+        discoverQuery.addFilterQueries(filterQueries);
+        discoverQuery.addDSpaceObjectFilter(IndexableItem.TYPE);
+        discoverQuery.setMaxResults(items.size());
+        Set<UUID> found = new HashSet<UUID>();
+        for (IndexableObject indexableObject : searchService.search(context, discoverQuery).getIndexableObjects()) {
+            found.add((UUID) indexableObject.getID());
+        }
+        return found;
+    }
+
 }
@@ -26,4 +26,14 @@ public interface ItemFilterTest {
     public String getCategory();
 
     public boolean testItem(Context context, Item i);
+
+    /**
+     * Get the Discovery filter queries selecting the items which pass this test, using the
+     * fields indexed by {@link org.dspace.discovery.SolrServiceItemFactsPlugin}.
+     *
+     * @return the filter queries, or null if the test can only be run against the item itself
+     */
+    public default String[] getFilterQueries() {
+        return null;
+    }
 }
@@ -0,0 +1,69 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.rest.filter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the Discovery filter queries of the item filters
+ */
+public class ItemFactsQueryTest {
+
+    @Test
+    public void testQueries() {
+        assertEquals("f:[2 TO *]", ItemFactsQuery.atLeast("f", 2));
+        assertEquals("f:0", ItemFactsQuery.equalTo("f", 0));
+        assertEquals("f:(\"application/pdf\" OR \"image/jpeg\")",
+                     ItemFactsQuery.hasValue("f", new String[] {"application/pdf", " image/jpeg"}));
+        assertEquals("{!frange l=1}sub(f,g)", ItemFactsQuery.greaterThan("f", "g"));
+        assertEquals("{!frange l=0 u=0}sub(f,g)", ItemFactsQuery.sameAs("f", "g"));
+    }
+
+    @Test
+    public void testFilterQueries() {
+        Map<String, ItemFilterTest> filters = new HashMap<>();
+        for (ItemFilterList filterList : new ItemFilterList[] {new ItemFilterDefs(), new ItemFilterDefsMisc()}) {
+            for (ItemFilterTest filter : filterList.getFilters()) {
+                filters.put(filter.getName(), filter);
+            }
+        }
+
+        // filters on item properties or bitstream names keep testing the item itself
+        assertNull(filters.get("is_withdrawn").getFilterQueries());
+        assertNull(filters.get("has_mixed_original").getFilterQueries());
+        assertNull(filters.get("has_invalid_thumbnail_name").getFilterQueries());
+
+        assertArrayEquals(new String[] {"itemfacts_original_i:[2 TO *]"},
+                          filters.get("has_multiple_originals").getFilterQueries());
+        assertArrayEquals(new String[] {"itemfacts_original_i:0"},
+                          filters.get("has_no_originals").getFilterQueries());
+        assertArrayEquals(new String[] {"itemfacts_original_i:1"},
+                          filters.get("has_one_original").getFilterQueries());
+        assertArrayEquals(new String[] {"itemfacts_original_doc_i:[1 TO *]"},
+                          filters.get("has_doc_original").getFilterQueries());
+        assertArrayEquals(new String[] {"itemfacts_original_mime_keyword:(\"application/pdf\")"},
+                          filters.get("has_pdf_original").getFilterQueries());
+        assertArrayEquals(new String[] {"{!frange l=1}sub(sub(itemfacts_original_i,itemfacts_original_doc_i),"
+                              + "itemfacts_original_image_i)"},
+                          filters.get("has_unsupp_type").getFilterQueries());
+        // an item without any document does not only have supported documents
+        assertArrayEquals(new String[] {"itemfacts_original_doc_i:[1 TO *]",
+                              "{!frange l=0 u=0}sub(itemfacts_original_doc_i,itemfacts_original_supp_doc_i)"},
+                          filters.get("has_only_supp_doc_type").getFilterQueries());
+        assertArrayEquals(new String[] {"{!frange l=1}sub(itemfacts_original_doc_i,itemfacts_text_i)"},
+                          filters.get("has_doc_without_text").getFilterQueries());
+        assertArrayEquals(new String[] {"itemfacts_license_i:0"}, filters.get("no_license").getFilterQueries());
+    }
+}
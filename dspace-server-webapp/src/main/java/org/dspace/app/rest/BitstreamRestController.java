@@ -44,6 +44,7 @@ import org.dspace.usage.UsageEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -118,7 +119,11 @@ public class BitstreamRestController {
         String mimetype = format.getMIMEType();
         String name = getBitstreamName(bit, format);
 
-        Pair<InputStream, Long> bitstreamTuple = getBitstreamInputStreamAndSize(context, bit);
+        // When a single range is requested only that part is read from the store, unless a citation page is added
+        boolean citation = citationDocumentService.isCitationEnabledForBitstream(bit, context);
+        Pair<Long, Long> range = citation ? null : getRequestedRange(request, bit.getSizeBytes());
+
+        Pair<InputStream, Long> bitstreamTuple = getBitstreamInputStreamAndSize(context, bit, citation, range);
 
         if (StringUtils.isBlank(request.getHeader("Range"))) {
             //We only log a download request when serving a request without Range header. This is because
@@ -156,7 +161,8 @@ public class BitstreamRestController {
 
 
             org.dspace.app.rest.utils.BitstreamResource bitstreamResource =
-                new org.dspace.app.rest.utils.BitstreamResource(is, name, uuid, bit.getSizeBytes());
+                new org.dspace.app.rest.utils.BitstreamResource(is, name, uuid, bit.getSizeBytes(),
+                                                                range == null ? 0 : range.getLeft());
 
             //We have all the data we need, close the connection to the database so that it doesn't stay open during
             //download/streaming
@@ -175,16 +181,46 @@ public class BitstreamRestController {
         return null;
     }
 
-    private Pair<InputStream, Long> getBitstreamInputStreamAndSize(Context context, Bitstream bit)
+    private Pair<InputStream, Long> getBitstreamInputStreamAndSize(Context context, Bitstream bit, boolean citation,
+                                                                   Pair<Long, Long> range)
         throws SQLException, IOException, AuthorizeException {
 
-        if (citationDocumentService.isCitationEnabledForBitstream(bit, context)) {
+        if (citation) {
             return generateBitstreamWithCitation(context, bit);
+        } else if (range != null) {
+            long length = range.getRight() - range.getLeft() + 1;
+            return Pair.of(bitstreamService.retrieve(context, bit, range.getLeft(), length), bit.getSizeBytes());
         } else {
             return Pair.of(bitstreamService.retrieve(context, bit),bit.getSizeBytes());
         }
     }
 
+    /**
+     * Find the byte range requested by the Range header, if it is a single satisfiable range. Multiple ranges and
+     * invalid headers are left to Spring, which is then given the whole bitstream.
+     *
+     * @param request the request
+     * @param size    the size of the bitstream
+     * @return the positions of the first and last byte of the range, or null if the whole bitstream is needed
+     */
+    private Pair<Long, Long> getRequestedRange(HttpServletRequest request, long size) {
+        String header = request.getHeader("Range");
+        if (StringUtils.isBlank(header)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            if (ranges.size() != 1) {
+                return null;
+            }
+            HttpRange range = ranges.get(0);
+            return Pair.of(range.getRangeStart(size), range.getRangeEnd(size));
+        } catch (IllegalArgumentException e) {
+            log.debug("Unable to parse Range header {}", header, e);
+            return null;
+        }
+    }
+
     private Pair<InputStream, Long> generateBitstreamWithCitation(Context context, Bitstream bitstream)
         throws SQLException, IOException, AuthorizeException {
         //Create the cited document
@@ -7,6 +7,7 @@
  */
 package org.dspace.app.rest.utils;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.UUID;
@@ -18,6 +19,8 @@ import org.springframework.core.io.AbstractResource;
  * streamlined way inside the {@link org.springframework.http.ResponseEntity} body.
  * This class' attributes are being used by Spring's framework in the overridden methods so that the proper
  * attributes are given and used in the response.
+ * When only part of the bitstream was retrieved to answer a Range request, the offset of that part is given so
+ * that Spring can skip to the range without the bits before it being read.
  */
 public class BitstreamResource extends AbstractResource {
 
@@ -33,6 +36,17 @@ public class BitstreamResource extends AbstractResource {
         this.sizeBytes = sizeBytes;
     }
 
+    /**
+     * @param inputStream the bits of the bitstream, starting at the offset
+     * @param name        the name of the bitstream
+     * @param uuid        the uuid of the bitstream
+     * @param sizeBytes   the size of the whole bitstream
+     * @param offset      the position in the bitstream of the first byte of the input stream
+     */
+    public BitstreamResource(InputStream inputStream, String name, UUID uuid, long sizeBytes, long offset) {
+        this(offset > 0 ? new OffsetInputStream(inputStream, offset) : inputStream, name, uuid, sizeBytes);
+    }
+
     @Override
     public String getDescription() {
         return "bitstream [" + uuid + "]";
@@ -52,4 +66,56 @@ public class BitstreamResource extends AbstractResource {
     public long contentLength() throws IOException {
         return sizeBytes;
     }
+
+    /**
+     * Input stream of the bits following an offset. Skipping up to the offset doesn't read anything, the bits
+     * before the offset can't be read.
+     */
+    private static class OffsetInputStream extends FilterInputStream {
+
+        private long offset;
+
+        OffsetInputStream(InputStream in, long offset) {
+            super(in);
+            this.offset = offset;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkOffset();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkOffset();
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (offset <= 0) {
+                return super.skip(n);
+            }
+            long skipped = Math.min(n, offset);
+            offset -= skipped;
+            return n > skipped ? skipped + super.skip(n - skipped) : skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return offset > 0 ? 0 : super.available();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void checkOffset() throws IOException {
+            if (offset > 0) {
+                throw new IOException("The bits before the requested range were not retrieved");
+            }
+        }
+    }
 }
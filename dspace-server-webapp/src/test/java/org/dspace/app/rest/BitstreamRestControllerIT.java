@@ -289,6 +289,17 @@ public class BitstreamRestControllerIT extends AbstractControllerIntegrationTest
                        //We all remaining bytes, starting at byte 4
                        .andExpect(content().bytes("456789".getBytes()));
 
+            //** WHEN **
+            //We download the last bytes of the bitstream
+            getClient().perform(get("/api/core/bitstreams/" + bitstream.getID() + "/content")
+                                    .header("Range", "bytes=-2"))
+
+                       //** THEN **
+                       .andExpect(status().is(206))
+                       .andExpect(header().longValue("Content-Length", 2))
+                       .andExpect(header().string("Content-Range", "bytes 8-9/10"))
+                       .andExpect(content().bytes("89".getBytes()));
+
             //Check that NO statistics record was logged for the Range requests
             checkNumberOfStatsRecords(bitstream, 0);
     }
@@ -0,0 +1,120 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.servicemanager.config;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The typed property values of one state of the configuration, for {@link DSpaceConfigurationService}.
+ * <p>
+ * Each value is interpolated and converted the first time it is looked up, and then returned from memory without
+ * locking. A snapshot is never updated once the configuration changes: the configuration service replaces it with
+ * an empty one instead, so that a lookup never mixes old and new values.
+ */
+final class ConfigurationSnapshot {
+
+    /**
+     * Stands for null values, which a ConcurrentHashMap can't hold
+     */
+    private static final Object NULL = new Object();
+
+    /**
+     * The types whose values can be shared by all callers, as they are immutable or copied on return
+     */
+    private static final Set<Class<?>> CACHED_TYPES = Set.of(
+        Object.class, String.class, CharSequence.class, BigDecimal.class, BigInteger.class,
+        Boolean.class, boolean.class, Byte.class, byte.class, Double.class, double.class, Float.class, float.class,
+        Integer.class, int.class, Long.class, long.class, Short.class, short.class,
+        String[].class, List.class);
+
+    private final Map<String, Boolean> keys = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, Map<String, Object>> values = new ConcurrentHashMap<>();
+
+    /**
+     * The time after which the reloadable configuration files have to be checked for changes
+     */
+    private volatile long nextReloadCheck;
+
+    /**
+     * @param nextReloadCheck the time after which the configuration files have to be checked for changes
+     */
+    ConfigurationSnapshot(long nextReloadCheck) {
+        this.nextReloadCheck = nextReloadCheck;
+    }
+
+    /**
+     * Whether a key exists
+     *
+     * @param name   the key
+     * @param loader looks the key up in the configuration, the first time
+     * @return true if the key exists
+     */
+    boolean containsKey(String name, Predicate<String> loader) {
+        Boolean contained = keys.get(name);
+        if (contained == null) {
+            contained = loader.test(name);
+            keys.putIfAbsent(name, contained);
+        }
+        return contained;
+    }
+
+    /**
+     * Get the value of a key as a type
+     *
+     * @param name   the key
+     * @param type   the type
+     * @param loader interpolates and converts the value of the key, the first time
+     * @param <T>    the type
+     * @return the value, or null
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(String name, Class<T> type, Function<String, T> loader) {
+        if (!CACHED_TYPES.contains(type)) {
+            return loader.apply(name);
+        }
+        Map<String, Object> typed = values.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+        Object value = typed.get(name);
+        if (value == null) {
+            T loaded = loader.apply(name);
+            value = loaded != null ? loaded : NULL;
+            typed.putIfAbsent(name, value);
+        }
+        if (value == NULL) {
+            return null;
+        } else if (value instanceof String[]) {
+            return (T) ((String[]) value).clone();
+        } else if (value instanceof List) {
+            return (T) new ArrayList<>((List<?>) value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * @param now the current time
+     * @return true if the configuration files have to be checked for changes
+     */
+    boolean isReloadCheckDue(long now) {
+        return now >= nextReloadCheck;
+    }
+
+    /**
+     * @param nextReloadCheck the time after which the configuration files have to be checked again
+     */
+    void setNextReloadCheck(long nextReloadCheck) {
+        this.nextReloadCheck = nextReloadCheck;
+    }
+}
@@ -21,14 +21,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.ConfigurationConverter;
 import org.apache.commons.configuration2.builder.ConfigurationBuilderEvent;
+import org.apache.commons.configuration2.builder.ConfigurationBuilderResultCreatedEvent;
 import org.apache.commons.configuration2.builder.combined.ReloadingCombinedConfigurationBuilder;
 import org.apache.commons.configuration2.builder.fluent.Parameters;
 import org.apache.commons.configuration2.convert.DefaultListDelimiterHandler;
+import org.apache.commons.configuration2.event.ConfigurationEvent;
 import org.apache.commons.configuration2.event.Event;
+import org.apache.commons.configuration2.event.EventSource;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.dspace.services.ConfigurationService;
 import org.slf4j.Logger;
@@ -77,6 +81,12 @@ public final class DSpaceConfigurationService implements ConfigurationService {
     // Current Configuration Definition File
     private String configDefinition = null;
 
+    // How often, in milliseconds, the typed lookups check the reloadable configuration files for changes
+    private static final long RELOAD_CHECK_INTERVAL = 1000;
+
+    // Typed property values of the current configuration, null once the configuration changed
+    private final AtomicReference<ConfigurationSnapshot> snapshot = new AtomicReference<>();
+
     /**
      * Initializes a ConfigurationService based on default values. The DSpace
      * Home directory is determined based on system properties / searching.
@@ -293,7 +303,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     @Override
     public <T> T getPropertyAsType(String name, Class<T> type) {
-        return convert(name, type);
+        return getTyped(name, type);
     }
 
     /* (non-Javadoc)
@@ -322,13 +332,22 @@ public final class DSpaceConfigurationService implements ConfigurationService {
         }
 
         // Avoid NPE. If null defaultValue passed in, assume Object class
-        Class type = Object.class;
-        if (defaultValue != null) {
-            // Get the class associated with our default value
-            type = defaultValue.getClass();
-        }
+        // Otherwise, get the class associated with our default value
+        Class<?> type = defaultValue != null ? defaultValue.getClass() : Object.class;
 
-        return (T) convert(name, type);
+        return (T) getTyped(name, type);
+    }
+
+    /**
+     * Get the value of a property converted to the given type, converting it only once per configuration.
+     *
+     * @param name the property name
+     * @param type the type to convert the value to
+     * @param <U> the type to convert the value to
+     * @return the converted value, or null if the property is not set or can't be converted
+     */
+    private <U> U getTyped(String name, Class<U> type) {
+        return getSnapshot().get(name, type, key -> convert(key, type));
     }
 
 
@@ -339,11 +358,7 @@ public final class DSpaceConfigurationService implements ConfigurationService {
      */
     @Override
     public boolean hasProperty(String name) {
-        if (getConfiguration().containsKey(name)) {
-            return true;
-        } else {
-            return false;
-        }
+        return getSnapshot().containsKey(name, key -> getConfiguration().containsKey(key));
     }
 
     @Override
@@ -514,6 +529,22 @@ public final class DSpaceConfigurationService implements ConfigurationService {
                                  .setFile(new File(this.configDefinition))
                                  .setListDelimiterHandler(listDelimiterHandler));
 
+            // Forget the typed property values whenever the configuration changes or is reloaded
+            this.configurationBuilder.addEventListener(ConfigurationBuilderEvent.RESET,
+                (ConfigurationBuilderEvent e) -> invalidateSnapshot());
+            this.configurationBuilder.addEventListener(ConfigurationBuilderResultCreatedEvent.RESULT_CREATED,
+                (ConfigurationBuilderResultCreatedEvent e) -> {
+                    if (e.getConfiguration() instanceof EventSource) {
+                        ((EventSource) e.getConfiguration()).addEventListener(ConfigurationEvent.ANY,
+                            (ConfigurationEvent ce) -> {
+                                if (!ce.isBeforeUpdate()) {
+                                    invalidateSnapshot();
+                                }
+                            });
+                    }
+                    invalidateSnapshot();
+                });
+
             // Parse our configuration definition and initialize resulting Configuration
             this.configurationBuilder.getConfiguration();
 
@@ -559,9 +590,41 @@ public final class DSpaceConfigurationService implements ConfigurationService {
         } catch (ConfigurationException ce) {
             log.error("Unable to reload configurations based on definition at " + this.configDefinition, ce);
         }
+        invalidateSnapshot();
         log.info("Reloaded configuration service: " + toString());
     }
 
+    /**
+     * Get the typed property values of the current configuration, starting an empty snapshot if the configuration
+     * changed. Every RELOAD_CHECK_INTERVAL, the configuration is requested from the builder so that it checks the
+     * reloadable configuration files for changes, as every lookup did before.
+     *
+     * @return the current snapshot
+     */
+    private ConfigurationSnapshot getSnapshot() {
+        long now = System.currentTimeMillis();
+        ConfigurationSnapshot current = snapshot.get();
+        if (current != null && current.isReloadCheckDue(now)) {
+            current.setNextReloadCheck(now + RELOAD_CHECK_INTERVAL);
+            // a reload of the configuration invalidates the snapshot
+            getConfiguration();
+            current = snapshot.get();
+        }
+        while (current == null) {
+            // the snapshot is published before it is filled, so that an invalidation can't be missed
+            snapshot.compareAndSet(null, new ConfigurationSnapshot(now + RELOAD_CHECK_INTERVAL));
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    /**
+     * Forget the typed property values, called once the configuration changed
+     */
+    private void invalidateSnapshot() {
+        snapshot.set(null);
+    }
+
     /**
      * Sets properties which are determined dynamically rather than
      * loaded via configuration.
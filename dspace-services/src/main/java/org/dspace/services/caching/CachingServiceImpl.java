@@ -8,16 +8,20 @@
 package org.dspace.services.caching;
 
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.Statistics;
@@ -30,6 +34,7 @@ import org.dspace.services.ConfigurationService;
 import org.dspace.services.RequestService;
 import org.dspace.services.caching.model.EhcacheCache;
 import org.dspace.services.caching.model.MapCache;
+import org.dspace.services.caching.model.MapCacheGroup;
 import org.dspace.services.model.Cache;
 import org.dspace.services.model.CacheConfig;
 import org.dspace.services.model.CacheConfig.CacheScope;
@@ -66,36 +71,166 @@ public final class CachingServiceImpl
     private final Map<String, EhcacheCache> cacheRecord = new ConcurrentHashMap<>();
 
     /**
-     * All the request caches.  This is bound to the thread.
-     * The initial value of this TL is set automatically when it is
-     * created.
+     * The name of the MBean reporting on the request caches.
      */
-    private final Map<String, Map<String, MapCache>> requestCachesMap = new ConcurrentHashMap<>();
+    protected static final String REQUEST_CACHES_MBEAN_NAME = "org.dspace:name=RequestCaches,type=CachingService";
+
+    /**
+     * How often the request caches of idle requests are looked for, in milliseconds.
+     */
+    private static final long IDLE_REQUESTS_CHECK_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The request caches of a request, the group bounding their values, and
+     * when they were last used.
+     */
+    private static final class RequestCaches {
+        private final Map<String, MapCache> caches = new ConcurrentHashMap<>();
+        private final MapCacheGroup group;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private RequestCaches(int maxElements) {
+            this.group = maxElements > 0 ? new MapCacheGroup(maxElements) : null;
+        }
+    }
+
+    /**
+     * All the request caches, keyed by request id.  They are removed when
+     * their request ends, or once they have not been used for
+     * requestTimeToIdleSecs, as requests which never end would otherwise
+     * keep them forever.
+     */
+    private final Map<String, RequestCaches> requestCachesMap = new ConcurrentHashMap<>();
+
+    private volatile long nextIdleRequestsCheck = System.currentTimeMillis() + IDLE_REQUESTS_CHECK_INTERVAL;
+
+    /**
+     * The statistics of the request caches, the hits and misses only
+     * include the request caches which were removed.
+     */
+    private final AtomicLong evictedRequests = new AtomicLong();
+    private final AtomicLong requestHits = new AtomicLong();
+    private final AtomicLong requestMisses = new AtomicLong();
+
+    private boolean requestCachesMBeanRegistered = false;
+
+    private final RequestCachesMXBean requestCachesMBean = new RequestCachesMXBean() {
+        @Override
+        public int getLiveRequests() {
+            return requestCachesMap.size();
+        }
+
+        @Override
+        public long getEvictedRequests() {
+            return evictedRequests.get();
+        }
+
+        @Override
+        public long getHits() {
+            long hits = requestHits.get();
+            for (RequestCaches requestCaches : requestCachesMap.values()) {
+                for (MapCache cache : requestCaches.caches.values()) {
+                    hits += cache.getHitCount();
+                }
+            }
+            return hits;
+        }
+
+        @Override
+        public long getMisses() {
+            long misses = requestMisses.get();
+            for (RequestCaches requestCaches : requestCachesMap.values()) {
+                for (MapCache cache : requestCaches.caches.values()) {
+                    misses += cache.getMissCount();
+                }
+            }
+            return misses;
+        }
+    };
 
     /**
      * @return the current request map which is bound to the current thread
      */
     protected Map<String, MapCache> getRequestCaches() {
+        RequestCaches requestCaches = getCurrentRequestCaches();
+        return requestCaches != null ? requestCaches.caches : null;
+    }
+
+    /**
+     * @return the request caches of the request bound to the current thread
+     */
+    private RequestCaches getCurrentRequestCaches() {
         if (requestService == null || requestService.getCurrentRequestId() == null) {
             return null;
         }
 
-        Map<String, MapCache> requestCaches = requestCachesMap.get(requestService.getCurrentRequestId());
-        if (requestCaches == null) {
-            requestCaches = new HashMap<>();
-            requestCachesMap.put(requestService.getCurrentRequestId(), requestCaches);
+        long now = System.currentTimeMillis();
+        if (now >= nextIdleRequestsCheck) {
+            nextIdleRequestsCheck = now + IDLE_REQUESTS_CHECK_INTERVAL;
+            removeIdleRequestCaches(now);
         }
 
+        RequestCaches requestCaches =
+            requestCachesMap.computeIfAbsent(requestService.getCurrentRequestId(),
+                id -> new RequestCaches(requestMaxElements));
+        requestCaches.lastAccess = now;
         return requestCaches;
     }
 
+    /**
+     * Remove the request caches which have not been used for
+     * requestTimeToIdleSecs, most likely because their request was never
+     * ended.
+     *
+     * @param now the current time
+     */
+    protected void removeIdleRequestCaches(long now) {
+        long idleSince = now - TimeUnit.SECONDS.toMillis(requestTimeToIdleSecs);
+        for (Map.Entry<String, RequestCaches> entry : requestCachesMap.entrySet()) {
+            if (entry.getValue().lastAccess < idleSince && requestCachesMap.remove(entry.getKey(), entry.getValue())) {
+                evictedRequests.incrementAndGet();
+                recordStatistics(entry.getValue());
+                log.debug("Removed the request caches of idle request " + entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Remove the request caches of a request.
+     *
+     * @param requestId the request id
+     */
+    private void removeRequestCaches(String requestId) {
+        RequestCaches requestCaches = requestCachesMap.remove(requestId);
+        if (requestCaches != null) {
+            recordStatistics(requestCaches);
+        }
+    }
+
+    /**
+     * Add the hits and misses of removed request caches to the statistics.
+     */
+    private void recordStatistics(RequestCaches requestCaches) {
+        for (MapCache cache : requestCaches.caches.values()) {
+            requestHits.addAndGet(cache.getHitCount());
+            requestMisses.addAndGet(cache.getMissCount());
+        }
+    }
+
+    /**
+     * @return the statistics of the request caches
+     */
+    public RequestCachesMXBean getRequestCachesStatistics() {
+        return requestCachesMBean;
+    }
+
     /**
      * Unbinds all request caches.  Destroys the caches completely.
      */
     @Override
     public void unbindRequestCaches() {
-        if (requestService != null) {
-            requestCachesMap.remove(requestService.getCurrentRequestId());
+        if (requestService != null && requestService.getCurrentRequestId() != null) {
+            removeRequestCaches(requestService.getCurrentRequestId());
         }
     }
 
@@ -139,6 +274,8 @@ public final class CachingServiceImpl
     private int maxElementsInMemory = 2000;
     private int timeToLiveSecs = 3600;
     private int timeToIdleSecs = 600;
+    private int requestMaxElements = 10000;
+    private int requestTimeToIdleSecs = 3600;
 
     /**
      * Reloads the configuration settings from the configuration service.
@@ -150,6 +287,8 @@ public final class CachingServiceImpl
         maxElementsInMemory = configurationService.getPropertyAsType(knownConfigNames[2], 2000);
         timeToLiveSecs = configurationService.getPropertyAsType(knownConfigNames[3], 3600);
         timeToIdleSecs = configurationService.getPropertyAsType(knownConfigNames[4], 600);
+        requestMaxElements = configurationService.getPropertyAsType(knownConfigNames[5], 10000);
+        requestTimeToIdleSecs = configurationService.getPropertyAsType(knownConfigNames[6], 3600);
     }
 
     /**
@@ -163,6 +302,10 @@ public final class CachingServiceImpl
         "caching.default.time.to.live.secs", // the default amount of time to live for an element from its creation date
         "caching.default.time.to.idle.secs", // the default amount of time to live for an element from its last
         // accessed or modified date
+        "caching.request.max.elements", // the maximum number of elements of all the caches of a request, 0 for no
+        // maximum
+        "caching.request.time.to.idle.secs", // the amount of time after which the caches of an unused request
+        // are removed
     };
 
     /* (non-Javadoc)
@@ -251,6 +394,8 @@ public final class CachingServiceImpl
             requestService.registerRequestInterceptor(new CachingServiceRequestInterceptor());
         }
 
+        registerRequestCachesMBean();
+
         log.info("Caching service initialized:\n" + getStatus(null));
     }
 
@@ -269,6 +414,7 @@ public final class CachingServiceImpl
         } catch (RuntimeException e) {
             // whatever
         }
+        unregisterRequestCachesMBean();
         try {
             cacheManager.removalAll();
         } catch (RuntimeException e) {
@@ -306,7 +452,11 @@ public final class CachingServiceImpl
         } else {
             Map<String, MapCache> caches = getRequestCaches();
             if (caches != null) {
-                caches.remove(cacheName);
+                MapCache removed = caches.remove(cacheName);
+                if (removed != null) {
+                    // drop its values from the values of the request
+                    removed.clear();
+                }
             }
         }
     }
@@ -401,6 +551,11 @@ public final class CachingServiceImpl
                     sb.append("\n");
                 }
             }
+
+            // request caches summary report
+            sb.append("\n** Request caches report\n");
+            sb.append(generateRequestCachesStats(requestCachesMBean));
+            sb.append("\n");
         } else {
             // report for a single cache
             sb.append("\n** Report for cache (").append(cacheName).append("):\n");
@@ -559,17 +714,20 @@ public final class CachingServiceImpl
             scope = cacheConfig.getCacheScope();
         }
 
-        Map<String, MapCache> caches = getRequestCaches();
-        if (caches != null) {
+        RequestCaches requestCaches = getCurrentRequestCaches();
+        if (requestCaches != null) {
+            Map<String, MapCache> caches = requestCaches.caches;
             if (CacheScope.REQUEST.equals(scope)) {
                 cache = caches.get(cacheName);
             }
 
             if (cache == null) {
-                cache = new MapCache(cacheName, cacheConfig);
                 // place cache into the right TL
                 if (CacheScope.REQUEST.equals(scope)) {
+                    cache = new MapCache(cacheName, cacheConfig, requestCaches.group);
                     caches.put(cacheName, cache);
+                } else {
+                    cache = new MapCache(cacheName, cacheConfig, requestMaxElements);
                 }
             }
         }
@@ -605,6 +763,49 @@ public final class CachingServiceImpl
         return sb.toString();
     }
 
+    /**
+     * Generate the stats of the request caches.
+     *
+     * @param stats the statistics of the request caches
+     * @return the stats as a string
+     */
+    protected static String generateRequestCachesStats(RequestCachesMXBean stats) {
+        final long hits = stats.getHits();
+        final long misses = stats.getMisses();
+        final String hitPercentage = ((hits + misses) > 0) ? ((100L * hits) / (hits + misses)) + "%" : "N/A";
+        return " Live requests: " + stats.getLiveRequests() + ",  Evicted idle requests: " + stats.getEvictedRequests()
+            + ",  Hits: " + hits + " (" + hitPercentage + "),  Misses: " + misses;
+    }
+
+    /**
+     * Register the MBean reporting on the request caches, unless another
+     * caching service of this JVM already did.
+     */
+    private void registerRequestCachesMBean() {
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(REQUEST_CACHES_MBEAN_NAME);
+            if (!mbs.isRegistered(name)) {
+                mbs.registerMBean(requestCachesMBean, name);
+                requestCachesMBeanRegistered = true;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to register the MBean: " + REQUEST_CACHES_MBEAN_NAME, e);
+        }
+    }
+
+    private void unregisterRequestCachesMBean() {
+        if (!requestCachesMBeanRegistered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(REQUEST_CACHES_MBEAN_NAME));
+            requestCachesMBeanRegistered = false;
+        } catch (Exception e) {
+            log.warn("Failed to unregister the MBean: " + REQUEST_CACHES_MBEAN_NAME, e);
+        }
+    }
+
     /**
      * Compare two Cache objects by name.
      */
@@ -622,18 +823,14 @@ public final class CachingServiceImpl
         @Override
         public void onStart(String requestId) {
             if (requestId != null) {
-                Map<String, MapCache> requestCaches = requestCachesMap.get(requestId);
-                if (requestCaches == null) {
-                    requestCaches = new HashMap<>();
-                    requestCachesMap.put(requestId, requestCaches);
-                }
+                requestCachesMap.computeIfAbsent(requestId, id -> new RequestCaches(requestMaxElements));
             }
         }
 
         @Override
         public void onEnd(String requestId, boolean succeeded, Exception failure) {
             if (requestId != null) {
-                requestCachesMap.remove(requestId);
+                removeRequestCaches(requestId);
             }
         }
 
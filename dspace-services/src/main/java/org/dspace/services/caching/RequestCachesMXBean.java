@@ -0,0 +1,34 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.services.caching;
+
+/**
+ * MBean type for monitoring the request caches of the {@link CachingServiceImpl}.
+ */
+public interface RequestCachesMXBean {
+    /**
+     * @return the number of requests currently holding request caches
+     */
+    public int getLiveRequests();
+
+    /**
+     * @return the number of requests whose caches were dropped after being idle for too long, which were
+     * never ended
+     */
+    public long getEvictedRequests();
+
+    /**
+     * @return the number of lookups which found a value, in the request caches of all requests so far
+     */
+    public long getHits();
+
+    /**
+     * @return the number of lookups which found no value, in the request caches of all requests so far
+     */
+    public long getMisses();
+}
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.dspace.services.model.Cache;
 import org.dspace.services.model.CacheConfig;
@@ -20,12 +21,16 @@ import org.dspace.services.model.CacheConfig.CacheScope;
 /**
  * This is a simple Cache that just uses a map to store the cache values.
  * Used for the request and thread caches.
+ * <p>
+ * The cache can be bounded, alone or together with other caches of a
+ * {@link MapCacheGroup}, in which case the least recently used values are
+ * dropped once the group is full.
  *
  * @author Aaron Zeckoski (azeckoski @ gmail.com)
  */
 public final class MapCache implements Cache {
 
-    private Map<String, Object> cache;
+    private Map<String, Object> cache = new HashMap<String, Object>();
 
     public Map<String, Object> getCache() {
         return cache;
@@ -34,12 +39,36 @@ public final class MapCache implements Cache {
     protected String name;
     protected CacheConfig cacheConfig;
 
+    private final MapCacheGroup group;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
     public MapCache(String name, CacheConfig cacheConfig) {
+        this(name, cacheConfig, (MapCacheGroup) null);
+    }
+
+    /**
+     * @param name        the name of the cache
+     * @param cacheConfig the config for this cache, or null for a request cache
+     * @param maxElements the maximum number of values, 0 for no maximum
+     */
+    public MapCache(String name, CacheConfig cacheConfig, int maxElements) {
+        this(name, cacheConfig, maxElements > 0 ? new MapCacheGroup(maxElements) : null);
+    }
+
+    /**
+     * @param name        the name of the cache
+     * @param cacheConfig the config for this cache, or null for a request cache
+     * @param group       the group bounding the values of this cache together with those of other caches, or null
+     *                    for no maximum
+     */
+    public MapCache(String name, CacheConfig cacheConfig, MapCacheGroup group) {
         if (name == null) {
             throw new IllegalArgumentException("name cannot be null");
         }
         this.name = name;
-        this.cache = new HashMap<String, Object>();
+        this.group = group;
         if (cacheConfig != null) {
             this.cacheConfig = cacheConfig;
         } else {
@@ -52,6 +81,9 @@ public final class MapCache implements Cache {
      */
     public void clear() {
         this.cache.clear();
+        if (group != null) {
+            group.cleared(this);
+        }
     }
 
     /* (non-Javadoc)
@@ -71,7 +103,16 @@ public final class MapCache implements Cache {
         if (key == null) {
             throw new IllegalArgumentException("key cannot be null");
         }
-        return this.cache.get(key);
+        Object value = this.cache.get(key);
+        if (value != null) {
+            hits.increment();
+            if (group != null) {
+                group.accessed(this, key);
+            }
+        } else {
+            misses.increment();
+        }
+        return value;
     }
 
     /* (non-Javadoc)
@@ -110,6 +151,9 @@ public final class MapCache implements Cache {
             throw new IllegalArgumentException("key cannot be null");
         }
         this.cache.put(key, value);
+        if (group != null) {
+            group.added(this, key);
+        }
     }
 
     /* (non-Javadoc)
@@ -119,7 +163,20 @@ public final class MapCache implements Cache {
         if (key == null) {
             throw new IllegalArgumentException("key cannot be null");
         }
-        return this.cache.remove(key) != null;
+        Object value = this.cache.remove(key);
+        if (group != null) {
+            group.removed(this, key);
+        }
+        return value != null;
+    }
+
+    /**
+     * Drop a value on behalf of the group of this cache.
+     *
+     * @param key the key of the value
+     */
+    void evict(String key) {
+        this.cache.remove(key);
     }
 
     /* (non-Javadoc)
@@ -129,6 +186,20 @@ public final class MapCache implements Cache {
         return this.cache.size();
     }
 
+    /**
+     * @return the number of lookups which found a value
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups which found no value
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
     @Override
     public String toString() {
         return "MapCache:name=" + getName() + ":Scope=" + cacheConfig.getCacheScope() + ":size=" + size();
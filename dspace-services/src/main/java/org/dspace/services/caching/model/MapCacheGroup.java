@@ -0,0 +1,75 @@
+/**
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ * http://www.dspace.org/license/
+ */
+package org.dspace.services.caching.model;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounds the total number of values of a group of {@link MapCache}s, such
+ * as all the request caches of a request.  Once the group is full, the
+ * least recently used values of the group are dropped, whichever cache
+ * they are in.
+ */
+public final class MapCacheGroup {
+
+    private final int maxElements;
+
+    /**
+     * The values of all the caches of the group, least recently used first.
+     */
+    private final Map<Map.Entry<MapCache, String>, Boolean> values = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param maxElements the maximum number of values of all the caches of the group
+     */
+    public MapCacheGroup(int maxElements) {
+        if (maxElements <= 0) {
+            throw new IllegalArgumentException("maxElements must be greater than 0");
+        }
+        this.maxElements = maxElements;
+    }
+
+    /**
+     * @return the maximum number of values of all the caches of the group
+     */
+    public int getMaxElements() {
+        return maxElements;
+    }
+
+    /**
+     * @return the number of values of all the caches of the group
+     */
+    public synchronized int size() {
+        return values.size();
+    }
+
+    synchronized void accessed(MapCache cache, String key) {
+        values.get(new SimpleImmutableEntry<>(cache, key));
+    }
+
+    synchronized void added(MapCache cache, String key) {
+        values.put(new SimpleImmutableEntry<>(cache, key), Boolean.TRUE);
+        Iterator<Map.Entry<MapCache, String>> eldest = values.keySet().iterator();
+        while (values.size() > maxElements) {
+            Map.Entry<MapCache, String> value = eldest.next();
+            eldest.remove();
+            value.getKey().evict(value.getValue());
+        }
+    }
+
+    synchronized void removed(MapCache cache, String key) {
+        values.remove(new SimpleImmutableEntry<>(cache, key));
+    }
+
+    synchronized void cleared(MapCache cache) {
+        values.keySet().removeIf(value -> value.getKey() == cache);
+    }
+}
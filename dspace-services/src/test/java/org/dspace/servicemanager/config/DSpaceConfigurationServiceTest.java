@@ -431,6 +431,40 @@ public class DSpaceConfigurationServiceTest {
 
     }
 
+    /**
+     * Tests that the typed values, which are kept between lookups, follow the changes of the configuration
+     */
+    @Test
+    public void testTypedValuesFollowChanges() {
+        assertEquals(123, configurationService.getIntProperty("sample.number"));
+        assertEquals("Aaron Zeckoski", configurationService.getProperty("current.user"));
+        assertFalse(configurationService.hasProperty("newOne"));
+
+        // changes through the service
+        configurationService.setProperty("sample.number", "456");
+        assertEquals(456, configurationService.getIntProperty("sample.number"));
+        configurationService.setProperty("newOne", "1");
+        assertTrue(configurationService.hasProperty("newOne"));
+        configurationService.clearConfig("newOne");
+        assertFalse(configurationService.hasProperty("newOne"));
+
+        // changes of a referenced property
+        configurationService.setProperty("aaronz", "Aaron");
+        assertEquals("Aaron", configurationService.getProperty("current.user"));
+
+        // changes made directly to the Configuration
+        configurationService.getConfiguration().setProperty("sample.number", "789");
+        assertEquals(789, configurationService.getIntProperty("sample.number"));
+
+        // arrays are not shared between callers
+        configurationService.getArrayProperty("sample.array")[0] = "changed";
+        assertEquals("itemA", configurationService.getArrayProperty("sample.array")[0]);
+
+        configurationService.clear();
+        assertEquals(0, configurationService.getIntProperty("sample.number"));
+        assertNull(configurationService.getProperty("current.user"));
+    }
+
     /**
      * Test method for {@link org.dspace.servicemanager.config.DSpaceConfigurationService#getConfiguration()}.
      */
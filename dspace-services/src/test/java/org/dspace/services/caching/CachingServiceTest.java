@@ -17,6 +17,7 @@ import java.util.List;
 import org.dspace.services.RequestService;
 import org.dspace.services.caching.model.EhcacheCache;
 import org.dspace.services.caching.model.MapCache;
+import org.dspace.services.caching.model.MapCacheGroup;
 import org.dspace.services.model.Cache;
 import org.dspace.services.model.CacheConfig;
 import org.dspace.services.model.CacheConfig.CacheScope;
@@ -158,6 +159,89 @@ public class CachingServiceTest extends DSpaceAbstractKernelTest {
 
     }
 
+    /**
+     * Test the request caches statistics, and the removal of the caches of requests which never end.
+     */
+    @Test
+    public void testRequestCachesStatistics() {
+        RequestCachesMXBean stats = cachingService.getRequestCachesStatistics();
+        int liveRequests = stats.getLiveRequests();
+        long hits = stats.getHits();
+        long misses = stats.getMisses();
+        long evicted = stats.getEvictedRequests();
+
+        requestService.startRequest();
+        Cache cache = cachingService.getCache("org.dspace.request.stats", new CacheConfig(CacheScope.REQUEST));
+        cache.put("AZ", "aaron.zeckoski");
+        assertEquals("aaron.zeckoski", cache.get("AZ"));
+        assertEquals(null, cache.get("BZ"));
+        assertEquals(liveRequests + 1, stats.getLiveRequests());
+        assertEquals(hits + 1, stats.getHits());
+        assertEquals(misses + 1, stats.getMisses());
+        requestService.endRequest(null);
+
+        // the counts of ended requests are kept
+        assertEquals(liveRequests, stats.getLiveRequests());
+        assertEquals(hits + 1, stats.getHits());
+        assertEquals(misses + 1, stats.getMisses());
+
+        // a request which is never ended
+        requestService.startRequest();
+        cachingService.getCache("org.dspace.request.stats", new CacheConfig(CacheScope.REQUEST));
+        assertEquals(liveRequests + 1, stats.getLiveRequests());
+        cachingService.removeIdleRequestCaches(System.currentTimeMillis() + 24 * 3600 * 1000L);
+        assertEquals(0, stats.getLiveRequests());
+        assertTrue(stats.getEvictedRequests() >= evicted + 1);
+        requestService.endRequest(null);
+
+        cache = null;
+    }
+
+    /**
+     * Test method for {@link org.dspace.services.caching.model.MapCache#put(java.lang.String, java.lang.Object)}
+     * with a maximum number of elements.
+     */
+    @Test
+    public void testBoundedMapCache() {
+        MapCache cache = new MapCache("aaronz-bounded", null, 2);
+        cache.put("A", "a");
+        cache.put("B", "b");
+        assertEquals("a", cache.get("A"));
+        cache.put("C", "c");
+        // the least recently used value is dropped
+        assertEquals(2, cache.size());
+        assertEquals(null, cache.get("B"));
+        assertEquals("a", cache.get("A"));
+        assertEquals("c", cache.get("C"));
+    }
+
+    /**
+     * Test method for {@link org.dspace.services.caching.model.MapCacheGroup}, bounding the values of several
+     * caches together.
+     */
+    @Test
+    public void testMapCacheGroup() {
+        MapCacheGroup group = new MapCacheGroup(3);
+        MapCache first = new MapCache("aaronz-first", null, group);
+        MapCache second = new MapCache("aaronz-second", null, group);
+        first.put("A", "a");
+        first.put("B", "b");
+        second.put("C", "c");
+        assertEquals("a", first.get("A"));
+        second.put("D", "d");
+        // the least recently used value of the whole group is dropped
+        assertEquals(3, group.size());
+        assertEquals(null, first.get("B"));
+        assertEquals("a", first.get("A"));
+        assertEquals(2, second.size());
+
+        // removed and cleared values no longer count
+        second.remove("C");
+        first.clear();
+        assertEquals(1, group.size());
+        assertEquals("d", second.get("D"));
+    }
+
     /**
      * Test method for {@link org.dspace.services.caching.CachingServiceImpl#getCaches()}.
      */